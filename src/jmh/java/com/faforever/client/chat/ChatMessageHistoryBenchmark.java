@@ -0,0 +1,92 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.chat.ChatMessage.Type;
+import com.faforever.client.fx.JavaFxUtil;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableMap;
+import javafx.collections.ObservableSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds one message to a channel history that is already at its maximum size, so that every added message evicts the
+ * oldest one. {@code sortedPruning} is the structure {@link ChatChannel} used before {@link ChatMessageHistory}: a
+ * synchronized observable map mirrored into a set, pruned by sorting all messages by time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ChatMessageHistoryBenchmark {
+
+  @Param({"500", "5000", "50000"})
+  public int retainedMessages;
+
+  private ChatChannelUser sender;
+  private Instant start;
+  private long nextMessageId;
+
+  private ObservableMap<String, ChatMessage> legacyMessagesById;
+  private ObservableSet<ChatMessage> legacyMessages;
+  private ChatMessageHistory history;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ChatChannel channel = new ChatChannel("#benchmark");
+    sender = new ChatChannelUser("benchmark", channel);
+    start = Instant.now();
+
+    legacyMessagesById = FXCollections.synchronizedObservableMap(FXCollections.observableHashMap());
+    legacyMessages = JavaFxUtil.attachSetToMap(FXCollections.synchronizedObservableSet(FXCollections.observableSet()),
+                                               legacyMessagesById);
+    history = new ChatMessageHistory();
+    history.setMaxSize(retainedMessages);
+
+    for (int i = 0; i < retainedMessages; i++) {
+      ChatMessage message = nextMessage();
+      legacyMessagesById.put(message.getId(), message);
+      history.addMessage(message);
+    }
+  }
+
+  @Benchmark
+  public int sortedPruning() {
+    ChatMessage message = nextMessage();
+    legacyMessagesById.put(message.getId(), message);
+    int numMessages = legacyMessages.size();
+    if (numMessages > retainedMessages) {
+      legacyMessages.stream()
+                    .sorted(Comparator.comparing(ChatMessage::getTime))
+                    .limit(numMessages - retainedMessages)
+                    .forEach(oldMessage -> legacyMessagesById.remove(oldMessage.getId()));
+    }
+    return legacyMessages.size();
+  }
+
+  @Benchmark
+  public int ringBuffer() {
+    history.addMessage(nextMessage());
+    return history.size();
+  }
+
+  private ChatMessage nextMessage() {
+    long id = nextMessageId++;
+    return new ChatMessage(String.valueOf(id), start.plusMillis(id), sender, "message " + id, Type.MESSAGE, null);
+  }
+}
@@ -0,0 +1,116 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.fx.PlatformService;
+import javafx.scene.Node;
+import javafx.scene.text.Text;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Renders a screen full of chat messages, as happens for every cell that is rebound while scrolling through a channel.
+ * {@code perWordNodes} is what {@link ChatMessageController} did before {@link ChatMessageTokenizer}: split and
+ * classify every word on every render, create one node per word and match the mention pattern against each of them.
+ * {@code tokenizeAndRender} is the cost of the first render of a message, {@code renderCachedSpans} the cost of every
+ * later one.
+ * <p>
+ * Links and emoticons are rendered as {@link Text} by all benchmarks, since controls cannot be created without the FX
+ * toolkit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ChatMessageTokenizerBenchmark {
+
+  private static final Set<String> EMOTICON_SHORTCODES = Set.of(":)", ":(", ":D", ":thumbsup:", ":gg:");
+  private static final Pattern MENTION_PATTERN = Pattern.compile("(^|[^A-Za-z0-9-])benchmark([^A-Za-z0-9-]|$)",
+                                                                 Pattern.CASE_INSENSITIVE);
+  private static final String[] WORDS = {"gg", "wp", "anyone", "up", "for", "a", "setons", "game?", "the", "map",
+      "is", "really", "nice", "lol", "no", "I", "think", "so", "what", "about", "that", "ladder", "rating"};
+  private static final String[] SPECIAL_WORDS = {"https://www.faforever.com/news", "forum.faforever.com", "#aeolus",
+      ":)", ":gg:", "benchmark", "@benchmark:"};
+
+  @Param({"30"})
+  public int visibleMessages;
+
+  private List<String> contents;
+  private List<List<ChatMessageSpan>> cachedSpans;
+  private ChatMessageTokenizer tokenizer;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(42);
+    tokenizer = new ChatMessageTokenizer(EMOTICON_SHORTCODES::contains, MENTION_PATTERN);
+    contents = new ArrayList<>();
+    for (int i = 0; i < visibleMessages; i++) {
+      int numWords = 3 + random.nextInt(25);
+      StringBuilder content = new StringBuilder();
+      for (int j = 0; j < numWords; j++) {
+        String[] words = random.nextInt(10) == 0 ? SPECIAL_WORDS : WORDS;
+        content.append(words[random.nextInt(words.length)]).append(' ');
+      }
+      contents.add(content.toString());
+    }
+    cachedSpans = contents.stream().map(tokenizer::tokenize).toList();
+  }
+
+  @Benchmark
+  public void perWordNodes(Blackhole blackhole) {
+    for (String content : contents) {
+      for (String word : content.split("\\s+")) {
+        boolean special = PlatformService.LENIENT_URL_REGEX_PATTERN.matcher(word).matches()
+            || word.startsWith("#")
+            || EMOTICON_SHORTCODES.contains(word);
+        Text text = new Text(word + " ");
+        if (!special && MENTION_PATTERN.matcher(text.getText()).matches()) {
+          text.setStyle("-fx-fill: #FFA500");
+        }
+        blackhole.consume(text);
+      }
+    }
+  }
+
+  @Benchmark
+  public void tokenizeAndRender(Blackhole blackhole) {
+    for (String content : contents) {
+      render(tokenizer.tokenize(content), blackhole);
+    }
+  }
+
+  @Benchmark
+  public void renderCachedSpans(Blackhole blackhole) {
+    for (List<ChatMessageSpan> spans : cachedSpans) {
+      render(spans, blackhole);
+    }
+  }
+
+  private static void render(List<ChatMessageSpan> spans, Blackhole blackhole) {
+    for (ChatMessageSpan span : spans) {
+      Node node = new Text(span.text() + " ");
+      if (span.kind() == ChatMessageSpan.Kind.MENTION) {
+        node.setStyle("-fx-fill: #FFA500");
+      }
+      blackhole.consume(node);
+    }
+  }
+}
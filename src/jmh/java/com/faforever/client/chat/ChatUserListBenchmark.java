@@ -0,0 +1,140 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.domain.server.PlayerInfo;
+import com.faforever.client.player.SocialStatus;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Lets a batch of users leave a channel and join it again, as happens when a server splits and rejoins.
+ * {@code filteredLists} is the structure {@link ChatUserListController} used before {@link ChatUserList}: a filtered,
+ * sorted list of all items and a filtered list per category to count its users, updated one user at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ChatUserListBenchmark {
+
+  private static final Comparator<ChatListItem> LEGACY_COMPARATOR = Comparator.comparing(ChatListItem::category)
+                                                                              .thenComparing(ChatListItem::user,
+                                                                                             Comparator.nullsFirst(
+                                                                                                 Comparator.comparing(
+                                                                                                     ChatChannelUser::getUsername)));
+  private static final Predicate<ChatListItem> FILTER = item -> item.user() == null || item.user()
+                                                                                            .getUsername()
+                                                                                            .indexOf('7') < 0;
+
+  @Param({"2000"})
+  public int channelUsers;
+
+  @Param({"1", "100", "1000"})
+  public int churningUsers;
+
+  private List<ChatChannelUser> churningChannelUsers;
+
+  private ObservableList<ChatListItem> legacyUnfilteredItems;
+  private Map<ChatChannelUser, ChatListItem> legacyItemsByUser;
+  private List<ObservableValue<Integer>> legacyCategoryCounts;
+  private ChatUserList chatUserList;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ChatChannel channel = new ChatChannel("#aeolus");
+    Random random = new Random(42);
+    SocialStatus[] socialStatuses = SocialStatus.values();
+    List<ChatChannelUser> users = new ArrayList<>();
+    for (int i = 0; i < channelUsers; i++) {
+      ChatChannelUser user = new ChatChannelUser("user" + random.nextInt(1_000_000) + "_" + i, channel);
+      if (random.nextInt(10) > 0) {
+        PlayerInfo player = new PlayerInfo();
+        player.setSocialStatus(socialStatuses[random.nextInt(socialStatuses.length)]);
+        user.setPlayer(player);
+      }
+      users.add(user);
+    }
+    churningChannelUsers = users.subList(0, churningUsers);
+
+    SimpleStringProperty channelName = new SimpleStringProperty(channel.getName());
+
+    legacyUnfilteredItems = FXCollections.synchronizedObservableList(FXCollections.observableArrayList());
+    FilteredList<ChatListItem> legacyItems = new FilteredList<>(
+        new SortedList<>(legacyUnfilteredItems, LEGACY_COMPARATOR));
+    legacyItems.setPredicate(FILTER);
+    legacyItemsByUser = new HashMap<>();
+    legacyCategoryCounts = new ArrayList<>();
+    for (ChatUserCategory category : ChatUserCategory.values()) {
+      FilteredList<ChatListItem> categoryFilteredList = new FilteredList<>(legacyUnfilteredItems);
+      categoryFilteredList.setPredicate(FILTER.and(item -> item.user() != null && item.category() == category));
+      ObservableValue<Integer> count = Bindings.size(categoryFilteredList).asObject();
+      legacyCategoryCounts.add(count);
+      legacyUnfilteredItems.add(new ChatListItem(null, category, channelName, count));
+    }
+    users.forEach(this::legacyJoin);
+
+    chatUserList = new ChatUserList(channelName);
+    chatUserList.setFilter(FILTER);
+    chatUserList.setUsers(users);
+  }
+
+  @Benchmark
+  public int filteredLists() {
+    churningChannelUsers.forEach(this::legacyLeave);
+    churningChannelUsers.forEach(this::legacyJoin);
+    int count = 0;
+    for (ObservableValue<Integer> categoryCount : legacyCategoryCounts) {
+      count += categoryCount.getValue();
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int chatUserList() {
+    chatUserList.applyChanges(List.of(), churningChannelUsers);
+    chatUserList.applyChanges(churningChannelUsers, List.of());
+    int count = 0;
+    for (ChatUserCategory category : ChatUserCategory.values()) {
+      count += chatUserList.getNumMatchingUsers(category);
+    }
+    return count;
+  }
+
+  private void legacyJoin(ChatChannelUser user) {
+    ChatListItem item = new ChatListItem(user, user.getCategory(), null, null);
+    ChatListItem oldItem = legacyItemsByUser.put(user, item);
+    legacyUnfilteredItems.remove(oldItem);
+    legacyUnfilteredItems.add(item);
+  }
+
+  private void legacyLeave(ChatChannelUser user) {
+    legacyUnfilteredItems.remove(legacyItemsByUser.remove(user));
+  }
+}
@@ -0,0 +1,163 @@
+package com.faforever.client.game;
+
+import com.faforever.client.domain.server.GameInfo;
+import com.faforever.client.fx.JavaFxUtil;
+import javafx.beans.binding.Bindings;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableMap;
+import javafx.collections.transformation.SortedList;
+import javafx.scene.Node;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.Pane;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The work the FX thread does for the games tab in one frame of synthetic lobby churn: a few lobbies close, as many
+ * open, and players join and leave some of the others. {@code flowPane} is what {@link GamesTilesContainerController}
+ * did before {@link SortedGameList}: a sorted list of card roots, compared by the average rating computed from the
+ * players of both games on every comparison, bound to the children of a flow pane. It did not sort again when players
+ * joined or left. {@code virtualizedGrid} moves the changed games by their sort keys and updates the rows of the grid.
+ * <p>
+ * Rendering is not part of either benchmark. The flow pane lays out a node per game, the grid only the visible tiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GameTileGridBenchmark {
+
+  private static final int CLOSED_LOBBIES_PER_FRAME = 5;
+  private static final int CHANGED_LOBBIES_PER_FRAME = 20;
+  private static final int COLUMNS = 4;
+  private static final int NUM_PLAYERS = 5000;
+
+  @Param({"50", "200", "500"})
+  public int openLobbies;
+
+  private final Map<Integer, Integer> ratingsByPlayerId = new HashMap<>();
+  private Random random;
+  private int nextGameId;
+
+  private List<GameInfo> legacyGames;
+  private ObservableMap<GameInfo, Node> legacyGameToGameCard;
+
+  private List<GameInfo> games;
+  private SortedGameList sortedGames;
+  private ObservableList<List<GameInfo>> rows;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    random = new Random(42);
+    for (int i = 0; i < NUM_PLAYERS; i++) {
+      ratingsByPlayerId.put(i, random.nextInt(2500));
+    }
+
+    legacyGames = new ArrayList<>();
+    legacyGameToGameCard = FXCollections.observableHashMap();
+    Comparator<Node> averageRatingComparator = Comparator.comparingDouble(
+        node -> computeAverageRating((GameInfo) node.getUserData()));
+    SortedList<Node> gameCards = new SortedList<>(
+        JavaFxUtil.attachListToMap(FXCollections.observableArrayList(), legacyGameToGameCard),
+        averageRatingComparator.reversed());
+    Bindings.bindContent(new FlowPane().getChildren(), gameCards);
+
+    games = new ArrayList<>();
+    sortedGames = new SortedGameList();
+    sortedGames.setComparator(GameSortKey.BY_AVERAGE_RATING.reversed());
+    rows = FXCollections.observableArrayList();
+
+    for (int i = 0; i < openLobbies; i++) {
+      legacyOpenLobby();
+      openLobby();
+    }
+    GamesTilesContainerController.updateRows(rows, sortedGames.getGames(), COLUMNS);
+  }
+
+  @Benchmark
+  public int flowPane() {
+    for (int i = 0; i < CLOSED_LOBBIES_PER_FRAME; i++) {
+      legacyGameToGameCard.remove(legacyGames.removeFirst());
+      legacyOpenLobby();
+    }
+    for (int i = 0; i < CHANGED_LOBBIES_PER_FRAME; i++) {
+      changePlayers(legacyGames.get(random.nextInt(legacyGames.size())));
+    }
+    return legacyGameToGameCard.size();
+  }
+
+  @Benchmark
+  public int virtualizedGrid() {
+    for (int i = 0; i < CLOSED_LOBBIES_PER_FRAME; i++) {
+      sortedGames.remove(games.removeFirst());
+      openLobby();
+    }
+    for (int i = 0; i < CHANGED_LOBBIES_PER_FRAME; i++) {
+      GameInfo game = games.get(random.nextInt(games.size()));
+      changePlayers(game);
+      sortedGames.put(game, GameSortKey.of(game, computeAverageRating(game)));
+    }
+    GamesTilesContainerController.updateRows(rows, sortedGames.getGames(), COLUMNS);
+    return rows.size();
+  }
+
+  private void legacyOpenLobby() {
+    GameInfo game = createGame();
+    Pane card = new Pane();
+    card.setUserData(game);
+    legacyGames.add(game);
+    legacyGameToGameCard.put(game, card);
+  }
+
+  private void openLobby() {
+    GameInfo game = createGame();
+    games.add(game);
+    sortedGames.put(game, GameSortKey.of(game, computeAverageRating(game)));
+  }
+
+  private GameInfo createGame() {
+    GameInfo game = new GameInfo();
+    game.setId(nextGameId++);
+    game.setTitle("Lobby " + game.getId());
+    game.setMaxPlayers(8);
+    changePlayers(game);
+    return game;
+  }
+
+  private void changePlayers(GameInfo game) {
+    int numPlayers = 1 + random.nextInt(8);
+    List<Integer> playerIds = new ArrayList<>();
+    for (int i = 0; i < numPlayers; i++) {
+      playerIds.add(random.nextInt(NUM_PLAYERS));
+    }
+    game.setTeams(Map.of(1, playerIds));
+  }
+
+  /**
+   * Computes the average rating of the players of the game, like {@code PlayerService.getAverageRatingForGame}.
+   */
+  private double computeAverageRating(GameInfo game) {
+    return game.getActivePlayersInGame().stream().mapToInt(ratingsByPlayerId::get).average().orElse(0);
+  }
+}
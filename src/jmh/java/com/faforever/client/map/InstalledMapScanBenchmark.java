@@ -0,0 +1,130 @@
+package com.faforever.client.map;
+
+import com.faforever.client.fx.FxApplicationThreadExecutor;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.util.LuaUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans a generated maps directory the way {@link MapService} does on startup. {@code sequentialLuaScan} evaluates
+ * every scenario file one after the other, which is what every scan used to do. {@code coldScan} runs the parallel
+ * scan with an empty scenario metadata cache, {@code warmScan} with a cache that has been persisted by a previous scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InstalledMapScanBenchmark {
+
+  private static final String SCENARIO = """
+      version = 3
+      ScenarioInfo = {
+          name = 'Benchmark Map %d',
+          description = '<LOC benchmark_description>A generated map',
+          type = 'skirmish',
+          starts = true,
+          preview = '',
+          size = {1024, 1024},
+          map_version = 1,
+          norushradius = 40.000000,
+          Configurations = {
+              ['standard'] = {
+                  teams = {
+                      { name = 'FFA', armies = {'ARMY_1', 'ARMY_2', 'ARMY_3', 'ARMY_4',} },
+                  },
+                  customprops = {
+                  },
+              },
+          }}
+      """;
+
+  @Param({"1000"})
+  public int numberOfMaps;
+
+  private Path baseDirectory;
+  private List<Path> mapPaths;
+  private DataPrefs coldDataPrefs;
+  private DataPrefs warmDataPrefs;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    baseDirectory = Files.createTempDirectory("map-scan-benchmark");
+    Path mapsDirectory = Files.createDirectories(baseDirectory.resolve("maps"));
+    mapPaths = new ArrayList<>(numberOfMaps);
+    for (int i = 0; i < numberOfMaps; i++) {
+      Path mapFolder = Files.createDirectory(mapsDirectory.resolve("map_" + i + ".v0001"));
+      Files.writeString(mapFolder.resolve("map_" + i + "_scenario.lua"), SCENARIO.formatted(i));
+      mapPaths.add(mapFolder);
+    }
+
+    coldDataPrefs = new DataPrefs();
+    coldDataPrefs.setBaseDataDirectory(baseDirectory.resolve("cold"));
+    warmDataPrefs = new DataPrefs();
+    warmDataPrefs.setBaseDataDirectory(baseDirectory.resolve("warm"));
+
+    ScenarioMetadataCache warmCache = new ScenarioMetadataCache(warmDataPrefs);
+    createMapService(warmCache).scanInstalledMaps(mapPaths, (mapsRead, totalMaps) -> {});
+    warmCache.saveIfDirty();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    FileSystemUtils.deleteRecursively(baseDirectory);
+  }
+
+  @Benchmark
+  public void sequentialLuaScan(Blackhole blackhole) throws Exception {
+    for (Path mapPath : mapPaths) {
+      String folderName = mapPath.getFileName().toString();
+      Path scenarioFile = mapPath.resolve(folderName.substring(0, folderName.indexOf('.')) + "_scenario.lua");
+      blackhole.consume(LuaUtil.loadFile(scenarioFile).get("ScenarioInfo").get("name"));
+    }
+  }
+
+  @Benchmark
+  public MapService coldScan() throws Exception {
+    MapService mapService = createMapService(new ScenarioMetadataCache(coldDataPrefs));
+    mapService.scanInstalledMaps(mapPaths, (mapsRead, totalMaps) -> {});
+    return mapService;
+  }
+
+  @Benchmark
+  public MapService warmScan() throws Exception {
+    MapService mapService = createMapService(new ScenarioMetadataCache(warmDataPrefs));
+    mapService.scanInstalledMaps(mapPaths, (mapsRead, totalMaps) -> {});
+    return mapService;
+  }
+
+  private static MapService createMapService(ScenarioMetadataCache scenarioMetadataCache) {
+    FxApplicationThreadExecutor inlineExecutor = new FxApplicationThreadExecutor() {
+      @Override
+      public void execute(Runnable runnable) {
+        runnable.run();
+      }
+    };
+    return new MapService(null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+                          scenarioMetadataCache, null, null, null, inlineExecutor);
+  }
+}
@@ -0,0 +1,141 @@
+package com.faforever.client.map;
+
+import com.faforever.client.io.ParallelUnzipper;
+import com.faforever.commons.io.Unzipper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Extracts generated map archives the way {@link DownloadMapTask} does. {@code streamingUnzipper} inflates one entry
+ * after the other from a stream, which is what map installs used to do, {@code parallelUnzipper} inflates the entries
+ * of the archive on disk in parallel.
+ * <p>
+ * Each archive resembles a large map: a big {@code .scmap}, a couple of textures and some small Lua files. The content
+ * is partly random so that it compresses about as well as real map data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MapExtractionBenchmark {
+
+  private static final long ZIP_BOMB_BYTE_COUNT_THRESHOLD = 100_000_000;
+
+  @Param({"4"})
+  public int numberOfMaps;
+
+  @Param({"48"})
+  public int scmapSizeMegabytes;
+
+  private Path baseDirectory;
+  private Path[] archives;
+  private Path targetDirectory;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    baseDirectory = Files.createTempDirectory("map-extraction-benchmark");
+    archives = new Path[numberOfMaps];
+    Random random = new Random(42);
+    for (int i = 0; i < numberOfMaps; i++) {
+      archives[i] = createMapArchive("map_" + i + ".v0001", random);
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void createTargetDirectory() throws Exception {
+    targetDirectory = Files.createTempDirectory(baseDirectory, "maps");
+  }
+
+  @TearDown(Level.Invocation)
+  public void deleteTargetDirectory() throws Exception {
+    FileSystemUtils.deleteRecursively(targetDirectory);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    FileSystemUtils.deleteRecursively(baseDirectory);
+  }
+
+  @Benchmark
+  public Path streamingUnzipper() throws Exception {
+    for (Path archive : archives) {
+      try (InputStream inputStream = Files.newInputStream(archive)) {
+        Unzipper.from(inputStream)
+            .zipBombByteCountThreshold(ZIP_BOMB_BYTE_COUNT_THRESHOLD)
+            .to(targetDirectory)
+            .totalBytes(Files.size(archive))
+            .listener((written, total) -> {})
+            .unzip();
+      }
+    }
+    return targetDirectory;
+  }
+
+  @Benchmark
+  public Path parallelUnzipper() throws Exception {
+    for (Path archive : archives) {
+      ParallelUnzipper.from(archive)
+          .zipBombByteCountThreshold(ZIP_BOMB_BYTE_COUNT_THRESHOLD)
+          .to(targetDirectory)
+          .unzip();
+    }
+    return targetDirectory;
+  }
+
+  private Path createMapArchive(String folderName, Random random) throws Exception {
+    String mapName = folderName.substring(0, folderName.indexOf('.'));
+    Path archive = baseDirectory.resolve(folderName + ".zip");
+    try (OutputStream outputStream = Files.newOutputStream(archive);
+         ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+      writeEntry(zipOutputStream, folderName + "/" + mapName + ".scmap", scmapSizeMegabytes * 1024 * 1024, random);
+      for (int i = 0; i < 6; i++) {
+        writeEntry(zipOutputStream, folderName + "/env/decals/texture_" + i + ".dds", 4 * 1024 * 1024, random);
+      }
+      writeEntry(zipOutputStream, folderName + "/" + mapName + "_scenario.lua", 4 * 1024, random);
+      writeEntry(zipOutputStream, folderName + "/" + mapName + "_save.lua", 512 * 1024, random);
+      writeEntry(zipOutputStream, folderName + "/" + mapName + "_script.lua", 8 * 1024, random);
+    }
+    return archive;
+  }
+
+  /**
+   * Writes blocks of random bytes alternating with runs of a single byte, which compresses to about half the size.
+   */
+  private static void writeEntry(ZipOutputStream zipOutputStream, String name, int size, Random random) throws Exception {
+    zipOutputStream.putNextEntry(new ZipEntry(name));
+    byte[] block = new byte[4096];
+    for (int written = 0; written < size; written += block.length) {
+      if ((written / block.length) % 2 == 0) {
+        random.nextBytes(block);
+      } else {
+        Arrays.fill(block, (byte) random.nextInt());
+      }
+      zipOutputStream.write(block, 0, Math.min(block.length, size - written));
+    }
+    zipOutputStream.closeEntry();
+  }
+}
@@ -0,0 +1,142 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.commons.replay.ReplayDataParser;
+import com.faforever.commons.replay.ReplayMetadata;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Compares listing the local replay vault by listing and stat-ing the replays directory (what every page request used
+ * to do before parsing the page) with answering pages from {@link LocalReplayIndex}, over a generated corpus of replay
+ * files. Replay files are never parsed in either benchmark, as the whole corpus is already indexed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LocalReplayIndexBenchmark {
+
+  private static final int PAGE_SIZE = 50;
+
+  @Param({"20000"})
+  public int numberOfReplays;
+
+  private Path baseDirectory;
+  private DataPrefs dataPrefs;
+  private ClientProperties clientProperties;
+  private ExecutorService executorService;
+  private LocalReplayIndex warmIndex;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    baseDirectory = Files.createTempDirectory("replay-index-benchmark");
+    dataPrefs = new DataPrefs();
+    dataPrefs.setBaseDataDirectory(baseDirectory);
+    clientProperties = new ClientProperties();
+    executorService = Executors.newCachedThreadPool();
+
+    Path replaysDirectory = Files.createDirectories(dataPrefs.getReplaysDirectory());
+    List<LocalReplayIndexEntry> entries = new ArrayList<>(numberOfReplays);
+    for (int i = 0; i < numberOfReplays; i++) {
+      String fileName = i + "-benchmark.fafreplay";
+      Path replayFile = Files.createFile(replaysDirectory.resolve(fileName));
+      long lastModified = 1_600_000_000_000L + i * 1000L;
+      Files.setLastModifiedTime(replayFile, FileTime.fromMillis(lastModified));
+      entries.add(new LocalReplayIndexEntry(fileName, 0, lastModified, i, "Game " + i, "faf", "scmp_009", i, i + 1800,
+                                            List.of(new LocalReplayIndexEntry.Player(i, "Player" + i, "DE", 2, 1,
+                                                                                     1500d, 100d)),
+                                            List.of(), List.of(), false));
+    }
+
+    Files.createDirectories(dataPrefs.getCacheDirectory());
+    new ObjectMapper().writeValue(dataPrefs.getCacheDirectory().resolve(LocalReplayIndex.INDEX_FILE_NAME).toFile(),
+                                  entries);
+
+    warmIndex = createIndex();
+    warmIndex.getPage(PAGE_SIZE, 1).join();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    warmIndex.destroy();
+    executorService.shutdownNow();
+    try (Stream<Path> files = Files.walk(baseDirectory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  private LocalReplayIndex createIndex() {
+    ReplayFileReader failingReader = new ReplayFileReader() {
+      @Override
+      public ReplayMetadata readMetadata(Path path) {
+        throw new IllegalStateException("Benchmark corpus must be answered from the index");
+      }
+
+      @Override
+      public ReplayDataParser parseReplay(Path path) {
+        throw new IllegalStateException("Benchmark corpus must be answered from the index");
+      }
+    };
+    return new LocalReplayIndex(clientProperties, dataPrefs, failingReader, null, null, null, null, executorService);
+  }
+
+  @Benchmark
+  public List<Path> listAndSortDirectory() throws IOException {
+    try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(dataPrefs.getReplaysDirectory(),
+                                                                          clientProperties.getReplay()
+                                                                                          .getReplayFileGlob())) {
+      return StreamSupport.stream(directoryStream.spliterator(), false).sorted(Comparator.comparing(path -> {
+        try {
+          return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+          throw new IllegalStateException(e);
+        }
+      }, Comparator.reverseOrder())).skip(PAGE_SIZE).limit(PAGE_SIZE).toList();
+    }
+  }
+
+  @Benchmark
+  public LocalReplayIndex.Page warmIndexPage() {
+    return warmIndex.getPage(PAGE_SIZE, 2).join();
+  }
+
+  @Benchmark
+  public LocalReplayIndex.Page coldIndexFirstPage() {
+    LocalReplayIndex index = createIndex();
+    try {
+      return index.getPage(PAGE_SIZE, 1).join();
+    } finally {
+      index.destroy();
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.faforever.client.util;
+
+import com.google.common.io.CharStreams;
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.lib.jse.JsePlatform;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Evaluates a typical map scenario file. {@code legacyLoadFile} is what {@link LuaUtil#loadFile(Path)} used to do:
+ * set up a new runtime and compile {@code faf.lua} for every file. Run with {@code -prof gc} to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LuaUtilBenchmark {
+
+  private static final String SCENARIO = """
+      version = 3 -- Lua Version. Dont touch this
+      ScenarioInfo = {
+          name = "Benchmark Map",
+          description = "<LOC benchmark_description>A generated map for four players",
+          preview = '',
+          map_version = 1,
+          type = 'skirmish',
+          starts = true,
+          size = {1024, 1024},
+          reclaim = {4413.491, 11317.42},
+          map = '/maps/benchmark_map.v0001/benchmark_map.scmap',
+          save = '/maps/benchmark_map.v0001/benchmark_map_save.lua',
+          script = '/maps/benchmark_map.v0001/benchmark_map_script.lua',
+          norushradius = 40,
+          Configurations = {
+              ['standard'] = {
+                  teams = {
+                      {
+                          name = 'FFA',
+                          armies = {'ARMY_1', 'ARMY_2', 'ARMY_3', 'ARMY_4'}
+                      },
+                  },
+                  customprops = {
+                      ['ExtraArmies'] = STRING( 'ARMY_9 NEUTRAL_CIVILIAN' ),
+                  },
+              },
+          },
+      }
+      """;
+
+  private Path scenarioFile;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    scenarioFile = Files.createTempFile("benchmark_scenario", ".lua");
+    Files.writeString(scenarioFile, SCENARIO);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(scenarioFile);
+  }
+
+  @Benchmark
+  public LuaValue legacyLoadFile() throws IOException {
+    try (InputStream inputStream = Files.newInputStream(scenarioFile)) {
+      Globals globals = JsePlatform.standardGlobals();
+      globals.baselib.load(globals.load(CharStreams.toString(new InputStreamReader(LuaUtil.class.getResourceAsStream("/lua/faf.lua"), UTF_8))));
+      globals.load(inputStream, "@" + inputStream.hashCode(), "bt", globals).invoke();
+      return globals.get("ScenarioInfo");
+    }
+  }
+
+  @Benchmark
+  public LuaValue pooledLoadFile() throws IOException {
+    return LuaUtil.loadFile(scenarioFile).get("ScenarioInfo");
+  }
+
+  @Benchmark
+  public LuaValue loadTableFile() throws IOException {
+    return LuaUtil.loadTableFile(scenarioFile).get("ScenarioInfo");
+  }
+}
@@ -0,0 +1,98 @@
+package com.faforever.client.util;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Formats log events like the file appenders do, in events per second. {@code legacyLayout} is what
+ * {@link MaskPatternLayout} did before: compile a case-insensitive pattern for each of the three values and replace
+ * them one after the other, for every event. Run with {@code -prof gc} to compare the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MaskPatternLayoutBenchmark {
+
+  private static final String USER_PROFILE = "C:\\Users\\Jane";
+  private static final String MACHINE_NAME = "JANE-PC";
+  private static final String USER = "Jane";
+  private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} %5p [%t] %logger : %m%n";
+
+  /**
+   * Whether the message contains values that need to be masked. Most messages, like IRC traffic, do not.
+   */
+  @Param({"false", "true"})
+  public boolean sensitive;
+
+  private LoggerContext context;
+  private PatternLayout legacyLayout;
+  private MaskPatternLayout maskPatternLayout;
+  private ILoggingEvent event;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = new LoggerContext();
+    legacyLayout = new LegacyMaskPatternLayout();
+    maskPatternLayout = new MaskPatternLayout(USER_PROFILE, MACHINE_NAME, USER);
+    for (PatternLayout layout : new PatternLayout[]{legacyLayout, maskPatternLayout}) {
+      layout.setContext(context);
+      layout.setPattern(PATTERN);
+      layout.start();
+    }
+
+    String message = sensitive
+        ? "Reading preferences from C:\\Users\\Jane\\AppData\\Roaming\\Forged Alliance Forever\\client.prefs"
+        : ":irc.faforever.com PRIVMSG #aeolus :anyone up for a game of setons? 4v4 full share";
+    Logger logger = context.getLogger("faf-irc");
+    event = new LoggingEvent(Logger.class.getName(), logger, ch.qos.logback.classic.Level.DEBUG, message, null,
+                             null);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.stop();
+  }
+
+  @Benchmark
+  public String legacyLayout() {
+    return legacyLayout.doLayout(event);
+  }
+
+  @Benchmark
+  public String maskPatternLayout() {
+    return maskPatternLayout.doLayout(event);
+  }
+
+  private static class LegacyMaskPatternLayout extends PatternLayout {
+
+    @Override
+    public String doLayout(ILoggingEvent event) {
+      return super.doLayout(event)
+          .replaceAll("(?i)" + Pattern.quote(USER_PROFILE), "%USER_PROFILE%")
+          .replaceAll("(?i)" + Pattern.quote(MACHINE_NAME), "%CPU_NAME%")
+          .replaceAll("(?i)" + Pattern.quote(USER), "%USER%");
+    }
+  }
+}
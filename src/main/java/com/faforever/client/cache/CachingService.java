@@ -9,6 +9,7 @@ import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Objects;
 
 @Lazy
@@ -24,7 +25,26 @@ public class CachingService implements InitializingBean {
     loginService.loggedInProperty().subscribe(this::evictAllCaches);
   }
 
+  /**
+   * Returns the statistics of all caches that have a disk tier.
+   */
+  public List<TieredCacheStatistics> getTieredCacheStatistics() {
+    return cacheManager.getCacheNames().stream()
+        .map(cacheManager::getCache)
+        .filter(TieredCache.class::isInstance)
+        .map(TieredCache.class::cast)
+        .map(TieredCache::getStatistics)
+        .toList();
+  }
+
+  /**
+   * Evicts all entries from memory. Caches with a disk tier keep their persisted entries, which are revalidated when
+   * they are used again.
+   */
   private void evictAllCaches() {
+    if (log.isDebugEnabled()) {
+      getTieredCacheStatistics().forEach(statistics -> log.debug("Evicting cache: {}", statistics));
+    }
     cacheManager.getCacheNames().stream()
         .map(cacheManager::getCache)
         .filter(Objects::nonNull)
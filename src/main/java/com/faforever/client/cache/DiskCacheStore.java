@@ -0,0 +1,334 @@
+package com.faforever.client.cache;
+
+import com.faforever.client.domain.server.PlayerInfo;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonIncludeProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectMapper.DefaultTyping;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.springframework.cache.interceptor.SimpleKey;
+import reactor.util.function.Tuple2;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The disk tier of a {@link TieredCache}. Entries are kept in a single JSON file per cache, are bounded in number (least
+ * recently used entries are dropped first) and expire after a fixed time to live.
+ * <p>
+ * Values are written with their type information, but only types of the client, JDK collections, dates, numbers,
+ * strings and URLs, and a few library types are written or read at all. A value that contains any other type (like an
+ * {@code Image}) is simply not persisted. Entries that cannot be read anymore, e.g. because the class of the value
+ * changed, are treated as absent.
+ */
+@Slf4j
+final class DiskCacheStore {
+
+  private static final List<String> PERSISTABLE_TYPE_PREFIXES = List.of(
+      "com.faforever.", "java.util.", "java.time.", "reactor.util.function.", "org.apache.maven.artifact.versioning.");
+  private static final Set<Class<?>> PERSISTABLE_JDK_TYPES = Set.of(String.class, Boolean.class, Character.class,
+                                                                    Byte.class, Short.class, Integer.class,
+                                                                    Long.class, Float.class, Double.class,
+                                                                    BigInteger.class, BigDecimal.class, URL.class,
+                                                                    URI.class);
+
+  private final Path file;
+  private final int maxEntries;
+  private final Duration timeToLive;
+  private final ObjectMapper valueObjectMapper;
+  private final Executor ioExecutor;
+  private final Clock clock;
+
+  private final ObjectMapper fileObjectMapper = new ObjectMapper()
+      .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  private final Map<String, StoredEntry> entries;
+  private final AtomicBoolean dirty = new AtomicBoolean();
+  private final AtomicBoolean writeScheduled = new AtomicBoolean();
+  private final Object fileWriteLock = new Object();
+  private boolean loaded;
+
+  DiskCacheStore(Path file, int maxEntries, Duration timeToLive, ObjectMapper valueObjectMapper,
+                 Executor ioExecutor, Clock clock) {
+    this.file = file;
+    this.maxEntries = maxEntries;
+    this.timeToLive = timeToLive;
+    this.valueObjectMapper = valueObjectMapper;
+    this.ioExecutor = ioExecutor;
+    this.clock = clock;
+    entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, StoredEntry> eldest) {
+        return size() > DiskCacheStore.this.maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Creates the object mapper that is used to write keys and values of all disk caches.
+   */
+  static ObjectMapper createValueObjectMapper() {
+    ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+        .registerModule(new JavaTimeModule())
+        .registerModule(new SimpleModule().setSerializerModifier(new PersistableTypeSerializerModifier()))
+        .addMixIn(Tuple2.class, Tuple2Mixin.class)
+        .addMixIn(ComparableVersion.class, ComparableVersionMixin.class)
+        .addMixIn(PlayerInfo.class, PlayerInfoMixin.class)
+        .addMixIn(SimpleKey.class, SimpleKeyMixin.class);
+
+    BasicPolymorphicTypeValidator.Builder typeValidator = BasicPolymorphicTypeValidator.builder().allowIfSubTypeIsArray();
+    PERSISTABLE_TYPE_PREFIXES.forEach(typeValidator::allowIfSubType);
+    PERSISTABLE_JDK_TYPES.forEach(typeValidator::allowIfSubType);
+    return objectMapper.activateDefaultTyping(typeValidator.build(), DefaultTyping.NON_FINAL_AND_RECORDS);
+  }
+
+  /**
+   * Reads the file in the background, so that the first lookup does not have to.
+   */
+  void preload() {
+    ioExecutor.execute(this::size);
+  }
+
+  /**
+   * Returns the value of the given key if it has been stored within the time to live.
+   */
+  Optional<Object> get(String key) {
+    StoredEntry entry = getEntry(key);
+    if (entry == null) {
+      return Optional.empty();
+    }
+
+    try {
+      return Optional.of(valueObjectMapper.readerFor(Object.class).readValue(entry.value()));
+    } catch (IOException e) {
+      log.debug("Could not read disk cache entry `{}` of `{}`", key, file, e);
+      remove(key);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Looks up and reads the value of the given key in the background, see {@link #get(String)}.
+   */
+  CompletableFuture<Optional<Object>> getAsync(String key) {
+    return CompletableFuture.supplyAsync(() -> get(key), ioExecutor);
+  }
+
+  private synchronized StoredEntry getEntry(String key) {
+    loadIfNecessary();
+    StoredEntry entry = entries.get(key);
+    if (entry != null && isExpired(entry)) {
+      remove(key);
+      return null;
+    }
+    return entry;
+  }
+
+  /**
+   * Stores the value in the background. Values that can't be persisted are ignored.
+   */
+  void put(String key, Object value) {
+    ioExecutor.execute(() -> {
+      String serializedValue;
+      try {
+        serializedValue = valueObjectMapper.writerFor(Object.class).writeValueAsString(value);
+      } catch (IOException e) {
+        log.trace("Value of `{}` can not be persisted in `{}`", key, file, e);
+        return;
+      }
+
+      synchronized (this) {
+        loadIfNecessary();
+        entries.put(key, new StoredEntry(clock.millis(), serializedValue));
+      }
+      dirty.set(true);
+      scheduleWrite();
+    });
+  }
+
+  synchronized void remove(String key) {
+    loadIfNecessary();
+    if (entries.remove(key) != null) {
+      dirty.set(true);
+      scheduleWrite();
+    }
+  }
+
+  synchronized void clear() {
+    loaded = true;
+    entries.clear();
+    dirty.set(true);
+    scheduleWrite();
+  }
+
+  synchronized int size() {
+    loadIfNecessary();
+    return entries.size();
+  }
+
+  /**
+   * Writes the entries to disk if they have been modified since they were last written. Only a snapshot of the entries
+   * is taken while holding the monitor, so that lookups are not blocked while the file is written.
+   */
+  void saveIfDirty() {
+    synchronized (fileWriteLock) {
+      if (!dirty.getAndSet(false)) {
+        return;
+      }
+
+      Map<String, StoredEntry> snapshot;
+      synchronized (this) {
+        snapshot = new LinkedHashMap<>(entries);
+      }
+
+      try {
+        Files.createDirectories(file.getParent());
+        Path temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), null);
+        fileObjectMapper.writeValue(temporaryFile.toFile(), snapshot);
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException e) {
+        dirty.set(true);
+        log.warn("Could not write disk cache `{}`", file, e);
+      }
+    }
+  }
+
+  private void scheduleWrite() {
+    if (writeScheduled.compareAndSet(false, true)) {
+      ioExecutor.execute(() -> {
+        writeScheduled.set(false);
+        saveIfDirty();
+      });
+    }
+  }
+
+  private boolean isExpired(StoredEntry entry) {
+    return clock.millis() - entry.storedAt() > timeToLive.toMillis();
+  }
+
+  private void loadIfNecessary() {
+    if (loaded) {
+      return;
+    }
+    loaded = true;
+
+    if (Files.notExists(file)) {
+      return;
+    }
+
+    try {
+      Map<String, StoredEntry> storedEntries = fileObjectMapper.readValue(file.toFile(),
+                                                                          new TypeReference<LinkedHashMap<String, StoredEntry>>() {});
+      storedEntries.forEach((key, entry) -> {
+        if (!isExpired(entry)) {
+          entries.put(key, entry);
+        }
+      });
+      log.debug("Loaded {} entries from disk cache `{}`", entries.size(), file);
+    } catch (IOException e) {
+      log.warn("Could not read disk cache `{}`, discarding it", file, e);
+    }
+  }
+
+  /**
+   * A serialized value and the epoch millis at which it has been stored.
+   */
+  record StoredEntry(long storedAt, String value) {}
+
+  private static boolean isPersistableType(Class<?> type) {
+    if (type.isPrimitive() || type.isArray()) {
+      return true;
+    }
+    String typeName = type.getName();
+    return type == SimpleKey.class || PERSISTABLE_JDK_TYPES.contains(type)
+        || PERSISTABLE_TYPE_PREFIXES.stream().anyMatch(typeName::startsWith);
+  }
+
+  /**
+   * Applies the allow list of the type validator to serialization as well, so that a value is rejected before it is
+   * written rather than when it is read again.
+   */
+  private static final class PersistableTypeSerializerModifier extends BeanSerializerModifier {
+    @Override
+    public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDescription,
+                                              JsonSerializer<?> serializer) {
+      Class<?> type = beanDescription.getBeanClass();
+      return isPersistableType(type) ? serializer : new UnpersistableTypeSerializer(type);
+    }
+  }
+
+  private static final class UnpersistableTypeSerializer extends JsonSerializer<Object> {
+    private final Class<?> type;
+
+    private UnpersistableTypeSerializer(Class<?> type) {
+      this.type = type;
+    }
+
+    @Override
+    public void serialize(Object value, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+      throw JsonMappingException.from(generator, "Type `" + type.getName() + "` can not be persisted");
+    }
+  }
+
+  @JsonFormat(shape = JsonFormat.Shape.OBJECT)
+  private abstract static class Tuple2Mixin {
+    @JsonCreator
+    Tuple2Mixin(@JsonProperty("t1") Object t1, @JsonProperty("t2") Object t2) {}
+  }
+
+  private abstract static class ComparableVersionMixin {
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    ComparableVersionMixin(String version) {}
+
+    @JsonValue
+    public abstract String toString();
+  }
+
+  /**
+   * Players are only referenced by API data, their live state is owned by the {@code PlayerService}.
+   */
+  @JsonIncludeProperties({"id", "username"})
+  private abstract static class PlayerInfoMixin {}
+
+  /**
+   * Keys are only written, to get a stable string representation. The hash code depends on the identity hash codes of
+   * enums and must not be part of it.
+   */
+  @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+  @JsonIgnoreProperties("hashCode")
+  private abstract static class SimpleKeyMixin {}
+}
@@ -0,0 +1,273 @@
+package com.faforever.client.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A cache that keeps its entries in memory, backed by a {@link DiskCacheStore} so that they survive a restart of the
+ * client.
+ * <p>
+ * An entry that is missing in memory but available on disk is returned right away and then revalidated in the
+ * background, i.e. it is loaded again and replaces the entry of both tiers once loaded. Values that are loaded
+ * because they are on neither tier are written to disk in the background. The {@code retrieve} methods also read the
+ * disk tier in the background, so that the callers of asynchronous cached methods never wait for the disk.
+ * <p>
+ * {@link #clear()} only clears the memory tier, so that the persisted entries can still be used to warm up the cache
+ * again, e.g. after a relogin. {@link #invalidate()} clears both tiers.
+ */
+@Slf4j
+public class TieredCache implements Cache {
+
+  private final Cache memoryCache;
+  private final DiskCacheStore diskCacheStore;
+  private final ObjectMapper keyObjectMapper;
+  private final Executor revalidationExecutor;
+
+  private final LongAdder memoryHits = new LongAdder();
+  private final LongAdder diskHits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder totalLoadNanos = new LongAdder();
+  private final LongAdder revalidations = new LongAdder();
+
+  TieredCache(Cache memoryCache, DiskCacheStore diskCacheStore, ObjectMapper keyObjectMapper,
+              Executor revalidationExecutor) {
+    this.memoryCache = memoryCache;
+    this.diskCacheStore = diskCacheStore;
+    this.keyObjectMapper = keyObjectMapper;
+    this.revalidationExecutor = revalidationExecutor;
+  }
+
+  @Override
+  public String getName() {
+    return memoryCache.getName();
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return memoryCache.getNativeCache();
+  }
+
+  @Override
+  public ValueWrapper get(Object key) {
+    ValueWrapper valueWrapper = memoryCache.get(key);
+    if (valueWrapper != null) {
+      memoryHits.increment();
+      return valueWrapper;
+    }
+
+    Optional<Object> diskValue = getFromDisk(key);
+    if (diskValue.isEmpty()) {
+      misses.increment();
+      return null;
+    }
+    diskHits.increment();
+    memoryCache.put(key, diskValue.get());
+    return new SimpleValueWrapper(diskValue.get());
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Class<T> type) {
+    ValueWrapper valueWrapper = get(key);
+    Object value = valueWrapper != null ? valueWrapper.get() : null;
+    if (value != null && type != null && !type.isInstance(value)) {
+      throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+    }
+    return (T) value;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    AtomicBoolean loaded = new AtomicBoolean();
+    T value = memoryCache.get(key, () -> {
+      loaded.set(true);
+      Optional<Object> diskValue = getFromDisk(key);
+      if (diskValue.isPresent()) {
+        diskHits.increment();
+        revalidationExecutor.execute(
+            () -> revalidate(key, () -> CompletableFuture.completedFuture(callLoader(key, valueLoader))));
+        return (T) diskValue.get();
+      }
+
+      misses.increment();
+      long startNanos = System.nanoTime();
+      T loadedValue = valueLoader.call();
+      recordLoad(startNanos);
+      putOnDisk(key, loadedValue);
+      return loadedValue;
+    });
+
+    if (!loaded.get()) {
+      memoryHits.increment();
+    }
+    return value;
+  }
+
+  @Override
+  public CompletableFuture<?> retrieve(Object key) {
+    CompletableFuture<?> memoryValue = memoryCache.retrieve(key);
+    if (memoryValue != null) {
+      memoryHits.increment();
+      return memoryValue;
+    }
+
+    // Completing with null is a miss as well, so the disk does not need to be read on the caller's thread
+    return getFromDiskAsync(key).thenApply(diskValue -> {
+      if (diskValue.isEmpty()) {
+        misses.increment();
+        return null;
+      }
+      diskHits.increment();
+      memoryCache.put(key, diskValue.get());
+      return diskValue.get();
+    });
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+    AtomicBoolean loaded = new AtomicBoolean();
+    CompletableFuture<T> value = memoryCache.retrieve(key, () -> {
+      loaded.set(true);
+      return getFromDiskAsync(key).thenCompose(diskValue -> {
+        if (diskValue.isPresent()) {
+          diskHits.increment();
+          revalidationExecutor.execute(() -> revalidate(key, valueLoader));
+          return CompletableFuture.completedFuture((T) diskValue.get());
+        }
+
+        misses.increment();
+        long startNanos = System.nanoTime();
+        return valueLoader.get().whenComplete((loadedValue, throwable) -> {
+          if (throwable == null) {
+            recordLoad(startNanos);
+            putOnDisk(key, loadedValue);
+          }
+        });
+      });
+    });
+
+    if (!loaded.get()) {
+      memoryHits.increment();
+    }
+    return value;
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    memoryCache.put(key, value);
+    putOnDisk(key, value);
+  }
+
+  @Override
+  public void evict(Object key) {
+    memoryCache.evict(key);
+    toDiskKey(key).ifPresent(diskCacheStore::remove);
+  }
+
+  /**
+   * Clears the memory tier only, see the class documentation.
+   */
+  @Override
+  public void clear() {
+    memoryCache.clear();
+  }
+
+  @Override
+  public boolean invalidate() {
+    boolean invalidated = memoryCache.invalidate();
+    diskCacheStore.clear();
+    return invalidated;
+  }
+
+  public TieredCacheStatistics getStatistics() {
+    long loadCount = loads.sum();
+    Duration averageLoadTime = loadCount == 0 ? Duration.ZERO : Duration.ofNanos(totalLoadNanos.sum() / loadCount);
+    return new TieredCacheStatistics(getName(), memoryHits.sum(), diskHits.sum(), misses.sum(), loadCount,
+                                     averageLoadTime, revalidations.sum(), diskCacheStore.size());
+  }
+
+  /**
+   * Writes all pending disk entries.
+   */
+  public void flush() {
+    diskCacheStore.saveIfDirty();
+  }
+
+  private <T> void revalidate(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+    long startNanos = System.nanoTime();
+    CompletableFuture<T> value;
+    try {
+      value = valueLoader.get();
+    } catch (RuntimeException e) {
+      log.debug("Could not revalidate `{}` of cache `{}`", key, getName(), e);
+      return;
+    }
+
+    value.whenComplete((loadedValue, throwable) -> {
+      if (throwable != null) {
+        log.debug("Could not revalidate `{}` of cache `{}`", key, getName(), throwable);
+        return;
+      }
+      recordLoad(startNanos);
+      revalidations.increment();
+      memoryCache.put(key, loadedValue);
+      putOnDisk(key, loadedValue);
+    });
+  }
+
+  private void recordLoad(long startNanos) {
+    loads.increment();
+    totalLoadNanos.add(System.nanoTime() - startNanos);
+  }
+
+  private Optional<Object> getFromDisk(Object key) {
+    return toDiskKey(key).flatMap(diskCacheStore::get);
+  }
+
+  private CompletableFuture<Optional<Object>> getFromDiskAsync(Object key) {
+    return toDiskKey(key).map(diskCacheStore::getAsync)
+                         .orElseGet(() -> CompletableFuture.completedFuture(Optional.empty()));
+  }
+
+  private void putOnDisk(Object key, Object value) {
+    if (value != null) {
+      toDiskKey(key).ifPresent(diskKey -> diskCacheStore.put(diskKey, value));
+    }
+  }
+
+  /**
+   * Keys are usually records or {@code SimpleKey}s of them, whose JSON representation is stable across restarts,
+   * unlike their {@code toString()} or hash code. Keys that can't be written are only cached in memory.
+   */
+  private Optional<String> toDiskKey(Object key) {
+    try {
+      return Optional.of(keyObjectMapper.writerFor(Object.class).writeValueAsString(key));
+    } catch (JsonProcessingException e) {
+      log.trace("Key `{}` of cache `{}` can not be persisted", key, getName(), e);
+      return Optional.empty();
+    }
+  }
+
+  private static <T> T callLoader(Object key, Callable<T> valueLoader) {
+    try {
+      return valueLoader.call();
+    } catch (Exception e) {
+      throw new ValueRetrievalException(key, valueLoader, e);
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.faforever.client.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.cache.Cache;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * Creates {@link TieredCache}s that store their disk tier in a common directory, one file per cache.
+ */
+public class TieredCacheFactory {
+
+  private static final String FILE_SUFFIX = ".json";
+
+  private final Path directory;
+  private final int maxEntriesPerCache;
+  private final Duration timeToLive;
+  private final Executor executor;
+  private final ObjectMapper objectMapper = DiskCacheStore.createValueObjectMapper();
+  private final List<TieredCache> caches = new CopyOnWriteArrayList<>();
+
+  public TieredCacheFactory(Path directory, int maxEntriesPerCache, Duration timeToLive, Executor executor) {
+    this.directory = directory;
+    this.maxEntriesPerCache = maxEntriesPerCache;
+    this.timeToLive = timeToLive;
+    this.executor = executor;
+  }
+
+  public TieredCache create(Cache memoryCache) {
+    DiskCacheStore diskCacheStore = new DiskCacheStore(directory.resolve(memoryCache.getName() + FILE_SUFFIX),
+                                                       maxEntriesPerCache, timeToLive, objectMapper, executor,
+                                                       Clock.systemUTC());
+    diskCacheStore.preload();
+    TieredCache tieredCache = new TieredCache(memoryCache, diskCacheStore, objectMapper, executor);
+    caches.add(tieredCache);
+    return tieredCache;
+  }
+
+  /**
+   * Writes the pending disk entries of all caches created by this factory.
+   */
+  public void flushAll() {
+    caches.forEach(TieredCache::flush);
+  }
+}
@@ -0,0 +1,25 @@
+package com.faforever.client.cache;
+
+import java.time.Duration;
+
+/**
+ * Counters of a {@link TieredCache} since the client has been started.
+ *
+ * @param memoryHits lookups that were answered from memory
+ * @param diskHits lookups that were answered from disk
+ * @param misses lookups that had to load the value
+ * @param loads values that have been loaded, including revalidations
+ * @param averageLoadTime average time it took to load a value
+ * @param revalidations disk hits that have been loaded again in the background
+ * @param diskEntries entries currently kept on disk
+ */
+public record TieredCacheStatistics(
+    String cacheName,
+    long memoryHits,
+    long diskHits,
+    long misses,
+    long loads,
+    Duration averageLoadTime,
+    long revalidations,
+    int diskEntries
+) {}
@@ -11,6 +11,7 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @RequiredArgsConstructor
@@ -36,10 +37,24 @@ public class ChatMessage {
   private final ObservableMap<Emoticon, ObservableMap<String, String>> unmodifiableReactions = FXCollections.unmodifiableObservableMap(
       reactions);
 
+  private volatile List<ChatMessageSpan> spans;
+
   public Optional<ChatMessage> getTargetMessage() {
     return Optional.ofNullable(targetMessage);
   }
 
+  /**
+   * Returns the spans of the content, which are tokenized by the given tokenizer on the first call only.
+   */
+  public List<ChatMessageSpan> getSpans(ChatMessageTokenizer tokenizer) {
+    List<ChatMessageSpan> tokenizedSpans = spans;
+    if (tokenizedSpans == null) {
+      tokenizedSpans = tokenizer.tokenize(content);
+      spans = tokenizedSpans;
+    }
+    return tokenizedSpans;
+  }
+
   public ObservableMap<Emoticon, ObservableMap<String, String>> getReactions() {
     return unmodifiableReactions;
   }
@@ -54,14 +54,12 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Consumer;
-import java.util.regex.Pattern;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -107,14 +105,10 @@ public class ChatMessageController extends NodeController<VBox> {
 
   private final Map<Emoticon, HBox> reactionNodeMap = new HashMap<>();
 
-  private Pattern mentionPattern;
-
   @Override
   protected void onInitialize() {
     JavaFxUtil.bindManagedToVisible(detailsContainer, replyContainer, message, messageActionsContainer);
 
-    mentionPattern = chatService.getMentionPattern();
-
     ObservableValue<ChatChannelUser> sender = chatMessage.map(ChatMessage::getSender);
     ObservableValue<PlayerInfo> player = sender.flatMap(ChatChannelUser::playerProperty);
     avatarImageView.imageProperty().bind(player.flatMap(PlayerInfo::avatarProperty)
@@ -146,10 +140,13 @@ public class ChatMessageController extends NodeController<VBox> {
                               .map(timeService::asShortTime)
                               .orElse(i18n.get("pending"))
                               .when(showing));
-    chatMessage.map(ChatMessage::getContent).map(this::convertMessageToNodes).when(showing).subscribe(messageNodes -> {
-      Collection<? extends Node> children = messageNodes == null ? List.of() : messageNodes;
-      fxApplicationThreadExecutor.execute(() -> message.getChildren().setAll(children));
-    });
+    chatMessage.map(message -> message.getSpans(chatService.getMessageTokenizer()))
+               .map(this::createMessageNodes)
+               .when(showing)
+               .subscribe(messageNodes -> {
+                 Collection<? extends Node> children = messageNodes == null ? List.of() : messageNodes;
+                 fxApplicationThreadExecutor.execute(() -> message.getChildren().setAll(children));
+               });
 
     detailsContainer.visibleProperty().bind(showDetails.when(showing));
 
@@ -238,20 +235,32 @@ public class ChatMessageController extends NodeController<VBox> {
     messageActionsContainer.setVisible(true);
   }
 
-  private List<? extends Node> convertMessageToNodes(String message) {
-    return Arrays.stream(message.split("\\s+")).map(this::convertWordToNode).peek(this::styleMessageNode).toList();
+  private List<Node> createMessageNodes(List<ChatMessageSpan> spans) {
+    return spans.stream().map(this::createSpanNode).toList();
   }
 
-  private Node convertWordToNode(String word) {
-    return switch (word) {
-      case String url when PlatformService.LENIENT_URL_REGEX_PATTERN.matcher(url).matches() ->
-          createExternalHyperlink(url);
-      case String channel when channel.startsWith("#") -> createChannelLink(channel);
-      case String shortcode when emoticonService.isEmoticonShortcode(shortcode) -> createEmoticon(shortcode);
-      default -> new Text(word + " ");
+  private Node createSpanNode(ChatMessageSpan span) {
+    return switch (span.kind()) {
+      case TEXT -> createText(span.text());
+      case URL -> createExternalHyperlink(span.text());
+      case CHANNEL -> createChannelLink(span.text());
+      case EMOTICON -> createEmoticon(span.text());
+      case MENTION -> createMention(span.text());
     };
   }
 
+  private Text createText(String text) {
+    Text node = new Text(text + " ");
+    node.styleProperty().bind(inlineTextColorStyleProperty);
+    return node;
+  }
+
+  private Text createMention(String mention) {
+    Text node = new Text(mention + " ");
+    node.setStyle("-fx-fill: #FFA500");
+    return node;
+  }
+
   private Pane createEmoticon(String shortcode) {
     ImageView imageView = new ImageView();
     imageView.setImage(emoticonService.getImageByShortcode(shortcode));
@@ -280,15 +289,6 @@ public class ChatMessageController extends NodeController<VBox> {
     return hyperlink;
   }
 
-  private void styleMessageNode(Node node) {
-    switch (node) {
-      case ImageView ignored -> {}
-      case Hyperlink ignored -> {}
-      case Text text when mentionPattern.matcher(text.getText()).matches() -> text.setStyle("-fx-fill: #FFA500");
-      default -> node.styleProperty().bind(inlineTextColorStyleProperty);
-    }
-  }
-
   public void onReactButtonClicked() {
     EmoticonsWindowController emoticonsWindowController = uiService.loadFxml(
         "theme/chat/emoticons/emoticons_window.fxml");
@@ -0,0 +1,230 @@
+package com.faforever.client.chat;
+
+import javafx.beans.InvalidationListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableListBase;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * The messages of a chat channel, ordered by time and bounded to a maximum size. Messages are kept in a growable ring
+ * buffer, so appending a message and evicting the oldest one are both O(1). Messages that arrive out of order are
+ * inserted at their position by time, which only moves the messages newer than them.
+ * <p>
+ * All modifications of one call are reported as a single list change. Listeners are called on the modifying thread,
+ * while holding the lock of this list, which is why they are also added and removed while holding it.
+ */
+public final class ChatMessageHistory extends ObservableListBase<ChatMessage> {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final Map<String, ChatMessage> messagesById = new HashMap<>();
+  private ChatMessage[] elements = new ChatMessage[INITIAL_CAPACITY];
+  private int head;
+  private int size;
+  private int maxSize = Integer.MAX_VALUE;
+
+  @Override
+  public synchronized ChatMessage get(int index) {
+    Objects.checkIndex(index, size);
+    return elements[physicalIndex(index)];
+  }
+
+  @Override
+  public synchronized int size() {
+    return size;
+  }
+
+  @Override
+  public synchronized Object[] toArray() {
+    return super.toArray();
+  }
+
+  @Override
+  public synchronized <T> T[] toArray(T[] array) {
+    return super.toArray(array);
+  }
+
+  @Override
+  public synchronized void addListener(InvalidationListener listener) {
+    super.addListener(listener);
+  }
+
+  @Override
+  public synchronized void removeListener(InvalidationListener listener) {
+    super.removeListener(listener);
+  }
+
+  @Override
+  public synchronized void addListener(ListChangeListener<? super ChatMessage> listener) {
+    super.addListener(listener);
+  }
+
+  @Override
+  public synchronized void removeListener(ListChangeListener<? super ChatMessage> listener) {
+    super.removeListener(listener);
+  }
+
+  public synchronized Optional<ChatMessage> getById(String id) {
+    return Optional.ofNullable(messagesById.get(id));
+  }
+
+  synchronized void addMessage(ChatMessage message) {
+    addMessages(List.of(message));
+  }
+
+  /**
+   * Adds the given messages, replacing any message with the same id, and evicts the oldest messages that exceed the
+   * maximum size.
+   */
+  synchronized void addMessages(Collection<ChatMessage> messages) {
+    if (messages.isEmpty()) {
+      return;
+    }
+
+    beginChange();
+    try {
+      for (ChatMessage message : messages) {
+        ChatMessage replacedMessage = messagesById.put(message.getId(), message);
+        if (replacedMessage != null) {
+          int replacedIndex = indexOfInstance(replacedMessage);
+          removeAt(replacedIndex);
+          nextRemove(replacedIndex, replacedMessage);
+        }
+
+        int index = insertionIndex(message);
+        insertAt(index, message);
+        nextAdd(index, index + 1);
+      }
+      evictExcessMessages();
+    } finally {
+      endChange();
+    }
+  }
+
+  /**
+   * Removes the message with the given id if it matches the given condition.
+   *
+   * @return the removed message
+   */
+  synchronized Optional<ChatMessage> removeMessage(String id, Predicate<ChatMessage> condition) {
+    ChatMessage message = messagesById.get(id);
+    if (message == null || !condition.test(message)) {
+      return Optional.empty();
+    }
+
+    messagesById.remove(id);
+    int index = indexOfInstance(message);
+    beginChange();
+    try {
+      removeAt(index);
+      nextRemove(index, message);
+    } finally {
+      endChange();
+    }
+    return Optional.of(message);
+  }
+
+  synchronized void setMaxSize(int maxSize) {
+    this.maxSize = Math.max(maxSize, 0);
+    if (size <= this.maxSize) {
+      return;
+    }
+
+    beginChange();
+    try {
+      evictExcessMessages();
+    } finally {
+      endChange();
+    }
+  }
+
+  private void evictExcessMessages() {
+    while (size > maxSize) {
+      ChatMessage evictedMessage = elements[head];
+      removeAt(0);
+      messagesById.remove(evictedMessage.getId());
+      nextRemove(0, evictedMessage);
+    }
+  }
+
+  /**
+   * Returns the index after the last message that is not newer than the given one. Messages usually arrive in order,
+   * so the newest message is checked first.
+   */
+  private int insertionIndex(ChatMessage message) {
+    if (size == 0 || !elements[physicalIndex(size - 1)].getTime().isAfter(message.getTime())) {
+      return size;
+    }
+
+    int low = 0;
+    int high = size - 1;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (elements[physicalIndex(middle)].getTime().isAfter(message.getTime())) {
+        high = middle;
+      } else {
+        low = middle + 1;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Searches from the newest message, since reactions and redactions almost always refer to recent messages.
+   */
+  private int indexOfInstance(ChatMessage message) {
+    for (int index = size - 1; index >= 0; index--) {
+      if (elements[physicalIndex(index)] == message) {
+        return index;
+      }
+    }
+    throw new IllegalStateException("Message `" + message.getId() + "` is indexed but not in the history");
+  }
+
+  private void insertAt(int index, ChatMessage message) {
+    if (size == elements.length) {
+      grow();
+    }
+    for (int i = size; i > index; i--) {
+      elements[physicalIndex(i)] = elements[physicalIndex(i - 1)];
+    }
+    elements[physicalIndex(index)] = message;
+    size++;
+  }
+
+  private void removeAt(int index) {
+    if (index == 0) {
+      elements[head] = null;
+      head = physicalIndex(1);
+    } else {
+      for (int i = index; i < size - 1; i++) {
+        elements[physicalIndex(i)] = elements[physicalIndex(i + 1)];
+      }
+      elements[physicalIndex(size - 1)] = null;
+    }
+    size--;
+  }
+
+  private void grow() {
+    ChatMessage[] grownElements = new ChatMessage[elements.length * 2];
+    for (int i = 0; i < size; i++) {
+      grownElements[i] = elements[physicalIndex(i)];
+    }
+    elements = grownElements;
+    head = 0;
+  }
+
+  /**
+   * The capacity is always a power of two, so wrapping around is a simple mask.
+   */
+  private int physicalIndex(int index) {
+    return (head + index) & (elements.length - 1);
+  }
+}
@@ -0,0 +1,12 @@
+package com.faforever.client.chat;
+
+/**
+ * A run of the content of a {@link ChatMessage} that is rendered as one node. Adjacent plain words are merged into a
+ * single {@link Kind#TEXT} span, all other spans consist of exactly one word.
+ */
+public record ChatMessageSpan(Kind kind, String text) {
+
+  public enum Kind {
+    TEXT, URL, CHANNEL, EMOTICON, MENTION
+  }
+}
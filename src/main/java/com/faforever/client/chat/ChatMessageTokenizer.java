@@ -0,0 +1,77 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.chat.ChatMessageSpan.Kind;
+import com.faforever.client.fx.PlatformService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Splits the content of chat messages into {@link ChatMessageSpan}s. Instances are immutable and may be used from any
+ * thread.
+ */
+public final class ChatMessageTokenizer {
+
+  private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+
+  private final Predicate<String> emoticonShortcodePredicate;
+  private final Pattern mentionPattern;
+
+  /**
+   * @param emoticonShortcodePredicate tests whether a word is the shortcode of an emoticon
+   * @param mentionPattern the pattern that words mentioning the current user match
+   */
+  public ChatMessageTokenizer(Predicate<String> emoticonShortcodePredicate, Pattern mentionPattern) {
+    this.emoticonShortcodePredicate = emoticonShortcodePredicate;
+    this.mentionPattern = mentionPattern;
+  }
+
+  public List<ChatMessageSpan> tokenize(String content) {
+    List<ChatMessageSpan> spans = new ArrayList<>();
+    StringBuilder plainText = new StringBuilder();
+    for (String word : WHITESPACE_PATTERN.split(content)) {
+      if (word.isEmpty()) {
+        continue;
+      }
+
+      Kind kind = getKind(word);
+      if (kind == Kind.TEXT) {
+        if (!plainText.isEmpty()) {
+          plainText.append(' ');
+        }
+        plainText.append(word);
+        continue;
+      }
+
+      if (!plainText.isEmpty()) {
+        spans.add(new ChatMessageSpan(Kind.TEXT, plainText.toString()));
+        plainText.setLength(0);
+      }
+      spans.add(new ChatMessageSpan(kind, word));
+    }
+
+    if (!plainText.isEmpty()) {
+      spans.add(new ChatMessageSpan(Kind.TEXT, plainText.toString()));
+    }
+    return List.copyOf(spans);
+  }
+
+  private Kind getKind(String word) {
+    // Every URL the lenient pattern accepts contains a dot, which spares most words the expensive match
+    if (word.indexOf('.') >= 0 && PlatformService.LENIENT_URL_REGEX_PATTERN.matcher(word).matches()) {
+      return Kind.URL;
+    }
+    if (word.startsWith("#")) {
+      return Kind.CHANNEL;
+    }
+    if (emoticonShortcodePredicate.test(word)) {
+      return Kind.EMOTICON;
+    }
+    if (mentionPattern.matcher(word).matches()) {
+      return Kind.MENTION;
+    }
+    return Kind.TEXT;
+  }
+}
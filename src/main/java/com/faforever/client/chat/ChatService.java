@@ -66,4 +66,9 @@ public interface ChatService {
   String getCurrentUsername();
 
   Pattern getMentionPattern();
+
+  /**
+   * Returns the tokenizer for the content of messages shown to the current user.
+   */
+  ChatMessageTokenizer getMessageTokenizer();
 }
@@ -0,0 +1,265 @@
+package com.faforever.client.chat;
+
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * The items of a channel's user list: the header of every {@link ChatUserCategory}, in the order of the categories,
+ * each followed by the users of the category that match the filter, sorted by name.
+ * <p>
+ * Every category keeps its matching users in its own sorted bucket, so a user joining, leaving or changing category
+ * only touches the bucket of the user, and the number of matching users of a category is known without filtering
+ * again. Changing the filter evaluates it once per user. All modifications of one call are reported as a single list
+ * change.
+ * <p>
+ * Must only be accessed from the JavaFX application thread.
+ */
+public final class ChatUserList extends ObservableListBase<ChatListItem> {
+
+  private static final Comparator<ChatListItem> USERNAME_COMPARATOR = Comparator.comparing(
+      item -> item.user().getUsername());
+
+  private final Map<ChatChannelUser, ChatListItem> itemsByUser = new HashMap<>();
+  private final Bucket[] buckets;
+  private Predicate<ChatListItem> filter = item -> true;
+
+  public ChatUserList(ObservableValue<String> channelName) {
+    ChatUserCategory[] categories = ChatUserCategory.values();
+    buckets = new Bucket[categories.length];
+    for (ChatUserCategory category : categories) {
+      buckets[category.ordinal()] = new Bucket(category, channelName);
+    }
+  }
+
+  @Override
+  public ChatListItem get(int index) {
+    Objects.checkIndex(index, size());
+    int remaining = index;
+    for (Bucket bucket : buckets) {
+      if (remaining == 0) {
+        return bucket.header;
+      }
+      remaining--;
+      if (!bucket.hidden) {
+        if (remaining < bucket.matchingItems.size()) {
+          return bucket.matchingItems.get(remaining);
+        }
+        remaining -= bucket.matchingItems.size();
+      }
+    }
+    throw new IllegalStateException("Index " + index + " not found in buckets");
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (Bucket bucket : buckets) {
+      size += bucket.visibleSize();
+    }
+    return size;
+  }
+
+  /**
+   * Adds the given users, or moves them if their category or whether they match the filter has changed since they
+   * were added, and removes the other given users.
+   */
+  public void applyChanges(Collection<ChatChannelUser> addedOrUpdatedUsers, Collection<ChatChannelUser> removedUsers) {
+    beginChange();
+    try {
+      for (ChatChannelUser user : removedUsers) {
+        ChatListItem item = itemsByUser.remove(user);
+        if (item != null) {
+          removeItem(item);
+        }
+      }
+
+      for (ChatChannelUser user : addedOrUpdatedUsers) {
+        ChatListItem oldItem = itemsByUser.get(user);
+        ChatListItem item = new ChatListItem(user, user.getCategory(), null, null);
+        if (oldItem != null) {
+          if (oldItem.user() == user && oldItem.category() == item.category() && isMatching(oldItem) == filter.test(
+              item)) {
+            continue;
+          }
+          removeItem(oldItem);
+        }
+        itemsByUser.put(user, item);
+        insertItem(item);
+      }
+    } finally {
+      endChange();
+      updateCounts();
+    }
+  }
+
+  /**
+   * Replaces all users with the given ones.
+   */
+  public void setUsers(Collection<ChatChannelUser> users) {
+    itemsByUser.clear();
+    for (ChatChannelUser user : users) {
+      itemsByUser.put(user, new ChatListItem(user, user.getCategory(), null, null));
+    }
+    rebuild();
+  }
+
+  /**
+   * Sets the filter that user items need to match to be shown and counted, and applies it to all users at once.
+   */
+  public void setFilter(Predicate<ChatListItem> filter) {
+    this.filter = Objects.requireNonNull(filter);
+    rebuild();
+  }
+
+  /**
+   * Hides the users of the given categories. The headers of hidden categories are still shown and still count the
+   * matching users.
+   */
+  public void setHiddenCategories(Set<ChatUserCategory> hiddenCategories) {
+    beginChange();
+    try {
+      for (Bucket bucket : buckets) {
+        boolean hidden = hiddenCategories.contains(bucket.category);
+        if (hidden == bucket.hidden) {
+          continue;
+        }
+
+        int from = getHeaderIndex(bucket) + 1;
+        bucket.hidden = hidden;
+        if (hidden) {
+          nextRemove(from, List.copyOf(bucket.matchingItems));
+        } else {
+          nextAdd(from, from + bucket.matchingItems.size());
+        }
+      }
+    } finally {
+      endChange();
+    }
+  }
+
+  /**
+   * Returns all users, whether they match the filter or not.
+   */
+  public List<ChatChannelUser> getUsers() {
+    return List.copyOf(itemsByUser.keySet());
+  }
+
+  /**
+   * Returns all users of the given category, whether they match the filter or not.
+   */
+  public List<ChatChannelUser> getUsers(ChatUserCategory category) {
+    return itemsByUser.values()
+                      .stream()
+                      .filter(item -> item.category() == category)
+                      .map(ChatListItem::user)
+                      .toList();
+  }
+
+  public int getNumMatchingUsers(ChatUserCategory category) {
+    return buckets[category.ordinal()].numMatchingItems.get();
+  }
+
+  private void rebuild() {
+    List<ChatListItem> previousItems = List.copyOf(this);
+
+    for (Bucket bucket : buckets) {
+      bucket.matchingItems.clear();
+    }
+    for (ChatListItem item : itemsByUser.values()) {
+      if (filter.test(item)) {
+        buckets[item.category().ordinal()].matchingItems.add(item);
+      }
+    }
+    for (Bucket bucket : buckets) {
+      bucket.matchingItems.sort(USERNAME_COMPARATOR);
+    }
+
+    beginChange();
+    try {
+      nextReplace(0, size(), previousItems);
+    } finally {
+      endChange();
+      updateCounts();
+    }
+  }
+
+  private void insertItem(ChatListItem item) {
+    if (!filter.test(item)) {
+      return;
+    }
+
+    Bucket bucket = buckets[item.category().ordinal()];
+    int position = -(Collections.binarySearch(bucket.matchingItems, item, USERNAME_COMPARATOR) + 1);
+    bucket.matchingItems.add(position, item);
+    if (!bucket.hidden) {
+      int index = getHeaderIndex(bucket) + 1 + position;
+      nextAdd(index, index + 1);
+    }
+  }
+
+  private void removeItem(ChatListItem item) {
+    Bucket bucket = buckets[item.category().ordinal()];
+    int position = indexInBucket(bucket, item);
+    if (position < 0) {
+      return;
+    }
+
+    bucket.matchingItems.remove(position);
+    if (!bucket.hidden) {
+      nextRemove(getHeaderIndex(bucket) + 1 + position, item);
+    }
+  }
+
+  private boolean isMatching(ChatListItem item) {
+    return indexInBucket(buckets[item.category().ordinal()], item) >= 0;
+  }
+
+  private int indexInBucket(Bucket bucket, ChatListItem item) {
+    int position = Collections.binarySearch(bucket.matchingItems, item, USERNAME_COMPARATOR);
+    return position >= 0 && bucket.matchingItems.get(position) == item ? position : -1;
+  }
+
+  private int getHeaderIndex(Bucket bucket) {
+    int index = 0;
+    for (int i = 0; i < bucket.category.ordinal(); i++) {
+      index += buckets[i].visibleSize();
+    }
+    return index;
+  }
+
+  private void updateCounts() {
+    for (Bucket bucket : buckets) {
+      bucket.numMatchingItems.set(bucket.matchingItems.size());
+    }
+  }
+
+  private static final class Bucket {
+    private final ChatUserCategory category;
+    private final IntegerProperty numMatchingItems = new SimpleIntegerProperty();
+    private final ChatListItem header;
+    private final List<ChatListItem> matchingItems = new ArrayList<>();
+    private boolean hidden;
+
+    private Bucket(ChatUserCategory category, ObservableValue<String> channelName) {
+      this.category = category;
+      this.header = new ChatListItem(null, category, channelName, numMatchingItems.asObject());
+    }
+
+    private int visibleSize() {
+      return hidden ? 1 : 1 + matchingItems.size();
+    }
+  }
+}
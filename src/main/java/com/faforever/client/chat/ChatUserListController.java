@@ -18,11 +18,8 @@ import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ListChangeListener.Change;
 import javafx.collections.ObservableList;
-import javafx.collections.ObservableMap;
 import javafx.collections.ObservableSet;
 import javafx.collections.WeakListChangeListener;
-import javafx.collections.transformation.FilteredList;
-import javafx.collections.transformation.SortedList;
 import javafx.geometry.Bounds;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
@@ -49,10 +46,12 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.function.Predicate;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -61,12 +60,6 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ChatUserListController extends NodeController<VBox> {
 
-  private static final Comparator<ChatListItem> CHAT_LIST_ITEM_COMPARATOR = Comparator.comparing(ChatListItem::category)
-                                                                                      .thenComparing(ChatListItem::user,
-                                                                                                     Comparator.nullsFirst(
-                                                                                                         Comparator.comparing(
-                                                                                                             ChatChannelUser::getUsername)));
-
   private final UiService uiService;
   private final I18n i18n;
   private final ChatPrefs chatPrefs;
@@ -88,21 +81,11 @@ public class ChatUserListController extends NodeController<VBox> {
   private final ObjectProperty<ChatChannel> chatChannel = new SimpleObjectProperty<>();
   private final ObservableValue<ObservableList<ChatChannelUser>> users = chatChannel.map(ChatChannel::getUsers);
   private final ObservableValue<String> channelName = chatChannel.map(ChatChannel::getName);
-  private final ObservableMap<ChatChannelUser, ChatListItem> userChatListItemMap = FXCollections.synchronizedObservableMap(
-      FXCollections.observableHashMap());
-  private final ObservableList<ChatListItem> unfilteredItems = FXCollections.synchronizedObservableList(
-      FXCollections.observableArrayList());
-  private final FilteredList<ChatListItem> items = new FilteredList<>(
-      new SortedList<>(unfilteredItems, CHAT_LIST_ITEM_COMPARATOR));
+  private final ChatUserList items = new ChatUserList(channelName);
   private final ObjectProperty<ObservableSet<ChatUserCategory>> hiddenCategories = new SimpleObjectProperty<>(
       FXCollections.emptyObservableSet());
-  private final ObservableValue<Predicate<ChatListItem>> hiddenCategoryPredicate = hiddenCategories.flatMap(
-                                                                                                       categories -> Bindings.createObjectBinding(() -> categories.stream()
-                                                                                                                                                                  .map(
-                                                                                                                                                                      category -> (Predicate<ChatListItem>) item -> item.user() == null || item.category() != category)
-                                                                                                                                                                  .reduce(item -> true, Predicate::and), categories))
-                                                                                                   .orElse(
-                                                                                                       item -> true);
+  /** Users that joined, changed or left (false) since the list was last updated, guarded by itself. */
+  private final Map<ChatChannelUser, Boolean> pendingUserChanges = new LinkedHashMap<>();
 
   private final ListChangeListener<ChatChannelUser> channelUserListListener = this::onUserChange;
   private final WeakListChangeListener<ChatChannelUser> weakUserListChangeListener = new WeakListChangeListener<>(
@@ -120,15 +103,19 @@ public class ChatUserListController extends NodeController<VBox> {
     searchUsernameTextField.setPromptText(i18n.get("chat.search.prompt"));
 
     users.when(showing).subscribe((oldValue, newValue) -> {
-      unfilteredItems.removeIf(item -> item.user() != null);
-
       if (oldValue != null) {
         oldValue.removeListener(weakUserListChangeListener);
       }
 
+      synchronized (pendingUserChanges) {
+        pendingUserChanges.clear();
+      }
+
       if (newValue != null) {
         newValue.addListener(weakUserListChangeListener);
-        List.copyOf(newValue).forEach(this::onUserJoined);
+        items.setUsers(List.copyOf(newValue));
+      } else {
+        items.setUsers(List.of());
       }
 
       chatItemListView.showAsFirst(0);
@@ -138,15 +125,9 @@ public class ChatUserListController extends NodeController<VBox> {
     initializeList();
     initializeGameTooltip();
 
-    for (ChatUserCategory category : ChatUserCategory.values()) {
-      FilteredList<ChatListItem> categoryFilteredList = new FilteredList<>(unfilteredItems);
-      categoryFilteredList.predicateProperty()
-                          .bind(chatUserFilterController.predicateProperty()
-                                                        .map(filterPredicate -> filterPredicate.and(
-                                                            item -> item.user() != null && item.category() == category)));
-      ChatListItem item = new ChatListItem(null, category, channelName, Bindings.size(categoryFilteredList).asObject());
-      fxApplicationThreadExecutor.execute(() -> unfilteredItems.add(item));
-    }
+    hiddenCategories.flatMap(categories -> Bindings.createObjectBinding(() -> Set.copyOf(categories), categories))
+                    .when(showing)
+                    .subscribe(items::setHiddenCategories);
   }
 
   public void setChatChannel(ChatChannel chatChannel) {
@@ -188,37 +169,50 @@ public class ChatUserListController extends NodeController<VBox> {
     userListContainer.getChildren().add(scrollPane);
     userListTools.setDisable(false);
 
-    items.predicateProperty()
-         .bind(chatUserFilterController.predicateProperty()
-                                       .flatMap(filterPredicate -> hiddenCategoryPredicate.map(filterPredicate::and)));
+    chatUserFilterController.predicateProperty().when(showing).subscribe(items::setFilter);
   }
 
-  private void onUserJoined(ChatChannelUser user) {
-    ChatListItem item = new ChatListItem(user, user.getCategory(), null, null);
-    ChatListItem oldItem = userChatListItemMap.put(user, item);
-    fxApplicationThreadExecutor.execute(() -> {
-      unfilteredItems.remove(oldItem);
-      unfilteredItems.add(item);
-    });
+  /**
+   * Collects the changes of the channel's users, which may happen on any thread, and applies all changes that happened
+   * until the JavaFX application thread gets to them at once, so that mass joins and parts only update the list once.
+   */
+  private void onUserChange(Change<? extends ChatChannelUser> change) {
+    synchronized (pendingUserChanges) {
+      boolean updateScheduled = !pendingUserChanges.isEmpty();
+      while (change.next()) {
+        if (change.wasUpdated()) {
+          List.copyOf(change.getList().subList(change.getFrom(), change.getTo()))
+              .forEach(user -> addPendingUserChange(user, true));
+          continue;
+        }
+        if (change.wasRemoved()) {
+          change.getRemoved().forEach(user -> addPendingUserChange(user, false));
+        }
+        if (change.wasAdded()) {
+          List.copyOf(change.getAddedSubList()).forEach(user -> addPendingUserChange(user, true));
+        }
+      }
+
+      if (!updateScheduled && !pendingUserChanges.isEmpty()) {
+        fxApplicationThreadExecutor.runLater(this::applyPendingUserChanges);
+      }
+    }
   }
 
-  private void onUserLeft(ChatChannelUser user) {
-    ChatListItem item = userChatListItemMap.remove(user);
-    fxApplicationThreadExecutor.execute(() -> unfilteredItems.remove(item));
+  private void addPendingUserChange(ChatChannelUser user, boolean present) {
+    // Removed first so that a user who left and joined again is stored as the new instance
+    pendingUserChanges.remove(user);
+    pendingUserChanges.put(user, present);
   }
 
-  private void onUserChange(Change<? extends ChatChannelUser> change) {
-    while (change.next()) {
-      if (change.wasAdded()) {
-        List.copyOf(change.getAddedSubList()).forEach(this::onUserJoined);
-      } else if (change.wasRemoved()) {
-        change.getRemoved().forEach(this::onUserLeft);
-      } else if (change.wasUpdated()) {
-        List<ChatChannelUser> changedUsers = List.copyOf(change.getList().subList(change.getFrom(), change.getTo()));
-        changedUsers.forEach(this::onUserLeft);
-        changedUsers.forEach(this::onUserJoined);
-      }
+  private void applyPendingUserChanges() {
+    List<ChatChannelUser> addedOrUpdatedUsers = new ArrayList<>();
+    List<ChatChannelUser> removedUsers = new ArrayList<>();
+    synchronized (pendingUserChanges) {
+      pendingUserChanges.forEach((user, present) -> (present ? addedOrUpdatedUsers : removedUsers).add(user));
+      pendingUserChanges.clear();
     }
+    items.applyChanges(addedOrUpdatedUsers, removedUsers);
   }
 
   private void initializeFilter() {
@@ -260,11 +254,7 @@ public class ChatUserListController extends NodeController<VBox> {
 
   @VisibleForTesting
   List<ChatChannelUser> getUserListByCategory(ChatUserCategory category) {
-    return unfilteredItems.stream()
-                          .filter(item -> item.category() == category)
-                          .map(ChatListItem::user)
-                          .filter(Objects::nonNull)
-                          .collect(Collectors.toList());
+    return items.getUsers(category);
   }
 
   @VisibleForTesting
@@ -278,6 +268,6 @@ public class ChatUserListController extends NodeController<VBox> {
 
   @VisibleForTesting
   List<ChatChannelUser> getUserList() {
-    return unfilteredItems.stream().map(ChatListItem::user).filter(Objects::nonNull).collect(Collectors.toList());
+    return items.getUsers();
   }
 }
@@ -107,6 +107,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Random;
@@ -165,6 +166,7 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
    */
   private final List<String> autoChannels = new ArrayList<>();
   private final Queue<String> bufferedChannels = new ArrayDeque<>();
+  private volatile UserMessageTokenizer userMessageTokenizer;
   @VisibleForTesting
   ObjectProperty<ConnectionState> connectionState = new SimpleObjectProperty<>(ConnectionState.DISCONNECTED);
   @VisibleForTesting
@@ -516,7 +518,7 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
     event.getTag("label", Label.class).map(Label::getLabel).ifPresent(chatChannel::removePendingMessage);
 
     ChatMessage message = new ChatMessage(messageId, messageTime, sender, text, Type.MESSAGE, targetMessage);
-    chatChannel.addMessage(message);
+    addMessage(chatChannel, message);
 
     switch (event) {
       case PrivateMessageEvent privateEvent when !isStale(privateEvent) -> notifyOnPrivateMessage(message);
@@ -525,6 +527,15 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
     }
   }
 
+  /**
+   * Tokenizes the message before adding it, so this happens off the FX thread and message cells only need to create
+   * the nodes of its spans.
+   */
+  private void addMessage(ChatChannel chatChannel, ChatMessage message) {
+    message.getSpans(getMessageTokenizer());
+    chatChannel.addMessage(message);
+  }
+
   private void notifyIfMentioned(ChatMessage chatMessage) {
     ChatChannelUser sender = chatMessage.getSender();
     if (sender.getCategory() == ChatUserCategory.FOE) {
@@ -603,7 +614,7 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
 
     event.getTag("label", Label.class).map(Label::getLabel).ifPresent(chatChannel::removePendingMessage);
 
-    chatChannel.addMessage(new ChatMessage(messageId, messageTime, sender, message, Type.ACTION, targetMessage));
+    addMessage(chatChannel, new ChatMessage(messageId, messageTime, sender, message, Type.ACTION, targetMessage));
   }
 
   @Handler
@@ -805,7 +816,7 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
                                 .add("+draft/reply", targetMessage.getId())
                                 .then()
                                 .execute();
-      chatChannel.addMessage(new ChatMessage(id, Instant.now(), sender, message, Type.PENDING, targetMessage));
+      addMessage(chatChannel, new ChatMessage(id, Instant.now(), sender, message, Type.PENDING, targetMessage));
     });
   }
 
@@ -820,7 +831,7 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
                                 .add("label", id)
                                 .then()
                                 .execute();
-      chatChannel.addMessage(new ChatMessage(id, Instant.now(), sender, message, Type.PENDING, null));
+      addMessage(chatChannel, new ChatMessage(id, Instant.now(), sender, message, Type.PENDING, null));
     });
   }
 
@@ -953,6 +964,19 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
                            CASE_INSENSITIVE);
   }
 
+  @Override
+  public ChatMessageTokenizer getMessageTokenizer() {
+    String username = loginService.getUsername();
+    UserMessageTokenizer current = userMessageTokenizer;
+    if (current == null || !Objects.equals(current.username(), username)) {
+      current = new UserMessageTokenizer(username,
+                                         new ChatMessageTokenizer(emoticonService::isEmoticonShortcode,
+                                                                  getMentionPattern()));
+      userMessageTokenizer = current;
+    }
+    return current.tokenizer();
+  }
+
   @VisibleForTesting
   boolean hasMention(String text) {
     if (!getMentionPattern().matcher(text).find()) {
@@ -961,4 +985,6 @@ public class KittehChatService implements ChatService, InitializingBean, Disposa
 
     return !notificationPrefs.isNotifyOnAtMentionOnlyEnabled() || text.contains("@" + loginService.getUsername());
   }
+
+  private record UserMessageTokenizer(String username, ChatMessageTokenizer tokenizer) {}
 }
@@ -1,5 +1,11 @@
 package com.faforever.client.config;
 
+import com.faforever.client.cache.TieredCacheFactory;
+import com.faforever.client.config.ClientProperties.DiskCache;
+import com.faforever.client.preferences.DataPrefs;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
@@ -14,6 +20,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import static com.faforever.client.config.CacheNames.ACHIEVEMENTS;
 import static com.faforever.client.config.CacheNames.ACHIEVEMENT_IMAGES;
@@ -61,30 +68,43 @@ import static java.util.concurrent.TimeUnit.MINUTES;
 
 @Configuration
 @EnableCaching
-public class CacheConfig implements CachingConfigurer {
+@RequiredArgsConstructor
+public class CacheConfig implements CachingConfigurer, DisposableBean {
+
+  private static final String DISK_CACHE_SUB_FOLDER = "api";
+
+  private final ClientProperties clientProperties;
+  private final DataPrefs dataPrefs;
+  private final ExecutorService taskExecutor;
+
+  private TieredCacheFactory tieredCacheFactory;
 
   @Bean
   @Override
   public CacheManager cacheManager() {
     SimpleCacheManager cacheManager = new SimpleCacheManager();
+    DiskCache diskCache = clientProperties.getDiskCache();
+    tieredCacheFactory = new TieredCacheFactory(dataPrefs.getCacheDirectory().resolve(DISK_CACHE_SUB_FOLDER),
+                                                diskCache.getMaxEntriesPerCache(), diskCache.getTimeToLive(),
+                                                taskExecutor);
 
     cacheManager.setCaches(
         List.of(new CaffeineCache(STATISTICS, newBuilder().maximumSize(10).expireAfterWrite(20, MINUTES).buildAsync(), true),
                 new CaffeineCache(ACHIEVEMENTS, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
                 new CaffeineCache(PLAYER_EVENTS, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
                 new CaffeineCache(PERMISSION, newBuilder().buildAsync(), true),
-                new CaffeineCache(MODS, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
-                new CaffeineCache(MAPS, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
+                withDiskTier(new CaffeineCache(MODS, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true)),
+                withDiskTier(new CaffeineCache(MAPS, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true)),
                 new CaffeineCache(REPLAYS_SEARCH, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
                 new CaffeineCache(REPLAYS_LIKED, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
                 new CaffeineCache(REPLAYS_MINE, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
                 new CaffeineCache(REPLAYS_RECENT, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
                 new CaffeineCache(MAP_GENERATOR, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
                 new CaffeineCache(MAP_GENERATOR_STYLES, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
-                new CaffeineCache(LEADERBOARD, newBuilder().expireAfterWrite(5, MINUTES).buildAsync(), true),
-                new CaffeineCache(LEAGUE, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
+                withDiskTier(new CaffeineCache(LEADERBOARD, newBuilder().expireAfterWrite(5, MINUTES).buildAsync(), true)),
+                withDiskTier(new CaffeineCache(LEAGUE, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true)),
                 new CaffeineCache(LEAGUE_ENTRIES, newBuilder().expireAfterWrite(1, MINUTES).buildAsync(), true),
-                new CaffeineCache(DIVISIONS, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
+                withDiskTier(new CaffeineCache(DIVISIONS, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true)),
                 new CaffeineCache(GLOBAL_LEADERBOARD,
                                   newBuilder().maximumSize(1).expireAfterAccess(5, MINUTES).buildAsync(), true),
                 new CaffeineCache(LADDER_1V1_LEADERBOARD,
@@ -95,7 +115,7 @@ public class CacheConfig implements CachingConfigurer {
                 new CaffeineCache(RATING_HISTORY, newBuilder().expireAfterWrite(1, MINUTES).buildAsync(), true),
                 new CaffeineCache(COOP_LEADERBOARD, newBuilder().expireAfterWrite(1, MINUTES).buildAsync(), true),
                 new CaffeineCache(CLAN, newBuilder().expireAfterWrite(1, HOURS).buildAsync(), true),
-                new CaffeineCache(FEATURED_MODS, newBuilder().buildAsync(), true),
+                withDiskTier(new CaffeineCache(FEATURED_MODS, newBuilder().buildAsync(), true)),
                 new CaffeineCache(FEATURED_MOD_FILES, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
                 new CaffeineCache(MATCHMAKER_QUEUES, newBuilder().expireAfterWrite(10, MINUTES).buildAsync(), true),
                 new CaffeineCache(MATCHMAKER_POOLS, newBuilder().expireAfterWrite(1, MINUTES).buildAsync(), true),
@@ -118,6 +138,25 @@ public class CacheConfig implements CachingConfigurer {
     return cacheManager;
   }
 
+  /**
+   * Backs the given cache with a disk tier, if enabled. Only caches of API data that is expensive to load and rarely
+   * changes should use it. Disk entries are served before they are revalidated, so data that must be current, like
+   * signed download URLs or league scores, must not use it.
+   */
+  private Cache withDiskTier(Cache cache) {
+    if (!clientProperties.getDiskCache().isEnabled()) {
+      return cache;
+    }
+    return tieredCacheFactory.create(cache);
+  }
+
+  @Override
+  public void destroy() {
+    if (tieredCacheFactory != null) {
+      tieredCacheFactory.flushAll();
+    }
+  }
+
   @Override
   public CacheResolver cacheResolver() {
     return null;
@@ -35,6 +35,7 @@ public class ClientProperties {
   private Website website = new Website();
   private Discord discord = new Discord();
   private Statping statping = new Statping();
+  private DiskCache diskCache = new DiskCache();
   private String translationProjectUrl;
   private String clientConfigUrl;
   private boolean useRemotePreferences;
@@ -106,6 +107,17 @@ public class ClientProperties {
     private int watchDelaySeconds = 300;
   }
 
+  @Data
+  public static class DiskCache {
+    /**
+     * Whether API data like maps, mods or leaderboards is additionally cached on disk, so that it is available right
+     * after a restart. Such entries are revalidated in the background when they are used.
+     */
+    private boolean enabled = true;
+    private int maxEntriesPerCache = 200;
+    private Duration timeToLive = Duration.ofDays(3);
+  }
+
   @Data
   public static class Imgur {
     private Upload upload = new Upload();
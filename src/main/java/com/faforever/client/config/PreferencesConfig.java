@@ -16,6 +16,7 @@ import com.faforever.client.preferences.LoginPrefs;
 import com.faforever.client.preferences.MatchmakerPrefs;
 import com.faforever.client.preferences.NotificationPrefs;
 import com.faforever.client.preferences.Preferences;
+import com.faforever.client.preferences.PreferencesStore;
 import com.faforever.client.preferences.UserPrefs;
 import com.faforever.client.preferences.VaultPrefs;
 import com.faforever.client.preferences.WindowPrefs;
@@ -52,28 +53,29 @@ import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.Scheduled;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.text.MessageFormat;
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
 
 @Configuration
 @Slf4j
 public class PreferencesConfig implements DisposableBean {
 
   private static final String PREFS_FILE_NAME = "client.prefs";
+  private static final Duration STORE_DEBOUNCE_DELAY = Duration.ofSeconds(1);
+  private static final Duration STORE_MAX_DELAY = Duration.ofSeconds(5);
 
   private final Path preferencesFilePath;
   private final ObjectMapper preferencesObjectMapper;
   private final FxApplicationThreadExecutor fxApplicationThreadExecutor;
 
   private final Preferences preferences;
+  private final PreferencesStore preferencesStore;
 
   public PreferencesConfig(OperatingSystem operatingSystem, ObjectMapper objectMapper,
                            FxApplicationThreadExecutor fxApplicationThreadExecutor) throws IOException, InterruptedException {
@@ -83,6 +85,13 @@ public class PreferencesConfig implements DisposableBean {
     preferencesFilePath = operatingSystem.getPreferencesDirectory().resolve(PREFS_FILE_NAME);
 
     preferences = readExistingPreferences(preferencesFilePath, operatingSystem);
+
+    preferencesStore = new PreferencesStore(preferences, preferencesFilePath, preferencesObjectMapper.writer(),
+                                            STORE_DEBOUNCE_DELAY, STORE_MAX_DELAY);
+    preferencesStore.watch();
+    if (Files.notExists(preferencesFilePath)) {
+      preferencesStore.markDirty();
+    }
   }
 
   @Bean
@@ -90,6 +99,11 @@ public class PreferencesConfig implements DisposableBean {
     return preferences;
   }
 
+  @Bean
+  public PreferencesStore preferencesStore() {
+    return preferencesStore;
+  }
+
   @Bean
   public GeneralPrefs general() {
     return preferences().getGeneral();
@@ -213,13 +227,21 @@ public class PreferencesConfig implements DisposableBean {
       return constructDefaultPrefernces(operatingSystem);
     }
 
-    try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
-      log.info("Reading preferences file `{}`", path.toAbsolutePath());
-      Preferences preferences = preferencesObjectMapper.readValue(reader, Preferences.class);
-      migratePreferences(preferences);
-      return preferences;
+    try {
+      return readPreferencesFile(path);
     } catch (Exception e) {
       log.warn("Preferences file `{}` could not be read", path, e);
+
+      for (Path backupFile : PreferencesStore.getBackupFiles(path)) {
+        try {
+          Preferences preferences = readPreferencesFile(backupFile);
+          log.warn("Restored preferences from backup `{}`", backupFile);
+          return preferences;
+        } catch (Exception backupException) {
+          log.warn("Preferences backup `{}` could not be read", backupFile, backupException);
+        }
+      }
+
       fxApplicationThreadExecutor.executeAndWait(() -> {
         Alert errorReading = new Alert(AlertType.ERROR, "Error reading setting. Reset settings? ", ButtonType.YES, ButtonType.CANCEL);
         errorReading.showAndWait();
@@ -239,6 +261,15 @@ public class PreferencesConfig implements DisposableBean {
     }
   }
 
+  private Preferences readPreferencesFile(Path path) throws IOException {
+    try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      log.info("Reading preferences file `{}`", path.toAbsolutePath());
+      Preferences preferences = preferencesObjectMapper.readValue(reader, Preferences.class);
+      migratePreferences(preferences);
+      return preferences;
+    }
+  }
+
   @NotNull
   private Preferences constructDefaultPrefernces(OperatingSystem operatingSystem) {
     Preferences preferences = new Preferences();
@@ -258,29 +289,8 @@ public class PreferencesConfig implements DisposableBean {
 
   }
 
-  @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.MINUTES)
-  private void store() {
-    Path parent = preferencesFilePath.getParent();
-    try {
-      if (!Files.exists(parent)) {
-        Files.createDirectories(parent);
-      }
-    } catch (IOException e) {
-      log.warn("Could not create directory `{}`", parent, e);
-      return;
-    }
-
-    try (Writer writer = Files.newBufferedWriter(preferencesFilePath, StandardCharsets.UTF_8)) {
-      log.info("Writing preferences file `{}`", preferencesFilePath.toAbsolutePath());
-      preferencesObjectMapper.writeValue(writer, preferences);
-    } catch (IOException e) {
-      log.error("Preferences file `{}` could not be written", preferencesFilePath.toAbsolutePath(), e);
-    }
-  }
-
-
   @Override
   public void destroy() throws Exception {
-    store();
+    preferencesStore.close();
   }
 }
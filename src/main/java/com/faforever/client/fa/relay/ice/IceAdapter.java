@@ -15,6 +15,22 @@ public interface IceAdapter {
 
   void onGpgGameMessage(GpgGameOutboundMessage message);
 
+  /**
+   * Prepares starting the ICE adapter for a game that is not known yet, e.g. while searching for a match.
+   */
+  void prepare();
+
+  /**
+   * Starts the ICE adapter for the given game ahead of its launch, if enabled, so that {@link #start(int)} for the
+   * same game does not need to wait for the adapter to start.
+   */
+  void prepare(int gameId);
+
+  /**
+   * Starts the ICE adapter for the given game, or uses the one prepared for it, and connects to it once it is ready.
+   *
+   * @return the port the game needs to connect to
+   */
   CompletableFuture<Integer> start(int gameId);
 
   void stop();
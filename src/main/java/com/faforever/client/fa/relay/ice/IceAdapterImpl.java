@@ -45,6 +45,11 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static java.util.Arrays.asList;
@@ -55,8 +60,19 @@ import static java.util.Arrays.asList;
 @RequiredArgsConstructor
 public class IceAdapterImpl implements IceAdapter, InitializingBean, DisposableBean {
 
-  private static final int CONNECTION_ATTEMPTS = 50;
-  private static final int CONNECTION_ATTEMPT_DELAY_MILLIS = 250;
+  /** How long connecting to the adapter is retried once it is ready, or once waiting for it has timed out. */
+  private static final long CONNECTION_TIMEOUT_MILLIS = 12_500;
+  private static final int INITIAL_CONNECTION_ATTEMPT_DELAY_MILLIS = 25;
+  private static final int MAX_CONNECTION_ATTEMPT_DELAY_MILLIS = 250;
+  /**
+   * The line the adapter logs for its RPC port, e.g. "Creating RPC server on port 51234" or "Listening on RPC port
+   * 51234".
+   */
+  private static final Pattern RPC_PORT_ANNOUNCEMENT = Pattern.compile("\\bRPC(?:\\s+\\w+)*?\\s+port:?\\s+(\\d+)",
+                                                                       Pattern.CASE_INSENSITIVE);
+  private static final int READINESS_TIMEOUT_SECONDS = 15;
+  /** How long a pre-started ICE adapter is kept if the game it was started for is not launched. */
+  private static final int PREPARED_PROCESS_LIFETIME_MINUTES = 10;
 
   private static final Logger advancedLogger = LoggerFactory.getLogger("faf-ice-adapter-advanced");
 
@@ -75,6 +91,9 @@ public class IceAdapterImpl implements IceAdapter, InitializingBean, DisposableB
   private final IceAdapterApi iceAdapterProxy = newIceAdapterProxy();
   private GameType gameType;
   private JJsonPeer peer;
+  /** The ICE adapter that has been started ahead of the launch of its game, guarded by this. */
+  private CompletableFuture<IceAdapterProcess> preparedProcess;
+  private int preparedGameId;
 
   @Override
   public void afterPropertiesSet() {
@@ -131,34 +150,102 @@ public class IceAdapterImpl implements IceAdapter, InitializingBean, DisposableB
   }
 
   @Override
-  public CompletableFuture<Integer> start(int gameId) {
-    return CompletableFuture.supplyAsync(() -> {
-      Path workDirectory = Path.of(System.getProperty("nativeDir", "lib")).toAbsolutePath();
-
-      int adapterPort;
-      int gpgPort;
-      try (ServerSocket adapterTestSocket = new ServerSocket(0);
-           ServerSocket gpgTestSocket = new ServerSocket(0)) {
-        adapterPort = adapterTestSocket.getLocalPort();
-        gpgPort = gpgTestSocket.getLocalPort();
-      } catch (IOException exception) {
-        throw new CompletionException("Unable to find open port for ICE and GPG", exception);
-      }
+  public void prepare() {
+    if (!forgedAlliancePrefs.isPreStartIceAdapter()) {
+      return;
+    }
 
-      List<String> cmd = buildCommand(workDirectory, adapterPort, gpgPort, gameId);
-      try {
-        startIceAdapterProcess(workDirectory, cmd);
-      } catch (IOException e) {
-        throw new CompletionException(e);
+    // The adapter needs the game id to start, so only the access token it is started with can be made ready yet
+    tokenRetriever.getRefreshedTokenValue()
+                  .subscribe(null, throwable -> log.warn("Could not refresh token for the ICE adapter", throwable));
+  }
+
+  @Override
+  public synchronized void prepare(int gameId) {
+    if (!forgedAlliancePrefs.isPreStartIceAdapter()) {
+      return;
+    }
+
+    if (preparedProcess != null) {
+      if (preparedGameId == gameId) {
+        return;
       }
+      discardPreparedProcess();
+    }
 
-      initializeIceAdapterConnection(adapterPort);
+    log.info("Starting ICE adapter ahead of the launch of game `{}`", gameId);
+    CompletableFuture<IceAdapterProcess> process = CompletableFuture.supplyAsync(() -> startIceAdapterProcess(gameId));
+    preparedProcess = process;
+    preparedGameId = gameId;
+    CompletableFuture.delayedExecutor(PREPARED_PROCESS_LIFETIME_MINUTES, TimeUnit.MINUTES).execute(() -> {
+      synchronized (this) {
+        if (preparedProcess == process) {
+          log.info("Game `{}` has not been launched, stopping the ICE adapter started for it", gameId);
+          discardPreparedProcess();
+        }
+      }
+    });
+  }
 
-      return gpgPort;
+  @Override
+  public CompletableFuture<Integer> start(int gameId) {
+    CompletableFuture<IceAdapterProcess> prepared = takePreparedProcess(gameId);
+    CompletableFuture<IceAdapterProcess> processFuture = prepared != null ? prepared : CompletableFuture.supplyAsync(
+        () -> startIceAdapterProcess(gameId));
+
+    return processFuture.thenApplyAsync(process -> {
+      awaitReadiness(process);
+      initializeIceAdapterConnection(process.adapterPort());
+      return process.gpgPort();
     });
   }
 
-  private void startIceAdapterProcess(Path workDirectory, List<String> cmd) throws IOException {
+  private synchronized CompletableFuture<IceAdapterProcess> takePreparedProcess(int gameId) {
+    if (preparedProcess == null) {
+      return null;
+    }
+    if (preparedGameId != gameId || preparedProcess.isCompletedExceptionally()) {
+      discardPreparedProcess();
+      return null;
+    }
+
+    log.debug("Using the ICE adapter that has been started ahead of the launch of game `{}`", gameId);
+    CompletableFuture<IceAdapterProcess> process = preparedProcess;
+    preparedProcess = null;
+    return process;
+  }
+
+  private synchronized void discardPreparedProcess() {
+    if (preparedProcess == null) {
+      return;
+    }
+    preparedProcess.thenAccept(process -> process.process().destroy());
+    preparedProcess = null;
+  }
+
+  private IceAdapterProcess startIceAdapterProcess(int gameId) {
+    Path workDirectory = Path.of(System.getProperty("nativeDir", "lib")).toAbsolutePath();
+
+    int adapterPort;
+    int gpgPort;
+    try (ServerSocket adapterTestSocket = new ServerSocket(0);
+         ServerSocket gpgTestSocket = new ServerSocket(0)) {
+      adapterPort = adapterTestSocket.getLocalPort();
+      gpgPort = gpgTestSocket.getLocalPort();
+    } catch (IOException exception) {
+      throw new CompletionException("Unable to find open port for ICE and GPG", exception);
+    }
+
+    List<String> cmd = buildCommand(workDirectory, adapterPort, gpgPort, gameId);
+    try {
+      return startIceAdapterProcess(workDirectory, cmd, adapterPort, gpgPort);
+    } catch (IOException e) {
+      throw new CompletionException(e);
+    }
+  }
+
+  private IceAdapterProcess startIceAdapterProcess(Path workDirectory, List<String> cmd, int adapterPort,
+                                                   int gpgPort) throws IOException {
     ProcessBuilder processBuilder = new ProcessBuilder();
     processBuilder.directory(workDirectory.toFile());
     processBuilder.command(cmd);
@@ -171,6 +258,8 @@ public class IceAdapterImpl implements IceAdapter, InitializingBean, DisposableB
       advancedLogger.info("\n\n");
     }
 
+    long startTime = System.nanoTime();
+    CompletableFuture<Void> ready = new CompletableFuture<>();
     Process process = processBuilder.start();
     process.onExit().thenAccept(finished -> {
       int exitCode = finished.exitValue();
@@ -179,8 +268,14 @@ public class IceAdapterImpl implements IceAdapter, InitializingBean, DisposableB
       } else {
         log.warn("ICE adapter terminated with exit code: {}", exitCode);
       }
+      ready.completeExceptionally(
+          new IllegalStateException("ICE adapter terminated with exit code " + exitCode + " before it was ready"));
     });
     OsUtils.gobbleLines(process.getInputStream(), msg -> {
+      if (!ready.isDone() && announcesPort(msg, adapterPort)) {
+        log.info("ICE adapter is ready after {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        ready.complete(null);
+      }
       if (advancedIceLogEnabled) {
         advancedLogger.info(msg);
       }
@@ -190,27 +285,62 @@ public class IceAdapterImpl implements IceAdapter, InitializingBean, DisposableB
         advancedLogger.error(msg);
       }
     });
+    return new IceAdapterProcess(process, adapterPort, gpgPort, ready);
+  }
+
+  /**
+   * Returns whether the given output line of the ICE adapter reports the given RPC port, which the adapter does once it
+   * listens on it. Other numbers in the output, like timestamps or the echoed arguments, are not taken as readiness.
+   */
+  @VisibleForTesting
+  static boolean announcesPort(String line, int port) {
+    Matcher matcher = RPC_PORT_ANNOUNCEMENT.matcher(line);
+    return matcher.find() && matcher.group(1).equals(String.valueOf(port));
+  }
+
+  private void awaitReadiness(IceAdapterProcess process) {
+    try {
+      process.ready().get(READINESS_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (TimeoutException e) {
+      // Adapter versions that do not report the port are still connected to, just later
+      log.warn("ICE adapter did not report to be ready within {} seconds", READINESS_TIMEOUT_SECONDS);
+    } catch (ExecutionException e) {
+      throw new CompletionException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CompletionException(e);
+    }
   }
 
   @VisibleForTesting
   void initializeIceAdapterConnection(int adapterPort) {
-    for (int attempt = 0; attempt < CONNECTION_ATTEMPTS; attempt++) {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CONNECTION_TIMEOUT_MILLIS);
+    long delayMillis = INITIAL_CONNECTION_ATTEMPT_DELAY_MILLIS;
+    for (int attempt = 1; ; attempt++) {
       try {
         TcpClient tcpClient = new TcpClient("localhost", adapterPort, iceAdapterCallbacksFactory.getObject());
         peer = tcpClient.getPeer();
 
         setLobbyInitMode();
-        break;
+        return;
       } catch (IOException e) {
-        log.warn("Could not connect to ICE adapter (attempt {}/{})", attempt + 1, CONNECTION_ATTEMPTS);
+        log.warn("Could not connect to ICE adapter (attempt {})", attempt);
       }
 
-      // Wait as the socket fails too fast on unix/linux not giving the adapter enough time to start
+      if (System.nanoTime() - deadline >= 0) {
+        log.warn("Giving up connecting to ICE adapter after {} ms", CONNECTION_TIMEOUT_MILLIS);
+        break;
+      }
+
+      // The adapter may report its port just before it accepts connections
       try {
-        Thread.sleep(CONNECTION_ATTEMPT_DELAY_MILLIS);
+        Thread.sleep(delayMillis);
       } catch (InterruptedException e) {
         log.warn("Error while waiting for ice adapter", e);
+        Thread.currentThread().interrupt();
+        return;
       }
+      delayMillis = Math.min(delayMillis * 2, MAX_CONNECTION_ATTEMPT_DELAY_MILLIS);
     }
   }
 
@@ -308,7 +438,10 @@ public class IceAdapterImpl implements IceAdapter, InitializingBean, DisposableB
 
   @Override
   public void stop() {
+    discardPreparedProcess();
     iceAdapterProxy.quit();
     peer = null;
   }
+
+  private record IceAdapterProcess(Process process, int adapterPort, int gpgPort, CompletableFuture<Void> ready) {}
 }
@@ -32,4 +32,32 @@ public abstract class NodeController<ROOT extends Node> extends Controller<ROOT>
   public final void hide() {
     getRoot().setVisible(false);
   }
+
+  /**
+   * Called by {@link NodeControllerPool} when the controller is released, so that it can be reused for another item.
+   */
+  public final void reset() {
+    onReset();
+  }
+
+  /**
+   * Subclasses that are pooled must override in order to clear the item they display and anything set by their user.
+   */
+  protected void onReset() {
+    // To be overridden by subclass
+  }
+
+  /**
+   * Called by {@link NodeControllerPool} when a reset controller is acquired again, before it is given its new item.
+   */
+  public final void rebind() {
+    onRebind();
+  }
+
+  /**
+   * Subclasses may override in order to restore state that has been released in {@link #onReset()}.
+   */
+  protected void onRebind() {
+    // To be overridden by subclass
+  }
 }
@@ -0,0 +1,147 @@
+package com.faforever.client.fx;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Keeps released controllers of one FXML file, so that controllers of items that come and go frequently, like game
+ * cards, are reused instead of loading the FXML file again for every item.
+ * <p>
+ * A released controller is {@link NodeController#reset() reset} and kept if fewer than the maximum number of
+ * controllers are idle. An acquired controller that has been reused is {@link NodeController#rebind() rebound} before
+ * it is returned. Controllers may be acquired from any thread, but must be released on the JavaFX application thread.
+ */
+@Slf4j
+public class NodeControllerPool<T extends NodeController<?>> {
+
+  private static final long WARM_UP_DELAY_MILLIS = 200;
+
+  private final String fxmlPath;
+  private final int maxIdle;
+  private final Supplier<T> loader;
+  private final BooleanSupplier loaderBusy;
+
+  private final Deque<T> idleControllers = new ConcurrentLinkedDeque<>();
+  private final AtomicInteger numIdle = new AtomicInteger();
+  private final AtomicBoolean warmingUp = new AtomicBoolean();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder loadNanos = new LongAdder();
+
+  /**
+   * @param loader loads a new controller from the FXML file
+   * @param loaderBusy whether FXML files are being loaded right now, in which case warming up waits
+   */
+  public NodeControllerPool(String fxmlPath, int maxIdle, Supplier<T> loader, BooleanSupplier loaderBusy) {
+    this.fxmlPath = fxmlPath;
+    this.maxIdle = maxIdle;
+    this.loader = loader;
+    this.loaderBusy = loaderBusy;
+  }
+
+  /**
+   * Returns an idle controller if there is one, or loads a new one.
+   */
+  public T acquire() {
+    T controller = idleControllers.pollFirst();
+    if (controller == null) {
+      misses.increment();
+      return load();
+    }
+
+    numIdle.decrementAndGet();
+    hits.increment();
+    controller.rebind();
+    return controller;
+  }
+
+  /**
+   * Resets the given controller and keeps it for reuse, unless enough controllers are idle already.
+   */
+  public void release(T controller) {
+    controller.reset();
+    if (numIdle.incrementAndGet() > maxIdle) {
+      numIdle.decrementAndGet();
+      return;
+    }
+    idleControllers.addFirst(controller);
+  }
+
+  /**
+   * Loads controllers in the background until the given number of controllers is idle. Controllers are loaded one at a
+   * time and only while no other FXML file is being loaded, so warming up does not delay loading anything else.
+   */
+  public void warmUp(int count) {
+    if (warmingUp.compareAndSet(false, true)) {
+      scheduleWarmUp(Math.min(count, maxIdle));
+    }
+  }
+
+  private void scheduleWarmUp(int count) {
+    CompletableFuture.runAsync(() -> {
+      if (numIdle.get() >= count) {
+        warmingUp.set(false);
+        log.debug("Warmed up {} controllers of `{}` in {} ms on average", count, fxmlPath,
+                  getAverageLoadTime().toMillis());
+        return;
+      }
+
+      if (!loaderBusy.getAsBoolean()) {
+        T controller = load();
+        numIdle.incrementAndGet();
+        idleControllers.addLast(controller);
+      }
+      scheduleWarmUp(count);
+    }, CompletableFuture.delayedExecutor(WARM_UP_DELAY_MILLIS, TimeUnit.MILLISECONDS)).exceptionally(throwable -> {
+      warmingUp.set(false);
+      log.warn("Unable to warm up controllers of `{}`", fxmlPath, throwable);
+      return null;
+    });
+  }
+
+  private T load() {
+    long startNanos = System.nanoTime();
+    T controller = loader.get();
+    long durationNanos = System.nanoTime() - startNanos;
+    loads.increment();
+    loadNanos.add(durationNanos);
+    log.trace("Loaded `{}` in {} ms", fxmlPath, TimeUnit.NANOSECONDS.toMillis(durationNanos));
+    return controller;
+  }
+
+  /**
+   * Returns the share of acquired controllers that were reused, or 0 if no controller has been acquired yet.
+   */
+  public double getHitRate() {
+    long numHits = hits.sum();
+    long numAcquired = numHits + misses.sum();
+    return numAcquired == 0 ? 0 : (double) numHits / numAcquired;
+  }
+
+  /**
+   * Returns how long loading a controller took on average, including controllers loaded to warm up.
+   */
+  public Duration getAverageLoadTime() {
+    long numLoads = loads.sum();
+    return numLoads == 0 ? Duration.ZERO : Duration.ofNanos(loadNanos.sum() / numLoads);
+  }
+
+  public long getLoadCount() {
+    return loads.sum();
+  }
+
+  public int getIdleCount() {
+    return numIdle.get();
+  }
+}
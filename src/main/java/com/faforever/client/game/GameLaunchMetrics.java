@@ -0,0 +1,134 @@
+package com.faforever.client.game;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Measures how long launching online games takes, broken down by phase.
+ * <p>
+ * The phases after the game launch message of the server run in parallel. Each of them is measured from the time it
+ * started, so the slowest of them determines the {@link Phase#TOTAL} time until the game process has been started.
+ */
+@Slf4j
+public class GameLaunchMetrics {
+
+  public enum Phase {
+    /** Updating the featured mod and installing sim mods and the map before the game is requested. */
+    PREPARE,
+    /** Waiting for the server to launch the game, which includes searching for a match. */
+    SERVER_RESPONSE,
+    MAP_DOWNLOAD,
+    LEAGUE,
+    ICE_ADAPTER,
+    REPLAY_SERVER,
+    GAME_PROCESS,
+    /** From the game launch message of the server until the game process has been started. */
+    TOTAL
+  }
+
+  private final Map<Phase, LongAdder> totalNanos = new EnumMap<>(Phase.class);
+  private final Map<Phase, LongAdder> counts = new EnumMap<>(Phase.class);
+  private volatile Map<Phase, Duration> lastLaunch = Map.of();
+
+  public GameLaunchMetrics() {
+    for (Phase phase : Phase.values()) {
+      totalNanos.put(phase, new LongAdder());
+      counts.put(phase, new LongAdder());
+    }
+  }
+
+  /**
+   * Begins measuring a launch, which starts with preparing the game.
+   */
+  public Launch begin() {
+    return new Launch();
+  }
+
+  /**
+   * Returns the duration of each phase of the last launch.
+   */
+  public Map<Phase, Duration> getLastLaunch() {
+    return lastLaunch;
+  }
+
+  /**
+   * Returns the average duration of the given phase over all launches, or {@link Duration#ZERO} if there were none.
+   */
+  public Duration getAverage(Phase phase) {
+    long count = counts.get(phase).sum();
+    return count == 0 ? Duration.ZERO : Duration.ofNanos(totalNanos.get(phase).sum() / count);
+  }
+
+  public long getLaunchCount() {
+    return counts.get(Phase.TOTAL).sum();
+  }
+
+  public class Launch {
+
+    private final long startNanos = System.nanoTime();
+    private final Map<Phase, Duration> durations = new ConcurrentHashMap<>();
+    private volatile long launchStartNanos;
+
+    /**
+     * Records the duration of the given phase, starting now, once the given future completes successfully.
+     */
+    public <T> CompletableFuture<T> measure(Phase phase, CompletableFuture<T> future) {
+      long phaseStartNanos = System.nanoTime();
+      return future.whenComplete((result, throwable) -> {
+        if (throwable == null) {
+          durations.put(phase, Duration.ofNanos(System.nanoTime() - phaseStartNanos));
+        }
+      });
+    }
+
+    /**
+     * Calls the given action and records its duration as the given phase.
+     */
+    public <T> T time(Phase phase, Supplier<T> action) {
+      long phaseStartNanos = System.nanoTime();
+      T result = action.get();
+      durations.put(phase, Duration.ofNanos(System.nanoTime() - phaseStartNanos));
+      return result;
+    }
+
+    /**
+     * Records that the server has launched the game, which starts the phases that are part of the total.
+     */
+    public void onGameLaunched() {
+      launchStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Records that the game process has been started and publishes the durations of this launch.
+     */
+    public void onGameProcessStarted(int gameId) {
+      long launchStart = launchStartNanos == 0 ? startNanos : launchStartNanos;
+      durations.put(Phase.TOTAL, Duration.ofNanos(System.nanoTime() - launchStart));
+
+      Map<Phase, Duration> launchDurations = new EnumMap<>(durations);
+      launchDurations.forEach((phase, duration) -> {
+        totalNanos.get(phase).add(duration.toNanos());
+        counts.get(phase).increment();
+      });
+      lastLaunch = Collections.unmodifiableMap(launchDurations);
+
+      log.info("Game `{}` launched in {} ms ({})", gameId, launchDurations.get(Phase.TOTAL).toMillis(),
+               launchDurations.entrySet()
+                              .stream()
+                              .filter(entry -> entry.getKey() != Phase.TOTAL)
+                              .map(entry -> "%s: %d ms".formatted(entry.getKey(), entry.getValue().toMillis()))
+                              .collect(Collectors.joining(", ")));
+      log.debug("Average game launch takes {} ms over {} launches", getAverage(Phase.TOTAL).toMillis(),
+                getLaunchCount());
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package com.faforever.client.game;
+
+import com.faforever.client.domain.server.GameInfo;
+import javafx.collections.ModifiableObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The list of games of the {@link GameService}. Unlike a list with an extractor, which reports every changed property
+ * of a game as a list change of its own, the games that have been updated are reported explicitly, together with the
+ * added and removed games of the same batch in a single list change.
+ */
+final class GameList extends ModifiableObservableListBase<GameInfo> {
+
+  private final List<GameInfo> games = new ArrayList<>();
+
+  /**
+   * Removes and adds the given games and reports the given updated ones as updated, as a single list change.
+   */
+  void applyChanges(Collection<GameInfo> removedGames, Collection<GameInfo> addedGames, Set<GameInfo> updatedGames) {
+    beginChange();
+    try {
+      if (!removedGames.isEmpty()) {
+        removeAll(removedGames);
+      }
+      if (!updatedGames.isEmpty()) {
+        for (int i = 0; i < games.size(); i++) {
+          if (updatedGames.contains(games.get(i))) {
+            nextUpdate(i);
+          }
+        }
+      }
+      if (!addedGames.isEmpty()) {
+        addAll(addedGames);
+      }
+    } finally {
+      endChange();
+    }
+  }
+
+  @Override
+  public GameInfo get(int index) {
+    return games.get(index);
+  }
+
+  @Override
+  public int size() {
+    return games.size();
+  }
+
+  @Override
+  protected void doAdd(int index, GameInfo element) {
+    games.add(index, element);
+  }
+
+  @Override
+  protected GameInfo doSet(int index, GameInfo element) {
+    return games.set(index, element);
+  }
+
+  @Override
+  protected GameInfo doRemove(int index) {
+    return games.remove(index);
+  }
+}
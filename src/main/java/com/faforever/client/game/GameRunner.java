@@ -15,6 +15,8 @@ import com.faforever.client.fa.relay.ice.IceAdapter;
 import com.faforever.client.featuredmod.FeaturedModService;
 import com.faforever.client.fx.FxApplicationThreadExecutor;
 import com.faforever.client.fx.PlatformService;
+import com.faforever.client.game.GameLaunchMetrics.Launch;
+import com.faforever.client.game.GameLaunchMetrics.Phase;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.leaderboard.LeaderboardService;
 import com.faforever.client.logging.LoggingService;
@@ -40,7 +42,6 @@ import com.faforever.client.replay.ReplayServer;
 import com.faforever.client.theme.UiService;
 import com.faforever.client.ui.StageHolder;
 import com.faforever.client.util.ConcurrentUtil;
-import com.faforever.client.util.MaskPatternLayout;
 import com.faforever.client.util.RatingUtil;
 import com.faforever.commons.lobby.GameLaunchResponse;
 import com.faforever.commons.lobby.NoticeInfo;
@@ -54,6 +55,7 @@ import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.InitializingBean;
@@ -61,8 +63,6 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Objects;
@@ -111,7 +111,8 @@ public class GameRunner implements InitializingBean {
   private final NotificationPrefs notificationPrefs;
   private final FxApplicationThreadExecutor fxApplicationThreadExecutor;
 
-  private final MaskPatternLayout logMasker = new MaskPatternLayout();
+  @Getter
+  private final GameLaunchMetrics launchMetrics = new GameLaunchMetrics();
   private final SimpleObjectProperty<Integer> runningGameId = new SimpleObjectProperty<>();
   private final ObjectProperty<Process> process = new SimpleObjectProperty<>();
 
@@ -168,24 +169,32 @@ public class GameRunner implements InitializingBean {
 
   @VisibleForTesting
   CompletableFuture<Void> startOnlineGame(GameLaunchResponse gameLaunchResponse) {
+    return startOnlineGame(gameLaunchResponse, launchMetrics.begin());
+  }
+
+  private CompletableFuture<Void> startOnlineGame(GameLaunchResponse gameLaunchResponse, Launch launch) {
+    launch.onGameLaunched();
     int uid = gameLaunchResponse.getUid();
     String leaderboard = gameLaunchResponse.getLeaderboard();
     boolean hasLeague = leaderboard == null || "global".equals(leaderboard);
 
     String mapFolderName = gameLaunchResponse.getMapName();
-    CompletableFuture<Void> downloadMapFuture = mapFolderName == null ? completedFuture(
-        null) : mapService.downloadIfNecessary(mapFolderName).toFuture();
-    CompletableFuture<League> leagueFuture = hasLeague ? completedFuture(null) : getDivisionInfo(
-        leaderboard).toFuture();
-    CompletableFuture<Integer> startReplayServerFuture = replayServer.start(uid);
-    CompletableFuture<Integer> startIceAdapterFuture = startIceAdapter(uid);
+    CompletableFuture<Void> downloadMapFuture = launch.measure(Phase.MAP_DOWNLOAD,
+                                                               mapFolderName == null ? completedFuture(
+                                                                   null) : mapService.downloadIfNecessary(
+                                                                   mapFolderName).toFuture());
+    CompletableFuture<League> leagueFuture = launch.measure(Phase.LEAGUE, hasLeague ? completedFuture(
+        null) : getDivisionInfo(leaderboard).toFuture());
+    CompletableFuture<Integer> startReplayServerFuture = launch.measure(Phase.REPLAY_SERVER, replayServer.start(uid));
+    CompletableFuture<Integer> startIceAdapterFuture = launch.measure(Phase.ICE_ADAPTER, startIceAdapter(uid));
 
     return CompletableFuture.allOf(downloadMapFuture, leagueFuture, startIceAdapterFuture, startReplayServerFuture)
                             .thenApply(ignored -> gameMapper.map(gameLaunchResponse, leagueFuture.join()))
                             .thenApply(parameters -> launchOnlineGame(parameters, startIceAdapterFuture.join(),
-                                                                      startReplayServerFuture.join()))
+                                                                      startReplayServerFuture.join(), launch))
                             .whenCompleteAsync((process, throwable) -> {
                               if (process != null) {
+                                launch.onGameProcessStarted(uid);
                                 this.process.set(process);
                                 runningGameId.set(uid);
                               }
@@ -207,6 +216,7 @@ public class GameRunner implements InitializingBean {
   CompletableFuture<Void> prepareAndLaunchGameWhenReady(String featuredModName, Set<String> simModUids,
                                                                 @Nullable String mapFolderName,
                                                                 Supplier<CompletableFuture<GameLaunchResponse>> gameLaunchSupplier) {
+    Launch launch = launchMetrics.begin();
     CompletableFuture<Void> updateFeaturedModFuture = featuredModService.updateFeaturedModToLatest(featuredModName,
                                                                                                    false);
 
@@ -214,9 +224,10 @@ public class GameRunner implements InitializingBean {
         null) : modService.downloadAndEnableMods(simModUids).toFuture();
     CompletableFuture<Void> downloadMapFuture = mapFolderName == null || mapFolderName.isBlank() ? completedFuture(
         null) : mapService.downloadIfNecessary(mapFolderName).toFuture();
-    return CompletableFuture.allOf(updateFeaturedModFuture, installSimModsFuture, downloadMapFuture)
-                            .thenCompose(ignored -> gameLaunchSupplier.get())
-                            .thenCompose(this::startOnlineGame);
+    return launch.measure(Phase.PREPARE,
+                          CompletableFuture.allOf(updateFeaturedModFuture, installSimModsFuture, downloadMapFuture))
+                 .thenCompose(ignored -> launch.measure(Phase.SERVER_RESPONSE, gameLaunchSupplier.get()))
+                 .thenCompose(gameLaunchResponse -> startOnlineGame(gameLaunchResponse, launch));
   }
 
   public void host(NewGameInfo newGameInfo) {
@@ -236,6 +247,7 @@ public class GameRunner implements InitializingBean {
       return;
     }
 
+    iceAdapter.prepare();
     prepareAndLaunchGameWhenReady(newGameInfo.featuredModName(), newGameInfo.simMods(), newGameInfo.map(),
                                   () -> fafServerAccessor.requestHostGame(newGameInfo)).exceptionally(throwable -> {
       throwable = ConcurrentUtil.unwrapIfCompletionException(throwable);
@@ -288,10 +300,13 @@ public class GameRunner implements InitializingBean {
 
     log.info("Joining game: '{}' ({})", game.getTitle(), game.getId());
 
+    // The game is known, so the ICE adapter can start while the game is being prepared
+    iceAdapter.prepare(game.getId());
     Set<String> simModUIds = game.getSimMods().keySet();
     prepareAndLaunchGameWhenReady(game.getFeaturedMod(), simModUIds, game.getMapFolderName(),
                                   () -> fafServerAccessor.requestJoinGame(game.getId(), password)).exceptionally(
         throwable -> {
+          iceAdapter.stop();
           log.error("Game could not be joined", throwable);
           notificationService.addImmediateErrorNotification(throwable, "games.couldNotJoin");
           return null;
@@ -332,6 +347,7 @@ public class GameRunner implements InitializingBean {
     }
 
     log.info("Matchmaking search has been started");
+    iceAdapter.prepare();
 
     matchmakerFuture = prepareAndLaunchGameWhenReady(FAF.getTechnicalName(), Set.of(), null,
                                                      fafServerAccessor::startSearchMatchmaker);
@@ -371,10 +387,11 @@ public class GameRunner implements InitializingBean {
     return matchmakerFuture != null && !matchmakerFuture.isDone();
   }
 
-  private Process launchOnlineGame(GameParameters gameParameters, Integer gpgPort, Integer replayPort) {
+  private Process launchOnlineGame(GameParameters gameParameters, Integer gpgPort, Integer replayPort, Launch launch) {
     fafServerAccessor.setPingIntervalSeconds(5);
     gameKilled = false;
-    return forgedAllianceLaunchService.launchOnlineGame(gameParameters, gpgPort, replayPort);
+    return launch.time(Phase.GAME_PROCESS,
+                       () -> forgedAllianceLaunchService.launchOnlineGame(gameParameters, gpgPort, replayPort));
   }
 
   private CompletableFuture<Integer> startIceAdapter(int uid) {
@@ -403,17 +420,12 @@ public class GameRunner implements InitializingBean {
     int exitCode = finishedProcess.exitValue();
     log.info("Forged Alliance terminated with exit code {}", exitCode);
     Optional<Path> logFile = loggingService.getMostRecentGameLogFile();
-    logFile.ifPresent(file -> {
-      try {
-        Files.writeString(file, logMasker.maskMessage(Files.readString(file)));
-      } catch (IOException e) {
-        log.warn("Could not open log file", e);
-      }
-    });
+    CompletableFuture<Void> logPostProcessing = logFile.map(loggingService::postProcessGameLogFile)
+                                                       .orElse(CompletableFuture.completedFuture(null));
 
     if (!gameKilled) {
       if (exitCode != 0) {
-        alertOnBadExit(exitCode, logFile);
+        alertOnBadExit(exitCode, logFile, logPostProcessing);
       } else if (notificationPrefs.isAfterGameReviewEnabled()) {
         askForGameRate();
       }
@@ -431,17 +443,21 @@ public class GameRunner implements InitializingBean {
             new Action(i18n.get("game.rate"), () -> navigationHandler.navigateTo(new ShowReplayEvent(game.getId()))))));
   }
 
-  private void alertOnBadExit(int exitCode, Optional<Path> logFile) {
+  /**
+   * Informs the user about a crash. The log is only revealed once it has been masked, since users tend to share it
+   * right away.
+   */
+  private void alertOnBadExit(int exitCode, Optional<Path> logFile, CompletableFuture<Void> logPostProcessing) {
     if (exitCode == -1073741515) {
       notificationService.addImmediateWarnNotification("game.crash.notInitialized");
     } else {
+      Runnable revealLog = () -> platformService.reveal(logFile.orElse(operatingSystem.getLoggingDirectory()));
       notificationService.addNotification(new ImmediateNotification(i18n.get("errorTitle"),
                                                                     i18n.get("game.crash", exitCode,
                                                                              logFile.map(Path::toString).orElse("")),
                                                                     WARN, List.of(new Action(i18n.get("game.open.log"),
-                                                                                             () -> platformService.reveal(
-                                                                                                 logFile.orElse(
-                                                                                                     operatingSystem.getLoggingDirectory()))),
+                                                                                             () -> logPostProcessing.whenComplete(
+                                                                                                 (ignored, throwable) -> revealLog.run())),
                                                                                   new DismissAction(i18n))));
     }
   }
@@ -3,13 +3,11 @@ package com.faforever.client.game;
 import com.faforever.client.domain.server.GameInfo;
 import com.faforever.client.domain.server.PlayerInfo;
 import com.faforever.client.fx.FxApplicationThreadExecutor;
-import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.mapstruct.GameMapper;
 import com.faforever.client.net.ConnectionState;
 import com.faforever.client.player.PlayerService;
 import com.faforever.client.remote.FafServerAccessor;
 import com.faforever.commons.lobby.GameStatus;
-import javafx.beans.Observable;
 import javafx.beans.binding.Bindings;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
@@ -22,13 +20,20 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
-import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
-import reactor.function.TupleUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Downloads necessary maps, mods and updates before starting
@@ -46,49 +51,115 @@ public class GameService implements InitializingBean {
 
   private final ObservableMap<Integer, GameInfo> gameIdToGame = FXCollections.synchronizedObservableMap(
       FXCollections.observableHashMap());
+  private final GameList gameList = new GameList();
+  private final ObservableList<GameInfo> mutableGames = FXCollections.synchronizedObservableList(gameList);
   @Getter
-  private final ObservableList<GameInfo> games = JavaFxUtil.attachListToMap(
-      FXCollections.synchronizedObservableList(FXCollections.observableArrayList(game -> new Observable[]{
-          game.statusProperty(), game.teamsProperty(), game.titleProperty(), game.mapFolderNameProperty(),
-          game.simModsProperty(), game.passwordProtectedProperty()
-      })), gameIdToGame);
+  private final ObservableList<GameInfo> games = FXCollections.unmodifiableObservableList(mutableGames);
+  private final Map<Integer, com.faforever.commons.lobby.GameInfo> pendingGameUpdates = new ConcurrentHashMap<>();
+  private final AtomicBoolean gameUpdatePublicationScheduled = new AtomicBoolean();
+  private final LongAdder receivedGameUpdates = new LongAdder();
+  private final LongAdder mergedGameUpdates = new LongAdder();
+  private final LongAdder publishedGameUpdateBatches = new LongAdder();
+  private final AtomicInteger largestGameUpdateBatch = new AtomicInteger();
 
   @Override
   public void afterPropertiesSet() {
     fafServerAccessor.getEvents(com.faforever.commons.lobby.GameInfo.class)
-                     .flatMap(gameInfo -> gameInfo.getGames() == null ? Flux.just(gameInfo) : Flux.fromIterable(
-                         gameInfo.getGames()))
-                     .flatMap(gameInfo -> Mono.zip(Mono.just(gameInfo), Mono.justOrEmpty(getByUid(gameInfo.getUid()))
-                                                                            .switchIfEmpty(
-                                                                                initializeGameBean(gameInfo))))
-                     .publishOn(fxApplicationThreadExecutor.asScheduler())
-                     .map(TupleUtils.function(gameMapper::update))
+                     .map(gameInfo -> gameInfo.getGames() == null ? List.of(gameInfo) : gameInfo.getGames())
+                     .doOnNext(this::enqueueGameUpdates)
                      .doOnError(throwable -> log.error("Error processing game", throwable))
-                     .filter(game -> game.getStatus() == GameStatus.CLOSED)
-                     .doOnNext(GameInfo::removeListeners)
-                     .map(GameInfo::getId)
-                     .publishOn(fxApplicationThreadExecutor.asScheduler())
-                     .doOnNext(gameIdToGame::remove)
-                     .doOnError(throwable -> log.error("Error closing game", throwable))
                      .retry()
                      .subscribe();
 
     fafServerAccessor.connectionStateProperty().addListener((observable, oldValue, newValue) -> {
       if (newValue == ConnectionState.DISCONNECTED) {
-        fxApplicationThreadExecutor.execute(gameIdToGame::clear);
+        fxApplicationThreadExecutor.execute(() -> {
+          pendingGameUpdates.clear();
+          gameIdToGame.clear();
+          mutableGames.clear();
+        });
       }
     });
   }
 
-  private Mono<GameInfo> initializeGameBean(com.faforever.commons.lobby.GameInfo gameInfo) {
-    return Mono.fromCallable(() -> {
-                 GameInfo newGame = new GameInfo();
-                 newGame.setId(gameInfo.getUid());
-                 newGame.addPlayerChangeListener(generatePlayerChangeListener(newGame));
-                 return newGame;
-               }).doOnNext(game -> gameMapper.update(gameInfo, game))
-               .publishOn(fxApplicationThreadExecutor.asScheduler())
-               .doOnNext(game -> gameIdToGame.put(game.getId(), game));
+  /**
+   * Queues the given game updates. Game info messages always contain the full state of a game, so an update that
+   * arrives before the previous one for the same game has been published simply replaces it.
+   */
+  private void enqueueGameUpdates(Collection<com.faforever.commons.lobby.GameInfo> gameInfos) {
+    for (com.faforever.commons.lobby.GameInfo gameInfo : gameInfos) {
+      receivedGameUpdates.increment();
+      if (pendingGameUpdates.put(gameInfo.getUid(), gameInfo) != null) {
+        mergedGameUpdates.increment();
+      }
+    }
+
+    if (!gameInfos.isEmpty() && gameUpdatePublicationScheduled.compareAndSet(false, true)) {
+      fxApplicationThreadExecutor.asScheduler().schedule(this::publishPendingGameUpdates);
+    }
+  }
+
+  /**
+   * Applies all queued game updates on the JavaFX thread. New, closed and updated games are reported as a single change
+   * of the game list, so that filtered and sorted views of it are only re-evaluated once per batch.
+   */
+  private void publishPendingGameUpdates() {
+    gameUpdatePublicationScheduled.set(false);
+    Map<Integer, GameInfo> addedGames = new HashMap<>();
+    List<GameInfo> closedGames = new ArrayList<>();
+    Set<GameInfo> updatedGames = Collections.newSetFromMap(new IdentityHashMap<>());
+    int batchSize = 0;
+    for (Integer gameId : pendingGameUpdates.keySet()) {
+      com.faforever.commons.lobby.GameInfo gameInfo = pendingGameUpdates.remove(gameId);
+      if (gameInfo == null) {
+        continue;
+      }
+      batchSize++;
+
+      try {
+        GameInfo game = gameIdToGame.get(gameId);
+        if (game != null) {
+          gameMapper.update(gameInfo, game);
+          updatedGames.add(game);
+        } else {
+          game = addedGames.get(gameId);
+          if (game == null) {
+            game = gameMapper.update(gameInfo, createGame(gameId));
+            addedGames.put(gameId, game);
+          } else {
+            gameMapper.update(gameInfo, game);
+          }
+        }
+
+        if (game.getStatus() == GameStatus.CLOSED) {
+          game.removeListeners();
+          updatedGames.remove(game);
+          if (addedGames.remove(gameId) == null) {
+            closedGames.add(game);
+          }
+        }
+      } catch (Exception e) {
+        log.error("Error processing game", e);
+      }
+    }
+
+    closedGames.forEach(game -> gameIdToGame.remove(game.getId()));
+    gameIdToGame.putAll(addedGames);
+    synchronized (mutableGames) {
+      gameList.applyChanges(closedGames, addedGames.values(), updatedGames);
+    }
+
+    publishedGameUpdateBatches.increment();
+    largestGameUpdateBatch.accumulateAndGet(batchSize, Math::max);
+    log.trace("Published {} game updates ({} new games, {} closed games)", batchSize, addedGames.size(),
+              closedGames.size());
+  }
+
+  private GameInfo createGame(Integer gameId) {
+    GameInfo newGame = new GameInfo();
+    newGame.setId(gameId);
+    newGame.addPlayerChangeListener(generatePlayerChangeListener(newGame));
+    return newGame;
   }
 
   private ChangeListener<Set<Integer>> generatePlayerChangeListener(GameInfo newGame) {
@@ -118,4 +189,31 @@ public class GameService implements InitializingBean {
   public ObservableValue<GameInfo> observeByUid(Integer uid) {
     return Bindings.valueAt(gameIdToGame, uid);
   }
+
+  /**
+   * Total number of game updates received from the server. Sampled over time, this gives the update rate.
+   */
+  public long getReceivedGameUpdateCount() {
+    return receivedGameUpdates.sum();
+  }
+
+  /**
+   * Number of game updates that were superseded by a newer update for the same game before they were published.
+   */
+  public long getMergedGameUpdateCount() {
+    return mergedGameUpdates.sum();
+  }
+
+  public long getPublishedGameUpdateBatchCount() {
+    return publishedGameUpdateBatches.sum();
+  }
+
+  public double getAverageGameUpdateBatchSize() {
+    long batches = getPublishedGameUpdateBatchCount();
+    return batches == 0 ? 0 : (double) (getReceivedGameUpdateCount() - getMergedGameUpdateCount()) / batches;
+  }
+
+  public int getLargestGameUpdateBatchSize() {
+    return largestGameUpdateBatch.get();
+  }
 }
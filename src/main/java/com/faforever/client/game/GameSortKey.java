@@ -0,0 +1,24 @@
+package com.faforever.client.game;
+
+import com.faforever.client.domain.server.GameInfo;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * The values game tiles are sorted by, taken from a game when it is added or one of the values changes, so that
+ * sorting does not need to compute them on every comparison.
+ */
+public record GameSortKey(int id, String title, int numActivePlayers, double averageRating) {
+
+  static final Comparator<GameSortKey> BY_TITLE = Comparator.comparing(GameSortKey::title);
+  static final Comparator<GameSortKey> BY_PLAYERS = Comparator.comparingInt(GameSortKey::numActivePlayers);
+  static final Comparator<GameSortKey> BY_AVERAGE_RATING = Comparator.comparingDouble(GameSortKey::averageRating);
+
+  public static GameSortKey of(GameInfo game, double averageRating) {
+    String title = Objects.requireNonNullElse(game.getTitle(), "").toLowerCase(Locale.US);
+    return new GameSortKey(Objects.requireNonNullElse(game.getId(), 0), title, game.getNumActivePlayers(),
+                           averageRating);
+  }
+}
@@ -136,6 +136,13 @@ public class GameTileController extends NodeController<Node> {
                                  throwable -> log.error("Unable to set game type label", throwable));
   }
 
+  @Override
+  protected void onReset() {
+    setGame(null);
+    onSelectedListener = null;
+    getRoot().pseudoClassStateChanged(FRIEND_IN_GAME_PSEUDO_CLASS, false);
+  }
+
   public void setGame(GameInfo game) {
     this.game.set(game);
   }
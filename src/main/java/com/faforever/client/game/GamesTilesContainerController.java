@@ -4,24 +4,29 @@ import com.faforever.client.domain.server.GameInfo;
 import com.faforever.client.fx.FxApplicationThreadExecutor;
 import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.fx.NodeController;
+import com.faforever.client.fx.NodeControllerPool;
 import com.faforever.client.player.PlayerService;
 import com.faforever.client.theme.UiService;
 import com.faforever.commons.lobby.GameStatus;
 import javafx.beans.binding.Bindings;
+import javafx.beans.binding.IntegerBinding;
+import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ListChangeListener.Change;
 import javafx.collections.ObservableList;
-import javafx.collections.ObservableMap;
-import javafx.collections.transformation.SortedList;
 import javafx.scene.Node;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.control.Tooltip;
-import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.HBox;
+import javafx.util.Subscription;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,63 +34,75 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Locale;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
 
+/**
+ * Shows games as tiles in a grid. The grid is a list view of rows, so only the tiles of visible rows exist, and the
+ * tiles of rows scrolled out of view are reused for the rows scrolled into view.
+ * <p>
+ * Games are kept sorted by {@link GameSortKey}s, which are updated when one of their values changes, and the rows are
+ * recomputed at most once per pulse. Only rows whose games changed are updated.
+ */
 @Slf4j
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 @Component
 @RequiredArgsConstructor
 public class GamesTilesContainerController extends NodeController<Node> {
 
+  private static final String GAME_CARD_FXML = "theme/play/game_card.fxml";
+  /** Enough for all tiles of a screen, so that tiles of rows that are scrolled away can be reused. */
+  private static final int MAX_IDLE_GAME_CARDS = 40;
+  private static final int WARM_UP_GAME_CARDS = 20;
+  private static final double TILE_GAP = 10;
+  /** Until a tile has been laid out, its width is assumed from the column constraints of the game card. */
+  private static final double DEFAULT_TILE_WIDTH = 380;
+  private static final double SCROLL_BAR_WIDTH = 20;
+
   private final UiService uiService;
   private final PlayerService playerService;
   private final FxApplicationThreadExecutor fxApplicationThreadExecutor;
 
-  private final Comparator<Node> averageRatingComparator = Comparator.comparingDouble(this::getAverageRatingForGame);
-  private final Comparator<Node> titleComparator = Comparator.comparing(o -> ((GameInfo) o.getUserData()).getTitle()
-                                                                                                         .toLowerCase(
-                                                                                                             Locale.US));
-  private final Comparator<Node> playerCountComparator = Comparator.comparingInt(
-      o -> ((GameInfo) o.getUserData()).getNumActivePlayers());
-
-  public FlowPane tiledFlowPane;
-  public ScrollPane tiledScrollPane;
+  public ListView<List<GameInfo>> tileRowsListView;
   public GameTooltipController gameTooltipController;
 
   private Tooltip tooltip;
 
-  private final ObservableMap<GameInfo, Node> gameToGameCard = FXCollections.synchronizedObservableMap(
-      FXCollections.observableHashMap());
-  private final SortedList<Node> gameCards = new SortedList<>(
-      JavaFxUtil.attachListToMap(FXCollections.observableArrayList(), gameToGameCard));
+  /** Only accessed from the FX thread. */
+  private final Map<GameInfo, TrackedGame> trackedGames = new HashMap<>();
+  /** Only accessed from the FX thread. */
+  private final SortedGameList sortedGames = new SortedGameList();
+  private final ObservableList<List<GameInfo>> tileRows = FXCollections.observableArrayList();
+  private final DoubleProperty tileWidth = new SimpleDoubleProperty(DEFAULT_TILE_WIDTH);
   private final ObjectProperty<TilesSortingOrder> sortingOrder = new SimpleObjectProperty<>();
   private final ReadOnlyObjectWrapper<GameInfo> selectedGame = new ReadOnlyObjectWrapper<>();
 
   private final ListChangeListener<GameInfo> gameListChangeListener = this::onGameListChange;
   private ObservableList<GameInfo> games;
-
-  private double getAverageRatingForGame(Node tile) {
-    return this.playerService.getAverageRatingForGame((GameInfo) tile.getUserData());
-  }
+  private NodeControllerPool<GameTileController> gameCardPool;
+  private IntegerBinding columnCount;
+  private boolean rowsUpdateScheduled;
 
   @Override
   protected void onInitialize() {
     tooltip = JavaFxUtil.createCustomTooltip(gameTooltipController.getRoot());
-    JavaFxUtil.fixScrollSpeed(tiledScrollPane);
+    gameCardPool = uiService.getControllerPool(GAME_CARD_FXML, MAX_IDLE_GAME_CARDS);
+    gameCardPool.warmUp(WARM_UP_GAME_CARDS);
 
-    gameCards.comparatorProperty().bind(sortingOrder.map(order -> switch (order) {
-      case PLAYER_DES -> playerCountComparator.reversed();
-      case PLAYER_ASC -> playerCountComparator;
-      case AVG_RATING_DES -> averageRatingComparator.reversed();
-      case AVG_RATING_ASC -> averageRatingComparator;
-      case NAME_DES -> titleComparator.reversed();
-      case NAME_ASC -> titleComparator;
-    }).when(showing));
+    tileRowsListView.setItems(tileRows);
+    tileRowsListView.setCellFactory(listView -> new GameTileRowCell());
 
-    Bindings.bindContent(tiledFlowPane.getChildren(), gameCards);
+    columnCount = Bindings.createIntegerBinding(this::computeColumnCount, tileRowsListView.widthProperty(), tileWidth);
+    columnCount.subscribe((oldValue, newValue) -> scheduleRowsUpdate());
+
+    sortingOrder.subscribe(order -> {
+      sortedGames.setComparator(order == null ? null : order.getComparator());
+      scheduleRowsUpdate();
+    });
   }
 
   @Override
@@ -98,11 +115,11 @@ public class GamesTilesContainerController extends NodeController<Node> {
   private void onGameListChange(Change<? extends GameInfo> change) {
     while (change.next()) {
       if (change.wasRemoved()) {
-        change.getRemoved().forEach(this::removeGameCard);
+        change.getRemoved().forEach(game -> fxApplicationThreadExecutor.execute(() -> removeGame(game)));
       }
 
       if (change.wasAdded()) {
-        change.getAddedSubList().forEach(this::addGameCard);
+        change.getAddedSubList().forEach(game -> fxApplicationThreadExecutor.execute(() -> addGame(game)));
       }
     }
   }
@@ -118,61 +135,58 @@ public class GamesTilesContainerController extends NodeController<Node> {
 
     this.games = games;
     this.games.addListener(gameListChangeListener);
-    games.forEach(this::addGameCard);
-    selectFirstGame();
+    List<GameInfo> initialGames = List.copyOf(games);
+    fxApplicationThreadExecutor.execute(() -> {
+      initialGames.forEach(this::addGame);
+      selectFirstGame();
+    });
   }
 
   private void selectFirstGame() {
-    selectedGame.set(!gameCards.isEmpty() ? (GameInfo) gameCards.getFirst().getUserData() : null);
+    List<GameInfo> sortedGameList = sortedGames.getGames();
+    selectedGame.set(!sortedGameList.isEmpty() ? sortedGameList.getFirst() : null);
   }
 
-  private void addGameCard(GameInfo game) {
-    if (gameToGameCard.containsKey(game)) {
+  private void addGame(GameInfo game) {
+    if (trackedGames.containsKey(game)) {
       return;
     }
 
-    CompletableFuture.supplyAsync(() -> createGameCard(game))
-                     .thenAcceptAsync(root -> {
-                       gameToGameCard.put(game, root);
-                       if (selectedGame.get() == null) {
-                         selectedGame.set(game);
-                       }
-                     }, fxApplicationThreadExecutor)
-                     .exceptionally(throwable -> {
-                       log.error("Unable to create and add game card", throwable);
-                       return null;
-                     });
-
+    ObservableValue<Double> averageRating = playerService.getAverageRatingPropertyForGame(game);
+    Subscription subscription = Subscription.combine(
+        game.titleProperty().subscribe((oldValue, newValue) -> onSortKeyChanged(game)),
+        game.numActivePlayersProperty().subscribe((oldValue, newValue) -> onSortKeyChanged(game)),
+        averageRating.subscribe((oldValue, newValue) -> onSortKeyChanged(game)));
+    TrackedGame trackedGame = new TrackedGame(averageRating, subscription);
+    trackedGames.put(game, trackedGame);
+    sortedGames.put(game, trackedGame.createSortKey(game));
+    scheduleRowsUpdate();
+
+    if (selectedGame.get() == null) {
+      selectedGame.set(game);
+    }
   }
 
-  private Node createGameCard(GameInfo game) {
-    GameTileController gameTileController = uiService.loadFxml("theme/play/game_card.fxml");
-    gameTileController.setGame(game);
-    gameTileController.setOnSelectedListener(selectedGame::set);
-
-    Node root = gameTileController.getRoot();
-    root.setUserData(game);
-
-    root.setOnMouseEntered(event -> gameTooltipController.setGame(game));
-    root.setOnMouseExited(event -> {
-      if (Objects.equals(game, gameTooltipController.getGame())) {
-        gameTooltipController.setGame(null);
+  private void onSortKeyChanged(GameInfo game) {
+    fxApplicationThreadExecutor.execute(() -> {
+      TrackedGame trackedGame = trackedGames.get(game);
+      if (trackedGame != null && sortedGames.put(game, trackedGame.createSortKey(game))) {
+        scheduleRowsUpdate();
       }
     });
-    Tooltip.install(root, tooltip);
-    return root;
   }
 
-  private void removeGameCard(GameInfo game) {
-    fxApplicationThreadExecutor.execute(() -> {
-      Node card = gameToGameCard.remove(game);
-      if (card != null) {
-        Tooltip.uninstall(card, tooltip);
-        clearSelectedGame(game);
-      } else {
-        log.warn("Tried to remove game tile that did not exist.");
-      }
-    });
+  private void removeGame(GameInfo game) {
+    TrackedGame trackedGame = trackedGames.remove(game);
+    if (trackedGame == null) {
+      log.warn("Tried to remove game tile that did not exist.");
+      return;
+    }
+
+    trackedGame.subscription().unsubscribe();
+    sortedGames.remove(game);
+    scheduleRowsUpdate();
+    clearSelectedGame(game);
   }
 
   private void clearSelectedGame(GameInfo game) {
@@ -181,9 +195,48 @@ public class GamesTilesContainerController extends NodeController<Node> {
     }
   }
 
+  private int computeColumnCount() {
+    double availableWidth = tileRowsListView.getWidth() - SCROLL_BAR_WIDTH;
+    return Math.max(1, (int) ((availableWidth + TILE_GAP) / (tileWidth.get() + TILE_GAP)));
+  }
+
+  /**
+   * Updates the rows once after all changes of the current pulse, must be called from the FX thread.
+   */
+  private void scheduleRowsUpdate() {
+    if (!rowsUpdateScheduled) {
+      rowsUpdateScheduled = true;
+      fxApplicationThreadExecutor.runLater(this::updateRows);
+    }
+  }
+
+  private void updateRows() {
+    rowsUpdateScheduled = false;
+    updateRows(tileRows, sortedGames.getGames(), columnCount.get());
+  }
+
+  /**
+   * Splits the sorted games into rows of the given number of columns and replaces only the rows that differ.
+   */
+  static void updateRows(ObservableList<List<GameInfo>> rows, List<GameInfo> sortedGames, int columns) {
+    int numRows = (sortedGames.size() + columns - 1) / columns;
+    for (int i = 0; i < numRows; i++) {
+      int rowEnd = Math.min((i + 1) * columns, sortedGames.size());
+      List<GameInfo> row = List.copyOf(sortedGames.subList(i * columns, rowEnd));
+      if (i >= rows.size()) {
+        rows.add(row);
+      } else if (!rows.get(i).equals(row)) {
+        rows.set(i, row);
+      }
+    }
+    if (rows.size() > numRows) {
+      rows.remove(numRows, rows.size());
+    }
+  }
+
   @Override
   public Node getRoot() {
-    return tiledScrollPane;
+    return tileRowsListView;
   }
 
   public TilesSortingOrder getSortingOrder() {
@@ -198,16 +251,92 @@ public class GamesTilesContainerController extends NodeController<Node> {
     this.sortingOrder.set(sortingOrder);
   }
 
+  private record TrackedGame(ObservableValue<Double> averageRating, Subscription subscription) {
+
+    private GameSortKey createSortKey(GameInfo game) {
+      return GameSortKey.of(game, Objects.requireNonNullElse(averageRating.getValue(), 0d));
+    }
+  }
+
+  /**
+   * A row of game tiles. Tiles are kept while the cell is reused for other rows and only acquired from or released to
+   * the pool when the number of games in the row changes.
+   */
+  private final class GameTileRowCell extends ListCell<List<GameInfo>> {
+
+    private final HBox tiles = new HBox(TILE_GAP);
+    private final List<GameTileController> tileControllers = new ArrayList<>();
+
+    @Override
+    protected void updateItem(List<GameInfo> row, boolean empty) {
+      super.updateItem(row, empty);
+
+      List<GameInfo> rowGames = empty || row == null ? List.of() : row;
+      while (tileControllers.size() > rowGames.size()) {
+        releaseTile(tileControllers.removeLast(), tiles.getChildren().removeLast());
+      }
+      while (tileControllers.size() < rowGames.size()) {
+        acquireTile();
+      }
+
+      for (int i = 0; i < rowGames.size(); i++) {
+        GameInfo game = rowGames.get(i);
+        tileControllers.get(i).setGame(game);
+        tiles.getChildren().get(i).setUserData(game);
+      }
+
+      setText(null);
+      setGraphic(rowGames.isEmpty() ? null : tiles);
+    }
+
+    @Override
+    protected void layoutChildren() {
+      super.layoutChildren();
+      if (!tiles.getChildren().isEmpty()) {
+        double width = tiles.getChildren().getFirst().getLayoutBounds().getWidth();
+        if (width > 0) {
+          tileWidth.set(width);
+        }
+      }
+    }
+
+    private void acquireTile() {
+      GameTileController gameTileController = gameCardPool.acquire();
+      gameTileController.setOnSelectedListener(selectedGame::set);
+
+      Node root = gameTileController.getRoot();
+      root.setOnMouseEntered(event -> gameTooltipController.setGame((GameInfo) root.getUserData()));
+      root.setOnMouseExited(event -> {
+        if (Objects.equals(root.getUserData(), gameTooltipController.getGame())) {
+          gameTooltipController.setGame(null);
+        }
+      });
+      Tooltip.install(root, tooltip);
+
+      tileControllers.add(gameTileController);
+      tiles.getChildren().add(root);
+    }
+
+    private void releaseTile(GameTileController gameTileController, Node root) {
+      Tooltip.uninstall(root, tooltip);
+      root.setOnMouseEntered(null);
+      root.setOnMouseExited(null);
+      root.setUserData(null);
+      gameCardPool.release(gameTileController);
+    }
+  }
+
   @Getter
   @RequiredArgsConstructor
   public enum TilesSortingOrder {
-    PLAYER_DES("tiles.comparator.playersDescending"),
-    PLAYER_ASC("tiles.comparator.playersAscending"),
-    AVG_RATING_DES("tiles.comparator.averageRatingDescending"),
-    AVG_RATING_ASC("tiles.comparator.averageRatingAscending"),
-    NAME_DES("tiles.comparator.nameDescending"),
-    NAME_ASC("tiles.comparator.nameAscending");
+    PLAYER_DES("tiles.comparator.playersDescending", GameSortKey.BY_PLAYERS.reversed()),
+    PLAYER_ASC("tiles.comparator.playersAscending", GameSortKey.BY_PLAYERS),
+    AVG_RATING_DES("tiles.comparator.averageRatingDescending", GameSortKey.BY_AVERAGE_RATING.reversed()),
+    AVG_RATING_ASC("tiles.comparator.averageRatingAscending", GameSortKey.BY_AVERAGE_RATING),
+    NAME_DES("tiles.comparator.nameDescending", GameSortKey.BY_TITLE.reversed()),
+    NAME_ASC("tiles.comparator.nameAscending", GameSortKey.BY_TITLE);
 
     private final String displayNameKey;
+    private final Comparator<GameSortKey> comparator;
   }
 }
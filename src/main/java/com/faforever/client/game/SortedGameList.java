@@ -0,0 +1,87 @@
+package com.faforever.client.game;
+
+import com.faforever.client.domain.server.GameInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Games kept sorted by their {@link GameSortKey}. Adding, removing or updating the key of a game moves only that game,
+ * found by binary search, instead of sorting all games again.
+ * <p>
+ * Not thread safe.
+ */
+final class SortedGameList {
+
+  private static final Comparator<GameSortKey> BY_ID = Comparator.comparingInt(GameSortKey::id);
+
+  private final Map<GameInfo, GameSortKey> sortKeys = new HashMap<>();
+  private final List<GameInfo> games = new ArrayList<>();
+  private final List<GameInfo> unmodifiableGames = Collections.unmodifiableList(games);
+  private Comparator<GameSortKey> comparator = BY_ID;
+
+  /**
+   * Adds the game with the given key, or moves it if it has been added before. Returns whether anything changed.
+   */
+  boolean put(GameInfo game, GameSortKey sortKey) {
+    GameSortKey oldSortKey = sortKeys.get(game);
+    if (oldSortKey != null) {
+      if (oldSortKey.equals(sortKey)) {
+        return false;
+      }
+      games.remove(indexOf(game));
+    }
+
+    sortKeys.put(game, sortKey);
+    int position = Collections.binarySearch(games, game, this::compare);
+    games.add(position < 0 ? -(position + 1) : position, game);
+    return true;
+  }
+
+  void remove(GameInfo game) {
+    if (!sortKeys.containsKey(game)) {
+      return;
+    }
+    games.remove(indexOf(game));
+    sortKeys.remove(game);
+  }
+
+  boolean contains(GameInfo game) {
+    return sortKeys.containsKey(game);
+  }
+
+  /**
+   * Sorts the games by the given comparator, or by id if it is null. Games with equal keys are sorted by id.
+   */
+  void setComparator(Comparator<GameSortKey> comparator) {
+    this.comparator = comparator == null ? BY_ID : comparator.thenComparing(BY_ID);
+    games.sort(this::compare);
+  }
+
+  /**
+   * Returns the sorted games. The returned list is a view and changes along with this list.
+   */
+  List<GameInfo> getGames() {
+    return unmodifiableGames;
+  }
+
+  private int compare(GameInfo first, GameInfo second) {
+    return comparator.compare(sortKeys.get(first), sortKeys.get(second));
+  }
+
+  /**
+   * Returns the position of the game according to its current key. Keys are unique, since games are identified by
+   * their id and ties are broken by it.
+   */
+  private int indexOf(GameInfo game) {
+    int position = Collections.binarySearch(games, game, this::compare);
+    if (position < 0) {
+      throw new IllegalStateException("Game `" + game.getId() + "` is not sorted by its key");
+    }
+    return position;
+  }
+}
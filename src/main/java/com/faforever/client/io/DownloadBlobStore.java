@@ -0,0 +1,256 @@
+package com.faforever.client.io;
+
+import com.faforever.client.preferences.DataPrefs;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Content addressed store of downloaded files, e.g. map, mod or replay archives. Files are stored by their MD5 hash, and
+ * an index maps the URL a file has been downloaded from to its hash, so that a file which is downloaded again from the
+ * same URL, or with a known hash, is not fetched twice. Vault URLs are versioned, so their content doesn't change.
+ * <p>
+ * The store is bounded in size by {@link DataPrefs#getDownloadCacheMaxSizeMegabytes()}, the least recently used files
+ * are deleted first. Files that are returned by the store are pinned until they are {@link #release(Path) released},
+ * so that they are not deleted while they are being used, even if the store exceeds its size. With a size of 0, files
+ * are only kept while they are in use.
+ */
+@Slf4j
+@Lazy
+@Component
+@RequiredArgsConstructor
+public class DownloadBlobStore implements DisposableBean {
+
+  static final String DIRECTORY_NAME = "downloads";
+  private static final String INDEX_FILE_NAME = "index.json";
+  private static final String BLOBS_DIRECTORY_NAME = "blobs";
+  private static final String PARTIAL_DIRECTORY_NAME = "partial";
+  private static final String PARTIAL_FILE_SUFFIX = ".part";
+
+  private final DataPrefs dataPrefs;
+
+  private final ObjectMapper objectMapper = new ObjectMapper()
+      .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  private final Map<String, String> md5ByUrl = new ConcurrentHashMap<>();
+  private final AtomicBoolean dirty = new AtomicBoolean();
+  /** Guarded by {@code this}. */
+  private final Map<Path, Integer> pinCounts = new HashMap<>();
+  private volatile boolean loaded;
+
+  /**
+   * Returns the file that has previously been downloaded from the given URL, if it is still stored. The file is pinned
+   * and has to be released.
+   */
+  public Optional<Path> getByUrl(URL url) {
+    loadIfNecessary();
+    String md5 = md5ByUrl.get(url.toExternalForm());
+    if (md5 == null) {
+      return Optional.empty();
+    }
+
+    Optional<Path> blob = getByMd5(md5);
+    if (blob.isEmpty() && md5ByUrl.remove(url.toExternalForm(), md5)) {
+      dirty.set(true);
+    }
+    return blob;
+  }
+
+  /**
+   * Returns the stored file with the given MD5 hash, if any. The file is pinned and has to be released.
+   */
+  public synchronized Optional<Path> getByMd5(String md5) {
+    Path blob = getBlobsDirectory().resolve(md5);
+    if (!Files.isRegularFile(blob)) {
+      return Optional.empty();
+    }
+    pin(blob);
+
+    try {
+      Files.setLastModifiedTime(blob, FileTime.fromMillis(System.currentTimeMillis()));
+    } catch (IOException e) {
+      log.debug("Could not touch blob `{}`", blob, e);
+    }
+    return Optional.of(blob);
+  }
+
+  /**
+   * Returns the file a download from the given URL is written to until it completes. The file is kept if the download
+   * fails, so that it can be resumed.
+   */
+  public Path getPartialFile(URL url) throws IOException {
+    String fileName = Hashing.sha256().hashString(url.toExternalForm(), StandardCharsets.UTF_8) + PARTIAL_FILE_SUFFIX;
+    return Files.createDirectories(getDirectory().resolve(PARTIAL_DIRECTORY_NAME)).resolve(fileName);
+  }
+
+  /**
+   * Moves a completely downloaded file into the store.
+   *
+   * @return the stored file, which is pinned and has to be released
+   */
+  public Path store(URL url, Path downloadedFile, String md5) throws IOException {
+    loadIfNecessary();
+    Path blob;
+    synchronized (this) {
+      blob = Files.createDirectories(getBlobsDirectory()).resolve(md5);
+      if (Files.exists(blob)) {
+        // The same content has already been downloaded from another URL
+        Files.delete(downloadedFile);
+      } else {
+        Files.move(downloadedFile, blob, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      }
+      pin(blob);
+      md5ByUrl.put(url.toExternalForm(), md5);
+      dirty.set(true);
+
+      deleteLeastRecentlyUsedBlobs();
+    }
+    saveIfDirty();
+    return blob;
+  }
+
+  /**
+   * Releases a file that has been returned by the store, so that it may be deleted once it isn't used anymore.
+   */
+  public synchronized void release(Path blob) {
+    Integer pinCount = pinCounts.get(blob);
+    if (pinCount == null) {
+      throw new IllegalStateException("Blob `" + blob + "` is not pinned");
+    }
+    if (pinCount > 1) {
+      pinCounts.put(blob, pinCount - 1);
+      return;
+    }
+    pinCounts.remove(blob);
+    deleteLeastRecentlyUsedBlobs();
+  }
+
+  /**
+   * Writes the index to disk if it has been modified since it was last written.
+   */
+  public synchronized void saveIfDirty() {
+    if (!dirty.getAndSet(false)) {
+      return;
+    }
+
+    Path indexFile = getDirectory().resolve(INDEX_FILE_NAME);
+    try {
+      Files.createDirectories(indexFile.getParent());
+      Path temporaryIndexFile = Files.createTempFile(indexFile.getParent(), INDEX_FILE_NAME, null);
+      objectMapper.writeValue(temporaryIndexFile.toFile(), Map.copyOf(md5ByUrl));
+      Files.move(temporaryIndexFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      dirty.set(true);
+      log.warn("Could not write download index `{}`", indexFile, e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    saveIfDirty();
+  }
+
+  private void pin(Path blob) {
+    pinCounts.merge(blob, 1, Integer::sum);
+  }
+
+  private synchronized void deleteLeastRecentlyUsedBlobs() {
+    long maxSizeBytes = Math.max(0, dataPrefs.getDownloadCacheMaxSizeMegabytes()) * 1024L * 1024L;
+    List<Path> blobs;
+    try (Stream<Path> files = Files.list(getBlobsDirectory())) {
+      blobs = new ArrayList<>(files.filter(Files::isRegularFile).toList());
+    } catch (IOException e) {
+      log.warn("Could not list stored downloads", e);
+      return;
+    }
+
+    long totalSize = blobs.stream().mapToLong(DownloadBlobStore::sizeOf).sum();
+    if (totalSize <= maxSizeBytes) {
+      return;
+    }
+
+    blobs.sort(Comparator.comparing(DownloadBlobStore::lastModifiedOf));
+    for (Path blob : blobs) {
+      if (totalSize <= maxSizeBytes) {
+        break;
+      }
+      if (pinCounts.containsKey(blob)) {
+        continue;
+      }
+      long size = sizeOf(blob);
+      try {
+        Files.delete(blob);
+        totalSize -= size;
+        log.debug("Deleted least recently used download `{}`", blob);
+      } catch (IOException e) {
+        log.warn("Could not delete stored download `{}`", blob, e);
+      }
+    }
+  }
+
+  private synchronized void loadIfNecessary() {
+    if (loaded) {
+      return;
+    }
+    loaded = true;
+
+    Path indexFile = getDirectory().resolve(INDEX_FILE_NAME);
+    if (Files.notExists(indexFile)) {
+      return;
+    }
+
+    try {
+      Map<String, String> entries = objectMapper.readValue(indexFile.toFile(), new TypeReference<>() {});
+      md5ByUrl.putAll(entries);
+    } catch (IOException e) {
+      log.warn("Could not read download index `{}`, rebuilding it", indexFile, e);
+    }
+  }
+
+  private Path getDirectory() {
+    return dataPrefs.getCacheDirectory().resolve(DIRECTORY_NAME);
+  }
+
+  private Path getBlobsDirectory() {
+    return getDirectory().resolve(BLOBS_DIRECTORY_NAME);
+  }
+
+  private static long sizeOf(Path file) {
+    try {
+      return Files.size(file);
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  private static FileTime lastModifiedOf(Path file) {
+    try {
+      return Files.readAttributes(file, BasicFileAttributes.class).lastModifiedTime();
+    } catch (IOException e) {
+      return FileTime.fromMillis(0);
+    }
+  }
+}
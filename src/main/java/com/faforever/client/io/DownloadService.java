@@ -3,71 +3,673 @@ package com.faforever.client.io;
 import com.faforever.client.task.ResourceLocks;
 import com.faforever.commons.io.ByteCopier;
 import com.faforever.commons.io.ByteCountListener;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.security.DigestInputStream;
-import java.security.MessageDigest;
+import java.nio.file.StandardOpenOption;
 import java.security.NoSuchAlgorithmException;
-import java.util.HexFormat;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Downloads files, resuming interrupted HTTP downloads with range requests where the server supports them.
+ * <p>
+ * Concurrent downloads of the same file are only performed once. Archives like maps, mods and replays are downloaded
+ * into the {@link DownloadBlobStore}, so that an archive that has been downloaded before is not downloaded again.
+ */
 @Service
 @Lazy
 @Slf4j
 @RequiredArgsConstructor
 public class DownloadService {
 
+  @VisibleForTesting
+  static final int MAX_ATTEMPTS = 5;
+  private static final Duration RETRY_BACKOFF = Duration.ofMillis(200);
+  private static final String PARTIAL_FILE_SUFFIX = ".part";
+  private static final String VALIDATOR_FILE_SUFFIX = ".validator";
+
+  private final DownloadBlobStore downloadBlobStore;
+
+  private final Map<String, CompletableFuture<Path>> inFlightDownloads = new ConcurrentHashMap<>();
+  private final LongAdder completedDownloads = new LongAdder();
+  private final LongAdder deduplicatedDownloads = new LongAdder();
+  private final LongAdder blobStoreHits = new LongAdder();
+  private final LongAdder retries = new LongAdder();
+  private final LongAdder transferredBytes = new LongAdder();
+  private final LongAdder resumedBytes = new LongAdder();
+
   /*
    * Download a file from a URL using a temporary path and copy it to targetFile if it downloaded and the checksum
    * matched.
    */
   public void downloadFile(URL url, Map<String, String> requestProperties, Path targetFile, ByteCountListener progressListener, String md5sum) throws IOException, NoSuchAlgorithmException, ChecksumMismatchException {
-    Path tempFile = Files.createTempFile(targetFile.getParent(), "download", null);
+    String key = targetFile.toAbsolutePath().normalize().toString();
+    deduplicate(key, progressListener, () -> {
+      Path partialFile = targetFile.resolveSibling(targetFile.getFileName() + PARTIAL_FILE_SUFFIX);
+      String checksum = downloadAndHash(url, requestProperties, partialFile, progressListener, md5sum);
 
+      // NOTE: It is crucial that we verify the checksum before using the file when downloading from mirrors! We don't
+      // want to be running unverified executables!
+      if (!Objects.equals(md5sum, checksum)) {
+        deletePartialFile(partialFile);
+        throw new ChecksumMismatchException(url, checksum, md5sum);
+      }
 
-    URLConnection urlConnection = url.openConnection();
-    requestProperties.forEach(urlConnection::setRequestProperty);
+      Files.move(partialFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
+      return targetFile;
+    });
+  }
 
-    log.info("Downloading file from `{}` to `{}`", url, tempFile);
+  /**
+   * Downloads a file into the {@link DownloadBlobStore}, unless it has already been downloaded from the same URL, and
+   * passes it to the given function. The stored file is not deleted from the store while the function uses it.
+   *
+   * @return the result of the function
+   */
+  public <T> T withDownloadedFile(URL url, ByteCountListener progressListener,
+                                  StoredFileFunction<T> function) throws IOException {
+    Path storedFile = downloadToBlobStore(url, progressListener);
+    try {
+      return function.apply(storedFile);
+    } finally {
+      downloadBlobStore.release(storedFile);
+    }
+  }
 
-    ResourceLocks.acquireDownloadLock();
-    MessageDigest messageDigest = MessageDigest.getInstance("MD5");
-    try (InputStream inputStream = urlConnection.getInputStream();
-         DigestInputStream digestInputStream = new DigestInputStream(inputStream, messageDigest);
-         OutputStream outputStream = Files.newOutputStream(tempFile)) {
+  /**
+   * Downloads a file into the {@link DownloadBlobStore} and passes it to the given processor while it is being
+   * downloaded, so that it doesn't have to be read again afterwards. If the file has been downloaded before, or if the
+   * download is interrupted and has to be resumed, the stored file is passed to the processor instead. The processor
+   * may therefore be called more than once and has to start over every time.
+   */
+  public void downloadToBlobStore(URL url, ByteCountListener progressListener,
+                                  DownloadProcessor processor) throws IOException {
+    Optional<Path> storedFile = downloadBlobStore.getByUrl(url);
+    if (storedFile.isPresent()) {
+      blobStoreHits.increment();
+      log.debug("Using previously downloaded file `{}` for `{}`", storedFile.get(), url);
+      try {
+        processStoredFile(storedFile.get(), progressListener, processor);
+      } finally {
+        downloadBlobStore.release(storedFile.get());
+      }
+      return;
+    }
 
-      ByteCopier.from(digestInputStream)
-          .to(outputStream)
-          .totalBytes(urlConnection.getContentLength())
-          .listener(progressListener)
-          .copy();
+    AtomicBoolean processed = new AtomicBoolean();
+    Path file;
+    try {
+      file = deduplicate(url.toExternalForm(), progressListener, () -> {
+        processed.set(true);
+        return downloadAndProcess(url, progressListener, processor);
+      });
+    } catch (ChecksumMismatchException e) {
+      throw new IllegalStateException("No checksum was expected", e);
+    }
 
-      // NOTE: It is crucial that we verify the checksum before using the file when downloading from mirrors! We don't
-      // want to be running unverified executables!
-      String checksum = HexFormat.of().formatHex(messageDigest.digest()).toLowerCase();
-      if (!Objects.equals(md5sum, checksum)) {
-        throw new ChecksumMismatchException(url, checksum, md5sum);
+    if (processed.get()) {
+      downloadBlobStore.release(file);
+    } else {
+      withDownloadedFile(url, progressListener, storedFileOfOtherDownload -> {
+        processStoredFile(storedFileOfOtherDownload, progressListener, processor);
+        return null;
+      });
+    }
+  }
+
+  /**
+   * Downloads a file into the {@link DownloadBlobStore}, unless it has already been downloaded from the same URL.
+   *
+   * @return the stored file, which is pinned and has to be released
+   */
+  private Path downloadToBlobStore(URL url, ByteCountListener progressListener) throws IOException {
+    while (true) {
+      Optional<Path> storedFile = downloadBlobStore.getByUrl(url);
+      if (storedFile.isPresent()) {
+        blobStoreHits.increment();
+        log.debug("Using previously downloaded file `{}` for `{}`", storedFile.get(), url);
+        reportCompleted(storedFile.get(), progressListener);
+        return storedFile.get();
+      }
+
+      AtomicBoolean downloaded = new AtomicBoolean();
+      Path file;
+      try {
+        file = deduplicate(url.toExternalForm(), progressListener, () -> {
+          downloaded.set(true);
+          Path partialFile = downloadBlobStore.getPartialFile(url);
+          String checksum = downloadAndHash(url, Map.of(), partialFile, progressListener, null);
+          return downloadBlobStore.store(url, partialFile, checksum);
+        });
+      } catch (ChecksumMismatchException e) {
+        throw new IllegalStateException("No checksum was expected", e);
+      }
+
+      if (downloaded.get()) {
+        return file;
+      }
+      // Another thread has downloaded the file, look it up again to pin it, or download it again if it is gone already
+    }
+  }
+
+  public long getCompletedDownloadCount() {
+    return completedDownloads.sum();
+  }
+
+  /**
+   * Returns how many downloads have been served by a download of the same file that was already in progress.
+   */
+  public long getDeduplicatedDownloadCount() {
+    return deduplicatedDownloads.sum();
+  }
+
+  public long getBlobStoreHitCount() {
+    return blobStoreHits.sum();
+  }
+
+  public long getRetryCount() {
+    return retries.sum();
+  }
+
+  public long getTransferredByteCount() {
+    return transferredBytes.sum();
+  }
+
+  /**
+   * Returns how many bytes did not have to be downloaded again because an interrupted download was resumed.
+   */
+  public long getResumedByteCount() {
+    return resumedBytes.sum();
+  }
+
+  private Path deduplicate(String key, ByteCountListener progressListener,
+                           DownloadAction downloadAction) throws IOException, ChecksumMismatchException {
+    CompletableFuture<Path> download = new CompletableFuture<>();
+    CompletableFuture<Path> inFlightDownload = inFlightDownloads.putIfAbsent(key, download);
+    if (inFlightDownload != null) {
+      deduplicatedDownloads.increment();
+      log.debug("Waiting for download of `{}` that is already in progress", key);
+      Path file = awaitDownload(inFlightDownload);
+      reportCompleted(file, progressListener);
+      return file;
+    }
+
+    try {
+      Path file = downloadAction.download();
+      download.complete(file);
+      return file;
+    } catch (IOException | ChecksumMismatchException | RuntimeException e) {
+      download.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlightDownloads.remove(key, download);
+    }
+  }
+
+  private Path downloadAndProcess(URL url, ByteCountListener progressListener,
+                                  DownloadProcessor processor) throws IOException {
+    Path partialFile = downloadBlobStore.getPartialFile(url);
+    if (canBeResumed(url, partialFile, null)) {
+      return resumeAndProcess(url, partialFile, progressListener, processor);
+    }
+
+    long startNanos = System.nanoTime();
+    TeeInputStream teeInputStream = null;
+
+    URLConnection urlConnection = null;
+    try {
+      log.info("Downloading and processing file from `{}`", url);
+      // The download lock is only held while connecting and, by the tee input stream, while reading, so that
+      // processing the content doesn't keep uploads waiting
+      InputStream connectionInputStream;
+      ResourceLocks.acquireDownloadLock();
+      try {
+        urlConnection = url.openConnection();
+        connectionInputStream = urlConnection.getInputStream();
+      } finally {
+        ResourceLocks.freeDownloadLock();
+      }
+      long contentLength = urlConnection.getContentLengthLong();
+      writeValidator(urlConnection, partialFile);
+
+      teeInputStream = new TeeInputStream(connectionInputStream, Files.newOutputStream(partialFile),
+                                          new CountingListener(progressListener, 0, contentLength), contentLength);
+      try (TeeInputStream inputStream = teeInputStream) {
+        processor.process(inputStream);
+        inputStream.drain();
+      }
+      transferredBytes.add(teeInputStream.getBytesRead());
+
+      if (teeInputStream.hasFailedOrEndedEarly()) {
+        throw new IOException("Download of " + url + " ended after " + teeInputStream.getBytesRead() + " of " + contentLength + " bytes");
+      }
+
+      completedDownloads.increment();
+      DownloadStatistics statistics = new DownloadStatistics(url, teeInputStream.getBytesRead(), 0, 1,
+                                                             Duration.ofNanos(System.nanoTime() - startNanos));
+      log.info("Downloaded and processed `{}` ({} bytes) in {} ms, {} KiB/s", url, statistics.transferredBytes(),
+               statistics.duration().toMillis(), statistics.bytesPerSecond() / 1024);
+      Files.deleteIfExists(validatorFileOf(partialFile));
+      return downloadBlobStore.store(url, partialFile, teeInputStream.getChecksum());
+    } catch (IOException | RuntimeException e) {
+      if (teeInputStream == null || !teeInputStream.hasFailedOrEndedEarly()) {
+        // Either the download could not be started or the processor failed, which a retry won't fix
+        deletePartialFile(partialFile);
+        throw e;
+      }
+      retries.increment();
+      log.info("Download of `{}` has been interrupted while being processed ({})", url, e.getMessage());
+    } finally {
+      if (urlConnection instanceof HttpURLConnection httpURLConnection) {
+        httpURLConnection.disconnect();
+      }
+    }
+
+    return resumeAndProcess(url, partialFile, progressListener, processor);
+  }
+
+  /**
+   * Completes an interrupted download first and then processes the stored file.
+   */
+  private Path resumeAndProcess(URL url, Path partialFile, ByteCountListener progressListener,
+                                DownloadProcessor processor) throws IOException {
+    log.info("Resuming download of `{}` before processing it", url);
+    String checksum = downloadAndHash(url, Map.of(), partialFile, progressListener, null);
+    Path storedFile = downloadBlobStore.store(url, partialFile, checksum);
+    try {
+      processStoredFile(storedFile, progressListener, processor);
+    } catch (IOException | RuntimeException e) {
+      downloadBlobStore.release(storedFile);
+      throw e;
+    }
+    return storedFile;
+  }
+
+  /**
+   * Downloads the given URL into the partial file, resuming it if it has been interrupted before.
+   *
+   * @return the lower case hex MD5 checksum of the downloaded file
+   */
+  private String downloadAndHash(URL url, Map<String, String> requestProperties, Path partialFile,
+                                 ByteCountListener progressListener, String expectedMd5sum) throws IOException {
+    ResourceLocks.acquireDownloadLock();
+    try {
+      DownloadStatistics statistics = transfer(url, requestProperties, partialFile, progressListener, expectedMd5sum);
+      String checksum = md5Of(partialFile);
+
+      if (statistics.resumedBytes() > 0 && expectedMd5sum != null && !expectedMd5sum.equals(checksum)) {
+        // The resumed part didn't belong to the same file, so download it completely instead
+        log.info("Checksum of resumed download from `{}` does not match, downloading it again", url);
+        deletePartialFile(partialFile);
+        statistics = transfer(url, requestProperties, partialFile, progressListener, expectedMd5sum);
+        checksum = md5Of(partialFile);
       }
 
-      Files.move(tempFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
+      completedDownloads.increment();
+      log.info("Downloaded `{}` ({} bytes, {} bytes resumed) in {} ms with {} attempt(s), {} KiB/s", url,
+               statistics.transferredBytes(), statistics.resumedBytes(), statistics.duration().toMillis(),
+               statistics.attempts(), statistics.bytesPerSecond() / 1024);
+      Files.deleteIfExists(validatorFileOf(partialFile));
+      return checksum;
+    } catch (IOException | RuntimeException e) {
+      if (!canBeResumed(url, partialFile, expectedMd5sum)) {
+        deletePartialFile(partialFile);
+      }
+      throw e;
     } finally {
       ResourceLocks.freeDownloadLock();
+    }
+  }
+
+  private DownloadStatistics transfer(URL url, Map<String, String> requestProperties, Path partialFile,
+                                      ByteCountListener progressListener, String expectedMd5sum) throws IOException {
+    long startNanos = System.nanoTime();
+    long resumedByteCount = 0;
+    long transferredByteCount = 0;
+    int attempt = 0;
+
+    while (true) {
+      attempt++;
+      long offset = canBeResumed(url, partialFile, expectedMd5sum) ? Files.size(partialFile) : 0;
+
+      URLConnection urlConnection = url.openConnection();
+      requestProperties.forEach(urlConnection::setRequestProperty);
+      if (offset > 0) {
+        urlConnection.setRequestProperty("Range", "bytes=" + offset + "-");
+        readValidator(partialFile).ifPresent(validator -> urlConnection.setRequestProperty("If-Range", validator));
+      }
+
+      log.info("Downloading file from `{}` to `{}`, attempt {} of {}", url, partialFile, attempt, MAX_ATTEMPTS);
+
+      CountingListener countingListener = null;
       try {
-        Files.deleteIfExists(tempFile);
+        int responseCode = urlConnection instanceof HttpURLConnection httpURLConnection
+            ? httpURLConnection.getResponseCode()
+            : HttpURLConnection.HTTP_OK;
+
+        if (responseCode == 416) {
+          // Requested range not satisfiable, the partial file is not part of the current file anymore
+          deletePartialFile(partialFile);
+          throw new IOException("Server could not resume download of " + url);
+        }
+
+        boolean resumed = offset > 0 && responseCode == HttpURLConnection.HTTP_PARTIAL;
+        long startOffset = resumed ? offset : 0;
+        if (resumed) {
+          resumedByteCount += offset;
+          resumedBytes.add(offset);
+          log.debug("Resuming download of `{}` at byte {}", url, offset);
+        }
+        writeValidator(urlConnection, partialFile);
+
+        long contentLength = urlConnection.getContentLengthLong();
+        long totalBytes = contentLength < 0 ? -1 : startOffset + contentLength;
+        countingListener = new CountingListener(progressListener, startOffset, totalBytes);
+
+        StandardOpenOption[] openOptions = resumed
+            ? new StandardOpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND}
+            : new StandardOpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING};
+        try (InputStream inputStream = urlConnection.getInputStream();
+             OutputStream outputStream = Files.newOutputStream(partialFile, openOptions)) {
+          ByteCopier.from(inputStream)
+              .to(outputStream)
+              .totalBytes(totalBytes)
+              .listener(countingListener)
+              .copy();
+        }
+
+        if (totalBytes >= 0 && Files.size(partialFile) != totalBytes) {
+          throw new IOException("Download of " + url + " ended after " + Files.size(partialFile) + " of " + totalBytes + " bytes");
+        }
+
+        transferredByteCount += countingListener.getTransferredBytes();
+        transferredBytes.add(countingListener.getTransferredBytes());
+        return new DownloadStatistics(url, transferredByteCount, resumedByteCount, attempt,
+                                      Duration.ofNanos(System.nanoTime() - startNanos));
+      } catch (InterruptedIOException e) {
+        throw e;
       } catch (IOException e) {
-        log.warn("Could not delete temporary file: `{}`", tempFile.toAbsolutePath(), e);
+        if (countingListener != null) {
+          transferredByteCount += countingListener.getTransferredBytes();
+          transferredBytes.add(countingListener.getTransferredBytes());
+        }
+        if (attempt >= MAX_ATTEMPTS || !(urlConnection instanceof HttpURLConnection)) {
+          throw e;
+        }
+
+        retries.increment();
+        log.info("Download of `{}` failed, retrying ({})", url, e.getMessage());
+        sleepBeforeRetry(attempt);
+      } finally {
+        if (urlConnection instanceof HttpURLConnection httpURLConnection) {
+          httpURLConnection.disconnect();
+        }
+      }
+    }
+  }
+
+  /**
+   * A partial file may only be resumed if its content can be verified afterwards, or if the server can tell whether it
+   * has changed in the meantime.
+   */
+  private boolean canBeResumed(URL url, Path partialFile, String expectedMd5sum) {
+    if (!url.getProtocol().startsWith("http") || !Files.isRegularFile(partialFile)) {
+      return false;
+    }
+    return expectedMd5sum != null || Files.isRegularFile(validatorFileOf(partialFile));
+  }
+
+  private void deletePartialFile(Path partialFile) {
+    try {
+      Files.deleteIfExists(partialFile);
+      Files.deleteIfExists(validatorFileOf(partialFile));
+    } catch (IOException e) {
+      log.warn("Could not delete partial download: `{}`", partialFile.toAbsolutePath(), e);
+    }
+  }
+
+  private static void writeValidator(URLConnection urlConnection, Path partialFile) throws IOException {
+    String validator = Optional.ofNullable(urlConnection.getHeaderField("ETag"))
+        .filter(eTag -> !eTag.startsWith("W/"))
+        .orElse(urlConnection.getHeaderField("Last-Modified"));
+    Path validatorFile = validatorFileOf(partialFile);
+    if (validator == null) {
+      Files.deleteIfExists(validatorFile);
+    } else {
+      Files.writeString(validatorFile, validator, StandardCharsets.UTF_8);
+    }
+  }
+
+  private static Optional<String> readValidator(Path partialFile) throws IOException {
+    Path validatorFile = validatorFileOf(partialFile);
+    if (Files.notExists(validatorFile)) {
+      return Optional.empty();
+    }
+    return Optional.of(Files.readString(validatorFile, StandardCharsets.UTF_8));
+  }
+
+  private static Path validatorFileOf(Path partialFile) {
+    return partialFile.resolveSibling(partialFile.getFileName() + VALIDATOR_FILE_SUFFIX);
+  }
+
+  @SuppressWarnings("deprecation")
+  private static String md5Of(Path file) throws IOException {
+    return MoreFiles.asByteSource(file).hash(Hashing.md5()).toString();
+  }
+
+  private static void reportCompleted(Path file, ByteCountListener progressListener) throws IOException {
+    long size = Files.size(file);
+    progressListener.updateBytesProcessed(size, size);
+  }
+
+  private static void processStoredFile(Path file, ByteCountListener progressListener,
+                                        DownloadProcessor processor) throws IOException {
+    try (InputStream inputStream = Files.newInputStream(file)) {
+      processor.process(inputStream);
+    }
+    reportCompleted(file, progressListener);
+  }
+
+  private static void sleepBeforeRetry(int attempt) throws InterruptedIOException {
+    try {
+      Thread.sleep(RETRY_BACKOFF.multipliedBy(attempt));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting to retry download");
+    }
+  }
+
+  private static Path awaitDownload(CompletableFuture<Path> download) throws IOException, ChecksumMismatchException {
+    try {
+      return download.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for download");
+    } catch (ExecutionException | CompletionException e) {
+      switch (e.getCause()) {
+        case IOException ioException -> throw ioException;
+        case ChecksumMismatchException checksumMismatchException -> throw checksumMismatchException;
+        case RuntimeException runtimeException -> throw runtimeException;
+        default -> throw new IOException(e.getCause());
+      }
+    }
+  }
+
+  /**
+   * Processes the content of a download, e.g. by extracting it.
+   */
+  @FunctionalInterface
+  public interface DownloadProcessor {
+    void process(InputStream inputStream) throws IOException;
+  }
+
+  /**
+   * Uses a stored download, e.g. by copying it.
+   */
+  @FunctionalInterface
+  public interface StoredFileFunction<T> {
+    T apply(Path storedFile) throws IOException;
+  }
+
+  @FunctionalInterface
+  private interface DownloadAction {
+    Path download() throws IOException, ChecksumMismatchException;
+  }
+
+  /**
+   * Reports the progress of a possibly resumed download relative to the whole file, and counts the bytes that have
+   * actually been transferred.
+   */
+  private static class CountingListener implements ByteCountListener {
+
+    private final ByteCountListener delegate;
+    private final long offset;
+    private final long totalBytes;
+    private long transferredBytes;
+
+    CountingListener(ByteCountListener delegate, long offset, long totalBytes) {
+      this.delegate = delegate;
+      this.offset = offset;
+      this.totalBytes = totalBytes;
+    }
+
+    @Override
+    public void updateBytesProcessed(long processed, long total) {
+      transferredBytes = processed;
+      delegate.updateBytesProcessed(offset + processed, totalBytes);
+    }
+
+    long getTransferredBytes() {
+      return transferredBytes;
+    }
+  }
+
+  /**
+   * Writes everything that is read from a download to a file and computes its checksum on the way. Remembers whether
+   * the download itself failed, as opposed to whoever reads from it.
+   */
+  private static class TeeInputStream extends FilterInputStream {
+
+    private final OutputStream outputStream;
+    private final ByteCountListener progressListener;
+    private final long totalBytes;
+    @SuppressWarnings("deprecation")
+    private final Hasher hasher = Hashing.md5().newHasher();
+    private long bytesRead;
+    private boolean failed;
+    private boolean ended;
+
+    TeeInputStream(InputStream inputStream, OutputStream outputStream, ByteCountListener progressListener,
+                   long totalBytes) {
+      super(inputStream);
+      this.outputStream = outputStream;
+      this.progressListener = progressListener;
+      this.totalBytes = totalBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] singleByte = new byte[1];
+      int count = read(singleByte, 0, 1);
+      return count == -1 ? -1 : singleByte[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      int count;
+      ResourceLocks.acquireDownloadLock();
+      try {
+        count = super.read(buffer, offset, length);
+      } catch (IOException e) {
+        failed = true;
+        throw e;
+      } finally {
+        ResourceLocks.freeDownloadLock();
+      }
+
+      if (count == -1) {
+        ended = true;
+        return -1;
+      }
+      outputStream.write(buffer, offset, count);
+      hasher.putBytes(buffer, offset, count);
+      bytesRead += count;
+      progressListener.updateBytesProcessed(bytesRead, totalBytes);
+      return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      byte[] buffer = new byte[8192];
+      long skipped = 0;
+      while (skipped < n) {
+        int count = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+        if (count == -1) {
+          break;
+        }
+        skipped += count;
+      }
+      return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+
+    /**
+     * Reads whatever the processor didn't read, e.g. the central directory of a zip file.
+     */
+    void drain() throws IOException {
+      byte[] buffer = new byte[8192];
+      while (read(buffer, 0, buffer.length) != -1) {
+        // Just keep reading
+      }
+    }
+
+    long getBytesRead() {
+      return bytesRead;
+    }
+
+    String getChecksum() {
+      return hasher.hash().toString();
+    }
+
+    boolean hasFailedOrEndedEarly() {
+      return failed || (ended && totalBytes >= 0 && bytesRead != totalBytes);
+    }
+
+    @Override
+    public void close() throws IOException {
+      try (outputStream) {
+        super.close();
       }
     }
   }
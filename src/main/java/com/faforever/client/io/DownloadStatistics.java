@@ -0,0 +1,15 @@
+package com.faforever.client.io;
+
+import java.net.URL;
+import java.time.Duration;
+
+/**
+ * Statistics of a single download, {@code transferredBytes} includes bytes of failed attempts.
+ */
+public record DownloadStatistics(URL url, long transferredBytes, long resumedBytes, int attempts, Duration duration) {
+
+  public long bytesPerSecond() {
+    long millis = Math.max(1, duration.toMillis());
+    return transferredBytes * 1000 / millis;
+  }
+}
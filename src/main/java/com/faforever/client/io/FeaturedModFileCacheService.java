@@ -1,11 +1,11 @@
 package com.faforever.client.io;
 
+import com.faforever.client.io.FileFingerprintService.DigestAlgorithm;
 import com.faforever.client.preferences.DataPrefs;
 import com.faforever.client.preferences.Preferences;
 import com.faforever.client.task.ResourceLocks;
 import com.faforever.client.util.UpdaterUtil;
 import com.faforever.commons.api.dto.FeaturedModFile;
-import com.google.common.hash.Hashing;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.InitializingBean;
@@ -22,8 +22,6 @@ import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.util.stream.Stream;
 
-import static com.google.common.io.Files.hash;
-
 
 @Service
 @Slf4j
@@ -31,13 +29,17 @@ import static com.google.common.io.Files.hash;
 public class FeaturedModFileCacheService implements InitializingBean {
   private final DataPrefs dataPrefs;
   private final Preferences preferences;
+  private final FileFingerprintService fileFingerprintService;
 
   public boolean isCached(FeaturedModFile featuredModFile) throws IOException {
     return Files.exists(getCachedFilePath(featuredModFile));
   }
 
+  /**
+   * Returns the MD5 hash of the given file, which is only computed if the file has changed since it was last hashed.
+   */
   public String readHashFromFile(Path filePath) throws IOException {
-    return hash(filePath.toFile(), Hashing.md5()).toString();
+    return fileFingerprintService.getDigest(filePath, DigestAlgorithm.MD5);
   }
 
   private Path getCachedFilePath(String hash, String group) {
@@ -56,7 +58,7 @@ public class FeaturedModFileCacheService implements InitializingBean {
 
   public void copyFeaturedModFileFromCache(FeaturedModFile featuredModFile, Path targetPath) throws IOException {
     Files.createDirectories(targetPath.getParent());
-    ResourceLocks.acquireDiskLock();
+    ResourceLocks.acquireFileLock(targetPath);
 
     try {
       if (Files.exists(targetPath) && preferences.isGameDataCacheActivated()) {
@@ -64,9 +66,23 @@ public class FeaturedModFileCacheService implements InitializingBean {
         moveFeaturedModFileToCache(targetPath);
       }
       Files.copy(getCachedFilePath(featuredModFile), targetPath, StandardCopyOption.REPLACE_EXISTING);
-      UpdaterUtil.extractMoviesAndSoundsIfPresent(targetPath, dataPrefs.getBaseDataDirectory());
+      extractMoviesAndSounds(targetPath);
     } finally {
-      ResourceLocks.freeDiskLock();
+      ResourceLocks.freeFileLock(targetPath);
+    }
+  }
+
+  /**
+   * Files are copied in parallel, but the movies and sounds of all of them go into the same folders of the data
+   * directory, which may contain the same files.
+   */
+  private void extractMoviesAndSounds(Path targetPath) throws IOException {
+    Path baseDataDirectory = dataPrefs.getBaseDataDirectory();
+    ResourceLocks.acquireFileLock(baseDataDirectory);
+    try {
+      UpdaterUtil.extractMoviesAndSoundsIfPresent(targetPath, baseDataDirectory);
+    } finally {
+      ResourceLocks.freeFileLock(baseDataDirectory);
     }
   }
 
@@ -106,9 +122,8 @@ public class FeaturedModFileCacheService implements InitializingBean {
    * Per directory cleanup old files.
    */
   private void deleteCachedFileIfNeeded(Path filePath) {
+    ResourceLocks.acquireFileLock(filePath);
     try {
-      ResourceLocks.acquireDiskLock();
-
       FileTime lastAccessTime = Files.readAttributes(filePath, BasicFileAttributes.class).lastAccessTime();
       OffsetDateTime comparableLastAccessTime = OffsetDateTime.ofInstant(lastAccessTime.toInstant(), ZoneId.systemDefault());
       final boolean olderThanCacheTime = comparableLastAccessTime.plusDays(preferences.getCacheLifeTimeInDays()).isBefore(OffsetDateTime.now());
@@ -120,7 +135,7 @@ public class FeaturedModFileCacheService implements InitializingBean {
     } catch (Exception e) {
       log.error("Exception during deleting the cache files", e);
     } finally {
-      ResourceLocks.freeDiskLock();
+      ResourceLocks.freeFileLock(filePath);
     }
   }
 }
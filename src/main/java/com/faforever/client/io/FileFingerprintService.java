@@ -0,0 +1,188 @@
+package com.faforever.client.io;
+
+import com.faforever.client.preferences.DataPrefs;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Persistent cache of file digests, so that large files like featured mod files or the game executable are not hashed
+ * again on every game launch. Digests are keyed by the absolute path of a file and are only valid as long as its size,
+ * modification time and file key (the inode, where supported) match the ones the digest has been computed for.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FileFingerprintService implements DisposableBean {
+
+  static final String CACHE_FILE_NAME = "file_fingerprints.json";
+
+  private final DataPrefs dataPrefs;
+
+  private final ObjectMapper objectMapper = new ObjectMapper()
+      .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  private final Map<String, Fingerprint> fingerprintsByPath = new ConcurrentHashMap<>();
+  private final AtomicBoolean dirty = new AtomicBoolean();
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder fullFileReads = new LongAdder();
+  private volatile boolean loaded;
+
+  public enum DigestAlgorithm {
+    @SuppressWarnings("deprecation")
+    MD5(Hashing.md5()),
+    SHA_256(Hashing.sha256());
+
+    private final HashFunction hashFunction;
+
+    DigestAlgorithm(HashFunction hashFunction) {
+      this.hashFunction = hashFunction;
+    }
+  }
+
+  /**
+   * Returns the lower case hex digest of the given file, which is only computed if the file has changed since it was
+   * last computed.
+   */
+  public String getDigest(Path file, DigestAlgorithm algorithm) throws IOException {
+    loadIfNecessary();
+    String key = toKey(file);
+    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+    Fingerprint fingerprint = fingerprintsByPath.get(key);
+    if (fingerprint != null && fingerprint.matches(attributes)) {
+      String digest = fingerprint.digests().get(algorithm.name());
+      if (digest != null) {
+        cacheHits.increment();
+        return digest;
+      }
+    }
+
+    fullFileReads.increment();
+    String digest = MoreFiles.asByteSource(file).hash(algorithm.hashFunction).toString();
+
+    // Don't cache the digest if the file has been modified while it was being read
+    Fingerprint attributesAfterRead = Fingerprint.of(Files.readAttributes(file, BasicFileAttributes.class));
+    if (attributesAfterRead.hasSameAttributes(Fingerprint.of(attributes))) {
+      putDigest(key, attributes, algorithm, digest);
+    }
+    return digest;
+  }
+
+  public long getCacheHitCount() {
+    return cacheHits.sum();
+  }
+
+  /**
+   * Returns how many times a file had to be read completely to compute its digest.
+   */
+  public long getFullFileReadCount() {
+    return fullFileReads.sum();
+  }
+
+  /**
+   * Writes the cache to disk if it has been modified since it was last written.
+   */
+  public synchronized void saveIfDirty() {
+    if (!dirty.getAndSet(false)) {
+      return;
+    }
+
+    Path cacheFile = getCacheFile();
+    try {
+      Files.createDirectories(cacheFile.getParent());
+      Path temporaryCacheFile = Files.createTempFile(cacheFile.getParent(), CACHE_FILE_NAME, null);
+      objectMapper.writeValue(temporaryCacheFile.toFile(), Map.copyOf(fingerprintsByPath));
+      Files.move(temporaryCacheFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      dirty.set(true);
+      log.warn("Could not write file fingerprint cache `{}`", cacheFile, e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    saveIfDirty();
+  }
+
+  private void putDigest(String key, BasicFileAttributes attributes, DigestAlgorithm algorithm, String digest) {
+    Fingerprint currentFingerprint = Fingerprint.of(attributes);
+    fingerprintsByPath.compute(key, (path, fingerprint) -> {
+      Map<String, String> digests = new HashMap<>();
+      if (fingerprint != null && fingerprint.hasSameAttributes(currentFingerprint)) {
+        digests.putAll(fingerprint.digests());
+      }
+      digests.put(algorithm.name(), digest);
+      return currentFingerprint.withDigests(digests);
+    });
+    dirty.set(true);
+  }
+
+  private synchronized void loadIfNecessary() {
+    if (loaded) {
+      return;
+    }
+    loaded = true;
+
+    Path cacheFile = getCacheFile();
+    if (Files.notExists(cacheFile)) {
+      return;
+    }
+
+    try {
+      Map<String, Fingerprint> entries = objectMapper.readValue(cacheFile.toFile(), new TypeReference<>() {});
+      fingerprintsByPath.putAll(entries);
+      log.debug("Loaded {} entries from file fingerprint cache", entries.size());
+    } catch (IOException e) {
+      log.warn("Could not read file fingerprint cache `{}`, rebuilding it", cacheFile, e);
+    }
+  }
+
+  private Path getCacheFile() {
+    return dataPrefs.getCacheDirectory().resolve(CACHE_FILE_NAME);
+  }
+
+  private static String toKey(Path file) {
+    return file.toAbsolutePath().normalize().toString();
+  }
+
+  /**
+   * The attributes of a file at the time its digests were computed, and the digests by algorithm name.
+   */
+  public record Fingerprint(long size, long lastModified, String fileKey, Map<String, String> digests) {
+
+    static Fingerprint of(BasicFileAttributes attributes) {
+      return new Fingerprint(attributes.size(), attributes.lastModifiedTime().toMillis(),
+                             Objects.toString(attributes.fileKey(), null), Map.of());
+    }
+
+    Fingerprint withDigests(Map<String, String> digests) {
+      return new Fingerprint(size, lastModified, fileKey, Map.copyOf(digests));
+    }
+
+    boolean matches(BasicFileAttributes attributes) {
+      return attributes.isRegularFile() && hasSameAttributes(of(attributes));
+    }
+
+    boolean hasSameAttributes(Fingerprint other) {
+      return size == other.size && lastModified == other.lastModified && Objects.equals(fileKey, other.fileKey);
+    }
+  }
+}
@@ -0,0 +1,210 @@
+package com.faforever.client.io;
+
+import com.faforever.commons.io.ByteCountListener;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Extracts a zip file that is available on disk, inflating its entries in parallel. Unlike
+ * {@link com.faforever.commons.io.Unzipper}, which reads an archive as a stream one entry after another, this reads the
+ * central directory and extracts the largest entries first, each into a file that has been preallocated to its size.
+ * <p>
+ * Extraction is aborted with a {@link ZipBombException} once more than {@code zipBombByteCountThreshold} bytes have been
+ * extracted and the extracted bytes exceed the size of the archive by more than {@code zipBombCompressionRatio}. Only
+ * bytes that have actually been written are counted, sizes declared by the archive are not trusted.
+ */
+@Slf4j
+public final class ParallelUnzipper {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final Path archive;
+  private Path targetDirectory;
+  private long zipBombByteCountThreshold;
+  private double zipBombCompressionRatio = 100;
+  private int parallelism = Runtime.getRuntime().availableProcessors();
+  private ByteCountListener listener = (written, total) -> {};
+
+  private ParallelUnzipper(Path archive) {
+    this.archive = archive;
+  }
+
+  public static ParallelUnzipper from(Path archive) {
+    return new ParallelUnzipper(archive);
+  }
+
+  public ParallelUnzipper to(Path targetDirectory) {
+    this.targetDirectory = targetDirectory;
+    return this;
+  }
+
+  public ParallelUnzipper zipBombByteCountThreshold(long zipBombByteCountThreshold) {
+    this.zipBombByteCountThreshold = zipBombByteCountThreshold;
+    return this;
+  }
+
+  public ParallelUnzipper zipBombCompressionRatio(double zipBombCompressionRatio) {
+    this.zipBombCompressionRatio = zipBombCompressionRatio;
+    return this;
+  }
+
+  public ParallelUnzipper parallelism(int parallelism) {
+    this.parallelism = parallelism;
+    return this;
+  }
+
+  public ParallelUnzipper listener(ByteCountListener listener) {
+    this.listener = listener;
+    return this;
+  }
+
+  public void unzip() throws IOException {
+    Objects.requireNonNull(targetDirectory, "targetDirectory has not been set");
+    Path normalizedTargetDirectory = Files.createDirectories(targetDirectory).toAbsolutePath().normalize();
+
+    try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+      List<ZipEntry> fileEntries = new ArrayList<>();
+      long totalBytes = 0;
+      for (ZipEntry entry : Collections.list(zipFile.entries())) {
+        Path target = resolveEntry(normalizedTargetDirectory, entry);
+        if (entry.isDirectory()) {
+          Files.createDirectories(target);
+        } else {
+          fileEntries.add(entry);
+          totalBytes += Math.max(0, entry.getSize());
+        }
+      }
+      fileEntries.sort(Comparator.comparingLong(ZipEntry::getCompressedSize).reversed());
+
+      Extraction extraction = new Extraction(zipFile, normalizedTargetDirectory, Files.size(archive), totalBytes);
+      if (parallelism <= 1 || fileEntries.size() <= 1) {
+        for (ZipEntry entry : fileEntries) {
+          extraction.extract(entry);
+        }
+      } else {
+        extractInParallel(extraction, fileEntries);
+      }
+      log.debug("Extracted {} files ({} bytes) from `{}`", fileEntries.size(), extraction.bytesWritten.get(), archive);
+    }
+  }
+
+  private void extractInParallel(Extraction extraction, List<ZipEntry> fileEntries) throws IOException {
+    ExecutorService executorService = Executors.newFixedThreadPool(Math.min(parallelism, fileEntries.size()),
+                                                                   Thread.ofPlatform()
+                                                                       .name("unzip-", 0)
+                                                                       .daemon(true)
+                                                                       .factory());
+    try {
+      List<Future<Void>> futures = fileEntries.stream().map(entry -> executorService.submit(() -> {
+        extraction.extract(entry);
+        return (Void) null;
+      })).toList();
+
+      for (Future<Void> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          futures.forEach(other -> other.cancel(true));
+          if (e.getCause() instanceof IOException ioException) {
+            throw ioException;
+          }
+          throw new IOException("Could not extract " + archive, e.getCause());
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while extracting " + archive);
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  private static Path resolveEntry(Path targetDirectory, ZipEntry entry) throws IOException {
+    Path target = targetDirectory.resolve(entry.getName()).normalize();
+    if (!target.startsWith(targetDirectory)) {
+      throw new IOException("Zip entry is outside of the target directory: " + entry.getName());
+    }
+    return target;
+  }
+
+  private class Extraction {
+
+    private final ZipFile zipFile;
+    private final Path targetDirectory;
+    private final long archiveSize;
+    private final long totalBytes;
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    Extraction(ZipFile zipFile, Path targetDirectory, long archiveSize, long totalBytes) {
+      this.zipFile = zipFile;
+      this.targetDirectory = targetDirectory;
+      this.archiveSize = archiveSize;
+      this.totalBytes = totalBytes;
+    }
+
+    void extract(ZipEntry entry) throws IOException {
+      Path target = resolveEntry(targetDirectory, entry);
+      Files.createDirectories(target.getParent());
+
+      byte[] buffer = new byte[BUFFER_SIZE];
+      try (InputStream inputStream = zipFile.getInputStream(entry);
+           RandomAccessFile file = new RandomAccessFile(target.toFile(), "rw")) {
+        long declaredSize = entry.getSize();
+        if (declaredSize > 0 && declaredSize <= maxPreallocationSize()) {
+          file.setLength(declaredSize);
+        }
+
+        FileChannel channel = file.getChannel();
+        long written = 0;
+        int count;
+        while ((count = inputStream.read(buffer)) != -1) {
+          if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Extraction of " + archive + " has been cancelled");
+          }
+          ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, count);
+          while (byteBuffer.hasRemaining()) {
+            written += channel.write(byteBuffer, written);
+          }
+          countBytes(count);
+        }
+        file.setLength(written);
+      }
+    }
+
+    private void countBytes(int count) throws ZipBombException {
+      long total = bytesWritten.addAndGet(count);
+      if (zipBombByteCountThreshold > 0 && total > zipBombByteCountThreshold
+          && total > archiveSize * zipBombCompressionRatio) {
+        throw new ZipBombException(archive, total, archiveSize);
+      }
+      listener.updateBytesProcessed(total, totalBytes);
+    }
+
+    private long maxPreallocationSize() {
+      if (zipBombByteCountThreshold <= 0) {
+        return Long.MAX_VALUE;
+      }
+      return Math.max(zipBombByteCountThreshold, (long) (archiveSize * zipBombCompressionRatio));
+    }
+  }
+}
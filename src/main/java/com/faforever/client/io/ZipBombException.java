@@ -0,0 +1,12 @@
+package com.faforever.client.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class ZipBombException extends IOException {
+
+  public ZipBombException(Path archive, long extractedBytes, long archiveSize) {
+    super("Aborted extraction of %s after %d bytes from an archive of %d bytes".formatted(archive, extractedBytes,
+                                                                                         archiveSize));
+  }
+}
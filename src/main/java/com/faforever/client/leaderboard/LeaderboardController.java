@@ -27,6 +27,7 @@ import reactor.core.publisher.Mono;
 
 import java.time.format.FormatStyle;
 import java.util.List;
+import java.util.Map;
 
 
 @Slf4j
@@ -79,22 +80,23 @@ public class LeaderboardController extends NodeController<StackPane> {
 
     leagueSeason.when(showing).subscribe(newSeason -> {
       if (newSeason == null) {
-        leaderboardRankingsController.setLeagueEntries(List.of());
-        leaderboardDistributionController.setLeagueEntries(List.of());
+        leaderboardRankingsController.setLeagueSeason(null);
+        leaderboardRankingsController.setSubdivisionEntryCounts(Map.of());
+        leaderboardDistributionController.setSubdivisionEntryCounts(Map.of());
         leaderboardRankingsController.setSubdivisions(List.of());
         leaderboardDistributionController.setSubdivisions(List.of());
-        leaderboardPlayerDetailsController.setLeagueEntry(null);
+        setPlayerLeagueEntry(null);
         return;
       }
 
+      leaderboardRankingsController.setLeagueSeason(newSeason);
+
       Mono<LeagueEntry> playerLeagueEntry = leaderboardService.getLeagueEntryForPlayer(
                                                                       playerService.getCurrentPlayer(), newSeason)
                                                               .publishOn(fxApplicationThreadExecutor.asScheduler())
-                                                              .doOnNext(
-                                                                      leaderboardPlayerDetailsController::setLeagueEntry)
+                                                              .doOnNext(this::setPlayerLeagueEntry)
                                                               .switchIfEmpty(Mono.fromRunnable(
-                                                                      () -> leaderboardPlayerDetailsController.setLeagueEntry(
-                                                                          null)))
+                                                                      () -> setPlayerLeagueEntry(null)))
                                                               .doOnError(throwable -> {
                                                                     log.error("Error while loading player league entry",
                                                                               throwable);
@@ -102,15 +104,14 @@ public class LeaderboardController extends NodeController<StackPane> {
                                                                         throwable, "leaderboard.failedToLoadEntry");
                                                                   });
 
-      Mono<List<LeagueEntry>> activeEntries = leaderboardService.getActiveEntries(newSeason)
-                                                                .collectList()
+      Mono<Map<Subdivision, Integer>> activeEntryCounts = leaderboardService.getActiveEntryCounts(newSeason)
                                                                 .publishOn(
                                                                         fxApplicationThreadExecutor.asScheduler())
-                                                                .doOnNext(leagueEntries -> {
-                                                                      leaderboardRankingsController.setLeagueEntries(
-                                                                          leagueEntries);
-                                                                      leaderboardDistributionController.setLeagueEntries(
-                                                                          leagueEntries);
+                                                                .doOnNext(entryCounts -> {
+                                                                      leaderboardRankingsController.setSubdivisionEntryCounts(
+                                                                          entryCounts);
+                                                                      leaderboardDistributionController.setSubdivisionEntryCounts(
+                                                                          entryCounts);
                                                                     })
                                                                 .doOnError(throwable -> {
                                                                       log.error("Error while loading league entries",
@@ -137,10 +138,16 @@ public class LeaderboardController extends NodeController<StackPane> {
                                                                          "leaderboard.failedToLoadDivisions");
                                                                    });
 
-      Mono.when(playerLeagueEntry, activeEntries, subdivisions).subscribe();
+      Mono.when(playerLeagueEntry, activeEntryCounts, subdivisions).subscribe();
     });
   }
 
+  private void setPlayerLeagueEntry(LeagueEntry leagueEntry) {
+    leaderboardPlayerDetailsController.setLeagueEntry(leagueEntry);
+    leaderboardRankingsController.setCurrentPlayerLeagueEntry(leagueEntry);
+    leaderboardDistributionController.setCurrentPlayerLeagueEntry(leagueEntry);
+  }
+
   public void setLeagueSeasons(List<LeagueSeason> leagueSeasons) {
     this.leagueSeasons.set(leagueSeasons);
   }
@@ -3,11 +3,9 @@ package com.faforever.client.leaderboard;
 import com.faforever.client.domain.api.Division;
 import com.faforever.client.domain.api.LeagueEntry;
 import com.faforever.client.domain.api.Subdivision;
-import com.faforever.client.domain.server.PlayerInfo;
 import com.faforever.client.fx.NodeController;
 import com.faforever.client.fx.ToStringOnlyConverter;
 import com.faforever.client.i18n.I18n;
-import com.faforever.client.player.PlayerService;
 import javafx.application.Platform;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
@@ -30,7 +28,6 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
-import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -51,14 +48,14 @@ public class LeaderboardDistributionController extends NodeController<AnchorPane
       "highlighted-bar");
 
   private final I18n i18n;
-  private final PlayerService playerService;
 
   public AnchorPane distributionRoot;
   public BarChart<String, Integer> ratingDistributionChart;
   public CategoryAxis xAxis;
   public NumberAxis yAxis;
 
-  private final ObjectProperty<List<LeagueEntry>> leagueEntries = new SimpleObjectProperty<>(List.of());
+  private final ObjectProperty<Map<Subdivision, Integer>> subdivisionEntryCounts = new SimpleObjectProperty<>(Map.of());
+  private final ObjectProperty<LeagueEntry> currentPlayerLeagueEntry = new SimpleObjectProperty<>();
   private final ObjectProperty<List<Subdivision>> subdivisions = new SimpleObjectProperty<>(List.of());
   private final Map<Subdivision, Data<String, Integer>> subdivisionData = new HashMap<>();
 
@@ -67,14 +64,15 @@ public class LeaderboardDistributionController extends NodeController<AnchorPane
     yAxis.setTickLabelFormatter(new ToStringOnlyConverter<>(number -> String.valueOf(number.intValue())));
     yAxis.setTickUnit(10d);
     xAxis.labelProperty()
-         .bind(leagueEntries.map(Collection::size).map(size -> i18n.get("leaderboard.totalPlayers", size)));
+         .bind(subdivisionEntryCounts.map(entryCounts -> entryCounts.values()
+                                                                    .stream()
+                                                                    .mapToInt(Integer::intValue)
+                                                                    .sum())
+                                     .map(size -> i18n.get("leaderboard.totalPlayers", size)));
 
-    leagueEntries.when(showing).subscribe(leagueEntries -> {
-      updateHighlightedSubdivision();
-      updateChartData(leagueEntries);
-    });
+    subdivisionEntryCounts.when(showing).subscribe(this::updateChartData);
     subdivisions.when(showing).subscribe(this::updateSubdivisions);
-    playerService.currentPlayerProperty().when(showing).subscribe(this::updateHighlightedSubdivision);
+    currentPlayerLeagueEntry.when(showing).subscribe(this::updateHighlightedSubdivision);
   }
 
   @Override
@@ -82,11 +80,8 @@ public class LeaderboardDistributionController extends NodeController<AnchorPane
     return distributionRoot;
   }
 
-  private void updateChartData(List<LeagueEntry> leagueEntries) {
-    Map<Subdivision, Long> dataCountMap = leagueEntries.stream().collect(Collectors.groupingBy(LeagueEntry::subdivision,
-                                                                                          Collectors.counting()));
-    subdivisionData.forEach(
-        (subdivision, data) -> data.setYValue(dataCountMap.getOrDefault(subdivision, 0L).intValue()));
+  private void updateChartData(Map<Subdivision, Integer> entryCounts) {
+    subdivisionData.forEach((subdivision, data) -> data.setYValue(entryCounts.getOrDefault(subdivision, 0)));
   }
 
   private void updateSubdivisions(List<Subdivision> subdivisions) {
@@ -124,18 +119,11 @@ public class LeaderboardDistributionController extends NodeController<AnchorPane
 
     ratingDistributionChart.setAnimated(false);
     ratingDistributionChart.setData(FXCollections.observableArrayList(series));
-    updateChartData(leagueEntries.getValue());
+    updateChartData(subdivisionEntryCounts.getValue());
   }
 
   private void updateHighlightedSubdivision() {
-    PlayerInfo currentPlayer = playerService.getCurrentPlayer();
-    Subdivision currentPlayerSubdivision = leagueEntries.getValue()
-                                                        .stream()
-                                                        .filter(leagueEntry -> leagueEntry.player()
-                                                                                              .equals(currentPlayer))
-                                                        .map(LeagueEntry::subdivision)
-                                                        .findFirst()
-                                                        .orElse(null);
+    Subdivision currentPlayerSubdivision = currentPlayerLeagueEntry.map(LeagueEntry::subdivision).getValue();
     subdivisionData.forEach((subdivision, data) -> {
       Node node = data.getNode();
       if (node != null) {
@@ -169,16 +157,28 @@ public class LeaderboardDistributionController extends NodeController<AnchorPane
     return data;
   }
 
-  public List<LeagueEntry> getLeagueEntries() {
-    return leagueEntries.get();
+  public Map<Subdivision, Integer> getSubdivisionEntryCounts() {
+    return subdivisionEntryCounts.get();
+  }
+
+  public ObjectProperty<Map<Subdivision, Integer>> subdivisionEntryCountsProperty() {
+    return subdivisionEntryCounts;
+  }
+
+  public void setSubdivisionEntryCounts(Map<Subdivision, Integer> subdivisionEntryCounts) {
+    this.subdivisionEntryCounts.set(Map.copyOf(subdivisionEntryCounts));
+  }
+
+  public LeagueEntry getCurrentPlayerLeagueEntry() {
+    return currentPlayerLeagueEntry.get();
   }
 
-  public ObjectProperty<List<LeagueEntry>> leagueEntriesProperty() {
-    return leagueEntries;
+  public ObjectProperty<LeagueEntry> currentPlayerLeagueEntryProperty() {
+    return currentPlayerLeagueEntry;
   }
 
-  public void setLeagueEntries(List<LeagueEntry> leagueEntries) {
-    this.leagueEntries.set(List.copyOf(leagueEntries));
+  public void setCurrentPlayerLeagueEntry(LeagueEntry currentPlayerLeagueEntry) {
+    this.currentPlayerLeagueEntry.set(currentPlayerLeagueEntry);
   }
 
   public List<Subdivision> getSubdivisions() {
@@ -2,8 +2,10 @@ package com.faforever.client.leaderboard;
 
 import com.faforever.client.domain.api.Division;
 import com.faforever.client.domain.api.LeagueEntry;
+import com.faforever.client.domain.api.LeagueSeason;
 import com.faforever.client.domain.api.Subdivision;
 import com.faforever.client.domain.server.PlayerInfo;
+import com.faforever.client.fx.FxApplicationThreadExecutor;
 import com.faforever.client.fx.NodeController;
 import com.faforever.client.fx.ObservableConstant;
 import com.faforever.client.fx.StringCell;
@@ -23,6 +25,8 @@ import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableRow;
@@ -43,10 +47,11 @@ import org.springframework.stereotype.Component;
 
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 
 @Slf4j
@@ -55,9 +60,18 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class LeaderboardRankingsController extends NodeController<VBox> {
 
+  private static final int PAGE_SIZE = 100;
+  private static final Comparator<Subdivision> RANKING_ORDER = Comparator.comparing(Subdivision::division,
+                                                                                    Comparator.comparing(
+                                                                                        Division::index))
+                                                                         .thenComparing(Subdivision::index)
+                                                                         .reversed();
+
   private final I18n i18n;
   private final PlayerService playerService;
+  private final LeaderboardService leaderboardService;
   private final ContextMenuBuilder contextMenuBuilder;
+  private final FxApplicationThreadExecutor fxApplicationThreadExecutor;
 
   public VBox rankingsRoot;
   public HBox subdivisionButtons;
@@ -70,12 +84,16 @@ public class LeaderboardRankingsController extends NodeController<VBox> {
   public TableColumn<LeagueEntry, Integer> scoreColumn;
   public TableView<LeagueEntry> ratingTable;
 
-  private final ObjectProperty<List<LeagueEntry>> leagueEntries = new SimpleObjectProperty<>(List.of());
+  private final ObjectProperty<LeagueSeason> leagueSeason = new SimpleObjectProperty<>();
+  private final ObjectProperty<Map<Subdivision, Integer>> subdivisionEntryCounts = new SimpleObjectProperty<>(Map.of());
   private final ObjectProperty<List<Subdivision>> subdivisions = new SimpleObjectProperty<>(List.of());
+  private final ObjectProperty<LeagueEntry> currentPlayerLeagueEntry = new SimpleObjectProperty<>();
   private final ObjectProperty<LeagueEntry> selectedLeagueEntry = new SimpleObjectProperty<>();
   private final SuggestionProvider<String> usernameSuggestionProvider = SuggestionProvider.create(List.of());
+  private final Set<String> suggestedUsernames = new HashSet<>();
   private final Map<Toggle, Subdivision> toggleSubdivisionMap = new HashMap<>();
   private final Map<Subdivision, Toggle> subdivisionToggleMap = new HashMap<>();
+  private final ListChangeListener<LeagueEntry> usernameSuggestionUpdater = this::addUsernameSuggestions;
 
   @Override
   protected void onInitialize() {
@@ -103,11 +121,6 @@ public class LeaderboardRankingsController extends NodeController<VBox> {
     usernamesAutoCompletion.setDelay(0);
     usernamesAutoCompletion.setOnAutoCompleted(event -> processSearchInput());
 
-    leagueEntries.map(this::getPlayerNames).when(showing).subscribe(newNames -> {
-      usernameSuggestionProvider.clearSuggestions();
-      usernameSuggestionProvider.addPossibleSuggestions(newNames);
-    });
-
     ObservableValue<List<Subdivision>> selectedSubdivisions = subdivisions.flatMap(
         subdivisions -> divisionPicker.getSelectionModel()
                                       .selectedItemProperty()
@@ -124,55 +137,31 @@ public class LeaderboardRankingsController extends NodeController<VBox> {
       }
     });
 
-    leagueEntries.flatMap(leagueEntries -> subdivisionToggleGroup.selectedToggleProperty()
-                                                                 .map(toggleSubdivisionMap::get)
-                                                                 .map(subdivision -> leagueEntries.stream()
-                                                                                                  .filter(
-                                                                                                      leagueEntry1 -> leagueEntry1.subdivision()
-                                                                                                                                  .equals(
-                                                                                                                                      subdivision))
-                                                                                                  .toList()))
-                 .orElse(List.of())
-                 .map(FXCollections::observableList)
-                 .when(showing)
-                 .subscribe(leagueEntries -> {
-                   ratingTable.setItems(leagueEntries);
-                   ratingTable.getSelectionModel().select(selectedLeagueEntry.get());
-                 });
-
-    leagueEntries.when(showing)
-                 .subscribe(leagueEntries -> leagueEntries.stream()
-                                                          .filter(leagueEntry -> playerService.getCurrentPlayer()
-                                                                                              .equals(
-                                                                                                  leagueEntry.player()))
-                                                          .findFirst()
-                                                          .ifPresentOrElse(selectedLeagueEntry::set,
-                                                                           () -> selectedLeagueEntry.set(null)));
-
-    selectedLeagueEntry.when(showing).subscribe(leagueEntry -> {
-      if (leagueEntry != null) {
-        divisionPicker.getSelectionModel().select(leagueEntry.subdivision().division());
-        subdivisionToggleGroup.selectToggle(subdivisionToggleMap.get(leagueEntry.subdivision()));
-        ratingTable.scrollTo(leagueEntry);
-        ratingTable.getSelectionModel().select(leagueEntry);
-      }
-    });
+    leagueSeason.when(showing).subscribe(this::updateRatingTableItems);
+    subdivisionEntryCounts.when(showing).subscribe(this::updateRatingTableItems);
+    subdivisionToggleGroup.selectedToggleProperty().when(showing).subscribe(this::updateRatingTableItems);
+
+    currentPlayerLeagueEntry.when(showing).subscribe(this::showLeagueEntry);
 
     ratingTable.setRowFactory(param -> entriesRowFactory());
 
     ratingTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_LAST_COLUMN);
 
-    rankColumn.setCellValueFactory(param -> ObservableConstant.valueOf(param.getValue().rank()));
+    rankColumn.setCellValueFactory(
+        param -> param.getValue() == null ? null : ObservableConstant.valueOf(param.getValue().rank()));
     rankColumn.setCellFactory(param -> new StringCell<>(rank -> i18n.number(rank.intValue())));
 
-    nameColumn.setCellValueFactory(param -> param.getValue().player().usernameProperty());
+    nameColumn.setCellValueFactory(
+        param -> param.getValue() == null ? null : param.getValue().player().usernameProperty());
     nameColumn.setCellFactory(param -> new StringCell<>(name -> name));
     nameColumn.prefWidthProperty().bind(ratingTable.widthProperty().subtract(250));
 
-    gamesPlayedColumn.setCellValueFactory(param -> ObservableConstant.valueOf(param.getValue().gamesPlayed()));
+    gamesPlayedColumn.setCellValueFactory(
+        param -> param.getValue() == null ? null : ObservableConstant.valueOf(param.getValue().gamesPlayed()));
     gamesPlayedColumn.setCellFactory(param -> new StringCell<>(count -> i18n.number(count.intValue())));
 
-    scoreColumn.setCellValueFactory(param -> ObservableConstant.valueOf(param.getValue().score()));
+    scoreColumn.setCellValueFactory(
+        param -> param.getValue() == null ? null : ObservableConstant.valueOf(param.getValue().score()));
     scoreColumn.setCellFactory(param -> new StringCell<>(i18n::number));
   }
 
@@ -230,8 +219,124 @@ public class LeaderboardRankingsController extends NodeController<VBox> {
     return row;
   }
 
-  private Set<String> getPlayerNames(List<LeagueEntry> entries) {
-    return entries.stream().map(LeagueEntry::player).map(PlayerInfo::getUsername).collect(Collectors.toSet());
+  private void updateRatingTableItems() {
+    if (ratingTable.getItems() instanceof PagedLeagueEntryList previousEntries) {
+      previousEntries.removeListener(usernameSuggestionUpdater);
+    }
+
+    LeagueSeason season = leagueSeason.get();
+    Subdivision subdivision = toggleSubdivisionMap.get(subdivisionToggleGroup.getSelectedToggle());
+    Map<Subdivision, Integer> entryCounts = subdivisionEntryCounts.get();
+    if (season == null || subdivision == null || !entryCounts.containsKey(subdivision)) {
+      ratingTable.setItems(FXCollections.emptyObservableList());
+      return;
+    }
+
+    long firstRank = entryCounts.entrySet()
+                                .stream()
+                                .filter(entry -> RANKING_ORDER.compare(entry.getKey(), subdivision) < 0)
+                                .mapToLong(Map.Entry::getValue)
+                                .sum();
+    PagedLeagueEntryList leagueEntries = new PagedLeagueEntryList(leaderboardService, fxApplicationThreadExecutor,
+                                                                  season, subdivision, firstRank,
+                                                                  entryCounts.get(subdivision), PAGE_SIZE);
+    leagueEntries.addListener(usernameSuggestionUpdater);
+    ratingTable.setItems(leagueEntries);
+
+    LeagueEntry leagueEntry = selectedLeagueEntry.get();
+    if (leagueEntry != null && subdivision.equals(leagueEntry.subdivision())) {
+      scrollToLeagueEntry(leagueEntries, leagueEntry);
+    }
+  }
+
+  /**
+   * Selects the division and subdivision of the given entry and scrolls to it, loading only the page it is on.
+   */
+  private void showLeagueEntry(LeagueEntry leagueEntry) {
+    selectedLeagueEntry.set(leagueEntry);
+    if (leagueEntry == null || leagueEntry.subdivision() == null) {
+      return;
+    }
+
+    ObservableList<LeagueEntry> previousItems = ratingTable.getItems();
+    divisionPicker.getSelectionModel().select(leagueEntry.subdivision().division());
+    subdivisionToggleGroup.selectToggle(subdivisionToggleMap.get(leagueEntry.subdivision()));
+
+    // If the subdivision changed, the new items already scrolled to the entry
+    if (ratingTable.getItems() == previousItems && previousItems instanceof PagedLeagueEntryList leagueEntries
+        && leagueEntry.subdivision().equals(leagueEntries.getSubdivision())) {
+      scrollToLeagueEntry(leagueEntries, leagueEntry);
+    }
+  }
+
+  private void scrollToLeagueEntry(PagedLeagueEntryList leagueEntries, LeagueEntry leagueEntry) {
+    int loadedIndex = leagueEntries.indexOfPlayer(leagueEntry.player().getId());
+    if (loadedIndex >= 0) {
+      selectIndex(loadedIndex);
+      return;
+    }
+
+    leaderboardService.getPositionInSubdivision(leagueEntry)
+                      .publishOn(fxApplicationThreadExecutor.asScheduler())
+                      .flatMap(position -> leagueEntries.load(position).thenReturn(position))
+                      .subscribe(position -> {
+                        if (ratingTable.getItems() != leagueEntries || !Objects.equals(selectedLeagueEntry.get(),
+                                                                                       leagueEntry)) {
+                          return;
+                        }
+                        // Entries with the same score are ordered arbitrarily, so the player's entry is looked up
+                        // among the loaded ones
+                        int index = leagueEntries.indexOfPlayer(leagueEntry.player().getId());
+                        selectIndex(index >= 0 ? index : position);
+                      }, throwable -> log.error("Could not find position of league entry `{}`", leagueEntry,
+                                                throwable));
+  }
+
+  private void selectIndex(int index) {
+    ratingTable.scrollTo(index);
+    ratingTable.getSelectionModel().clearAndSelect(index);
+  }
+
+  /**
+   * Jumps to the entry with the given zero-based rank within the season, loading only the page it is on.
+   */
+  private void showRank(long rank) {
+    Map<Subdivision, Integer> entryCounts = subdivisionEntryCounts.get();
+    long firstRank = 0;
+    for (Map.Entry<Subdivision, Integer> entry : entryCounts.entrySet()
+                                                            .stream()
+                                                            .sorted(Map.Entry.comparingByKey(RANKING_ORDER))
+                                                            .toList()) {
+      if (rank < firstRank + entry.getValue()) {
+        Subdivision subdivision = entry.getKey();
+        selectedLeagueEntry.set(null);
+        divisionPicker.getSelectionModel().select(subdivision.division());
+        subdivisionToggleGroup.selectToggle(subdivisionToggleMap.get(subdivision));
+        if (ratingTable.getItems() instanceof PagedLeagueEntryList leagueEntries) {
+          int index = (int) (rank - firstRank);
+          leagueEntries.load(index).subscribe(ignored -> selectIndex(index),
+                                              throwable -> log.error("Could not load rank `{}`", rank, throwable));
+        }
+        return;
+      }
+      firstRank += entry.getValue();
+    }
+  }
+
+  private void addUsernameSuggestions(ListChangeListener.Change<? extends LeagueEntry> change) {
+    Set<String> newNames = new HashSet<>();
+    while (change.next()) {
+      change.getAddedSubList()
+            .stream()
+            .filter(Objects::nonNull)
+            .map(LeagueEntry::player)
+            .map(PlayerInfo::getUsername)
+            .filter(suggestedUsernames::add)
+            .forEach(newNames::add);
+    }
+    if (!newNames.isEmpty()) {
+      usernameSuggestionProvider.addPossibleSuggestions(newNames);
+    }
   }
 
   private List<Division> getDivisions(List<Subdivision> subdivisions) {
@@ -243,15 +348,30 @@ public class LeaderboardRankingsController extends NodeController<VBox> {
   }
 
   public void processSearchInput() {
-    String searchedUsername = searchTextField.getText();
-    if (searchedUsername.isBlank()) {
+    String searchInput = searchTextField.getText().strip();
+    if (searchInput.isEmpty()) {
+      return;
+    }
+
+    if (searchInput.chars().allMatch(Character::isDigit)) {
+      showRank(Long.parseLong(searchInput));
+      return;
+    }
+
+    LeagueSeason season = leagueSeason.get();
+    if (season == null) {
       return;
     }
 
-    leagueEntries.getValue()
-                 .stream().filter(leagueEntry -> leagueEntry.player().getUsername().equals(searchedUsername))
-                 .findFirst()
-                 .ifPresent(selectedLeagueEntry::set);
+    playerService.getPlayerByName(searchInput)
+                 .flatMap(player -> leaderboardService.getLeagueEntryForPlayer(player, season))
+                 .publishOn(fxApplicationThreadExecutor.asScheduler())
+                 .subscribe(this::showLeagueEntry,
+                            throwable -> log.error("Could not find league entry of `{}`", searchInput, throwable));
+  }
+
+  public void jumpToCurrentPlayer() {
+    showLeagueEntry(currentPlayerLeagueEntry.get());
   }
 
   @Override
@@ -259,16 +379,40 @@ public class LeaderboardRankingsController extends NodeController<VBox> {
     return rankingsRoot;
   }
 
-  public List<LeagueEntry> getLeagueEntries() {
-    return leagueEntries.get();
+  public LeagueSeason getLeagueSeason() {
+    return leagueSeason.get();
+  }
+
+  public ObjectProperty<LeagueSeason> leagueSeasonProperty() {
+    return leagueSeason;
+  }
+
+  public void setLeagueSeason(LeagueSeason leagueSeason) {
+    this.leagueSeason.set(leagueSeason);
+  }
+
+  public Map<Subdivision, Integer> getSubdivisionEntryCounts() {
+    return subdivisionEntryCounts.get();
+  }
+
+  public ObjectProperty<Map<Subdivision, Integer>> subdivisionEntryCountsProperty() {
+    return subdivisionEntryCounts;
+  }
+
+  public void setSubdivisionEntryCounts(Map<Subdivision, Integer> subdivisionEntryCounts) {
+    this.subdivisionEntryCounts.set(subdivisionEntryCounts);
+  }
+
+  public LeagueEntry getCurrentPlayerLeagueEntry() {
+    return currentPlayerLeagueEntry.get();
   }
 
-  public ObjectProperty<List<LeagueEntry>> leagueEntriesProperty() {
-    return leagueEntries;
+  public ObjectProperty<LeagueEntry> currentPlayerLeagueEntryProperty() {
+    return currentPlayerLeagueEntry;
   }
 
-  public void setLeagueEntries(List<LeagueEntry> leagueEntries) {
-    this.leagueEntries.set(leagueEntries);
+  public void setCurrentPlayerLeagueEntry(LeagueEntry currentPlayerLeagueEntry) {
+    this.currentPlayerLeagueEntry.set(currentPlayerLeagueEntry);
   }
 
   public List<Subdivision> getSubdivisions() {
@@ -17,6 +17,7 @@ import com.faforever.commons.api.dto.LeagueSeasonDivisionSubdivision;
 import com.faforever.commons.api.dto.LeagueSeasonScore;
 import com.faforever.commons.api.elide.ElideNavigator;
 import com.faforever.commons.api.elide.ElideNavigatorOnCollection;
+import com.github.rutledgepaulv.qbuilders.builders.QBuilder;
 import com.github.rutledgepaulv.qbuilders.conditions.Condition;
 import javafx.scene.image.Image;
 import lombok.RequiredArgsConstructor;
@@ -26,6 +27,7 @@ import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 import java.net.URL;
 import java.nio.file.Path;
@@ -189,22 +191,99 @@ public class LeaderboardService {
                          .cache();
   }
 
+  /**
+   * Returns the number of ranked entries in each subdivision of the given season, without loading the entries
+   * themselves.
+   */
   @Cacheable(value = CacheNames.LEAGUE_ENTRIES, sync = true)
-  public Flux<LeagueEntry> getActiveEntries(LeagueSeason leagueSeason) {
-    Condition<?> filter = qBuilder().intNum("leagueSeason.id").eq(leagueSeason.id()).and().intNum("score").gte(0);
+  public Mono<Map<Subdivision, Integer>> getActiveEntryCounts(LeagueSeason leagueSeason) {
+    return getSubdivisions(leagueSeason).flatMap(
+                                            subdivision -> countActiveEntries(
+                                                activeEntriesFilter(leagueSeason, subdivision)).map(
+                                                count -> Tuples.of(subdivision, count)))
+                                        .collectMap(Tuple2::getT1, Tuple2::getT2)
+                                        .cache();
+  }
 
+  /**
+   * Returns one page of the ranked entries of a subdivision, ordered by score. Only the players of the requested page
+   * are resolved.
+   *
+   * @param firstRank the rank of the first entry of the subdivision within the season
+   * @param page the page to load, starting at 1
+   */
+  @Cacheable(value = CacheNames.LEAGUE_ENTRIES, sync = true)
+  public Mono<List<LeagueEntry>> getActiveEntries(LeagueSeason leagueSeason, Subdivision subdivision, long firstRank,
+                                                  int page, int pageSize) {
     ElideNavigatorOnCollection<LeagueSeasonScore> navigator = ElideNavigator.of(LeagueSeasonScore.class)
                                                                             .collection()
-                                                                            .setFilter(filter)
-                                                                            .addSortingRule(
-                                                                                "leagueSeasonDivisionSubdivision.leagueSeasonDivision.divisionIndex",
-                                                                                false)
-                                                                            .addSortingRule(
-                                                                                "leagueSeasonDivisionSubdivision.subdivisionIndex",
-                                                                                false).addSortingRule("score", false)
-                                                                            .pageSize(fafApiAccessor.getMaxPageSize());
+                                                                            .setFilter(activeEntriesFilter(
+                                                                                leagueSeason, subdivision))
+                                                                            .addSortingRule("score", false)
+                                                                            .addSortingRule("id", true)
+                                                                            .pageNumber(page)
+                                                                            .pageSize(pageSize);
 
-    return fafApiAccessor.getMany(navigator).index().collectList().flatMapMany(this::mapLeagueEntryDtoToBean).cache();
+    long pageRank = firstRank + (long) (page - 1) * pageSize;
+    return fafApiAccessor.getMany(navigator)
+                         .index((index, seasonScore) -> Tuples.of(pageRank + index, seasonScore))
+                         .collectList()
+                         .flatMap(seasonScoresWithRank -> mapLeagueEntryDtoToBean(seasonScoresWithRank).collectList())
+                         .cache();
+  }
+
+  /**
+   * Returns the number of entries that are ranked above the given entry within its subdivision, ordered like
+   * {@link #getActiveEntries}, so entries with the same score are ranked by id.
+   */
+  @Cacheable(value = CacheNames.LEAGUE_ENTRIES, sync = true)
+  public Mono<Integer> getPositionInSubdivision(LeagueEntry leagueEntry) {
+    Condition<?> subdivisionCondition = qBuilder().intNum("leagueSeason.id")
+                                                  .eq(leagueEntry.leagueSeason().id())
+                                                  .and()
+                                                  .intNum("leagueSeasonDivisionSubdivision.id")
+                                                  .eq(leagueEntry.subdivision().id());
+    Condition<?> rankedAboveCondition = new QBuilder().or(List.of(qBuilder().intNum("score").gt(leagueEntry.score()),
+                                                                  qBuilder().intNum("score")
+                                                                            .eq(leagueEntry.score())
+                                                                            .and()
+                                                                            .intNum("id")
+                                                                            .lt(leagueEntry.id())));
+    return countActiveEntries(new QBuilder().and(List.of(subdivisionCondition, rankedAboveCondition))).cache();
+  }
+
+  private Flux<Subdivision> getSubdivisions(LeagueSeason leagueSeason) {
+    ElideNavigatorOnCollection<LeagueSeasonDivisionSubdivision> navigator = ElideNavigator.of(
+                                                                                              LeagueSeasonDivisionSubdivision.class)
+                                                                                          .collection()
+                                                                                          .setFilter(qBuilder().string(
+                                                                                                                   "leagueSeasonDivision.leagueSeason.id")
+                                                                                                               .eq(String.valueOf(
+                                                                                                                   leagueSeason.id())));
+    return fafApiAccessor.getMany(navigator).map(leaderboardMapper::map);
+  }
+
+  private Condition<?> activeEntriesFilter(LeagueSeason leagueSeason, Subdivision subdivision) {
+    return qBuilder().intNum("leagueSeason.id")
+                     .eq(leagueSeason.id())
+                     .and()
+                     .intNum("leagueSeasonDivisionSubdivision.id")
+                     .eq(subdivision.id())
+                     .and()
+                     .intNum("score")
+                     .gte(0);
+  }
+
+  /**
+   * Counts the matching entries by requesting pages of a single entry, so that the total page count is the total
+   * entry count.
+   */
+  private Mono<Integer> countActiveEntries(Condition<?> filter) {
+    ElideNavigatorOnCollection<LeagueSeasonScore> navigator = ElideNavigator.of(LeagueSeasonScore.class)
+                                                                            .collection()
+                                                                            .setFilter(filter)
+                                                                            .pageSize(1);
+    return fafApiAccessor.getManyWithPageCount(navigator).map(Tuple2::getT2);
   }
 
   private Flux<LeagueEntry> mapLeagueEntryDtoToBean(List<Tuple2<Long, LeagueSeasonScore>> seasonScoresWithRank) {
@@ -221,15 +300,7 @@ public class LeaderboardService {
 
   @Cacheable(value = CacheNames.DIVISIONS, sync = true)
   public Flux<Subdivision> getAllSubdivisions(LeagueSeason leagueSeason) {
-    ElideNavigatorOnCollection<LeagueSeasonDivisionSubdivision> navigator = ElideNavigator.of(
-                                                                                              LeagueSeasonDivisionSubdivision.class)
-                                                                                          .collection()
-                                                                                          .setFilter(qBuilder().string(
-                                                                                                                   "leagueSeasonDivision.leagueSeason.id")
-                                                                                                               .eq(String.valueOf(
-                                                                                                                   leagueSeason.id())));
-    return fafApiAccessor.getMany(navigator).map(leaderboardMapper::map)
-                         .cache();
+    return getSubdivisions(leagueSeason).cache();
   }
 
   @Cacheable(value = CacheNames.DIVISIONS, sync = true)
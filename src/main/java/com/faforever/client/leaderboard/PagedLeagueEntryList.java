@@ -0,0 +1,129 @@
+package com.faforever.client.leaderboard;
+
+import com.faforever.client.domain.api.LeagueEntry;
+import com.faforever.client.domain.api.LeagueSeason;
+import com.faforever.client.domain.api.Subdivision;
+import com.faforever.client.fx.FxApplicationThreadExecutor;
+import javafx.collections.ObservableListBase;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The ranked entries of one subdivision, loaded a page at a time as they are accessed.
+ * <p>
+ * The list always has the size of the whole subdivision, but entries that have not been loaded yet are {@code null}.
+ * Accessing such an entry loads its page and the neighbouring ones in the background; loaded entries are published as
+ * replacements of the {@code null} placeholders. Since a {@link javafx.scene.control.TableView} only accesses the rows
+ * it shows, only the visible part of the subdivision and the pages next to it are ever requested.
+ * <p>
+ * Must only be accessed from the JavaFX application thread.
+ */
+@Slf4j
+public class PagedLeagueEntryList extends ObservableListBase<LeagueEntry> {
+
+  private static final int PREFETCHED_PAGES = 1;
+
+  private final LeaderboardService leaderboardService;
+  private final FxApplicationThreadExecutor fxApplicationThreadExecutor;
+  @Getter
+  private final LeagueSeason leagueSeason;
+  @Getter
+  private final Subdivision subdivision;
+  @Getter
+  private final long firstRank;
+  private final int pageSize;
+  private final LeagueEntry[] entries;
+  private final Map<Integer, Mono<List<LeagueEntry>>> pages = new HashMap<>();
+
+  public PagedLeagueEntryList(LeaderboardService leaderboardService,
+                              FxApplicationThreadExecutor fxApplicationThreadExecutor, LeagueSeason leagueSeason,
+                              Subdivision subdivision, long firstRank, int size, int pageSize) {
+    this.leaderboardService = leaderboardService;
+    this.fxApplicationThreadExecutor = fxApplicationThreadExecutor;
+    this.leagueSeason = leagueSeason;
+    this.subdivision = subdivision;
+    this.firstRank = firstRank;
+    this.pageSize = pageSize;
+    this.entries = new LeagueEntry[size];
+  }
+
+  /**
+   * Returns the entry at the given index, or {@code null} if it has not been loaded yet, in which case it is loaded.
+   */
+  @Override
+  public LeagueEntry get(int index) {
+    Objects.checkIndex(index, entries.length);
+    LeagueEntry leagueEntry = entries[index];
+    if (leagueEntry == null) {
+      int page = index / pageSize;
+      for (int neighbour = page - PREFETCHED_PAGES; neighbour <= page + PREFETCHED_PAGES; neighbour++) {
+        loadPage(neighbour).subscribe(null, throwable -> log.warn("Could not load league entries of page", throwable));
+      }
+    }
+    return leagueEntry;
+  }
+
+  @Override
+  public int size() {
+    return entries.length;
+  }
+
+  /**
+   * Loads the page that contains the given index, if necessary, and emits the entry at the index once it has been
+   * published to the list's listeners. Emits nothing if there is no entry at the index.
+   */
+  public Mono<LeagueEntry> load(int index) {
+    if (index < 0 || index >= entries.length) {
+      return Mono.empty();
+    }
+    return loadPage(index / pageSize).mapNotNull(ignored -> entries[index]);
+  }
+
+  /**
+   * Returns the index of the entry of the given player, if it has been loaded, or -1 otherwise.
+   */
+  public int indexOfPlayer(int playerId) {
+    for (int i = 0; i < entries.length; i++) {
+      if (entries[i] != null && entries[i].player().getId() == playerId) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private Mono<List<LeagueEntry>> loadPage(int page) {
+    if (page < 0 || (long) page * pageSize >= entries.length) {
+      return Mono.empty();
+    }
+
+    return pages.computeIfAbsent(page, ignored -> leaderboardService.getActiveEntries(leagueSeason, subdivision,
+                                                                                      firstRank, page + 1, pageSize)
+                                                                    .publishOn(fxApplicationThreadExecutor.asScheduler())
+                                                                    .doOnNext(this::setEntries)
+                                                                    .doOnError(throwable -> pages.remove(page))
+                                                                    .cache());
+  }
+
+  private void setEntries(List<LeagueEntry> pageEntries) {
+    beginChange();
+    try {
+      for (LeagueEntry leagueEntry : pageEntries) {
+        long index = leagueEntry.rank() - firstRank;
+        if (index < 0 || index >= entries.length) {
+          continue;
+        }
+        LeagueEntry previousEntry = entries[(int) index];
+        entries[(int) index] = leagueEntry;
+        nextSet((int) index, previousEntry);
+      }
+    } finally {
+      endChange();
+    }
+  }
+}
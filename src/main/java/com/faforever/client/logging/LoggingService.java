@@ -6,6 +6,7 @@ import ch.qos.logback.core.joran.spi.JoranException;
 import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.os.OperatingSystem;
 import com.faforever.client.preferences.DeveloperPrefs;
+import com.faforever.client.util.MaskPatternLayout;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.WeakChangeListener;
 import lombok.RequiredArgsConstructor;
@@ -18,12 +19,25 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 
 @Slf4j
 @Lazy(value = false)
@@ -32,10 +46,18 @@ import java.util.stream.Stream;
 public class LoggingService implements InitializingBean {
 
   private static final Pattern GAME_LOG_PATTERN = Pattern.compile("game(_\\d*)?.log");
+  private static final Pattern STORED_GAME_LOG_PATTERN = Pattern.compile("game(_\\d*)?\\.log(\\.gz)?");
+  private static final Pattern TEMPORARY_GAME_LOG_PATTERN = Pattern.compile("game(_\\d*)?\\.log\\d*\\.tmp");
   private static final int NUMBER_GAME_LOGS_STORED = 10;
+  private static final int NUMBER_GAME_LOGS_UNCOMPRESSED = 3;
+  /** Lines of game logs longer than this are masked in parts, so that rewriting a log needs bounded memory. */
+  private static final int MAX_GAME_LOG_LINE_LENGTH = 64 * 1024;
+  private static final String LOGBACK_CONFIGURATION = "/logback-spring.xml";
 
   private final OperatingSystem operatingSystem;
   private final DeveloperPrefs developerPrefs;
+  private final MaskPatternLayout logMasker = new MaskPatternLayout();
+  private CompletableFuture<Void> gameLogPostProcessing = CompletableFuture.completedFuture(null);
   private final ChangeListener<String> logLevelChangeListener = (observable, oldValue, newValue) -> setLoggingLevel(newValue);
 
   @Override
@@ -60,31 +82,30 @@ public class LoggingService implements InitializingBean {
         .resolve("irc.log")
         .toString());
 
-    LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    configure((LoggerContext) LoggerFactory.getILoggerFactory());
+
+    JavaFxUtil.addAndTriggerListener(developerPrefs.logLevelProperty(), new WeakChangeListener<>(logLevelChangeListener));
+  }
+
+  /**
+   * Replaces the configuration of the given context with the one of the client, whose file and console appenders are
+   * wrapped in bounded, non-blocking asynchronous appenders.
+   */
+  void configure(LoggerContext context) throws JoranException {
     context.reset();
     JoranConfigurator configurator = new JoranConfigurator();
     configurator.setContext(context);
-    configurator.doConfigure(this.getClass().getResourceAsStream("/logback-spring.xml"));
-
-    JavaFxUtil.addAndTriggerListener(developerPrefs.logLevelProperty(), new WeakChangeListener<>(logLevelChangeListener));
+    configurator.doConfigure(getClass().getResourceAsStream(LOGBACK_CONFIGURATION));
   }
 
   public Path getNewGameLogFile(int gameUID) {
-    try (Stream<Path> listOfLogFiles = Files.list(operatingSystem.getLoggingDirectory())) {
-      listOfLogFiles
-          .filter(logPath -> GAME_LOG_PATTERN.matcher(logPath.getFileName().toString()).matches())
-          .sorted(Comparator.<Path>comparingLong(logPath -> logPath.toFile().lastModified()).reversed())
-          .skip(NUMBER_GAME_LOGS_STORED - 1)
-          .forEach(logPath -> {
-            try {
-              Files.delete(logPath);
-            } catch (IOException e) {
-              log.warn("Could not delete log file `{}`", logPath, e);
-            }
-          });
-    } catch (IOException e) {
-      log.error("Could not list log directory", e);
-    }
+    listStoredGameLogFiles().stream().skip(NUMBER_GAME_LOGS_STORED - 1).forEach(logPath -> {
+      try {
+        Files.delete(logPath);
+      } catch (IOException e) {
+        log.warn("Could not delete log file `{}`", logPath, e);
+      }
+    });
     return operatingSystem.getLoggingDirectory().resolve(String.format("game_%d.log", gameUID));
   }
 
@@ -98,6 +119,176 @@ public class LoggingService implements InitializingBean {
     }
   }
 
+  /**
+   * Masks the given log of a finished game and compresses the older game logs, in the background. The log is rewritten
+   * line by line into a temporary file, which then replaces it, so memory use does not depend on the size of the log.
+   * Game logs are processed one after the other, so a log is never masked and compressed at the same time, and
+   * temporary files that are found when processing starts have been left behind by an earlier session.
+   */
+  public synchronized CompletableFuture<Void> postProcessGameLogFile(Path gameLogFile) {
+    CompletableFuture<Void> postProcessing = gameLogPostProcessing.thenRunAsync(() -> {
+      deleteTemporaryGameLogFiles();
+      try {
+        maskGameLogFile(gameLogFile);
+      } catch (IOException e) {
+        log.warn("Could not mask log file `{}`", gameLogFile, e);
+      }
+      compressOlderGameLogFiles();
+    });
+    gameLogPostProcessing = postProcessing.exceptionally(throwable -> {
+      log.warn("Could not post-process log file `{}`", gameLogFile, throwable);
+      return null;
+    });
+    return postProcessing;
+  }
+
+  private void maskGameLogFile(Path gameLogFile) throws IOException {
+    FileTime lastModified = Files.getLastModifiedTime(gameLogFile);
+    Path tempFile = Files.createTempFile(gameLogFile.getParent(), gameLogFile.getFileName().toString(), ".tmp");
+    try {
+      boolean masked;
+      try (Reader reader = new InputStreamReader(Files.newInputStream(gameLogFile), UTF_8);
+           Writer writer = Files.newBufferedWriter(tempFile, UTF_8)) {
+        masked = maskLines(reader, writer);
+      }
+
+      if (!masked) {
+        log.debug("Log file `{}` contains nothing to mask", gameLogFile);
+      } else if (!lastModified.equals(Files.getLastModifiedTime(gameLogFile))) {
+        log.info("Log file `{}` has been written to while it was masked, keeping it", gameLogFile);
+      } else {
+        move(tempFile, gameLogFile);
+      }
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Copies the lines of the reader to the writer, keeping their line terminators, and masks them. Returns whether any
+   * line has been masked.
+   */
+  private boolean maskLines(Reader reader, Writer writer) throws IOException {
+    char[] chunk = new char[8192];
+    StringBuilder line = new StringBuilder();
+    boolean masked = false;
+    int read;
+    while ((read = reader.read(chunk)) != -1) {
+      int lineStart = 0;
+      for (int i = 0; i < read; i++) {
+        if (chunk[i] == '\n') {
+          line.append(chunk, lineStart, i + 1 - lineStart);
+          masked |= writeMaskedLine(line, writer);
+          lineStart = i + 1;
+        }
+      }
+      line.append(chunk, lineStart, read - lineStart);
+      if (line.length() >= MAX_GAME_LOG_LINE_LENGTH) {
+        masked |= writeMaskedLinePart(line, writer);
+      }
+    }
+    masked |= writeMaskedLine(line, writer);
+    return masked;
+  }
+
+  /**
+   * Writes the beginning of an overlong line and keeps the end that may be the beginning of a value to mask, which
+   * continues in the characters that have not been read yet.
+   */
+  private boolean writeMaskedLinePart(StringBuilder line, Writer writer) throws IOException {
+    String original = line.toString();
+    int keptLength = Math.max(0, logMasker.getMaxValueLength() - 1);
+    int splitIndex = logMasker.getSplitIndex(original, original.length() - keptLength);
+    String part = original.substring(0, splitIndex);
+    String maskedPart = logMasker.maskMessage(part);
+    writer.write(maskedPart);
+    line.delete(0, splitIndex);
+    return maskedPart != part;
+  }
+
+  private boolean writeMaskedLine(StringBuilder line, Writer writer) throws IOException {
+    String original = line.toString();
+    String maskedLine = logMasker.maskMessage(original);
+    writer.write(maskedLine);
+    line.setLength(0);
+    return maskedLine != original;
+  }
+
+  private void compressOlderGameLogFiles() {
+    listStoredGameLogFiles().stream()
+        .skip(NUMBER_GAME_LOGS_UNCOMPRESSED)
+        .filter(logPath -> GAME_LOG_PATTERN.matcher(logPath.getFileName().toString()).matches())
+        .forEach(logPath -> {
+          try {
+            compressGameLogFile(logPath);
+          } catch (IOException e) {
+            log.warn("Could not compress log file `{}`", logPath, e);
+          }
+        });
+  }
+
+  private void compressGameLogFile(Path gameLogFile) throws IOException {
+    FileTime lastModified = Files.getLastModifiedTime(gameLogFile);
+    Path tempFile = Files.createTempFile(gameLogFile.getParent(), gameLogFile.getFileName().toString(), ".tmp");
+    try {
+      try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(tempFile))) {
+        Files.copy(gameLogFile, outputStream);
+      }
+
+      if (!lastModified.equals(Files.getLastModifiedTime(gameLogFile))) {
+        log.info("Log file `{}` has been written to while it was compressed, keeping it", gameLogFile);
+        return;
+      }
+      // Keep the time of the log, which determines the order in which logs are deleted
+      Files.setLastModifiedTime(tempFile, lastModified);
+      move(tempFile, gameLogFile.resolveSibling(gameLogFile.getFileName() + ".gz"));
+      Files.delete(gameLogFile);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  private void move(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, ATOMIC_MOVE, REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source, target, REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Deletes the temporary files that have been left behind when the client was closed while a game log was processed.
+   */
+  private void deleteTemporaryGameLogFiles() {
+    try (Stream<Path> listOfLogFiles = Files.list(operatingSystem.getLoggingDirectory())) {
+      listOfLogFiles.filter(
+          logPath -> TEMPORARY_GAME_LOG_PATTERN.matcher(logPath.getFileName().toString()).matches()).forEach(logPath -> {
+        try {
+          Files.delete(logPath);
+        } catch (IOException e) {
+          log.warn("Could not delete temporary log file `{}`", logPath, e);
+        }
+      });
+    } catch (IOException e) {
+      log.error("Could not list log directory", e);
+    }
+  }
+
+  /**
+   * Returns the stored game logs, compressed or not, the most recent first.
+   */
+  private List<Path> listStoredGameLogFiles() {
+    try (Stream<Path> listOfLogFiles = Files.list(operatingSystem.getLoggingDirectory())) {
+      return listOfLogFiles
+          .filter(logPath -> STORED_GAME_LOG_PATTERN.matcher(logPath.getFileName().toString()).matches())
+          .sorted(Comparator.<Path>comparingLong(logPath -> logPath.toFile().lastModified()).reversed())
+          .toList();
+    } catch (IOException e) {
+      log.error("Could not list log directory", e);
+      return List.of();
+    }
+  }
+
   public void setLoggingLevel(String level) {
     LogLevel targetLogLevel = switch (level) {
       case "TRACE" -> LogLevel.TRACE;
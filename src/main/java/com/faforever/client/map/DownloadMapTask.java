@@ -1,18 +1,17 @@
 package com.faforever.client.map;
 
 import com.faforever.client.i18n.I18n;
+import com.faforever.client.io.DownloadService;
+import com.faforever.client.io.ParallelUnzipper;
 import com.faforever.client.preferences.ForgedAlliancePrefs;
 import com.faforever.client.task.CompletableTask;
-import com.faforever.commons.io.Unzipper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
-import java.io.InputStream;
 import java.net.URL;
-import java.net.URLConnection;
 import java.nio.file.Path;
 import java.util.Objects;
 
@@ -23,16 +22,18 @@ public class DownloadMapTask extends CompletableTask<Void> {
 
   private final I18n i18n;
   private final ForgedAlliancePrefs forgedAlliancePrefs;
+  private final DownloadService downloadService;
 
   private URL mapUrl;
   private String folderName;
 
   @Autowired
-  public DownloadMapTask(I18n i18n, ForgedAlliancePrefs forgedAlliancePrefs) {
+  public DownloadMapTask(I18n i18n, ForgedAlliancePrefs forgedAlliancePrefs, DownloadService downloadService) {
     super(Priority.HIGH);
 
     this.forgedAlliancePrefs = forgedAlliancePrefs;
     this.i18n = i18n;
+    this.downloadService = downloadService;
   }
 
   @Override
@@ -43,21 +44,16 @@ public class DownloadMapTask extends CompletableTask<Void> {
     updateTitle(i18n.get("mapDownloadTask.title", folderName));
     log.info("Downloading map `{}` from `{}`", folderName, mapUrl);
 
-    URLConnection urlConnection = mapUrl.openConnection();
-    int bytesToRead = urlConnection.getContentLength();
-
     Path targetDirectory = forgedAlliancePrefs.getMapsDirectory();
 
-    try (InputStream inputStream = urlConnection.getInputStream()) {
-      Unzipper.from(inputStream)
+    return downloadService.withDownloadedFile(mapUrl, this::updateProgress, mapArchive -> {
+      ParallelUnzipper.from(mapArchive)
           .zipBombByteCountThreshold(100_000_000)
           .to(targetDirectory)
-          .totalBytes(bytesToRead)
           .listener(this::updateProgress)
           .unzip();
-    }
-
-    return null;
+      return null;
+    });
   }
 
   public void setMapUrl(URL mapUrl) {
@@ -15,6 +15,7 @@ import com.faforever.client.fa.FaStrings;
 import com.faforever.client.fx.FxApplicationThreadExecutor;
 import com.faforever.client.fx.JavaFxUtil;
 import com.faforever.client.i18n.I18n;
+import com.faforever.client.map.ScenarioMetadataCache.ScenarioMetadata;
 import com.faforever.client.map.generator.MapGeneratorService;
 import com.faforever.client.mapstruct.MapMapper;
 import com.faforever.client.mapstruct.MatchmakerMapper;
@@ -76,18 +77,25 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static com.faforever.client.util.LuaUtil.loadFile;
+import static com.faforever.client.util.LuaUtil.loadTableFile;
 import static com.faforever.commons.api.elide.ElideNavigator.qBuilder;
 import static com.google.common.net.UrlEscapers.urlFragmentEscaper;
 import static java.lang.String.format;
@@ -104,6 +112,9 @@ import static java.util.stream.Collectors.toCollection;
 public class MapService implements InitializingBean, DisposableBean {
 
   public static final String DEBUG = "debug";
+  private static final int MAX_MAP_SCAN_THREADS = 8;
+  private static final int MAP_PUBLISH_BATCH_SIZE = 100;
+  private static final Duration MAP_PUBLISH_INTERVAL = Duration.ofMillis(100);
   private static final String MAP_VERSION_REGEX = ".*[.v](\\d{4})$"; // Matches to an string like 'adaptive_twin_rivers.v0031'
 
   private final NotificationService notificationService;
@@ -120,6 +131,7 @@ public class MapService implements InitializingBean, DisposableBean {
   private final ClientProperties clientProperties;
   private final ForgedAlliancePrefs forgedAlliancePrefs;
   private final Preferences preferences;
+  private final ScenarioMetadataCache scenarioMetadataCache;
   private final ObjectFactory<MapUploadTask> mapUploadTaskFactory;
   private final ObjectFactory<DownloadMapTask> downloadMapTaskFactory;
   private final ObjectFactory<UninstallMapTask> uninstallMapTaskFactory;
@@ -225,36 +237,83 @@ public class MapService implements InitializingBean, DisposableBean {
     taskService.submitTask(new CompletableTask<Void>(Priority.LOW) {
 
       @Override
-      protected Void call() {
+      protected Void call() throws InterruptedException {
         updateTitle(i18n.get("mapVault.loadingMaps"));
         Path officialMapsPath = forgedAlliancePrefs.getInstallationPath().resolve("maps");
         try (Stream<Path> customMapsDirectoryStream = list(forgedAlliancePrefs.getMapsDirectory())) {
           List<Path> mapPaths = new ArrayList<>();
-          customMapsDirectoryStream.collect(toCollection(() -> mapPaths));
+          customMapsDirectoryStream.filter(mapPath -> !mapPath.getFileName().toString().equals(DEBUG))
+                                   .collect(toCollection(() -> mapPaths));
           officialMaps.stream().map(officialMapsPath::resolve).collect(toCollection(() -> mapPaths));
 
-          long totalMaps = mapPaths.size();
-          long mapsRead = 0;
-          for (Path mapPath : mapPaths) {
-            if (mapPath.getFileName().toString().equals(DEBUG)) {
-              continue;
-            }
-            updateProgress(++mapsRead, totalMaps);
-            try {
-              addInstalledMap(mapPath);
-            } catch (MapLoadException exception) {
-              log.error("Map could not be read: `{}`", mapPath, exception);
-            }
-          }
+          scanInstalledMaps(mapPaths, (mapsRead, totalMaps) -> updateProgress(mapsRead.longValue(), totalMaps.longValue()));
         } catch (IOException e) {
           log.error("Maps could not be read from: `{}`", forgedAlliancePrefs.getMapsDirectory(), e);
+        } finally {
+          scenarioMetadataCache.saveIfDirty();
         }
         return null;
       }
     });
   }
 
+  /**
+   * Reads the given map folders on a bounded number of threads and publishes them to {@link #mapsByFolderName} in
+   * batches, so that the JavaFX thread is not flooded with one update per installed map. Cached scenario metadata of
+   * map folders that are not among the given ones is dropped.
+   */
+  @VisibleForTesting
+  void scanInstalledMaps(List<Path> mapPaths, BiConsumer<Long, Long> progressListener) throws InterruptedException {
+    scenarioMetadataCache.retainAll(mapPaths);
+    int parallelism = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), MAX_MAP_SCAN_THREADS));
+    ExecutorService executorService = Executors.newFixedThreadPool(parallelism, Thread.ofPlatform()
+                                                                                      .name("map-scan-", 0)
+                                                                                      .daemon(true)
+                                                                                      .factory());
+    try {
+      CompletionService<Optional<MapVersion>> completionService = new ExecutorCompletionService<>(executorService);
+      mapPaths.forEach(mapPath -> completionService.submit(() -> {
+        try {
+          return Optional.of(readMap(mapPath));
+        } catch (MapLoadException | RuntimeException exception) {
+          log.error("Map could not be read: `{}`", mapPath, exception);
+          return Optional.<MapVersion>empty();
+        }
+      }));
+
+      long totalMaps = mapPaths.size();
+      java.util.Map<String, MapVersion> batch = new HashMap<>();
+      long lastPublish = System.nanoTime();
+      for (long mapsRead = 1; mapsRead <= totalMaps; mapsRead++) {
+        completionService.take()
+                         .resultNow()
+                         .ifPresent(mapVersion -> batch.put(mapVersion.folderName().toLowerCase(Locale.ROOT), mapVersion));
+        progressListener.accept(mapsRead, totalMaps);
+
+        if (batch.size() >= MAP_PUBLISH_BATCH_SIZE || System.nanoTime() - lastPublish >= MAP_PUBLISH_INTERVAL.toNanos()) {
+          publishInstalledMaps(batch);
+          batch.clear();
+          lastPublish = System.nanoTime();
+        }
+      }
+      publishInstalledMaps(batch);
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  private void publishInstalledMaps(java.util.Map<String, MapVersion> batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    java.util.Map<String, MapVersion> mapsToAdd = java.util.Map.copyOf(batch);
+    fxApplicationThreadExecutor.execute(() -> mapsToAdd.forEach(mapsByFolderName::putIfAbsent));
+    log.debug("Added {} maps", mapsToAdd.size());
+  }
+
   private void removeMap(Path mapFolder) {
+    scenarioMetadataCache.remove(mapFolder);
     fxApplicationThreadExecutor.execute(
       () -> mapsByFolderName.remove(mapFolder.getFileName().toString().toLowerCase(Locale.ROOT))
     );
@@ -276,6 +335,24 @@ public class MapService implements InitializingBean, DisposableBean {
                                  mapFolder.toAbsolutePath());
     }
 
+    ScenarioMetadata scenarioMetadata = scenarioMetadataCache.get(mapFolder).orElse(null);
+    if (scenarioMetadata == null) {
+      scenarioMetadata = readScenarioMetadata(mapFolder);
+      scenarioMetadataCache.put(mapFolder, scenarioMetadata);
+    }
+
+    Map map = new Map(null, scenarioMetadata.name(), 0, null, false, MapType.fromValue(scenarioMetadata.type()), null);
+    String folderName = mapFolder.getFileName().toString();
+    MapSize mapSize = new MapSize(scenarioMetadata.width(), scenarioMetadata.height());
+    ComparableVersion comparableVersion = Optional.ofNullable(scenarioMetadata.version())
+                                                  .map(ComparableVersion::new)
+                                                  .orElse(null);
+
+    return new MapVersion(null, folderName, 0, scenarioMetadata.description(), scenarioMetadata.maxPlayers(), mapSize,
+                          comparableVersion, false, false, null, null, null, map, null);
+  }
+
+  private ScenarioMetadata readScenarioMetadata(Path mapFolder) throws MapLoadException {
     try (Stream<Path> mapFolderFilesStream = list(mapFolder)) {
       Path scenarioLuaPath = mapFolderFilesStream.filter(
                                                      file -> file.getFileName().toString().endsWith("_scenario.lua"))
@@ -284,25 +361,19 @@ public class MapService implements InitializingBean, DisposableBean {
                                                      "Map folder does not contain a *_scenario.lua: " + mapFolder.toAbsolutePath(),
                                                      null, "map.load.noScenario", mapFolder.toAbsolutePath()));
 
-      LuaValue luaRoot = loadFile(scenarioLuaPath);
+      BasicFileAttributes attributes = Files.readAttributes(scenarioLuaPath, BasicFileAttributes.class);
+      LuaValue luaRoot = loadTableFile(scenarioLuaPath);
       LuaValue scenarioInfo = luaRoot.get("ScenarioInfo");
       LuaValue size = scenarioInfo.get("size");
 
-      Map map = new Map(null, scenarioInfo.get("name").toString(), 0, null, false,
-                        MapType.fromValue(scenarioInfo.get("type").toString()), null);
-      String folderName = mapFolder.getFileName().toString();
       String description = FaStrings.removeLocalizationTag(scenarioInfo.get("description").toString());
-      MapSize mapSize = new MapSize(size.get(1).toint(), size.get(2).toint());
       int maxPlayers = scenarioInfo.get("Configurations").get("standard").get("teams").get(1).get("armies").length();
-
-      ComparableVersion comparableVersion = null;
       LuaValue version = scenarioInfo.get("map_version");
-      if (!version.isnil()) {
-        comparableVersion = new ComparableVersion(version.toString());
-      }
 
-      return new MapVersion(null, folderName, 0, description, maxPlayers, mapSize, comparableVersion, false, false,
-                            null, null, null, map, null);
+      return new ScenarioMetadata(scenarioLuaPath.getFileName().toString(), attributes.size(),
+                                  attributes.lastModifiedTime().toMillis(), scenarioInfo.get("name").toString(),
+                                  scenarioInfo.get("type").toString(), description, size.get(1).toint(),
+                                  size.get(2).toint(), maxPlayers, version.isnil() ? null : version.toString());
     } catch (IOException e) {
       throw new MapLoadException("Could not load map due to IO error" + mapFolder.toAbsolutePath(), e,
                                  "map.load.ioError", mapFolder.toAbsolutePath());
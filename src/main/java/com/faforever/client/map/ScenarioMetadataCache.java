@@ -0,0 +1,170 @@
+package com.faforever.client.map;
+
+import com.faforever.client.preferences.DataPrefs;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent cache of the values {@link MapService} reads from a map's {@code *_scenario.lua}, so that the Lua file of
+ * an unchanged map is not evaluated again on every scan of the installed maps. Entries are keyed by the absolute path
+ * of the map folder and are only valid as long as size and modification time of the scenario file match.
+ */
+@Slf4j
+@Lazy
+@Component
+@RequiredArgsConstructor
+public class ScenarioMetadataCache implements DisposableBean {
+
+  static final String CACHE_FILE_NAME = "installed_maps.json";
+
+  private final DataPrefs dataPrefs;
+
+  private final ObjectMapper objectMapper = new ObjectMapper()
+      .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  private final Map<String, ScenarioMetadata> metadataByMapFolder = new ConcurrentHashMap<>();
+  private final AtomicBoolean dirty = new AtomicBoolean();
+  private volatile boolean loaded;
+
+  /**
+   * Returns the cached scenario metadata of the given map folder if its scenario file has not changed since it was
+   * cached.
+   */
+  public Optional<ScenarioMetadata> get(Path mapFolder) {
+    loadIfNecessary();
+    ScenarioMetadata metadata = metadataByMapFolder.get(toKey(mapFolder));
+    if (metadata == null) {
+      return Optional.empty();
+    }
+
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(mapFolder.resolve(metadata.scenarioFileName()),
+                                                            BasicFileAttributes.class);
+      if (metadata.matches(attributes)) {
+        return Optional.of(metadata);
+      }
+    } catch (IOException e) {
+      log.trace("Cached scenario file of `{}` is not readable anymore", mapFolder, e);
+    }
+    return Optional.empty();
+  }
+
+  public void put(Path mapFolder, ScenarioMetadata metadata) {
+    loadIfNecessary();
+    metadataByMapFolder.put(toKey(mapFolder), metadata);
+    dirty.set(true);
+  }
+
+  public void remove(Path mapFolder) {
+    loadIfNecessary();
+    if (metadataByMapFolder.remove(toKey(mapFolder)) != null) {
+      dirty.set(true);
+    }
+  }
+
+  /**
+   * Drops the entries of all map folders except the given ones, so that maps that have been uninstalled while the
+   * client was not running do not stay in the cache forever.
+   */
+  public void retainAll(Collection<Path> mapFolders) {
+    loadIfNecessary();
+    Set<String> keys = mapFolders.stream().map(ScenarioMetadataCache::toKey).collect(Collectors.toSet());
+    if (metadataByMapFolder.keySet().retainAll(keys)) {
+      dirty.set(true);
+    }
+  }
+
+  /**
+   * Writes the cache to disk if it has been modified since it was last written.
+   */
+  public synchronized void saveIfDirty() {
+    if (!dirty.getAndSet(false)) {
+      return;
+    }
+
+    Path cacheFile = getCacheFile();
+    try {
+      Files.createDirectories(cacheFile.getParent());
+      Path temporaryCacheFile = Files.createTempFile(cacheFile.getParent(), CACHE_FILE_NAME, null);
+      objectMapper.writeValue(temporaryCacheFile.toFile(), Map.copyOf(metadataByMapFolder));
+      Files.move(temporaryCacheFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      dirty.set(true);
+      log.warn("Could not write installed maps cache `{}`", cacheFile, e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    saveIfDirty();
+  }
+
+  private synchronized void loadIfNecessary() {
+    if (loaded) {
+      return;
+    }
+    loaded = true;
+
+    Path cacheFile = getCacheFile();
+    if (Files.notExists(cacheFile)) {
+      return;
+    }
+
+    try {
+      Map<String, ScenarioMetadata> entries = objectMapper.readValue(cacheFile.toFile(), new TypeReference<>() {});
+      metadataByMapFolder.putAll(entries);
+      log.debug("Loaded {} entries from installed maps cache", entries.size());
+    } catch (IOException e) {
+      log.warn("Could not read installed maps cache `{}`, rebuilding it", cacheFile, e);
+    }
+  }
+
+  private Path getCacheFile() {
+    return dataPrefs.getCacheDirectory().resolve(CACHE_FILE_NAME);
+  }
+
+  private static String toKey(Path mapFolder) {
+    return mapFolder.toAbsolutePath().normalize().toString();
+  }
+
+  /**
+   * The values of a {@code *_scenario.lua} that are needed to create a local {@code MapVersion}.
+   */
+  public record ScenarioMetadata(
+      String scenarioFileName,
+      long size,
+      long lastModified,
+      String name,
+      String type,
+      String description,
+      int width,
+      int height,
+      int maxPlayers,
+      String version
+  ) {
+
+    boolean matches(BasicFileAttributes attributes) {
+      return attributes.isRegularFile()
+          && attributes.size() == size
+          && attributes.lastModifiedTime().toMillis() == lastModified;
+    }
+  }
+}
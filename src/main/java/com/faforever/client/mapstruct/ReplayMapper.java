@@ -7,6 +7,7 @@ import com.faforever.client.domain.api.LeagueScoreJournal;
 import com.faforever.client.domain.api.MapVersion;
 import com.faforever.client.domain.api.Replay;
 import com.faforever.client.domain.server.PlayerInfo;
+import com.faforever.client.replay.LocalReplayIndexEntry;
 import com.faforever.commons.api.dto.Faction;
 import com.faforever.commons.api.dto.Game;
 import com.faforever.commons.replay.ChatMessage;
@@ -153,6 +154,68 @@ public interface ReplayMapper {
     return teams;
   }
 
+  default LocalReplayIndexEntry mapToIndexEntry(ReplayDataParser parser, String fileName, long size,
+                                                long lastModified) {
+    ReplayMetadata metadata = parser.getMetadata();
+    List<LocalReplayIndexEntry.Player> players = mapTeamStatsFromParser(parser).values()
+                                                                              .stream()
+                                                                              .flatMap(Collection::stream)
+                                                                              .map(this::mapToIndexPlayer)
+                                                                              .toList();
+    List<Replay.ChatMessage> chatMessages = parser.getChatMessages().stream().map(this::map).toList();
+    List<Replay.GameOption> gameOptions = parser.getGameOptions().stream().map(this::map).toList();
+    return new LocalReplayIndexEntry(fileName, size, lastModified, metadata.getUid(), metadata.getTitle(),
+                                     metadata.getFeaturedMod(), metadata.getMapname(),
+                                     metadata.getGameTime() > 0 ? metadata.getGameTime() : metadata.getLaunchedAt(),
+                                     metadata.getGameEnd(), players, chatMessages, gameOptions, false);
+  }
+
+  default LocalReplayIndexEntry.Player mapToIndexPlayer(GamePlayerStats stats) {
+    PlayerInfo player = stats.player();
+    LeaderboardRatingJournal ratingJournal = stats.leaderboardRatingJournals().getFirst();
+    return new LocalReplayIndexEntry.Player(player.getId(), player.getUsername(), player.getCountry(), stats.team(),
+                                            stats.faction().toFaValue(), ratingJournal.meanBefore(),
+                                            ratingJournal.deviationBefore());
+  }
+
+  default LocalReplayIndexEntry mapToIndexEntry(ReplayMetadata metadata, String fileName, long size,
+                                                long lastModified) {
+    Map<String, List<String>> teams = metadata.getTeams() == null ? Map.of() : metadata.getTeams();
+    List<LocalReplayIndexEntry.Player> players = new ArrayList<>();
+    teams.forEach((team, playerNames) -> playerNames.forEach(
+        playerName -> players.add(
+            new LocalReplayIndexEntry.Player(null, playerName, null, Integer.parseInt(team), null, null, null))));
+    return new LocalReplayIndexEntry(fileName, size, lastModified, metadata.getUid(), metadata.getTitle(),
+                                     metadata.getFeaturedMod(), metadata.getMapname(),
+                                     metadata.getGameTime() > 0 ? metadata.getGameTime() : metadata.getLaunchedAt(),
+                                     metadata.getGameEnd(), players, null, null, true);
+  }
+
+  default Replay mapFromIndexEntry(LocalReplayIndexEntry entry, Path replayFile, FeaturedMod featuredMod,
+                                   MapVersion mapVersion) {
+    Map<String, List<String>> teams = new HashMap<>();
+    Map<String, List<GamePlayerStats>> teamPlayerStats = new HashMap<>();
+    entry.players().forEach(indexedPlayer -> {
+      String teamString = String.valueOf(indexedPlayer.team());
+      PlayerInfo player = new PlayerInfo();
+      player.setId(indexedPlayer.id());
+      player.setUsername(indexedPlayer.name());
+      player.setCountry(indexedPlayer.country());
+      List<LeaderboardRatingJournal> ratingJournals = indexedPlayer.mean() == null || indexedPlayer.deviation() == null
+          ? List.of()
+          : List.of(new LeaderboardRatingJournal(null, null, null, indexedPlayer.mean(), indexedPlayer.deviation(),
+                                                 null, null));
+      Faction faction = indexedPlayer.faction() == null ? null : Faction.fromFaValue(indexedPlayer.faction());
+      GamePlayerStats stats = new GamePlayerStats(false, faction, (byte) 0, (byte) indexedPlayer.team(), (byte) 0,
+                                                  (byte) 0, null, null, player, ratingJournals);
+      teams.computeIfAbsent(teamString, key -> new ArrayList<>()).add(indexedPlayer.name());
+      teamPlayerStats.computeIfAbsent(teamString, key -> new ArrayList<>()).add(stats);
+    });
+    return new Replay(entry.uid(), entry.title(), true, teams, teamPlayerStats, null,
+                      fromPythonTime(entry.startTime()), fromPythonTime(entry.endTime()), featuredMod, mapVersion,
+                      replayFile, null, entry.chatMessages(), entry.gameOptions(), null, null, true);
+  }
+
   @Mapping(target = "name", source = "title")
   @Mapping(target = "playerStats", source = "teamPlayerStats")
   Game map(Replay bean);
@@ -1,11 +1,10 @@
 package com.faforever.client.mod;
 
 import com.faforever.client.i18n.I18n;
-import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.io.DownloadService;
 import com.faforever.client.preferences.ForgedAlliancePrefs;
 import com.faforever.client.task.CompletableTask;
 import com.faforever.client.task.ResourceLocks;
-import com.faforever.commons.io.ByteCopier;
 import com.faforever.commons.io.Unzipper;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.compress.archivers.ArchiveException;
@@ -17,14 +16,14 @@ import org.springframework.util.FileSystemUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URL;
-import java.net.URLConnection;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Objects;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.stream.Stream;
 
 import static com.faforever.client.task.CompletableTask.Priority.HIGH;
 
@@ -33,101 +32,125 @@ import static com.faforever.client.task.CompletableTask.Priority.HIGH;
 @Slf4j
 public class DownloadModTask extends CompletableTask<Void> {
 
+  private static final String STAGING_DIRECTORY_NAME = ".mod-staging";
+
   private final I18n i18n;
-  private final DataPrefs dataPrefs;
   private final ForgedAlliancePrefs forgedAlliancePrefs;
+  private final DownloadService downloadService;
 
   private URL url;
 
   @Autowired
-  public DownloadModTask(I18n i18n, DataPrefs dataPrefs, ForgedAlliancePrefs forgedAlliancePrefs) {
+  public DownloadModTask(I18n i18n, ForgedAlliancePrefs forgedAlliancePrefs, DownloadService downloadService) {
     super(HIGH);
 
     this.i18n = i18n;
-    this.dataPrefs = dataPrefs;
     this.forgedAlliancePrefs = forgedAlliancePrefs;
+    this.downloadService = downloadService;
   }
 
   @Override
   protected Void call() throws Exception {
     Objects.requireNonNull(url, "url has not been set");
 
-    Path tempFile = Files.createTempFile(dataPrefs.getCacheDirectory(), "mod", null);
-
-    log.info("Downloading mod from `{}` to `{}`", url, tempFile);
+    log.info("Downloading mod from `{}`", url);
     updateTitle(i18n.get("downloadingModTask.downloading", url));
 
-    Files.createDirectories(tempFile.getParent());
-
-    URLConnection urlConnection = url.openConnection();
-    int contentLength = urlConnection.getContentLength();
-
-    ResourceLocks.acquireDownloadLock();
-    try (InputStream inputStream = urlConnection.getInputStream();
-         OutputStream outputStream = Files.newOutputStream(tempFile)) {
-
-      ByteCopier.from(inputStream)
-          .to(outputStream)
-          .listener(this::updateProgress)
-          .totalBytes(contentLength)
-          .copy();
-
-      extractMod(tempFile);
+    Path modsDirectory = forgedAlliancePrefs.getModsDirectory();
+    Files.createDirectories(modsDirectory);
+    // The staging directory must be on the same file system, but not inside the watched mods directory
+    Path stagingRootDirectory = modsDirectory.resolveSibling(STAGING_DIRECTORY_NAME);
+    Path stagingDirectory;
+    ResourceLocks.acquireFileLock(stagingRootDirectory);
+    try {
+      stagingDirectory = Files.createTempDirectory(Files.createDirectories(stagingRootDirectory), "install");
     } finally {
-      ResourceLocks.freeDownloadLock();
-      try {
-        Files.deleteIfExists(tempFile);
-      } catch (IOException e) {
-        log.warn("Could not delete temporary file: " + tempFile.toAbsolutePath(), e);
+      ResourceLocks.freeFileLock(stagingRootDirectory);
+    }
+    Path extractionDirectory = stagingDirectory.resolve("new");
+
+    try {
+      downloadService.downloadToBlobStore(url, this::updateProgress, inputStream -> {
+        try {
+          extractMod(inputStream, extractionDirectory);
+        } catch (ArchiveException e) {
+          throw new IOException("Could not extract mod downloaded from " + url, e);
+        }
+      });
+
+      updateTitle(i18n.get("downloadingModTask.unzipping", modsDirectory));
+      try (Stream<Path> extractedFiles = Files.list(extractionDirectory)) {
+        for (Path extractedFile : extractedFiles.toList()) {
+          swapIntoModsDirectory(extractedFile, modsDirectory, stagingDirectory.resolve("old"));
+        }
       }
+    } finally {
+      deleteStagingDirectory(stagingDirectory);
     }
     return null;
   }
 
-  private void extractMod(Path tempFile) throws IOException, ArchiveException {
-    Path modsDirectory = forgedAlliancePrefs.getModsDirectory();
-
-    updateTitle(i18n.get("downloadingModTask.unzipping", modsDirectory));
-
-    deleteOldModIfExisting(tempFile, modsDirectory);
-
-    log.info("Unzipping `{}` to `{}`", tempFile, modsDirectory);
-    try (InputStream inputStream = Files.newInputStream(tempFile)) {
-      ResourceLocks.acquireDiskLock();
-
-      Unzipper.from(inputStream)
-          .to(modsDirectory)
-          .zipBombByteCountThreshold(100_000_000)
-          .listener(this::updateProgress)
-          .totalBytes(Files.size(tempFile))
-          .unzip();
-
+  /**
+   * Deletes the staging directory of this installation, and the directory that contains it unless another installation
+   * is in progress.
+   */
+  private void deleteStagingDirectory(Path stagingDirectory) {
+    Path stagingRootDirectory = stagingDirectory.getParent();
+    ResourceLocks.acquireFileLock(stagingRootDirectory);
+    try {
+      FileSystemUtils.deleteRecursively(stagingDirectory);
+      Files.deleteIfExists(stagingRootDirectory);
+    } catch (DirectoryNotEmptyException e) {
+      log.debug("Keeping staging directory `{}` that is still in use", stagingRootDirectory);
+    } catch (IOException e) {
+      log.warn("Could not delete staging directory: `{}`", stagingDirectory, e);
     } finally {
-      ResourceLocks.freeDiskLock();
+      ResourceLocks.freeFileLock(stagingRootDirectory);
     }
   }
 
-  private void deleteOldModIfExisting(Path tempFile, Path modsDirectory) {
-    try (ZipInputStream zipInputStream = new ZipInputStream(Files.newInputStream(tempFile))) {
-      ZipEntry zipEntry = zipInputStream.getNextEntry();
-      Path pathToEntry = Path.of(zipEntry.getName());
-      Path topLevelDirectory = getTopLevelDirectory(pathToEntry);
-      Path modDirectory = modsDirectory.resolve(topLevelDirectory);
-      if (Files.isDirectory(modDirectory)) {
-        log.info("Deleting old mod version in `{}`", modDirectory);
-        FileSystemUtils.deleteRecursively(modDirectory);
+  /**
+   * Extracts the mod while it is being downloaded. This is called again if the download had to be resumed, so anything
+   * extracted by a previous attempt is discarded.
+   */
+  private void extractMod(InputStream inputStream, Path extractionDirectory) throws IOException, ArchiveException {
+    FileSystemUtils.deleteRecursively(extractionDirectory);
+    Files.createDirectories(extractionDirectory);
+
+    log.info("Unzipping mod to staging directory `{}`", extractionDirectory);
+    Unzipper.from(inputStream)
+        .to(extractionDirectory)
+        .zipBombByteCountThreshold(100_000_000)
+        .unzip();
+  }
+
+  /**
+   * Replaces the old version of a mod, if any, by moving directories on the same file system, so that the mods
+   * directory never contains a partially extracted mod. Only the affected mod directory is locked.
+   */
+  private void swapIntoModsDirectory(Path extractedFile, Path modsDirectory, Path oldVersionDirectory) throws IOException {
+    Path modDirectory = modsDirectory.resolve(extractedFile.getFileName().toString());
+
+    ResourceLocks.acquireFileLock(modDirectory);
+    try {
+      if (Files.exists(modDirectory)) {
+        log.info("Replacing old mod version in `{}`", modDirectory);
+        move(modDirectory, Files.createDirectories(oldVersionDirectory).resolve(modDirectory.getFileName()));
       }
-    } catch (Exception e) {
-      log.warn("Could not delete directory of old mod", e);
+      move(extractedFile, modDirectory);
+    } finally {
+      ResourceLocks.freeFileLock(modDirectory);
     }
   }
 
-  private Path getTopLevelDirectory(Path pathToEntry) {
-    Path cutOffPath = pathToEntry;
-    while (cutOffPath.getParent() != null) {
-      cutOffPath = cutOffPath.getParent();
+  private static void move(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      log.debug("Could not move `{}` atomically, copying it instead", source);
+      FileSystemUtils.copyRecursively(source, target);
+      FileSystemUtils.deleteRecursively(source);
     }
-    return cutOffPath;
   }
 
   public void setUrl(URL url) {
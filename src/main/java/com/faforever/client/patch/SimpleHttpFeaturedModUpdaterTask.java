@@ -6,11 +6,14 @@ import com.faforever.client.i18n.I18n;
 import com.faforever.client.io.ChecksumMismatchException;
 import com.faforever.client.io.DownloadService;
 import com.faforever.client.io.FeaturedModFileCacheService;
+import com.faforever.client.io.FileFingerprintService;
 import com.faforever.client.preferences.DataPrefs;
 import com.faforever.client.preferences.PreferencesService;
 import com.faforever.client.task.CompletableTask;
+import com.faforever.client.task.ResourceLocks;
 import com.faforever.commons.api.dto.FeaturedModFile;
 import com.faforever.commons.fa.ForgedAllianceExePatcher;
+import com.faforever.commons.io.ByteCountListener;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.maven.artifact.versioning.ComparableVersion;
@@ -24,19 +27,32 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 @Component
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 @Slf4j
 @Setter
 public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResult> {
+
+  static final int MAX_CONCURRENT_DOWNLOADS = 4;
+  private static final int MAX_PARALLEL_FILES = 8;
+
   private final FeaturedModService featuredModService;
   private final DownloadService downloadService;
   private final I18n i18n;
   private final FeaturedModFileCacheService featuredModFileCacheService;
+  private final FileFingerprintService fileFingerprintService;
   private final DataPrefs dataPrefs;
 
   private String featuredModName;
@@ -48,6 +64,7 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
       DownloadService downloadService,
       I18n i18n,
       FeaturedModFileCacheService featuredModFileCacheService,
+      FileFingerprintService fileFingerprintService,
       DataPrefs dataPrefs) {
     super(Priority.HIGH);
 
@@ -55,6 +72,7 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
     this.downloadService = downloadService;
     this.i18n = i18n;
     this.featuredModFileCacheService = featuredModFileCacheService;
+    this.fileFingerprintService = fileFingerprintService;
     this.dataPrefs = dataPrefs;
   }
 
@@ -79,34 +97,7 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
                                                                .blockOptional()
                                                                .orElse(List.of());
 
-    featuredModFiles
-        .forEach(featuredModFile -> {
-          Path targetPath = fafDataDirectory
-              .resolve(featuredModFile.getGroup())
-              .resolve(featuredModFile.getName());
-
-          try {
-            Files.createDirectories(targetPath.getParent());
-            if (fileAlreadyLoaded(featuredModFile, targetPath)) {
-              log.info("Featured mod file already prepared: `{}`", featuredModFile);
-            } else {
-              if (!featuredModFileCacheService.isCached(featuredModFile)) {
-                Path cachedFilePath = featuredModFileCacheService.getCachedFilePath(featuredModFile);
-                Files.createDirectories(cachedFilePath.getParent());
-                if (PreferencesService.FORGED_ALLIANCE_EXE.equals(featuredModFile.getName())) {
-                  patchOrDownloadForgedAllianceExe(featuredModFile, cachedFilePath, targetPath);
-                } else {
-                  downloadFeaturedModFile(featuredModFile, cachedFilePath);
-                }
-              }
-              featuredModFileCacheService.copyFeaturedModFileFromCache(featuredModFile, targetPath);
-            }
-          }
-          catch (IOException | NoSuchAlgorithmException | ChecksumMismatchException e) {
-            log.error("Error updating featured mod file: `{}`", featuredModFile, e);
-            throw new RuntimeException(e);
-          }
-        });
+    updateFeaturedModFiles(featuredModFiles, fafDataDirectory);
 
     Path initFile = featuredModFiles.stream()
         .filter(featuredModFile -> "bin".equals(featuredModFile.getGroup()) &&
@@ -128,7 +119,99 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
     return new PatchResult(new ComparableVersion(String.valueOf(maxVersion)), initFile);
   }
 
-  private void patchOrDownloadForgedAllianceExe(FeaturedModFile featuredModFile, Path cachedFilePath, Path targetPath) throws IOException, ChecksumMismatchException, NoSuchAlgorithmException {
+  /**
+   * Prepares all files concurrently, each one in its own pipeline of hashing, downloading and copying. The number of
+   * concurrent downloads is bounded separately, so that files which only need to be verified or copied from the cache
+   * don't have to wait for downloads.
+   */
+  private void updateFeaturedModFiles(List<FeaturedModFile> featuredModFiles,
+                                      Path fafDataDirectory) throws InterruptedException {
+    if (featuredModFiles.isEmpty()) {
+      return;
+    }
+
+    Semaphore downloadPermits = new Semaphore(MAX_CONCURRENT_DOWNLOADS);
+    AggregatedProgress aggregatedProgress = new AggregatedProgress(featuredModFiles.size());
+    int parallelism = Math.min(featuredModFiles.size(), MAX_PARALLEL_FILES);
+    ExecutorService executorService = Executors.newFixedThreadPool(parallelism, Thread.ofPlatform()
+                                                                                      .name("featured-mod-sync-", 0)
+                                                                                      .daemon(true)
+                                                                                      .factory());
+    try {
+      List<Future<?>> futures = new ArrayList<>(featuredModFiles.size());
+      for (int i = 0; i < featuredModFiles.size(); i++) {
+        FeaturedModFile featuredModFile = featuredModFiles.get(i);
+        ByteCountListener progressListener = aggregatedProgress.listenerForFile(i);
+        futures.add(executorService.submit(() -> {
+          updateFeaturedModFile(featuredModFile, fafDataDirectory, downloadPermits, progressListener);
+          progressListener.updateBytesProcessed(1, 1);
+          return null;
+        }));
+      }
+
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          futures.forEach(otherFuture -> otherFuture.cancel(true));
+          if (e.getCause() instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+          }
+          throw new RuntimeException(e.getCause());
+        }
+      }
+    } finally {
+      executorService.shutdownNow();
+      // Persist the hashes of the prepared files, so that the next launch doesn't have to compute them again
+      fileFingerprintService.saveIfDirty();
+    }
+  }
+
+  private void updateFeaturedModFile(FeaturedModFile featuredModFile, Path fafDataDirectory,
+                                     Semaphore downloadPermits, ByteCountListener progressListener) {
+    Path targetPath = fafDataDirectory
+        .resolve(featuredModFile.getGroup())
+        .resolve(featuredModFile.getName());
+
+    try {
+      Files.createDirectories(targetPath.getParent());
+      if (fileAlreadyLoaded(featuredModFile, targetPath)) {
+        log.info("Featured mod file already prepared: `{}`", featuredModFile);
+        return;
+      }
+
+      Path cachedFilePath = featuredModFileCacheService.getCachedFilePath(featuredModFile);
+      // Another update, e.g. for the replay folder, might be downloading the same file right now
+      ResourceLocks.acquireFileLock(cachedFilePath);
+      try {
+        if (!featuredModFileCacheService.isCached(featuredModFile)) {
+          Files.createDirectories(cachedFilePath.getParent());
+          downloadPermits.acquire();
+          try {
+            if (PreferencesService.FORGED_ALLIANCE_EXE.equals(featuredModFile.getName())) {
+              patchOrDownloadForgedAllianceExe(featuredModFile, cachedFilePath, targetPath, progressListener);
+            } else {
+              downloadFeaturedModFile(featuredModFile, cachedFilePath, progressListener);
+            }
+          } finally {
+            downloadPermits.release();
+          }
+        }
+      } finally {
+        ResourceLocks.freeFileLock(cachedFilePath);
+      }
+      featuredModFileCacheService.copyFeaturedModFileFromCache(featuredModFile, targetPath);
+    } catch (IOException | NoSuchAlgorithmException | ChecksumMismatchException e) {
+      log.error("Error updating featured mod file: `{}`", featuredModFile, e);
+      throw new RuntimeException(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+  }
+
+  private void patchOrDownloadForgedAllianceExe(FeaturedModFile featuredModFile, Path cachedFilePath, Path targetPath,
+                                                ByteCountListener progressListener) throws IOException, ChecksumMismatchException, NoSuchAlgorithmException {
     if (Files.exists(targetPath)) {
       Files.createDirectories(cachedFilePath.getParent());
       Path tempFile = Files.createTempFile(cachedFilePath.getParent(), "download", null);
@@ -145,7 +228,7 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
       }
     }
 
-    downloadFeaturedModFile(featuredModFile, cachedFilePath);
+    downloadFeaturedModFile(featuredModFile, cachedFilePath, progressListener);
   }
 
   private boolean fileAlreadyLoaded(FeaturedModFile featuredModFile, Path targetPath) throws IOException {
@@ -153,7 +236,8 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
         && Objects.equals(featuredModFile.getMd5(), featuredModFileCacheService.readHashFromFile(targetPath));
   }
 
-  private void downloadFeaturedModFile(FeaturedModFile featuredModFile, Path targetPath) throws IOException, NoSuchAlgorithmException, ChecksumMismatchException {
+  private void downloadFeaturedModFile(FeaturedModFile featuredModFile, Path targetPath,
+                                       ByteCountListener progressListener) throws IOException, NoSuchAlgorithmException, ChecksumMismatchException {
     Files.createDirectories(targetPath.getParent());
     updateMessage(i18n.get("updater.downloadingFile", featuredModFile.getName()));
 
@@ -165,6 +249,36 @@ public class SimpleHttpFeaturedModUpdaterTask extends CompletableTask<PatchResul
     Map<String, String> requestParameters = Map.of(featuredModFile.getHmacParameter(), featuredModFile.getHmacToken());
 
     downloadService.downloadFile(URI.create(featuredModFile.getCacheableUrl()).toURL(), requestParameters, targetPath,
-                                 this::updateProgress, md5sum);
+                                 progressListener, md5sum);
+  }
+
+  /**
+   * Combines the progress of all files into one, where each file has the same weight. A file that doesn't need to be
+   * downloaded completes its share at once.
+   */
+  private class AggregatedProgress {
+    private static final long UNITS_PER_FILE = 1000;
+
+    private final long totalUnits;
+    private final AtomicLongArray unitsByFile;
+    private final AtomicLong completedUnits = new AtomicLong();
+
+    private AggregatedProgress(int fileCount) {
+      totalUnits = fileCount * UNITS_PER_FILE;
+      unitsByFile = new AtomicLongArray(fileCount);
+    }
+
+    private ByteCountListener listenerForFile(int fileIndex) {
+      return (written, total) -> {
+        if (total <= 0) {
+          return;
+        }
+        long units = Math.min(UNITS_PER_FILE, written * UNITS_PER_FILE / total);
+        long previousUnits = unitsByFile.getAndAccumulate(fileIndex, units, Math::max);
+        if (units > previousUnits) {
+          updateProgress(completedUnits.addAndGet(units - previousUnits), totalUnits);
+        }
+      };
+    }
   }
 }
@@ -4,7 +4,6 @@ import ch.micheljung.fxwindow.FxStage;
 import com.faforever.client.achievements.AchievementItemController;
 import com.faforever.client.achievements.AchievementService;
 import com.faforever.client.domain.api.Leaderboard;
-import com.faforever.client.domain.api.LeaderboardRatingJournal;
 import com.faforever.client.domain.api.NameRecord;
 import com.faforever.client.domain.server.PlayerInfo;
 import com.faforever.client.fx.FxApplicationThreadExecutor;
@@ -15,6 +14,8 @@ import com.faforever.client.fx.OffsetDateTimeCell;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.leaderboard.LeaderboardService;
 import com.faforever.client.notification.NotificationService;
+import com.faforever.client.stats.LttbDownsampler;
+import com.faforever.client.stats.RatingHistoryPoint;
 import com.faforever.client.stats.StatisticsService;
 import com.faforever.client.theme.ThemeService;
 import com.faforever.client.theme.UiService;
@@ -61,7 +62,6 @@ import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -90,6 +90,8 @@ import static javafx.collections.FXCollections.observableList;
 @RequiredArgsConstructor
 public class PlayerInfoWindowController extends NodeController<Node> {
 
+  private static final int MIN_RATING_CHART_POINTS = 200;
+
   private final StatisticsService statisticsService;
   private final CountryFlagService countryFlagService;
   private final AchievementService achievementService;
@@ -138,7 +140,8 @@ public class PlayerInfoWindowController extends NodeController<Node> {
   public TableColumn<NameRecord, String> nameColumn;
   private PlayerInfo player;
   private Window ownerWindow;
-  private List<LeaderboardRatingJournal> ratingData;
+  private List<RatingHistoryPoint> ratingData;
+  private TimePeriod ratingDataTimePeriod;
 
   private static boolean isUnlocked(PlayerAchievement playerAchievement) {
     return AchievementState.UNLOCKED == AchievementState.valueOf(playerAchievement.getState().name());
@@ -462,19 +465,41 @@ public class PlayerInfoWindowController extends NodeController<Node> {
 
   public void onRatingTypeChange() {
     if (ratingTypeComboBox.getValue() != null) {
-      ratingHistoryChart.setVisible(false);
-      loadingHistoryPane.setVisible(true);
-      if (player != null) {
-        loadStatistics(ratingTypeComboBox.getValue()).publishOn(fxApplicationThreadExecutor.asScheduler())
-                                                     .subscribe(null, null, this::plotPlayerRatingGraph);
-      }
+      ratingDataTimePeriod = null;
+      loadAndPlotRatingHistory();
+    }
+  }
+
+  public void plotPlayerRatingGraph() {
+    JavaFxUtil.assertApplicationThread();
+    TimePeriod timePeriod = timePeriodComboBox.getValue();
+    // Time periods are ordered from the longest to the shortest, so a longer one needs to be loaded
+    if (ratingDataTimePeriod == null || timePeriod.compareTo(ratingDataTimePeriod) < 0) {
+      loadAndPlotRatingHistory();
+    } else {
+      plotRatingHistory();
     }
   }
 
-  private Mono<Void> loadStatistics(Leaderboard leaderboard) {
-    return statisticsService.getRatingHistory(player, leaderboard)
-                            .collectList()
-                            .doOnNext(ratingHistory -> ratingData = ratingHistory)
+  private void loadAndPlotRatingHistory() {
+    Leaderboard leaderboard = ratingTypeComboBox.getValue();
+    if (leaderboard == null) {
+      return;
+    }
+    ratingHistoryChart.setVisible(false);
+    loadingHistoryPane.setVisible(true);
+    if (player != null) {
+      loadStatistics(leaderboard, timePeriodComboBox.getValue()).publishOn(fxApplicationThreadExecutor.asScheduler())
+                                                                .subscribe(null, null, this::plotRatingHistory);
+    }
+  }
+
+  private Mono<Void> loadStatistics(Leaderboard leaderboard, TimePeriod timePeriod) {
+    return statisticsService.getRatingHistory(player, leaderboard, timePeriod)
+                            .doOnNext(ratingHistory -> {
+                              ratingData = ratingHistory;
+                              ratingDataTimePeriod = timePeriod;
+                            })
                             .doOnError(throwable -> {
                               // FIXME display to user
                               log.error("Statistics could not be loaded", throwable);
@@ -482,22 +507,19 @@ public class PlayerInfoWindowController extends NodeController<Node> {
                             .then();
   }
 
-  public void plotPlayerRatingGraph() {
+  private void plotRatingHistory() {
     JavaFxUtil.assertApplicationThread();
-    OffsetDateTime afterDate = OffsetDateTime.of(timePeriodComboBox.getValue().getDate(), ZoneOffset.UTC);
-    List<XYChart.Data<Number, Number>> values = ratingData.stream()
-                                                          .filter(ratingJournal -> {
-                                                            OffsetDateTime scoreTime = ratingJournal
-                                                                                                    .scoreTime();
-                                                            return scoreTime != null && scoreTime.isAfter(afterDate);
-                                                          })
-                                                          .sorted(Comparator.comparing(
-                                                              LeaderboardRatingJournal::scoreTime))
-                                                          .map(ratingJournal -> new Data<>(
-                                                              (Number) ratingJournal.scoreTime()
-                                                                                    .toEpochSecond(),
-                                                              (Number) RatingUtil.getRating(ratingJournal)))
-                                                          .collect(Collectors.toList());
+    long afterDate = OffsetDateTime.of(timePeriodComboBox.getValue().getDate(), ZoneOffset.UTC).toEpochSecond();
+    List<RatingHistoryPoint> points = ratingData.stream().filter(point -> point.scoreTime() > afterDate).toList();
+    // There is no point in plotting more points than the chart is wide
+    int maxPoints = Math.max(MIN_RATING_CHART_POINTS, (int) Math.ceil(ratingHistoryChart.getWidth()));
+    List<XYChart.Data<Number, Number>> values = LttbDownsampler.downsample(points, maxPoints,
+                                                                          RatingHistoryPoint::scoreTime,
+                                                                          RatingHistoryPoint::rating)
+                                                               .stream()
+                                                               .map(point -> new Data<>((Number) point.scoreTime(),
+                                                                                        (Number) point.rating()))
+                                                               .collect(Collectors.toList());
 
     xAxis.setTickLabelFormatter(ratingLabelFormatter());
     if (!values.isEmpty()) {
@@ -23,7 +23,6 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.function.TupleUtils;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -34,6 +33,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -50,6 +51,10 @@ public class PlayerService implements InitializingBean {
   private final ReadOnlyObjectWrapper<PlayerInfo> currentPlayer = new ReadOnlyObjectWrapper<>();
   private final List<Consumer<PlayerInfo>> playerOnlineListeners = new ArrayList<>();
   private final List<Consumer<PlayerInfo>> playerOfflineListeners = new ArrayList<>();
+  private final Map<Integer, PendingPlayerUpdate> pendingPlayerUpdates = new ConcurrentHashMap<>();
+  private final AtomicBoolean playerUpdatePublicationScheduled = new AtomicBoolean();
+  private final LongAdder mergedPlayerUpdates = new LongAdder();
+  private final LongAdder publishedPlayerUpdateBatches = new LongAdder();
 
   private final FafServerAccessor fafServerAccessor;
   private final FafApiAccessor fafApiAccessor;
@@ -61,11 +66,7 @@ public class PlayerService implements InitializingBean {
   public void afterPropertiesSet() {
     fafServerAccessor.getEvents(com.faforever.commons.lobby.PlayerInfo.class)
                      .map(com.faforever.commons.lobby.PlayerInfo::getPlayers)
-                     .flatMap(Flux::fromIterable)
-                     .flatMap(player -> Mono.zip(Mono.just(player), Mono.justOrEmpty(playersById.get(player.getId()))
-                                                                        .switchIfEmpty(initializePlayer(player))))
-                     .publishOn(fxApplicationThreadExecutor.asScheduler())
-                     .map(TupleUtils.function(playerMapper::update))
+                     .doOnNext(this::enqueuePlayerUpdates)
                      .doOnError(throwable -> log.error("Error processing player", throwable))
                      .retry()
                      .subscribe();
@@ -122,24 +123,75 @@ public class PlayerService implements InitializingBean {
     });
   }
 
-  private Mono<PlayerInfo> initializePlayer(com.faforever.commons.lobby.Player player) {
-    return Mono.fromCallable(() -> {
-                 PlayerInfo newPlayer = new PlayerInfo();
-                 newPlayer.setId(player.getId());
-                 newPlayer.setUsername(player.getLogin());
-                 Subscription removeSubscription = newPlayer.serverStatusProperty().subscribe(serverStatus -> {
-                   if (serverStatus == ServerStatus.OFFLINE) {
-                     removePlayer(newPlayer);
-                   }
-                 });
-                 playerSubscriptions.computeIfAbsent(newPlayer, ignored -> ConcurrentHashMap.newKeySet()).add(removeSubscription);
-                 return newPlayer;
-               })
-               .doOnNext(playerBean -> {
-                 playersById.put(playerBean.getId(), playerBean);
-                 playersByName.put(playerBean.getUsername(), playerBean);
-               })
-               .doOnNext(playerBean -> playerOnlineListeners.forEach(listener -> listener.accept(playerBean)));
+  /**
+   * Registers unknown players right away and queues the update of their properties. Updates for the same player that
+   * arrive before the queue has been published are merged, only the latest one is applied.
+   */
+  private void enqueuePlayerUpdates(Collection<com.faforever.commons.lobby.Player> players) {
+    for (com.faforever.commons.lobby.Player player : players) {
+      PlayerInfo playerInfo = Optional.ofNullable(playersById.get(player.getId()))
+                                      .orElseGet(() -> initializePlayer(player));
+      if (pendingPlayerUpdates.put(player.getId(), new PendingPlayerUpdate(player, playerInfo)) != null) {
+        mergedPlayerUpdates.increment();
+      }
+    }
+
+    if (!players.isEmpty() && playerUpdatePublicationScheduled.compareAndSet(false, true)) {
+      fxApplicationThreadExecutor.asScheduler().schedule(this::publishPendingPlayerUpdates);
+    }
+  }
+
+  /**
+   * Applies all queued player updates in one go on the JavaFX thread, so that a burst of player updates (like the
+   * whole player list on login) only costs a single runnable per pulse.
+   */
+  private void publishPendingPlayerUpdates() {
+    playerUpdatePublicationScheduled.set(false);
+    int batchSize = 0;
+    for (Integer playerId : pendingPlayerUpdates.keySet()) {
+      PendingPlayerUpdate pendingUpdate = pendingPlayerUpdates.remove(playerId);
+      if (pendingUpdate == null) {
+        continue;
+      }
+      try {
+        playerMapper.update(pendingUpdate.player(), pendingUpdate.playerInfo());
+      } catch (Exception e) {
+        log.error("Error processing player", e);
+      }
+      batchSize++;
+    }
+    publishedPlayerUpdateBatches.increment();
+    log.trace("Published {} player updates", batchSize);
+  }
+
+  private PlayerInfo initializePlayer(com.faforever.commons.lobby.Player player) {
+    PlayerInfo newPlayer = new PlayerInfo();
+    newPlayer.setId(player.getId());
+    newPlayer.setUsername(player.getLogin());
+    Subscription removeSubscription = newPlayer.serverStatusProperty().subscribe(serverStatus -> {
+      if (serverStatus == ServerStatus.OFFLINE) {
+        removePlayer(newPlayer);
+      }
+    });
+    playerSubscriptions.computeIfAbsent(newPlayer, ignored -> ConcurrentHashMap.newKeySet()).add(removeSubscription);
+    playersById.put(newPlayer.getId(), newPlayer);
+    playersByName.put(newPlayer.getUsername(), newPlayer);
+    playerOnlineListeners.forEach(listener -> listener.accept(newPlayer));
+    return newPlayer;
+  }
+
+  /**
+   * Number of player updates that were dropped because a newer update for the same player arrived before publication.
+   */
+  public long getMergedPlayerUpdateCount() {
+    return mergedPlayerUpdates.sum();
+  }
+
+  /**
+   * Number of batches of player updates that have been applied on the JavaFX thread.
+   */
+  public long getPublishedPlayerUpdateBatchCount() {
+    return publishedPlayerUpdateBatches.sum();
   }
 
   public Set<String> getPlayerNames() {
@@ -226,4 +278,6 @@ public class PlayerService implements InitializingBean {
   public void addPlayerOfflineListener(Consumer<PlayerInfo> listener) {
     playerOfflineListeners.add(listener);
   }
+
+  private record PendingPlayerUpdate(com.faforever.commons.lobby.Player player, PlayerInfo playerInfo) {}
 }
@@ -1,6 +1,8 @@
 package com.faforever.client.preferences;
 
+import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 
 import java.nio.file.Path;
@@ -19,6 +21,8 @@ public class DataPrefs {
   public static final String GENERATOR_EXECUTABLE_SUB_DIRECTORY = "map_generator";
 
   private final ObjectProperty<Path> baseDataDirectory = new SimpleObjectProperty<>();
+  /** How much disk space downloaded archives may use once they have been installed, 0 to not keep them at all. */
+  private final IntegerProperty downloadCacheMaxSizeMegabytes = new SimpleIntegerProperty(2048);
 
   public Path getBaseDataDirectory() {
     return baseDataDirectory.get();
@@ -32,6 +36,18 @@ public class DataPrefs {
     this.baseDataDirectory.set(baseDataDirectory);
   }
 
+  public int getDownloadCacheMaxSizeMegabytes() {
+    return downloadCacheMaxSizeMegabytes.get();
+  }
+
+  public void setDownloadCacheMaxSizeMegabytes(int downloadCacheMaxSizeMegabytes) {
+    this.downloadCacheMaxSizeMegabytes.set(downloadCacheMaxSizeMegabytes);
+  }
+
+  public IntegerProperty downloadCacheMaxSizeMegabytesProperty() {
+    return downloadCacheMaxSizeMegabytes;
+  }
+
   public Path getBinDirectory() {
     return getBaseDataDirectory().resolve(BIN_SUB_FOLDER);
   }
@@ -24,6 +24,7 @@ public class ForgedAlliancePrefs {
   private final BooleanProperty warnNonAsciiVaultPath = new SimpleBooleanProperty(true);
   private final BooleanProperty autoDownloadMaps = new SimpleBooleanProperty(true);
   private final BooleanProperty allowIpv6 = new SimpleBooleanProperty(false);
+  private final BooleanProperty preStartIceAdapter = new SimpleBooleanProperty(true);
 
   /**
    * String format to use when building the launch command. Takes exact one parameter; the executable path. <p>
@@ -123,6 +124,18 @@ public class ForgedAlliancePrefs {
     this.allowIpv6.set(allowIpv6);
   }
 
+  public boolean isPreStartIceAdapter() {
+    return preStartIceAdapter.get();
+  }
+
+  public BooleanProperty preStartIceAdapterProperty() {
+    return preStartIceAdapter;
+  }
+
+  public void setPreStartIceAdapter(boolean preStartIceAdapter) {
+    this.preStartIceAdapter.set(preStartIceAdapter);
+  }
+
   public Path getModsDirectory() {
     return getVaultBaseDirectory().resolve(MODS_SUB_FOLDER);
   }
@@ -2,6 +2,8 @@ package com.faforever.client.preferences;
 
 import com.faforever.client.config.ClientProperties;
 import com.faforever.client.game.error.GameLaunchException;
+import com.faforever.client.io.FileFingerprintService;
+import com.faforever.client.io.FileFingerprintService.DigestAlgorithm;
 import com.faforever.client.update.ClientConfiguration;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
@@ -9,8 +11,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedInputStream;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -20,9 +20,7 @@ import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.security.DigestInputStream;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
@@ -38,12 +36,15 @@ public class PreferencesService implements InitializingBean {
   private final ObjectReader configurationReader;
   private final ClientProperties clientProperties;
   private final Preferences preferences;
+  private final FileFingerprintService fileFingerprintService;
 
   private ClientConfiguration clientConfiguration;
 
-  public PreferencesService(ClientProperties clientProperties, Preferences preferences, ObjectMapper objectMapper) {
+  public PreferencesService(ClientProperties clientProperties, Preferences preferences, ObjectMapper objectMapper,
+                            FileFingerprintService fileFingerprintService) {
     this.clientProperties = clientProperties;
     this.preferences = preferences;
+    this.fileFingerprintService = fileFingerprintService;
 
     configurationReader = objectMapper.readerFor(ClientConfiguration.class);
   }
@@ -67,12 +68,10 @@ public class PreferencesService implements InitializingBean {
       return isGamePathValidWithErrorMessage(installationPath) == null;
     } catch (IOException e) {
       throw new GameLaunchException("Could not load installation directory " + installationPath, e, "gamePath.select.error");
-    } catch (NoSuchAlgorithmException e) {
-      throw new GameLaunchException("Could not compute hashes of files in installation directory " + installationPath, e, "gamePath.select.error");
     }
   }
 
-  public String isGamePathValidWithErrorMessage(Path installationPath) throws IOException, NoSuchAlgorithmException {
+  public String isGamePathValidWithErrorMessage(Path installationPath) throws IOException {
     boolean valid = installationPath != null && isValidGamePath(installationPath.resolve("bin"));
     if (!valid) {
       return "gamePath.select.noValidExe";
@@ -98,20 +97,8 @@ public class PreferencesService implements InitializingBean {
     return null;
   }
 
-  private String sha256OfFile(Path path) throws IOException, NoSuchAlgorithmException {
-    byte[] buffer = new byte[4096];
-    MessageDigest digest = MessageDigest.getInstance("SHA-256");
-    BufferedInputStream bufferedFileStream = new BufferedInputStream(new FileInputStream(path.toFile()));
-    DigestInputStream digestInputStream = new DigestInputStream(bufferedFileStream, digest);
-    while (digestInputStream.read(buffer) > -1) {}
-    digest = digestInputStream.getMessageDigest();
-    digestInputStream.close();
-    byte[] sha256 = digest.digest();
-    StringBuilder sb = new StringBuilder();
-    for (byte b : sha256) {
-      sb.append(String.format("%02X", b));
-    }
-    return sb.toString().toUpperCase();
+  private String sha256OfFile(Path path) throws IOException {
+    return fileFingerprintService.getDigest(path, DigestAlgorithm.SHA_256).toUpperCase(Locale.ROOT);
   }
 
   public boolean isValidGamePath(Path binPath) {
@@ -0,0 +1,326 @@
+package com.faforever.client.preferences;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.MapChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableMap;
+import javafx.collections.ObservableSet;
+import javafx.collections.SetChangeListener;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes the preferences to disk shortly after they have been changed.
+ * <p>
+ * All JavaFX properties and observable collections of the preferences object graph are watched for changes, including
+ * the values held by them, like the sets in a map, so that changing such a set in place is noticed too. A write is
+ * scheduled {@code debounceDelay} after the last change, but no later than {@code maxDelay} after the first change that
+ * hasn't been written yet, so that continuous changes like resizing the window are written in one go. Nothing is
+ * serialized if nothing has changed.
+ * <p>
+ * The file is written to a temporary file first and then moved over the previous one, so that it is never left half
+ * written. Before the first write of a session, the previous file is kept as a backup, of which the last
+ * {@value #MAX_BACKUPS} are kept.
+ */
+@Slf4j
+public class PreferencesStore {
+
+  static final int MAX_BACKUPS = 3;
+  private static final String BACKUP_FILE_SUFFIX = ".bak";
+
+  private final Object preferences;
+  private final Path preferencesFile;
+  private final ObjectWriter objectWriter;
+  private final Duration debounceDelay;
+  private final Duration maxDelay;
+
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+      Thread.ofPlatform().name("preferences-writer").daemon(true).factory());
+  private final Set<Object> watchedObjects = Collections.newSetFromMap(new IdentityHashMap<>());
+  private final Object writeLock = new Object();
+  private final AtomicBoolean dirty = new AtomicBoolean();
+  private final LongAdder changes = new LongAdder();
+  private final LongAdder writes = new LongAdder();
+  private final LongAdder writesAvoided = new LongAdder();
+  private final LongAdder serializationNanos = new LongAdder();
+
+  private ScheduledFuture<?> pendingWrite;
+  private long firstUnsavedChangeNanos;
+  private boolean backedUp;
+  private boolean closed;
+
+  public PreferencesStore(Object preferences, Path preferencesFile, ObjectWriter objectWriter, Duration debounceDelay,
+                          Duration maxDelay) {
+    this.preferences = preferences;
+    this.preferencesFile = preferencesFile;
+    this.objectWriter = objectWriter;
+    this.debounceDelay = debounceDelay;
+    this.maxDelay = maxDelay;
+  }
+
+  /**
+   * Returns the backups of the given preferences file, most recent first.
+   */
+  public static List<Path> getBackupFiles(Path preferencesFile) {
+    List<Path> backupFiles = new ArrayList<>();
+    for (int i = 1; i <= MAX_BACKUPS; i++) {
+      Path backupFile = backupFileOf(preferencesFile, i);
+      if (Files.isRegularFile(backupFile)) {
+        backupFiles.add(backupFile);
+      }
+    }
+    return backupFiles;
+  }
+
+  /**
+   * Starts watching the preferences for changes.
+   */
+  public synchronized void watch() {
+    watchObject(preferences);
+  }
+
+  /**
+   * Marks the preferences as changed and schedules a write.
+   */
+  public void markDirty() {
+    changes.increment();
+    dirty.set(true);
+
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+
+      long nowNanos = System.nanoTime();
+      if (pendingWrite == null || pendingWrite.isDone()) {
+        firstUnsavedChangeNanos = nowNanos;
+      } else {
+        pendingWrite.cancel(false);
+        writesAvoided.increment();
+      }
+
+      long remainingMaxDelayNanos = maxDelay.toNanos() - (nowNanos - firstUnsavedChangeNanos);
+      long delayNanos = Math.max(0, Math.min(debounceDelay.toNanos(), remainingMaxDelayNanos));
+      pendingWrite = scheduler.schedule(this::saveIfDirty, delayNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Writes the preferences if they have changed since they were last written.
+   */
+  public void saveIfDirty() {
+    synchronized (writeLock) {
+      if (!dirty.getAndSet(false)) {
+        writesAvoided.increment();
+        return;
+      }
+
+      long startNanos = System.nanoTime();
+      byte[] content;
+      try {
+        content = objectWriter.writeValueAsBytes(preferences);
+      } catch (JsonProcessingException e) {
+        dirty.set(true);
+        log.error("Preferences could not be serialized", e);
+        return;
+      } finally {
+        serializationNanos.add(System.nanoTime() - startNanos);
+      }
+
+      Path temporaryFile = null;
+      try {
+        Files.createDirectories(preferencesFile.getParent());
+        temporaryFile = Files.createTempFile(preferencesFile.getParent(), preferencesFile.getFileName().toString(), null);
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+          ByteBuffer buffer = ByteBuffer.wrap(content);
+          while (buffer.hasRemaining()) {
+            channel.write(buffer);
+          }
+          channel.force(true);
+        }
+
+        backUpIfNecessary();
+        Files.move(temporaryFile, preferencesFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        writes.increment();
+        log.debug("Wrote preferences file `{}`", preferencesFile.toAbsolutePath());
+      } catch (IOException e) {
+        dirty.set(true);
+        log.error("Preferences file `{}` could not be written", preferencesFile.toAbsolutePath(), e);
+        deleteQuietly(temporaryFile);
+      }
+    }
+  }
+
+  /**
+   * Writes pending changes and stops watching for further ones.
+   */
+  public void close() {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (pendingWrite != null) {
+        pendingWrite.cancel(false);
+      }
+    }
+    scheduler.shutdownNow();
+    saveIfDirty();
+
+    log.info("Preferences were written {} times for {} changes, {} writes were avoided, serialization took {} ms in total",
+             getWriteCount(), changes.sum(), getWritesAvoidedCount(), getSerializationTime().toMillis());
+  }
+
+  public long getWriteCount() {
+    return writes.sum();
+  }
+
+  /**
+   * Returns how many writes have been avoided, either because changes were written together or because nothing had
+   * changed.
+   */
+  public long getWritesAvoidedCount() {
+    return writesAvoided.sum();
+  }
+
+  public Duration getSerializationTime() {
+    return Duration.ofNanos(serializationNanos.sum());
+  }
+
+  private void watchObject(Object object) {
+    if (!watchedObjects.add(object)) {
+      return;
+    }
+
+    for (Class<?> type = object.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+      for (Field field : type.getDeclaredFields()) {
+        if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+          continue;
+        }
+        try {
+          field.setAccessible(true);
+          watchValue(field.get(object));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+          log.warn("Could not watch preference `{}.{}` for changes", type.getSimpleName(), field.getName(), e);
+        }
+      }
+    }
+  }
+
+  private void watchValue(Object value) {
+    if (!(value instanceof Observable) && !isPreferencesObject(value)) {
+      return;
+    }
+    if (value instanceof Observable && !watchedObjects.add(value)) {
+      return;
+    }
+
+    switch (value) {
+      case ObservableValue<?> observableValue -> {
+        observableValue.addListener((observable, oldValue, newValue) -> {
+          watchAdded(newValue);
+          markDirty();
+        });
+        watchValue(observableValue.getValue());
+      }
+      case ObservableList<?> observableList -> {
+        observableList.addListener((ListChangeListener<Object>) change -> {
+          while (change.next()) {
+            change.getAddedSubList().forEach(this::watchAdded);
+          }
+          markDirty();
+        });
+        observableList.forEach(this::watchValue);
+      }
+      case ObservableSet<?> observableSet -> {
+        observableSet.addListener((SetChangeListener<Object>) change -> {
+          watchAdded(change.getElementAdded());
+          markDirty();
+        });
+        observableSet.forEach(this::watchValue);
+      }
+      case ObservableMap<?, ?> observableMap -> {
+        observableMap.addListener((MapChangeListener<Object, Object>) change -> {
+          watchAdded(change.getValueAdded());
+          markDirty();
+        });
+        observableMap.values().forEach(this::watchValue);
+      }
+      case Observable observable -> observable.addListener((InvalidationListener) ignored -> markDirty());
+      default -> watchObject(value);
+    }
+  }
+
+  /**
+   * Watches a value that has been added to the preferences, like a set that has been put into a map, so that changes
+   * to it are noticed even when it is changed in place afterward.
+   */
+  private void watchAdded(Object value) {
+    if (value != null) {
+      synchronized (this) {
+        watchValue(value);
+      }
+    }
+  }
+
+  private boolean isPreferencesObject(Object value) {
+    return value != null && !value.getClass().isEnum()
+        && value.getClass().getPackageName().equals(preferences.getClass().getPackageName());
+  }
+
+  private void backUpIfNecessary() throws IOException {
+    if (backedUp || Files.notExists(preferencesFile)) {
+      return;
+    }
+
+    for (int i = MAX_BACKUPS; i > 1; i--) {
+      Path olderBackupFile = backupFileOf(preferencesFile, i - 1);
+      if (Files.exists(olderBackupFile)) {
+        Files.move(olderBackupFile, backupFileOf(preferencesFile, i), StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+    Files.copy(preferencesFile, backupFileOf(preferencesFile, 1), StandardCopyOption.REPLACE_EXISTING);
+    backedUp = true;
+  }
+
+  private static Path backupFileOf(Path preferencesFile, int generation) {
+    return preferencesFile.resolveSibling(preferencesFile.getFileName() + "." + generation + BACKUP_FILE_SUFFIX);
+  }
+
+  private static void deleteQuietly(Path file) {
+    if (file == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.warn("Could not delete temporary file `{}`", file, e);
+    }
+  }
+}
@@ -126,6 +126,7 @@ public class SettingsController extends NodeController<Node> {
   public CheckBox autoDownloadMapsToggle;
   public CheckBox useFAFDebuggerToggle;
   public CheckBox allowIpv6Toggle;
+  public CheckBox preStartIceAdapterToggle;
   public CheckBox showIceAdapterDebugWindowToggle;
   public TextField maxMessagesTextField;
   public CheckBox imagePreviewToggle;
@@ -313,6 +314,7 @@ public class SettingsController extends NodeController<Node> {
     autoDownloadMapsToggle.selectedProperty().bindBidirectional(forgedAlliancePrefs.autoDownloadMapsProperty());
     useFAFDebuggerToggle.selectedProperty().bindBidirectional(forgedAlliancePrefs.runFAWithDebuggerProperty());
     allowIpv6Toggle.selectedProperty().bindBidirectional(forgedAlliancePrefs.allowIpv6Property());
+    preStartIceAdapterToggle.selectedProperty().bindBidirectional(forgedAlliancePrefs.preStartIceAdapterProperty());
     showIceAdapterDebugWindowToggle.selectedProperty()
         .bindBidirectional(forgedAlliancePrefs.showIceAdapterDebugWindow());
     vaultLocationTextField.textProperty()
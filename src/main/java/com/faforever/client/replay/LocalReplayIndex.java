@@ -0,0 +1,388 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.fx.PlatformService;
+import com.faforever.client.i18n.I18n;
+import com.faforever.client.mapstruct.ReplayMapper;
+import com.faforever.client.notification.Action;
+import com.faforever.client.notification.NotificationService;
+import com.faforever.client.notification.PersistentNotification;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.commons.replay.ReplayDataParser;
+import com.faforever.commons.replay.ReplayMetadata;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.google.common.util.concurrent.Striped;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static com.faforever.client.notification.Severity.WARN;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.Collections.singletonList;
+
+/**
+ * Persistent index of the metadata of all local replay files, keyed by file name, size and modification time. Pages of
+ * local replays are answered from the index so that replay files only need to be parsed once, or when they changed.
+ * <p>
+ * On first use, the replays directory is listed and a directory watcher keeps the listing up to date afterwards.
+ * Replays that are requested before they have been indexed are indexed from their header on demand. The background
+ * indexing then parses every replay once to complete the entries with player details.
+ */
+@Lazy
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class LocalReplayIndex implements DisposableBean {
+
+  static final String INDEX_FILE_NAME = "local_replay_index.json";
+  private static final Comparator<FileStamp> NEWEST_FIRST = Comparator.comparingLong(FileStamp::lastModified)
+                                                                      .reversed()
+                                                                      .thenComparing(FileStamp::fileName);
+
+  private final ClientProperties clientProperties;
+  private final DataPrefs dataPrefs;
+  private final ReplayFileReader replayFileReader;
+  private final ReplayMapper replayMapper;
+  private final NotificationService notificationService;
+  private final I18n i18n;
+  private final PlatformService platformService;
+  private final ExecutorService taskExecutor;
+
+  private final ObjectMapper objectMapper = new ObjectMapper()
+      .registerModule(new JavaTimeModule())
+      .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  /**
+   * Size and modification time of every replay file currently in the replays directory.
+   */
+  private final Map<String, FileStamp> filesByName = new ConcurrentHashMap<>();
+  private final Map<String, LocalReplayIndexEntry> entriesByFileName = new ConcurrentHashMap<>();
+  private final AtomicBoolean dirty = new AtomicBoolean();
+  private final Striped<Lock> indexLocks = Striped.lock(32);
+
+  private CompletableFuture<Void> initialization;
+  private Thread directoryWatcherThread;
+
+  /**
+   * Returns the requested page of local replays, newest first. Only the replays of the requested page are indexed.
+   */
+  public CompletableFuture<Page> getPage(int pageSize, int page) {
+    return getPage(pageSize, page, null, null);
+  }
+
+  /**
+   * Returns the requested page of the local replays that match the given filter, sorted by the given comparator. Every
+   * replay that has not been indexed yet is indexed from its header, so the filter only sees the players' names and
+   * teams of replays whose body has not been indexed in the background yet.
+   *
+   * @param filter the filter, or null to return all replays
+   * @param comparator the order of the replays, or null to return them newest first
+   */
+  public CompletableFuture<Page> getPage(int pageSize, int page, Predicate<LocalReplayIndexEntry> filter,
+                                         Comparator<LocalReplayIndexEntry> comparator) {
+    return initialize().thenApplyAsync(ignored -> {
+      List<FileStamp> files = filesByName.values().stream().sorted(NEWEST_FIRST).toList();
+      if (filter == null && comparator == null) {
+        List<LocalReplayIndexEntry> entries = files.stream()
+                                                   .skip((long) pageSize * (page - 1))
+                                                   .limit(pageSize)
+                                                   .map(fileStamp -> getOrIndex(fileStamp, false))
+                                                   .flatMap(Optional::stream)
+                                                   .toList();
+        return new Page(entries, files.size());
+      }
+
+      Stream<LocalReplayIndexEntry> entries = files.stream()
+                                                   .map(fileStamp -> getOrIndex(fileStamp, false))
+                                                   .flatMap(Optional::stream);
+      if (filter != null) {
+        entries = entries.filter(filter);
+      }
+      if (comparator != null) {
+        entries = entries.sorted(comparator);
+      }
+      List<LocalReplayIndexEntry> matchingEntries = entries.toList();
+      return new Page(matchingEntries.stream().skip((long) pageSize * (page - 1)).limit(pageSize).toList(),
+                      matchingEntries.size());
+    }, taskExecutor);
+  }
+
+  public void remove(Path replayFile) {
+    String fileName = replayFile.getFileName().toString();
+    filesByName.remove(fileName);
+    if (entriesByFileName.remove(fileName) != null) {
+      dirty.set(true);
+    }
+  }
+
+  private synchronized CompletableFuture<Void> initialize() {
+    if (initialization == null) {
+      initialization = CompletableFuture.runAsync(() -> {
+        Path replaysDirectory = dataPrefs.getReplaysDirectory();
+        try {
+          Files.createDirectories(replaysDirectory);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        loadIndexFile();
+        directoryWatcherThread = startDirectoryWatcher(replaysDirectory);
+        scanDirectory(replaysDirectory);
+        CompletableFuture.runAsync(this::indexRemainingFiles, taskExecutor);
+      }, taskExecutor).whenComplete((ignored, throwable) -> {
+        if (throwable != null) {
+          log.warn("Could not initialize local replay index", throwable);
+          resetInitialization();
+        }
+      });
+    }
+    return initialization;
+  }
+
+  private synchronized void resetInitialization() {
+    initialization = null;
+  }
+
+  private void scanDirectory(Path replaysDirectory) {
+    String replayFileGlob = clientProperties.getReplay().getReplayFileGlob();
+    try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(replaysDirectory, replayFileGlob)) {
+      filesByName.clear();
+      for (Path replayFile : directoryStream) {
+        updateFileStamp(replayFile);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    if (entriesByFileName.keySet().retainAll(filesByName.keySet())) {
+      dirty.set(true);
+    }
+  }
+
+  private void updateFileStamp(Path replayFile) {
+    String fileName = replayFile.getFileName().toString();
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(replayFile, BasicFileAttributes.class);
+      filesByName.put(fileName,
+                      new FileStamp(fileName, attributes.size(), attributes.lastModifiedTime().toMillis()));
+    } catch (NoSuchFileException e) {
+      remove(replayFile);
+    } catch (IOException e) {
+      log.warn("Could not get attributes of replay file `{}`", replayFile, e);
+    }
+  }
+
+  private void indexRemainingFiles() {
+    filesByName.values().stream().sorted(NEWEST_FIRST).forEach(fileStamp -> getOrIndex(fileStamp, true));
+    saveIndexFileIfDirty();
+  }
+
+  private Optional<LocalReplayIndexEntry> getIfIndexed(FileStamp fileStamp) {
+    return Optional.ofNullable(entriesByFileName.get(fileStamp.fileName()))
+                   .filter(entry -> entry.matches(fileStamp.size(), fileStamp.lastModified()));
+  }
+
+  /**
+   * @param requireBody whether an entry created from the replay header only is good enough
+   */
+  private Optional<LocalReplayIndexEntry> getOrIndex(FileStamp fileStamp, boolean requireBody) {
+    Optional<LocalReplayIndexEntry> indexedEntry = getIfIndexed(fileStamp).filter(
+        entry -> !requireBody || !entry.headerOnly());
+    if (indexedEntry.isPresent()) {
+      return indexedEntry;
+    }
+
+    // Pages and the background indexing may ask for the same file at the same time
+    Lock lock = indexLocks.get(fileStamp.fileName());
+    lock.lock();
+    try {
+      indexedEntry = getIfIndexed(fileStamp).filter(entry -> !requireBody || !entry.headerOnly());
+      if (indexedEntry.isPresent() || !filesByName.containsKey(fileStamp.fileName())) {
+        return indexedEntry;
+      }
+      return requireBody ? index(fileStamp) : indexHeader(fileStamp);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Creates an entry from the replay header only, which is a single small read. Falls back to parsing the whole replay
+   * if the header can not be read.
+   */
+  private Optional<LocalReplayIndexEntry> indexHeader(FileStamp fileStamp) {
+    Path replayFile = dataPrefs.getReplaysDirectory().resolve(fileStamp.fileName());
+    try {
+      ReplayMetadata replayMetadata = replayFileReader.readMetadata(replayFile);
+      LocalReplayIndexEntry entry = replayMapper.mapToIndexEntry(replayMetadata, fileStamp.fileName(),
+                                                                 fileStamp.size(), fileStamp.lastModified());
+      entriesByFileName.put(fileStamp.fileName(), entry);
+      return Optional.of(entry);
+    } catch (NoSuchFileException e) {
+      remove(replayFile);
+      return Optional.empty();
+    } catch (Exception e) {
+      log.debug("Could not read header of replay file `{}`, parsing whole replay", replayFile, e);
+      return index(fileStamp);
+    }
+  }
+
+  private Optional<LocalReplayIndexEntry> index(FileStamp fileStamp) {
+    Path replayFile = dataPrefs.getReplaysDirectory().resolve(fileStamp.fileName());
+    try {
+      ReplayDataParser replayData = replayFileReader.parseReplay(replayFile);
+      LocalReplayIndexEntry entry = replayMapper.mapToIndexEntry(replayData, fileStamp.fileName(), fileStamp.size(),
+                                                                 fileStamp.lastModified());
+      entriesByFileName.put(fileStamp.fileName(), entry);
+      dirty.set(true);
+      return Optional.of(entry);
+    } catch (NoSuchFileException e) {
+      remove(replayFile);
+      return Optional.empty();
+    } catch (Exception e) {
+      log.warn("Could not read replay file `{}`", replayFile, e);
+      remove(replayFile);
+      moveCorruptedReplayFile(replayFile);
+      return Optional.empty();
+    }
+  }
+
+  private void moveCorruptedReplayFile(Path replayFile) {
+    Path corruptedReplaysDirectory = dataPrefs.getCorruptedReplaysDirectory();
+    try {
+      Files.createDirectories(corruptedReplaysDirectory);
+    } catch (IOException e) {
+      log.warn("Failed to create corrupted replays directory", e);
+      return;
+    }
+
+    Path target = corruptedReplaysDirectory.resolve(replayFile.getFileName());
+
+    log.trace("Moving corrupted replay file from `{}` to `{}`", replayFile, target);
+
+    try {
+      Files.move(replayFile, target);
+    } catch (IOException e) {
+      log.warn("Failed to move corrupt replay to `{}`", target, e);
+      return;
+    }
+
+    notificationService.addNotification(new PersistentNotification(i18n.get("corruptedReplayFiles.notification"), WARN,
+                                                                   singletonList(
+                                                                       new Action(i18n.get("corruptedReplayFiles.show"),
+                                                                                  () -> platformService.reveal(
+                                                                                      replayFile)))));
+  }
+
+  private Thread startDirectoryWatcher(Path replaysDirectory) {
+    PathMatcher replayFileMatcher = replaysDirectory.getFileSystem()
+                                                    .getPathMatcher(
+                                                        "glob:" + clientProperties.getReplay().getReplayFileGlob());
+    return Thread.ofPlatform().name("local-replay-watcher").daemon().start(() -> {
+      try (WatchService watcher = replaysDirectory.getFileSystem().newWatchService()) {
+        replaysDirectory.register(watcher, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+        while (!Thread.interrupted()) {
+          WatchKey key = watcher.take();
+          key.pollEvents().forEach(event -> {
+            if (event.kind() == OVERFLOW) {
+              scanDirectory(replaysDirectory);
+              return;
+            }
+
+            Path fileName = (Path) event.context();
+            if (!replayFileMatcher.matches(fileName)) {
+              return;
+            }
+
+            Path replayFile = replaysDirectory.resolve(fileName);
+            if (event.kind() == ENTRY_DELETE) {
+              remove(replayFile);
+            } else {
+              updateFileStamp(replayFile);
+            }
+          });
+          key.reset();
+        }
+      } catch (IOException e) {
+        log.warn("Could not start replays directory watcher for `{}`", replaysDirectory, e);
+      } catch (InterruptedException e) {
+        log.info("Watcher terminated ({})", e.getMessage());
+      }
+    });
+  }
+
+  private Path getIndexFile() {
+    return dataPrefs.getCacheDirectory().resolve(INDEX_FILE_NAME);
+  }
+
+  private void loadIndexFile() {
+    Path indexFile = getIndexFile();
+    if (Files.notExists(indexFile)) {
+      return;
+    }
+
+    try {
+      List<LocalReplayIndexEntry> entries = objectMapper.readValue(indexFile.toFile(), new TypeReference<>() {});
+      entries.forEach(entry -> entriesByFileName.put(entry.fileName(), entry));
+      log.debug("Loaded {} entries from local replay index", entries.size());
+    } catch (IOException e) {
+      log.warn("Could not read local replay index `{}`, rebuilding it", indexFile, e);
+    }
+  }
+
+  private synchronized void saveIndexFileIfDirty() {
+    if (!dirty.getAndSet(false)) {
+      return;
+    }
+
+    Path indexFile = getIndexFile();
+    try {
+      Files.createDirectories(indexFile.getParent());
+      Path temporaryIndexFile = Files.createTempFile(indexFile.getParent(), INDEX_FILE_NAME, null);
+      objectMapper.writeValue(temporaryIndexFile.toFile(), List.copyOf(entriesByFileName.values()));
+      Files.move(temporaryIndexFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      dirty.set(true);
+      log.warn("Could not write local replay index `{}`", indexFile, e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    Optional.ofNullable(directoryWatcherThread).ifPresent(Thread::interrupt);
+    saveIndexFileIfDirty();
+  }
+
+  private record FileStamp(String fileName, long size, long lastModified) {}
+
+  public record Page(List<LocalReplayIndexEntry> entries, int totalCount) {}
+}
@@ -0,0 +1,44 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.domain.api.Replay;
+
+import java.util.List;
+
+/**
+ * Metadata of a local replay file as stored in the {@link LocalReplayIndex}. Contains everything needed to display the
+ * replay in the local vault without opening the replay file. An entry is only valid as long as the {@code size} and
+ * {@code lastModified} of the file still match.
+ * <p>
+ * Entries with {@code headerOnly} set were created from the JSON header only. Their players lack id, country, faction
+ * and rating, and they have no chat messages and game options until the replay body has been indexed.
+ */
+public record LocalReplayIndexEntry(
+    String fileName,
+    long size,
+    long lastModified,
+    Integer uid,
+    String title,
+    String featuredMod,
+    String mapFolderName,
+    double startTime,
+    double endTime,
+    List<Player> players,
+    List<Replay.ChatMessage> chatMessages,
+    List<Replay.GameOption> gameOptions,
+    boolean headerOnly
+) {
+
+  public LocalReplayIndexEntry {
+    players = players == null ? List.of() : List.copyOf(players);
+    chatMessages = chatMessages == null ? List.of() : List.copyOf(chatMessages);
+    gameOptions = gameOptions == null ? List.of() : List.copyOf(gameOptions);
+  }
+
+  public boolean matches(long size, long lastModified) {
+    return this.size == size && this.lastModified == lastModified;
+  }
+
+  public record Player(
+      Integer id, String name, String country, int team, Integer faction, Double mean, Double deviation
+  ) {}
+}
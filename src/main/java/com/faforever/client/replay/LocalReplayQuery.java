@@ -0,0 +1,256 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.vault.search.SearchController.SortConfig;
+import com.faforever.client.vault.search.SearchController.SortOrder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Evaluates the RSQL queries and sort configurations of the replay search against the entries of the
+ * {@link LocalReplayIndex}, so that local replays can be searched without opening them.
+ * <p>
+ * Only the properties that the index knows are supported. Queries with conditions on other properties, like the map
+ * author or the rating, are rejected rather than ignored, since ignoring a condition could widen the result.
+ */
+@Slf4j
+final class LocalReplayQuery {
+
+  private static final Map<String, Function<LocalReplayIndexEntry, Stream<?>>> PROPERTIES = Map.of(
+      "id", entry -> Stream.ofNullable(entry.uid()),
+      "name", entry -> Stream.ofNullable(entry.title()),
+      "featuredMod.technicalName", entry -> Stream.ofNullable(entry.featuredMod()),
+      "mapVersion.folderName", entry -> Stream.ofNullable(entry.mapFolderName()),
+      "playerStats.player.login", entry -> entry.players().stream().map(LocalReplayIndexEntry.Player::name),
+      "playerStats.player.id", entry -> entry.players().stream().map(LocalReplayIndexEntry.Player::id),
+      "playerStats.team", entry -> entry.players().stream().map(LocalReplayIndexEntry.Player::team),
+      "startTime", entry -> Stream.of(toInstant(entry.startTime())),
+      "endTime", entry -> Stream.of(toInstant(entry.endTime())));
+
+  private static final Map<String, Comparator<LocalReplayIndexEntry>> SORT_PROPERTIES = Map.of(
+      "id", Comparator.comparing(LocalReplayIndexEntry::uid, Comparator.nullsFirst(Comparator.naturalOrder())),
+      "name", Comparator.comparing(LocalReplayIndexEntry::title,
+                                   Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)),
+      "startTime", Comparator.comparingDouble(LocalReplayIndexEntry::startTime),
+      "endTime", Comparator.comparingDouble(LocalReplayIndexEntry::endTime));
+
+  private final String query;
+  private int position;
+
+  private LocalReplayQuery(String query) {
+    this.query = query;
+  }
+
+  /**
+   * Returns the filter for the given query, or null if the query is empty.
+   *
+   * @throws IllegalArgumentException if the query is not valid RSQL or contains conditions that are not supported
+   */
+  static Predicate<LocalReplayIndexEntry> toFilter(String query) {
+    if (query == null || query.isBlank()) {
+      return null;
+    }
+
+    LocalReplayQuery parser = new LocalReplayQuery(query);
+    Predicate<LocalReplayIndexEntry> filter = parser.parseOr();
+    if (parser.position < query.length()) {
+      throw parser.unexpectedCharacter();
+    }
+    return filter;
+  }
+
+  /**
+   * Returns the comparator for the given sort configuration, or null if the index can't sort by its property.
+   */
+  static Comparator<LocalReplayIndexEntry> toComparator(SortConfig sortConfig) {
+    if (sortConfig == null) {
+      return null;
+    }
+
+    Comparator<LocalReplayIndexEntry> comparator = SORT_PROPERTIES.get(sortConfig.sortProperty());
+    if (comparator == null) {
+      log.debug("Local replays can not be sorted by `{}`", sortConfig.sortProperty());
+      return null;
+    }
+    return sortConfig.sortOrder() == SortOrder.DESC ? comparator.reversed() : comparator;
+  }
+
+  private Predicate<LocalReplayIndexEntry> parseOr() {
+    Predicate<LocalReplayIndexEntry> predicate = parseAnd();
+    while (consume(',')) {
+      predicate = predicate.or(parseAnd());
+    }
+    return predicate;
+  }
+
+  private Predicate<LocalReplayIndexEntry> parseAnd() {
+    Predicate<LocalReplayIndexEntry> predicate = parseTerm();
+    while (consume(';')) {
+      predicate = predicate.and(parseTerm());
+    }
+    return predicate;
+  }
+
+  private Predicate<LocalReplayIndexEntry> parseTerm() {
+    if (consume('(')) {
+      Predicate<LocalReplayIndexEntry> predicate = parseOr();
+      expect(')');
+      return predicate;
+    }
+    return parseComparison();
+  }
+
+  private Predicate<LocalReplayIndexEntry> parseComparison() {
+    String selector = readUntil("=!<>");
+    String operator = readOperator();
+    List<String> arguments = readArguments();
+
+    Function<LocalReplayIndexEntry, Stream<?>> property = PROPERTIES.get(selector);
+    if (property == null) {
+      throw new IllegalArgumentException("Local replays can not be filtered by `" + selector + "`");
+    }
+    Function<LocalReplayIndexEntry, Stream<?>> values = entry -> property.apply(entry).filter(Objects::nonNull);
+    String argument = arguments.getFirst();
+    // Compiled once per search rather than for every value of every replay
+    List<Predicate<Object>> equalities = arguments.stream().map(LocalReplayQuery::toEquality).toList();
+    Predicate<Object> equalsAny = value -> equalities.stream().anyMatch(equality -> equality.test(value));
+
+    return switch (operator) {
+      case "==", "=in=" -> entry -> values.apply(entry).anyMatch(equalsAny);
+      case "!=", "=out=" -> entry -> values.apply(entry).noneMatch(equalsAny);
+      case "=gt=", ">" -> entry -> values.apply(entry).anyMatch(value -> compare(value, argument) > 0);
+      case "=ge=", ">=" -> entry -> values.apply(entry).anyMatch(value -> compare(value, argument) >= 0);
+      case "=lt=", "<" -> entry -> values.apply(entry).anyMatch(value -> compare(value, argument) < 0);
+      case "=le=", "<=" -> entry -> values.apply(entry).anyMatch(value -> compare(value, argument) <= 0);
+      default ->
+          throw new IllegalArgumentException("Local replays can not be filtered with operator `" + operator + "`");
+    };
+  }
+
+  private String readOperator() {
+    int start = position;
+    if (consume('=')) {
+      if (!consume('=')) {
+        readUntil("=");
+        expect('=');
+      }
+    } else if (consume('!')) {
+      expect('=');
+    } else if (consume('<') || consume('>')) {
+      consume('=');
+    } else {
+      throw unexpectedCharacter();
+    }
+    return query.substring(start, position);
+  }
+
+  private List<String> readArguments() {
+    List<String> arguments = new ArrayList<>();
+    if (consume('(')) {
+      do {
+        arguments.add(readValue());
+      } while (consume(','));
+      expect(')');
+    } else {
+      arguments.add(readValue());
+    }
+    return arguments;
+  }
+
+  private String readValue() {
+    if (position < query.length() && (query.charAt(position) == '"' || query.charAt(position) == '\'')) {
+      char quote = query.charAt(position++);
+      StringBuilder value = new StringBuilder();
+      while (position < query.length() && query.charAt(position) != quote) {
+        char character = query.charAt(position++);
+        if (character == '\\' && position < query.length()) {
+          character = query.charAt(position++);
+        }
+        value.append(character);
+      }
+      expect(quote);
+      return value.toString();
+    }
+    return readUntil(";,()");
+  }
+
+  private String readUntil(String delimiters) {
+    int start = position;
+    while (position < query.length() && delimiters.indexOf(query.charAt(position)) == -1) {
+      position++;
+    }
+    if (position == start) {
+      throw unexpectedCharacter();
+    }
+    return query.substring(start, position).trim();
+  }
+
+  private boolean consume(char character) {
+    if (position < query.length() && query.charAt(position) == character) {
+      position++;
+      return true;
+    }
+    return false;
+  }
+
+  private void expect(char character) {
+    if (!consume(character)) {
+      throw unexpectedCharacter();
+    }
+  }
+
+  private IllegalArgumentException unexpectedCharacter() {
+    return new IllegalArgumentException("Invalid query `" + query + "` at position " + position);
+  }
+
+  /**
+   * Compares strings ignoring case, where {@code *} in the argument matches any characters, like the API does.
+   */
+  private static Predicate<Object> toEquality(String argument) {
+    String regex = Stream.of(argument.split("\\*", -1)).map(Pattern::quote).collect(Collectors.joining(".*"));
+    Pattern pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    return value -> value instanceof String string
+        ? pattern.matcher(string).matches()
+        : compare(value, argument) == 0;
+  }
+
+  private static int compare(Object value, String argument) {
+    try {
+      return switch (value) {
+        case Integer number -> Long.compare(number, Long.parseLong(argument));
+        case Instant instant -> instant.compareTo(parseInstant(argument));
+        case String string -> string.compareToIgnoreCase(argument);
+        default -> Objects.toString(value).compareTo(argument);
+      };
+    } catch (NumberFormatException | DateTimeParseException e) {
+      log.debug("Could not compare `{}` with `{}`", value, argument, e);
+      return Objects.toString(value).compareTo(argument);
+    }
+  }
+
+  private static Instant parseInstant(String value) {
+    try {
+      return OffsetDateTime.parse(value).toInstant();
+    } catch (DateTimeParseException e) {
+      return LocalDate.parse(value).atStartOfDay(ZoneId.systemDefault()).toInstant();
+    }
+  }
+
+  private static Instant toInstant(double pythonTime) {
+    return Instant.ofEpochMilli((long) (pythonTime * 1000));
+  }
+}
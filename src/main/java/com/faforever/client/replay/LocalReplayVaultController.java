@@ -20,7 +20,6 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
 import java.util.List;
 
 @Slf4j
@@ -72,11 +71,7 @@ public class LocalReplayVaultController extends VaultEntityController<Replay> {
 
   @Override
   protected void setSupplier(SearchConfig searchConfig) {
-    try {
-      currentSupplier = replayService.loadLocalReplayPage(pageSize, pagination.getCurrentPageIndex() + 1);
-    } catch (IOException e) {
-      log.error("Could not load local replays", e);
-    }
+    currentSupplier = replayService.loadLocalReplayPage(searchConfig, pageSize, pagination.getCurrentPageIndex() + 1);
   }
 
   @Override
@@ -2,23 +2,19 @@ package com.faforever.client.replay;
 
 import com.faforever.client.config.ClientProperties;
 import com.faforever.client.i18n.I18n;
+import com.faforever.client.io.DownloadService;
 import com.faforever.client.preferences.DataPrefs;
 import com.faforever.client.task.CompletableTask;
-import com.faforever.commons.io.ByteCopier;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 @Component
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
@@ -30,16 +26,19 @@ public class ReplayDownloadTask extends CompletableTask<Path> {
   private final I18n i18n;
   private final ClientProperties clientProperties;
   private final DataPrefs dataPrefs;
+  private final DownloadService downloadService;
 
   private int replayId;
 
   @Autowired
-  public ReplayDownloadTask(I18n i18n, ClientProperties clientProperties, DataPrefs dataPrefs) {
+  public ReplayDownloadTask(I18n i18n, ClientProperties clientProperties, DataPrefs dataPrefs,
+                            DownloadService downloadService) {
     super(Priority.HIGH);
 
     this.i18n = i18n;
     this.clientProperties = clientProperties;
     this.dataPrefs = dataPrefs;
+    this.downloadService = downloadService;
   }
 
   @Override
@@ -50,25 +49,12 @@ public class ReplayDownloadTask extends CompletableTask<Path> {
 
     log.info("Downloading replay `{}` from `{}`", replayId, replayUrl);
 
-    HttpURLConnection urlConnection = (HttpURLConnection) new URL(replayUrl).openConnection();
-    urlConnection.setInstanceFollowRedirects(true);
-    int bytesToRead = urlConnection.getContentLength();
-
     Path tempSupComReplayFile = dataPrefs.getCacheDirectory().resolve(TEMP_FAF_REPLAY_FILE_NAME);
-
     Files.createDirectories(tempSupComReplayFile.getParent());
 
-    try (InputStream inputStream = new BufferedInputStream(urlConnection.getInputStream());
-         OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(tempSupComReplayFile))) {
-
-      ByteCopier.from(inputStream)
-          .to(outputStream)
-          .totalBytes(bytesToRead)
-          .listener(this::updateProgress)
-          .copy();
-
-      return tempSupComReplayFile;
-    }
+    return downloadService.withDownloadedFile(URI.create(replayUrl).toURL(), this::updateProgress,
+                                              replayFile -> Files.copy(replayFile, tempSupComReplayFile,
+                                                                       StandardCopyOption.REPLACE_EXISTING));
   }
 
 
@@ -2,12 +2,25 @@ package com.faforever.client.replay;
 
 
 import com.faforever.commons.replay.ReplayDataParser;
+import com.faforever.commons.replay.ReplayMetadata;
 import org.apache.commons.compress.compressors.CompressorException;
 
 import java.io.IOException;
 import java.nio.file.Path;
 
+/**
+ * Reads replay files in two stages. {@link #readMetadata(Path)} only reads the JSON header of a {@code .fafreplay} file
+ * and is meant for listing replays. {@link #parseReplay(Path)} decodes the whole replay and should only be used when
+ * the replay body is actually needed.
+ */
 public interface ReplayFileReader {
+
+  /**
+   * Reads only the JSON header in the first line of the specified {@code .fafreplay} file, without decoding the replay
+   * data.
+   */
+  ReplayMetadata readMetadata(Path path) throws IOException;
+
   /**
    * Parses the actual replay data of the specified file and returns metadata, raw data, chat messages, game options,
    * executed commands and so on.
@@ -1,6 +1,7 @@
 package com.faforever.client.replay;
 
 import com.faforever.commons.replay.ReplayDataParser;
+import com.faforever.commons.replay.ReplayMetadata;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
@@ -8,7 +9,10 @@ import org.apache.commons.compress.compressors.CompressorException;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 @Lazy
@@ -16,9 +20,33 @@ import java.nio.file.Path;
 @Slf4j
 public class ReplayFileReaderImpl implements ReplayFileReader {
 
+  /**
+   * Large enough to read the JSON header of almost all replays in one go.
+   */
+  private static final int HEADER_READ_SIZE = 8192;
+
   private final ObjectMapper objectMapper = new ObjectMapper()
       .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
+  @Override
+  public ReplayMetadata readMetadata(Path path) throws IOException {
+    try (InputStream inputStream = Files.newInputStream(path)) {
+      ByteArrayOutputStream header = new ByteArrayOutputStream(HEADER_READ_SIZE);
+      byte[] buffer = new byte[HEADER_READ_SIZE];
+      int bytesRead;
+      while ((bytesRead = inputStream.read(buffer)) != -1) {
+        for (int i = 0; i < bytesRead; i++) {
+          if (buffer[i] == '\n') {
+            header.write(buffer, 0, i);
+            return objectMapper.readValue(header.toByteArray(), ReplayMetadata.class);
+          }
+        }
+        header.write(buffer, 0, bytesRead);
+      }
+    }
+    throw new IOException("Replay file has no replay data after its header: " + path);
+  }
+
   @Override
   public ReplayDataParser parseReplay(Path path) throws IOException, CompressorException {
     return new ReplayDataParser(path, objectMapper);
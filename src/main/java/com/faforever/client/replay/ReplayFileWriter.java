@@ -2,10 +2,14 @@ package com.faforever.client.replay;
 
 import com.faforever.commons.replay.ReplayMetadata;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.file.Path;
 
 public interface ReplayFileWriter {
 
-  void writeReplayDataToFile(ByteArrayOutputStream replayData, ReplayMetadata replayInfo) throws IOException;
+  /**
+   * Writes a {@code .fafreplay} file for the raw replay stream stored in {@code replayDataFile}. The raw data is
+   * compressed and encoded in chunks, so the file is never loaded into memory as a whole.
+   */
+  void writeReplayDataToFile(Path replayDataFile, ReplayMetadata replayInfo) throws IOException;
 }
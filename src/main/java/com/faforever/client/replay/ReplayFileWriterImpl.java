@@ -3,7 +3,6 @@ package com.faforever.client.replay;
 import com.faforever.client.config.ClientProperties;
 import com.faforever.client.preferences.DataPrefs;
 import com.faforever.commons.io.Bytes;
-import com.faforever.commons.replay.QtCompress;
 import com.faforever.commons.replay.ReplayMetadata;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
@@ -14,13 +13,16 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import java.io.BufferedWriter;
-import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.nio.file.StandardOpenOption.APPEND;
@@ -31,6 +33,8 @@ import static java.nio.file.StandardOpenOption.APPEND;
 @Slf4j
 public class ReplayFileWriterImpl implements ReplayFileWriter {
 
+  private static final int COMPRESSION_BUFFER_SIZE = 64 * 1024;
+
   private final ObjectMapper objectMapper = new ObjectMapper()
       .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
 
@@ -38,27 +42,45 @@ public class ReplayFileWriterImpl implements ReplayFileWriter {
   private final DataPrefs dataPrefs;
 
   @Override
-  public void writeReplayDataToFile(ByteArrayOutputStream replayData, ReplayMetadata replayInfo) throws IOException {
+  public void writeReplayDataToFile(Path replayDataFile, ReplayMetadata replayInfo) throws IOException {
     String fileName = String.format(clientProperties.getReplay().getReplayFileFormat(), replayInfo.getUid(), replayInfo.getRecorder());
     Path replayFile = dataPrefs.getReplaysDirectory().resolve(fileName);
     Path temporaryReplayFile = Files.createTempFile(dataPrefs.getCacheDirectory(), fileName, "fafreplay");
+    long replayDataSize = Files.size(replayDataFile);
 
-    log.info("Writing replay file to `{}` ({})", replayFile, Bytes.formatSize(replayData.size(), Locale.ROOT));
+    log.info("Writing replay file to `{}` ({})", replayFile, Bytes.formatSize(replayDataSize, Locale.ROOT));
 
     Files.createDirectories(replayFile.getParent());
 
     try (BufferedWriter writer = Files.newBufferedWriter(temporaryReplayFile, UTF_8, APPEND)) {
-      byte[] compressedBytes = QtCompress.qCompress(replayData.toByteArray());
-      String base64ReplayData = BaseEncoding.base64().encode(compressedBytes);
-
       StringWriter replayInfoWriter = new StringWriter();
 
       objectMapper.writeValue(replayInfoWriter, replayInfo);
       writer.write(replayInfoWriter.toString());
       writer.write('\n');
-      writer.write(base64ReplayData);
+
+      writeCompressedReplayData(replayDataFile, replayDataSize, writer);
     }
 
     Files.move(temporaryReplayFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
   }
+
+  /**
+   * Produces the same output as {@code Base64(QtCompress.qCompress(data))}, but streams through the data instead of
+   * holding the raw, compressed and encoded replay in memory at the same time. The qCompress format is the
+   * uncompressed size as a big endian int, followed by a zlib stream.
+   */
+  private void writeCompressedReplayData(Path replayDataFile, long replayDataSize, BufferedWriter writer) throws IOException {
+    OutputStream base64OutputStream = BaseEncoding.base64().encodingStream(writer);
+    Deflater deflater = new Deflater();
+    try (DataOutputStream compressedOutputStream = new DataOutputStream(base64OutputStream)) {
+      compressedOutputStream.writeInt(Math.toIntExact(replayDataSize));
+
+      DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(compressedOutputStream, deflater, COMPRESSION_BUFFER_SIZE);
+      Files.copy(replayDataFile, deflaterOutputStream);
+      deflaterOutputStream.finish();
+    } finally {
+      deflater.end();
+    }
+  }
 }
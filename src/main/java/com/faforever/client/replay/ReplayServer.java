@@ -10,25 +10,24 @@ import com.faforever.client.notification.NotificationService;
 import com.faforever.client.notification.PersistentNotification;
 import com.faforever.client.notification.Severity;
 import com.faforever.client.player.PlayerService;
+import com.faforever.client.preferences.DataPrefs;
 import com.faforever.client.update.Version;
 import com.faforever.client.user.LoginService;
 import com.faforever.commons.replay.ReplayMetadata;
 import com.google.common.primitives.Bytes;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.jetbrains.annotations.Nullable;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.net.ConnectException;
 import java.net.ServerSocket;
 import java.net.Socket;
-import java.net.SocketException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -44,18 +43,21 @@ import java.util.stream.Collectors;
 public class ReplayServer {
 
   /**
-   * Size for buffer used to send data to the live replay server. The buffer needs to be large enough to not flush too
-   * many times (after all, it's a TCP stream so we don't want to send single bytes) but small enough to not delay data
-   * for too long. I don't have any data right now but it can be expected that the replay stream produces about 70 bytes
-   * per second (See #973).
+   * Size of the buffer used to read from the game. Upstream writes are coalesced by {@link ReplayUpstreamRelay}, so this
+   * no longer determines how often data is sent to the live replay server.
    */
-  private static final int REPLAY_BUFFER_SIZE = 128;
+  private static final int REPLAY_BUFFER_SIZE = 8192;
 
   /**
    * This is a prefix used in the FA live replay protocol that needs to be stripped away when storing to a file.
    */
   private static final byte[] LIVE_REPLAY_PREFIX = new byte[]{'P', '/'};
 
+  /**
+   * Size of the buffer used when spilling the recorded replay stream to disk.
+   */
+  private static final int REPLAY_SPILL_BUFFER_SIZE = 64 * 1024;
+
   private final ClientProperties clientProperties;
   private final NotificationService notificationService;
   private final I18n i18n;
@@ -63,6 +65,7 @@ public class ReplayServer {
   private final ReplayFileWriter replayFileWriter;
   private final PlayerService playerService;
   private final GameService gameService;
+  private final DataPrefs dataPrefs;
 
   private ReplayMetadata replayInfo;
   private ServerSocket serverSocket;
@@ -91,26 +94,19 @@ public class ReplayServer {
   public CompletableFuture<Integer> start(int gameId) {
     stoppedGracefully = false;
     CompletableFuture<Integer> future = new CompletableFuture<>();
-    new Thread(() -> {
+    Thread.ofVirtual().name("replay-server-" + gameId).start(() -> {
       String remoteReplayServerHost = clientProperties.getReplay().getRemoteHost();
       int remoteReplayServerPort = clientProperties.getReplay().getRemotePort();
 
-      log.info("Connecting to replay server at `{}:{}`", remoteReplayServerHost, remoteReplayServerPort);
-
       try (ServerSocket localSocket = new ServerSocket(0)) {
         log.debug("Opening local replay server on port {}", localSocket.getLocalPort());
         this.serverSocket = localSocket;
         future.complete(serverSocket.getLocalPort());
 
-        try (Socket remoteReplayServerSocket = new Socket(remoteReplayServerHost, remoteReplayServerPort);
-             DataOutputStream fafReplayOutputStream = new DataOutputStream(
-                 remoteReplayServerSocket.getOutputStream())) {
-          recordAndRelay(gameId, localSocket, fafReplayOutputStream);
-        } catch (ConnectException e) {
-          log.warn("Could not connect to remote replay server", e);
-          notificationService.addNotification(
-              new PersistentNotification(i18n.get("replayServer.unreachable"), Severity.WARN));
-          recordAndRelay(gameId, localSocket, null);
+        try (ReplayUpstreamRelay upstreamRelay = new ReplayUpstreamRelay(remoteReplayServerHost, remoteReplayServerPort,
+                                                                         this::notifyReplayServerUnreachable)) {
+          upstreamRelay.start();
+          recordAndRelay(gameId, localSocket, upstreamRelay);
         }
       } catch (IOException e) {
         if (stoppedGracefully) {
@@ -123,10 +119,15 @@ public class ReplayServer {
             Collections.singletonList(new Action(i18n.get("replayServer.retry"), () -> start(gameId)))
         ));
       }
-    }).start();
+    });
     return future;
   }
 
+  private void notifyReplayServerUnreachable() {
+    notificationService.addNotification(
+        new PersistentNotification(i18n.get("replayServer.unreachable"), Severity.WARN));
+  }
+
   private void initReplayInfo(int uid) {
     replayInfo = new ReplayMetadata();
     replayInfo.setUid(uid);
@@ -137,49 +138,51 @@ public class ReplayServer {
     );
   }
 
-  /**
-   * @param fafReplayOutputStream if {@code null}, the replay won't be relayed
-   */
-  private void recordAndRelay(int uid, ServerSocket serverSocket,
-                              @Nullable OutputStream fafReplayOutputStream) throws IOException {
+  private void recordAndRelay(int uid, ServerSocket serverSocket, ReplayUpstreamRelay upstreamRelay) throws IOException {
     Socket socket = serverSocket.accept();
     GameInfo game = gameService.getByUid(uid).orElseThrow();
     log.info("Accepted connection from `{}`", socket.getRemoteSocketAddress());
 
     initReplayInfo(uid);
 
-    ByteArrayOutputStream replayData = new ByteArrayOutputStream();
+    Path replayDataFile = Files.createTempFile(Files.createDirectories(dataPrefs.getCacheDirectory()), "live-replay-" + uid, null);
+    try {
+      recordToFile(socket, replayDataFile, upstreamRelay);
+
+      log.info("FAF disconnected, writing replay data to file");
+      finishReplayInfo(game);
+      replayFileWriter.writeReplayDataToFile(replayDataFile, replayInfo);
+    } finally {
+      Files.deleteIfExists(replayDataFile);
+    }
+  }
 
-    boolean connectionToServerLost = false;
+  /**
+   * Spills the replay stream to {@code replayDataFile} as it arrives so that memory usage does not grow with the length
+   * of the game. Relaying to the replay server never blocks this loop.
+   */
+  private void recordToFile(Socket socket, Path replayDataFile, ReplayUpstreamRelay upstreamRelay) throws IOException {
+    long replayDataSize = 0;
     byte[] buffer = new byte[REPLAY_BUFFER_SIZE];
-    try (InputStream inputStream = socket.getInputStream()) {
+    try (InputStream inputStream = socket.getInputStream();
+         OutputStream replayData = new BufferedOutputStream(Files.newOutputStream(replayDataFile), REPLAY_SPILL_BUFFER_SIZE)) {
       int bytesRead;
       while ((bytesRead = inputStream.read(buffer)) != -1) {
-        if (replayData.size() == 0 && Bytes.indexOf(buffer, LIVE_REPLAY_PREFIX) != -1) {
+        if (replayDataSize == 0 && Bytes.indexOf(buffer, LIVE_REPLAY_PREFIX) != -1) {
           int dataBeginIndex = Bytes.indexOf(buffer, (byte) 0x00) + 1;
           replayData.write(buffer, dataBeginIndex, bytesRead - dataBeginIndex);
+          replayDataSize += bytesRead - dataBeginIndex;
         } else {
           replayData.write(buffer, 0, bytesRead);
+          replayDataSize += bytesRead;
         }
 
-        if (!connectionToServerLost && fafReplayOutputStream != null) {
-          try {
-            fafReplayOutputStream.write(buffer, 0, bytesRead);
-          } catch (SocketException e) {
-            // In case we lose connection to the replay server, just stop writing to it
-            log.warn("Connection to replay server lost ({})", e.getMessage());
-            connectionToServerLost = true;
-          }
-        }
+        upstreamRelay.relay(buffer, 0, bytesRead);
       }
     } catch (Exception e) {
       log.error("Error while recording replay", e);
       throw e;
     }
-
-    log.info("FAF disconnected, writing replay data to file");
-    finishReplayInfo(game);
-    replayFileWriter.writeReplayDataToFile(replayData, replayInfo);
   }
 
   private void finishReplayInfo(GameInfo game) {
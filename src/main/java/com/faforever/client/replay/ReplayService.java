@@ -11,15 +11,11 @@ import com.faforever.client.domain.api.Replay;
 import com.faforever.client.domain.api.Replay.ChatMessage;
 import com.faforever.client.domain.api.Replay.GameOption;
 import com.faforever.client.featuredmod.FeaturedModService;
-import com.faforever.client.fx.PlatformService;
 import com.faforever.client.game.GameService;
 import com.faforever.client.game.KnownFeaturedMod;
-import com.faforever.client.i18n.I18n;
 import com.faforever.client.map.MapService;
 import com.faforever.client.mapstruct.ReplayMapper;
-import com.faforever.client.notification.Action;
 import com.faforever.client.notification.NotificationService;
-import com.faforever.client.notification.PersistentNotification;
 import com.faforever.client.preferences.DataPrefs;
 import com.faforever.client.task.TaskService;
 import com.faforever.client.user.LoginService;
@@ -51,11 +47,9 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.nio.file.attribute.FileTime;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Collection;
@@ -64,15 +58,13 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
-import static com.faforever.client.notification.Severity.WARN;
 import static com.faforever.commons.api.elide.ElideNavigator.qBuilder;
-import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
 
 @Lazy
@@ -93,8 +85,6 @@ public class ReplayService {
   private final GameService gameService;
   private final ReplayRunner replayRunner;
   private final TaskService taskService;
-  private final I18n i18n;
-  private final PlatformService platformService;
   private final FafApiAccessor fafApiAccessor;
   private final FeaturedModService featuredModService;
   private final MapService mapService;
@@ -102,6 +92,7 @@ public class ReplayService {
   private final ReplayMapper replayMapper;
   private final DataPrefs dataPrefs;
   private final ObjectFactory<ReplayDownloadTask> replayDownloadTaskFactory;
+  private final LocalReplayIndex localReplayIndex;
 
   @VisibleForTesting
   static Integer parseSupComVersion(ReplayDataParser parser) {
@@ -147,35 +138,26 @@ public class ReplayService {
     return KnownFeaturedMod.DEFAULT.getTechnicalName();
   }
 
-  public Mono<Tuple2<List<Replay>, Integer>> loadLocalReplayPage(int pageSize, int page) throws IOException {
-    String replayFileGlob = clientProperties.getReplay().getReplayFileGlob();
-
-    Path replaysDirectory = dataPrefs.getReplaysDirectory();
-    if (Files.notExists(replaysDirectory)) {
-      Files.createDirectories(replaysDirectory);
-    }
-
-    int skippedReplays = pageSize * (page - 1);
-
-    try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(replaysDirectory, replayFileGlob)) {
-      List<Path> filesList = StreamSupport.stream(directoryStream.spliterator(), false)
-                                          .sorted(Comparator.comparing(path -> {
-                                            try {
-                                              return Files.getLastModifiedTime((Path) path);
-                                            } catch (IOException e) {
-                                              log.warn("Could not get last modified time of file {}", path, e);
-                                              return FileTime.from(Instant.EPOCH);
-                                            }
-                                          }).reversed())
-                                          .toList();
-
-      int numPages = filesList.size() / pageSize;
-
-      List<CompletableFuture<Replay>> replayFutures = filesList.stream()
-                                                               .skip(skippedReplays)
-                                                               .limit(pageSize)
-                                                               .map(this::tryLoadingLocalReplay)
-                                                               .filter(e -> !e.isCompletedExceptionally())
+  /**
+   * Loads a page of local replays. The search query and sort order are applied to what the replay index knows about
+   * the replays, see {@link LocalReplayQuery}.
+   *
+   * @param searchConfig the search, or null to load the newest replays
+   */
+  public Mono<Tuple2<List<Replay>, Integer>> loadLocalReplayPage(SearchConfig searchConfig, int pageSize, int page) {
+    return Mono.defer(() -> {
+      if (searchConfig == null) {
+        return Mono.fromFuture(localReplayIndex.getPage(pageSize, page));
+      }
+      Predicate<LocalReplayIndexEntry> filter = LocalReplayQuery.toFilter(searchConfig.searchQuery());
+      Comparator<LocalReplayIndexEntry> comparator = LocalReplayQuery.toComparator(searchConfig.sortConfig());
+      return Mono.fromFuture(localReplayIndex.getPage(pageSize, page, filter, comparator));
+    }).flatMap(indexPage -> {
+      int numPages = indexPage.totalCount() / pageSize;
+
+      List<CompletableFuture<Replay>> replayFutures = indexPage.entries()
+                                                               .stream()
+                                                               .map(this::loadLocalReplay)
                                                                .toList();
 
       return Mono.fromFuture(CompletableFuture.allOf(replayFutures.toArray(new CompletableFuture[0]))
@@ -184,69 +166,33 @@ public class ReplayService {
                                                                                      .filter(Objects::nonNull)
                                                                                      .collect(Collectors.toList())))
                  .zipWith(Mono.just(numPages));
-    }
+    });
   }
 
+  private CompletableFuture<Replay> loadLocalReplay(LocalReplayIndexEntry entry) {
+    Path replayFile = dataPrefs.getReplaysDirectory().resolve(entry.fileName());
 
-  private CompletableFuture<Replay> tryLoadingLocalReplay(Path replayFile) {
-    try {
-      ReplayDataParser replayData = replayFileReader.parseReplay(replayFile);
-      ReplayMetadata replayMetadata = replayData.getMetadata();
-
-      CompletableFuture<FeaturedMod> featuredModFuture = featuredModService.getFeaturedMod(
-          replayMetadata.getFeaturedMod()).toFuture();
-      CompletableFuture<MapVersion> mapVersionFuture = mapService.findByMapFolderName(replayMetadata.getMapname())
-                                                                 .toFuture();
-
-      return CompletableFuture.allOf(featuredModFuture, mapVersionFuture).thenApply(ignoredVoid -> {
-        MapVersion mapVersion = mapVersionFuture.join();
-        FeaturedMod featuredMod = featuredModFuture.join();
-        if (mapVersion == null) {
-          log.warn("Could not find map for replay file `{}`", replayFile);
-        }
-        return replayMapper.map(replayData, replayFile, featuredMod, mapVersion);
-      }).exceptionally(throwable -> {
-        log.warn("Could not read replay file `{}`", replayFile, throwable);
-        moveCorruptedReplayFile(replayFile);
-        return null;
-      });
-    } catch (Exception e) {
-      log.warn("Could not read replay file `{}`", replayFile, e);
-      moveCorruptedReplayFile(replayFile);
-      return CompletableFuture.completedFuture(null);
-    }
-  }
+    CompletableFuture<FeaturedMod> featuredModFuture = featuredModService.getFeaturedMod(entry.featuredMod())
+                                                                         .toFuture();
+    CompletableFuture<MapVersion> mapVersionFuture = mapService.findByMapFolderName(entry.mapFolderName()).toFuture();
 
-  private void moveCorruptedReplayFile(Path replayFile) {
-    Path corruptedReplaysDirectory = dataPrefs.getCorruptedReplaysDirectory();
-    try {
-      Files.createDirectories(corruptedReplaysDirectory);
-    } catch (IOException e) {
-      log.warn("Failed to create corrupted replays directory", e);
-      return;
-    }
-
-    Path target = corruptedReplaysDirectory.resolve(replayFile.getFileName());
-
-    log.trace("Moving corrupted replay file from `{}` to `{}`", replayFile, target);
-
-    try {
-      Files.move(replayFile, target);
-    } catch (IOException e) {
-      log.warn("Failed to move corrupt replay to `{}`", target, e);
-      return;
-    }
-
-    notificationService.addNotification(new PersistentNotification(i18n.get("corruptedReplayFiles.notification"), WARN,
-                                                                   singletonList(
-                                                                       new Action(i18n.get("corruptedReplayFiles.show"),
-                                                                                  () -> platformService.reveal(
-                                                                                      replayFile)))));
+    return CompletableFuture.allOf(featuredModFuture, mapVersionFuture).thenApply(ignoredVoid -> {
+      MapVersion mapVersion = mapVersionFuture.join();
+      FeaturedMod featuredMod = featuredModFuture.join();
+      if (mapVersion == null) {
+        log.warn("Could not find map for replay file `{}`", replayFile);
+      }
+      return replayMapper.mapFromIndexEntry(entry, replayFile, featuredMod, mapVersion);
+    }).exceptionally(throwable -> {
+      log.warn("Could not load replay file `{}`", replayFile, throwable);
+      return null;
+    });
   }
 
   public boolean deleteReplayFile(Path replayFile) {
     try {
       Files.delete(replayFile);
+      localReplayIndex.remove(replayFile);
       return true;
     } catch (IOException e) {
       log.error("Failed to delete local replay file {}", replayFile, e);
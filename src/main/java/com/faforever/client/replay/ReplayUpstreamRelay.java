@@ -0,0 +1,191 @@
+package com.faforever.client.replay;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Forwards the live replay stream to the FAF replay server on its own virtual thread. The recording side only ever
+ * enqueues into a bounded queue, so a slow or stalled replay server can never delay reading from the game's socket. If
+ * the queue runs full, relaying is given up for the rest of the game, the same way as if the connection was lost.
+ * <p>
+ * Upstream writes are coalesced until either {@link #COALESCE_SIZE} bytes are pending or the oldest pending byte is
+ * {@link #COALESCE_INTERVAL} old.
+ */
+@Slf4j
+public class ReplayUpstreamRelay implements AutoCloseable {
+
+  static final int COALESCE_SIZE = 4096;
+  static final Duration COALESCE_INTERVAL = Duration.ofMillis(500);
+  static final int QUEUE_CAPACITY = 1024;
+  private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+  private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(5);
+  private static final byte[] END_OF_STREAM = new byte[0];
+
+  private final String host;
+  private final int port;
+  private final Runnable onUnreachable;
+  private final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+  private final AtomicLong bytesRelayed = new AtomicLong();
+  private final AtomicLong bytesDropped = new AtomicLong();
+  private final AtomicLong upstreamStallNanos = new AtomicLong();
+
+  private volatile boolean relaying = true;
+  private volatile Socket socket;
+  private Thread thread;
+
+  /**
+   * @param onUnreachable called on the relay thread if the replay server could not be connected to
+   */
+  public ReplayUpstreamRelay(String host, int port, Runnable onUnreachable) {
+    this.host = host;
+    this.port = port;
+    this.onUnreachable = onUnreachable;
+  }
+
+  public void start() {
+    thread = Thread.ofVirtual().name("replay-relay").start(this::run);
+  }
+
+  /**
+   * Enqueues a copy of the given data for relaying. Never blocks.
+   */
+  public void relay(byte[] buffer, int offset, int length) {
+    if (!relaying) {
+      bytesDropped.addAndGet(length);
+      return;
+    }
+    if (!queue.offer(Arrays.copyOfRange(buffer, offset, offset + length))) {
+      log.warn("Replay server can not keep up, no longer relaying replay data");
+      relaying = false;
+      queue.clear();
+      bytesDropped.addAndGet(length);
+    }
+  }
+
+  public long getBytesRelayed() {
+    return bytesRelayed.get();
+  }
+
+  public long getBytesDropped() {
+    return bytesDropped.get();
+  }
+
+  public int getQueueDepth() {
+    return queue.size();
+  }
+
+  /**
+   * Total time spent blocked on writes to the replay server.
+   */
+  public Duration getUpstreamStallTime() {
+    return Duration.ofNanos(upstreamStallNanos.get());
+  }
+
+  public boolean isRelaying() {
+    return relaying;
+  }
+
+  private void run() {
+    try (Socket upstreamSocket = new Socket()) {
+      socket = upstreamSocket;
+      log.info("Connecting to replay server at `{}:{}`", host, port);
+      upstreamSocket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+      upstreamSocket.setTcpNoDelay(true);
+      forward(new BufferedOutputStream(upstreamSocket.getOutputStream(), COALESCE_SIZE * 2));
+    } catch (IOException e) {
+      boolean wasRelaying = relaying;
+      relaying = false;
+      if (socket != null && !socket.isConnected()) {
+        log.warn("Could not connect to remote replay server", e);
+        onUnreachable.run();
+      } else if (wasRelaying) {
+        // In case we lose connection to the replay server, just stop writing to it
+        log.warn("Connection to replay server lost ({})", e.getMessage());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      relaying = false;
+      queue.clear();
+    }
+  }
+
+  private void forward(OutputStream outputStream) throws IOException, InterruptedException {
+    int pendingBytes = 0;
+    long flushDeadline = 0;
+    while (true) {
+      byte[] chunk = pendingBytes == 0
+          ? queue.take()
+          : queue.poll(Math.max(0, flushDeadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+      if (chunk == END_OF_STREAM) {
+        flush(outputStream, pendingBytes);
+        return;
+      }
+
+      if (chunk != null) {
+        if (pendingBytes == 0) {
+          flushDeadline = System.nanoTime() + COALESCE_INTERVAL.toNanos();
+        }
+        outputStream.write(chunk);
+        pendingBytes += chunk.length;
+      }
+
+      if (pendingBytes >= COALESCE_SIZE || (pendingBytes > 0 && System.nanoTime() >= flushDeadline)) {
+        flush(outputStream, pendingBytes);
+        pendingBytes = 0;
+      }
+    }
+  }
+
+  private void flush(OutputStream outputStream, int pendingBytes) throws IOException {
+    long start = System.nanoTime();
+    outputStream.flush();
+    upstreamStallNanos.addAndGet(System.nanoTime() - start);
+    bytesRelayed.addAndGet(pendingBytes);
+  }
+
+  /**
+   * Signals the end of the stream and waits a bounded amount of time for the pending data to be forwarded.
+   */
+  @Override
+  public void close() {
+    if (thread == null) {
+      return;
+    }
+    if (!relaying || !queue.offer(END_OF_STREAM)) {
+      relaying = false;
+      thread.interrupt();
+    }
+    try {
+      if (!thread.join(DRAIN_TIMEOUT)) {
+        log.warn("Replay server did not accept remaining replay data in time");
+        thread.interrupt();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      Socket upstreamSocket = socket;
+      if (upstreamSocket != null) {
+        try {
+          upstreamSocket.close();
+        } catch (IOException e) {
+          log.debug("Could not close replay server socket", e);
+        }
+      }
+      log.info("Relayed {} bytes to replay server ({} bytes dropped, upstream stalled for {})", getBytesRelayed(),
+               getBytesDropped(), getUpstreamStallTime());
+    }
+  }
+}
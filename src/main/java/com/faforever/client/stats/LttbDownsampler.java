@@ -0,0 +1,77 @@
+package com.faforever.client.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Reduces a series to a given number of points with the Largest-Triangle-Three-Buckets algorithm, which keeps the
+ * visual shape of the series, including its peaks, unlike averaging or picking every n-th point.
+ */
+public final class LttbDownsampler {
+
+  private LttbDownsampler() {
+    // Utility class
+  }
+
+  /**
+   * Returns at most {@code threshold} points of the given points, which must be ordered by their x value. The first and
+   * the last point are always kept. The points are returned unchanged if there are not more than {@code threshold} of
+   * them.
+   */
+  public static <T> List<T> downsample(List<T> points, int threshold, ToDoubleFunction<T> x, ToDoubleFunction<T> y) {
+    int size = points.size();
+    if (threshold >= size || threshold < 3) {
+      return points;
+    }
+
+    List<T> sampled = new ArrayList<>(threshold);
+    // The first and the last point are kept, the others are split into threshold - 2 buckets
+    double bucketSize = (double) (size - 2) / (threshold - 2);
+
+    int selectedIndex = 0;
+    sampled.add(points.getFirst());
+
+    for (int bucket = 0; bucket < threshold - 2; bucket++) {
+      // The point of the next bucket is its average, which is only known roughly yet
+      int nextBucketStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+      int nextBucketEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, size);
+      double averageX = 0;
+      double averageY = 0;
+      for (int i = nextBucketStart; i < nextBucketEnd; i++) {
+        averageX += x.applyAsDouble(points.get(i));
+        averageY += y.applyAsDouble(points.get(i));
+      }
+      int nextBucketLength = nextBucketEnd - nextBucketStart;
+      averageX /= nextBucketLength;
+      averageY /= nextBucketLength;
+
+      int bucketStart = (int) Math.floor(bucket * bucketSize) + 1;
+      int bucketEnd = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+
+      T selectedPoint = points.get(selectedIndex);
+      double selectedX = x.applyAsDouble(selectedPoint);
+      double selectedY = y.applyAsDouble(selectedPoint);
+
+      // Keep the point of this bucket that forms the largest triangle with the previously kept point and the average
+      // of the next bucket
+      double maxArea = -1;
+      int maxAreaIndex = bucketStart;
+      for (int i = bucketStart; i < bucketEnd; i++) {
+        T point = points.get(i);
+        double area = Math.abs((selectedX - averageX) * (y.applyAsDouble(point) - selectedY)
+                                   - (selectedX - x.applyAsDouble(point)) * (averageY - selectedY));
+        if (area > maxArea) {
+          maxArea = area;
+          maxAreaIndex = i;
+        }
+      }
+
+      sampled.add(points.get(maxAreaIndex));
+      selectedIndex = maxAreaIndex;
+    }
+
+    sampled.add(points.getLast());
+    return sampled;
+  }
+}
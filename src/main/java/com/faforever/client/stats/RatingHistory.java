@@ -0,0 +1,57 @@
+package com.faforever.client.stats;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The locally known rating history of a player on a leaderboard.
+ *
+ * @param coveredSince the time since which all games are known, in seconds since the epoch, or {@link Long#MIN_VALUE}
+ * if the history is complete
+ * @param points the known points, ordered by score time
+ */
+public record RatingHistory(long coveredSince, List<RatingHistoryPoint> points) {
+
+  public static final RatingHistory EMPTY = new RatingHistory(Long.MAX_VALUE, List.of());
+
+  public boolean isEmpty() {
+    return points.isEmpty();
+  }
+
+  public boolean covers(long since) {
+    return coveredSince <= since;
+  }
+
+  public int getLastJournalId() {
+    return points.stream().mapToInt(RatingHistoryPoint::journalId).max().orElse(0);
+  }
+
+  /**
+   * Returns the points that have been scored at or after the given time.
+   */
+  public List<RatingHistoryPoint> getPointsSince(long since) {
+    if (points.isEmpty() || points.getFirst().scoreTime() >= since) {
+      return points;
+    }
+    return points.stream().filter(point -> point.scoreTime() >= since).toList();
+  }
+
+  /**
+   * Returns a history that contains the points of this and the given ones, and is complete since the given time if
+   * it is earlier than the one this history is complete since.
+   */
+  public RatingHistory merge(long coveredSince, Collection<RatingHistoryPoint> newPoints) {
+    Map<Integer, RatingHistoryPoint> pointsByJournalId = new LinkedHashMap<>();
+    points.forEach(point -> pointsByJournalId.put(point.journalId(), point));
+    newPoints.forEach(point -> pointsByJournalId.put(point.journalId(), point));
+
+    List<RatingHistoryPoint> mergedPoints = new ArrayList<>(pointsByJournalId.values());
+    mergedPoints.sort(Comparator.comparingLong(RatingHistoryPoint::scoreTime)
+                                .thenComparingInt(RatingHistoryPoint::journalId));
+    return new RatingHistory(Math.min(this.coveredSince, coveredSince), List.copyOf(mergedPoints));
+  }
+}
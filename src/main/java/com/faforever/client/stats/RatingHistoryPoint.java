@@ -0,0 +1,10 @@
+package com.faforever.client.stats;
+
+/**
+ * A single point of a player's rating history.
+ *
+ * @param journalId the id of the leaderboard rating journal entry this point has been taken from
+ * @param scoreTime the time the game was scored, in seconds since the epoch
+ * @param rating the displayed rating before the game
+ */
+public record RatingHistoryPoint(int journalId, long scoreTime, int rating) {}
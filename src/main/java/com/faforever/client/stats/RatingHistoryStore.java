@@ -0,0 +1,95 @@
+package com.faforever.client.stats;
+
+import com.faforever.client.preferences.DataPrefs;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Persists the rating histories of players, so that only games that have been played since a history was last loaded
+ * need to be requested from the API. Each history is stored in its own compact binary file.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RatingHistoryStore {
+
+  static final String CACHE_DIRECTORY_NAME = "rating_history";
+  private static final int FORMAT_VERSION = 1;
+
+  private final DataPrefs dataPrefs;
+
+  /**
+   * Returns the stored history of the given player on the given leaderboard, or {@link RatingHistory#EMPTY} if there is
+   * none or it could not be read.
+   */
+  public synchronized RatingHistory load(int playerId, int leaderboardId) {
+    Path file = getFile(playerId, leaderboardId);
+    if (Files.notExists(file)) {
+      return RatingHistory.EMPTY;
+    }
+
+    try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (inputStream.readInt() != FORMAT_VERSION) {
+        return RatingHistory.EMPTY;
+      }
+      long coveredSince = inputStream.readLong();
+      int size = inputStream.readInt();
+      List<RatingHistoryPoint> points = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        points.add(new RatingHistoryPoint(inputStream.readInt(), inputStream.readLong(), inputStream.readInt()));
+      }
+      return new RatingHistory(coveredSince, List.copyOf(points));
+    } catch (IOException e) {
+      log.warn("Could not read rating history `{}`, it will be loaded again", file, e);
+      return RatingHistory.EMPTY;
+    }
+  }
+
+  public synchronized void save(int playerId, int leaderboardId, RatingHistory ratingHistory) {
+    Path file = getFile(playerId, leaderboardId);
+    Path temporaryFile = null;
+    try {
+      Files.createDirectories(file.getParent());
+      temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), null);
+      try (DataOutputStream outputStream = new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+        outputStream.writeInt(FORMAT_VERSION);
+        outputStream.writeLong(ratingHistory.coveredSince());
+        outputStream.writeInt(ratingHistory.points().size());
+        for (RatingHistoryPoint point : ratingHistory.points()) {
+          outputStream.writeInt(point.journalId());
+          outputStream.writeLong(point.scoreTime());
+          outputStream.writeInt(point.rating());
+        }
+      }
+      Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      log.warn("Could not write rating history `{}`", file, e);
+      if (temporaryFile != null) {
+        try {
+          Files.deleteIfExists(temporaryFile);
+        } catch (IOException deleteException) {
+          log.warn("Could not delete temporary file `{}`", temporaryFile, deleteException);
+        }
+      }
+    }
+  }
+
+  private Path getFile(int playerId, int leaderboardId) {
+    return dataPrefs.getCacheDirectory()
+                    .resolve(CACHE_DIRECTORY_NAME)
+                    .resolve("%d_%d.bin".formatted(leaderboardId, playerId));
+  }
+}
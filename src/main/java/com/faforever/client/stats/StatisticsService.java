@@ -6,17 +6,31 @@ import com.faforever.client.domain.api.Leaderboard;
 import com.faforever.client.domain.api.LeaderboardRatingJournal;
 import com.faforever.client.domain.server.PlayerInfo;
 import com.faforever.client.mapstruct.LeaderboardMapper;
+import com.faforever.client.player.TimePeriod;
+import com.faforever.client.util.RatingUtil;
 import com.faforever.commons.api.elide.ElideNavigator;
 import com.faforever.commons.api.elide.ElideNavigatorOnCollection;
+import com.github.rutledgepaulv.qbuilders.builders.QBuilder;
+import com.github.rutledgepaulv.qbuilders.conditions.Condition;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
 
 import static com.faforever.commons.api.elide.ElideNavigator.qBuilder;
 
 
+@Slf4j
 @Lazy
 @Service
 @RequiredArgsConstructor
@@ -24,22 +38,114 @@ public class StatisticsService {
 
   private final FafApiAccessor fafApiAccessor;
   private final LeaderboardMapper leaderboardMapper;
+  private final RatingHistoryStore ratingHistoryStore;
 
+  /**
+   * Returns the rating history of the given player on the given leaderboard within the given time period, ordered by
+   * time.
+   * <p>
+   * The history is kept on disk. Only games that are newer than the stored ones, and, if the time period reaches
+   * further back than the stored history, the games of the missing part of the time period are requested.
+   */
   @Cacheable(value = CacheNames.RATING_HISTORY, sync = true)
-  public Flux<LeaderboardRatingJournal> getRatingHistory(PlayerInfo player, Leaderboard leaderboard) {
-    ElideNavigatorOnCollection<com.faforever.commons.api.dto.LeaderboardRatingJournal> navigator = ElideNavigator.of(
-                                                                                                                     com.faforever.commons.api.dto.LeaderboardRatingJournal.class)
-                                                                                                                 .collection()
-                                                                                                                 .setFilter(
-                                                                                                                     qBuilder().intNum(
-                                                                                                                                   "gamePlayerStats.player.id")
-                                                                                                                               .eq(player.getId())
-                                                                                                                               .and()
-                                                                                                                               .intNum(
-                                                                                                                                   "leaderboard.id")
-                             .eq(leaderboard.id()))
-                                                                                                                 .pageSize(
-                                                                                                                     fafApiAccessor.getMaxPageSize());
-    return fafApiAccessor.getMany(navigator).map(leaderboardMapper::map).cache();
+  public Mono<List<RatingHistoryPoint>> getRatingHistory(PlayerInfo player, Leaderboard leaderboard,
+                                                         TimePeriod timePeriod) {
+    long since = getStartTime(timePeriod);
+    return Mono.fromCallable(() -> ratingHistoryStore.load(player.getId(), leaderboard.id()))
+               .subscribeOn(Schedulers.boundedElastic())
+               .flatMap(storedHistory -> {
+                 List<Flux<com.faforever.commons.api.dto.LeaderboardRatingJournal>> missingGames = new ArrayList<>();
+                 if (storedHistory.isEmpty()) {
+                   // Without a known game there is no journal id to continue from, so all games since the earlier of
+                   // the requested and the covered time are requested, which includes the ones played since then
+                   long after = Math.min(since, storedHistory.coveredSince());
+                   missingGames.add(getJournal(player, leaderboard, getScoreTimeCondition(after, Long.MAX_VALUE)));
+                 } else {
+                   missingGames.add(getJournal(player, leaderboard,
+                                               qBuilder().intNum("id").gt(storedHistory.getLastJournalId())));
+                   if (!storedHistory.covers(since)) {
+                     missingGames.add(getJournal(player, leaderboard,
+                                                 getScoreTimeCondition(since, storedHistory.coveredSince())));
+                   }
+                 }
+
+                 return Flux.concat(missingGames)
+                            .map(leaderboardMapper::map)
+                            .filter(ratingJournal -> ratingJournal.scoreTime() != null)
+                            .map(this::toRatingHistoryPoint)
+                            .collectList()
+                            .publishOn(Schedulers.boundedElastic())
+                            .map(newPoints -> {
+                              if (newPoints.isEmpty() && storedHistory.covers(since)) {
+                                return storedHistory;
+                              }
+                              RatingHistory ratingHistory = storedHistory.merge(since, newPoints);
+                              ratingHistoryStore.save(player.getId(), leaderboard.id(), ratingHistory);
+                              log.debug("Loaded {} new rating journal entries of player `{}` on leaderboard `{}`",
+                                        newPoints.size(), player.getId(), leaderboard.technicalName());
+                              return ratingHistory;
+                            });
+               })
+               .map(ratingHistory -> ratingHistory.getPointsSince(since))
+               .cache();
+  }
+
+  /**
+   * Returns the condition for the games scored at or after {@code since} and before {@code until}, where
+   * {@link Long#MIN_VALUE} and {@link Long#MAX_VALUE} mean unbounded, or null if all games match.
+   */
+  private Condition<?> getScoreTimeCondition(long since, long until) {
+    Instant after = since == Long.MIN_VALUE ? null : Instant.ofEpochSecond(since);
+    Instant before = until == Long.MAX_VALUE ? null : Instant.ofEpochSecond(until);
+
+    if (after != null && before != null) {
+      return qBuilder().instant("gamePlayerStats.scoreTime")
+                       .after(after, false)
+                       .and()
+                       .instant("gamePlayerStats.scoreTime")
+                       .before(before, true);
+    } else if (after != null) {
+      return qBuilder().instant("gamePlayerStats.scoreTime").after(after, false);
+    } else if (before != null) {
+      return qBuilder().instant("gamePlayerStats.scoreTime").before(before, true);
+    }
+    return null;
+  }
+
+  /**
+   * Requests the matching journal entries page by page, since veterans may have more of them than fit into one page.
+   */
+  private Flux<com.faforever.commons.api.dto.LeaderboardRatingJournal> getJournal(PlayerInfo player,
+                                                                                  Leaderboard leaderboard,
+                                                                                  Condition<?> condition) {
+    int pageSize = fafApiAccessor.getMaxPageSize();
+    Condition<?> playerCondition = qBuilder().intNum("gamePlayerStats.player.id")
+                                             .eq(player.getId())
+                                             .and()
+                                             .intNum("leaderboard.id")
+                                             .eq(leaderboard.id());
+    Condition<?> filter = condition == null ? playerCondition : new QBuilder().and(
+        List.of(playerCondition, condition));
+
+    return Flux.range(1, Integer.MAX_VALUE).concatMap(page -> {
+      ElideNavigatorOnCollection<com.faforever.commons.api.dto.LeaderboardRatingJournal> navigator = ElideNavigator.of(
+          com.faforever.commons.api.dto.LeaderboardRatingJournal.class)
+          .collection()
+          .setFilter(filter)
+          .addSortingRule("id", true)
+          .pageNumber(page)
+          .pageSize(pageSize);
+      return fafApiAccessor.getMany(navigator).collectList();
+    }, 1).takeUntil(journalPage -> journalPage.size() < pageSize).flatMapIterable(journalPage -> journalPage);
+  }
+
+  private RatingHistoryPoint toRatingHistoryPoint(LeaderboardRatingJournal ratingJournal) {
+    return new RatingHistoryPoint(ratingJournal.id(), ratingJournal.scoreTime().toEpochSecond(),
+                                  RatingUtil.getRating(ratingJournal));
+  }
+
+  private static long getStartTime(TimePeriod timePeriod) {
+    LocalDateTime date = timePeriod.getDate();
+    return date.equals(LocalDateTime.MIN) ? Long.MIN_VALUE : date.toEpochSecond(ZoneOffset.UTC);
   }
 }
@@ -1,12 +1,15 @@
 package com.faforever.client.task;
 
-import java.util.concurrent.locks.ReentrantLock;
+import com.google.common.util.concurrent.Striped;
+
+import java.nio.file.Path;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class ResourceLocks {
 
   private static final ReentrantReadWriteLock NETWORK_LOCK = new ReentrantReadWriteLock();
-  private static final ReentrantLock DISK_LOCK = new ReentrantLock();
+  private static final Striped<Lock> FILE_LOCKS = Striped.lock(1024);
 
   public static void acquireDownloadLock() {
     NETWORK_LOCK.readLock().lock();
@@ -24,11 +27,18 @@ public class ResourceLocks {
     NETWORK_LOCK.writeLock().unlock();
   }
 
-  public static void acquireDiskLock() {
-    DISK_LOCK.lock();
+  /**
+   * Locks a single file, so that it is not written concurrently. Other files can still be written in the meantime.
+   */
+  public static void acquireFileLock(Path file) {
+    getFileLock(file).lock();
+  }
+
+  public static void freeFileLock(Path file) {
+    getFileLock(file).unlock();
   }
 
-  public static void freeDiskLock() {
-    DISK_LOCK.unlock();
+  private static Lock getFileLock(Path file) {
+    return FILE_LOCKS.get(file.toAbsolutePath().normalize());
   }
 }
@@ -5,6 +5,8 @@ import com.faforever.client.exception.FxmlLoadException;
 import com.faforever.client.fx.Controller;
 import com.faforever.client.fx.FxApplicationThreadExecutor;
 import com.faforever.client.fx.JavaFxUtil;
+import com.faforever.client.fx.NodeController;
+import com.faforever.client.fx.NodeControllerPool;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.ui.dialog.Dialog;
 import com.faforever.client.ui.dialog.Dialog.DialogTransition;
@@ -29,6 +31,8 @@ import org.springframework.context.support.MessageSourceResourceBundle;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
 
 
@@ -45,6 +49,7 @@ public class UiService implements InitializingBean {
   private final FxApplicationThreadExecutor fxApplicationThreadExecutor;
 
   private final ReentrantLock fxmlLoadLock = new ReentrantLock(true);
+  private final Map<String, NodeControllerPool<?>> controllerPools = new ConcurrentHashMap<>();
 
   private MessageSourceResourceBundle resources;
 
@@ -81,6 +86,16 @@ public class UiService implements InitializingBean {
     }
   }
 
+  /**
+   * Returns the pool of controllers of the given FXML file, which keeps up to the given number of released
+   * controllers for reuse. There is one pool per FXML file, the maximum of the first call is used.
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends NodeController<?>> NodeControllerPool<T> getControllerPool(String relativePath, int maxIdle) {
+    return (NodeControllerPool<T>) controllerPools.computeIfAbsent(relativePath, path -> new NodeControllerPool<T>(
+        path, maxIdle, () -> loadFxml(path), fxmlLoadLock::isLocked));
+  }
+
   public <T extends Controller<?>> T loadFxml(String relativePath, Class<?> controllerClass) {
     fxmlLoadLock.lock();
     try {
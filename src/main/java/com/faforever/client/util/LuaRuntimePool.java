@@ -0,0 +1,157 @@
+package com.faforever.client.util;
+
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaClosure;
+import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Prototype;
+import org.luaj.vm2.Varargs;
+import org.luaj.vm2.lib.jse.JsePlatform;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of Lua runtimes that have the standard library and the bundled {@code faf.lua} loaded. Setting up such a
+ * runtime is by far the most expensive part of evaluating a small Lua file, so runtimes are reset to the state they
+ * had right after setup and reused instead of being thrown away after every file.
+ * <p>
+ * Resetting restores the global table and the library tables (like {@code string} or {@code table}) to their
+ * original keys and values. A runtime whose reset fails is discarded.
+ */
+final class LuaRuntimePool {
+
+  private final Prototype fafLuaPrototype;
+  private final int maxIdleRuntimes;
+  private final Queue<Runtime> idleRuntimes = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger idleRuntimeCount = new AtomicInteger();
+
+  LuaRuntimePool(Prototype fafLuaPrototype, int maxIdleRuntimes) {
+    this.fafLuaPrototype = fafLuaPrototype;
+    this.maxIdleRuntimes = maxIdleRuntimes;
+  }
+
+  /**
+   * Runs the given chunk in a pooled runtime and returns a table with all globals the chunk defined or changed.
+   */
+  LuaTable evaluate(Prototype prototype) {
+    Runtime runtime = idleRuntimes.poll();
+    if (runtime == null) {
+      runtime = new Runtime(fafLuaPrototype);
+    } else {
+      idleRuntimeCount.decrementAndGet();
+    }
+
+    try {
+      new LuaClosure(prototype, runtime.globals).call();
+      return runtime.collectChangedGlobals();
+    } finally {
+      release(runtime);
+    }
+  }
+
+  private void release(Runtime runtime) {
+    if (!runtime.reset()) {
+      return;
+    }
+    if (idleRuntimeCount.incrementAndGet() <= maxIdleRuntimes) {
+      idleRuntimes.offer(runtime);
+    } else {
+      idleRuntimeCount.decrementAndGet();
+    }
+  }
+
+  private static final class Runtime {
+    private final Globals globals;
+    private final LuaValue globalsMetatable;
+    private final Map<LuaValue, LuaValue> globalsSnapshot;
+    /**
+     * Snapshots of all tables that were reachable from the global table after setup, i.e. the libraries.
+     */
+    private final Map<LuaTable, Map<LuaValue, LuaValue>> librarySnapshots = new IdentityHashMap<>();
+
+    private Runtime(Prototype fafLuaPrototype) {
+      globals = JsePlatform.standardGlobals();
+      new LuaClosure(fafLuaPrototype, globals).call();
+      globalsMetatable = globals.getmetatable();
+      globalsSnapshot = snapshot(globals);
+      globalsSnapshot.values().stream()
+                     .filter(LuaValue::istable)
+                     .map(LuaValue::checktable)
+                     .filter(table -> table != globals)
+                     .forEach(table -> librarySnapshots.put(table, snapshot(table)));
+    }
+
+    private LuaTable collectChangedGlobals() {
+      LuaTable changedGlobals = new LuaTable();
+      forEachEntry(globals, (key, value) -> {
+        if (globalsSnapshot.get(key) != value) {
+          changedGlobals.rawset(key, value);
+        }
+      });
+      return changedGlobals;
+    }
+
+    /**
+     * Restores the runtime to the state right after setup.
+     *
+     * @return whether the runtime may be reused
+     */
+    private boolean reset() {
+      try {
+        if (globals.getmetatable() != globalsMetatable) {
+          globals.setmetatable(globalsMetatable);
+        }
+        restore(globals, globalsSnapshot);
+        librarySnapshots.forEach(LuaRuntimePool::restore);
+        return true;
+      } catch (RuntimeException e) {
+        return false;
+      }
+    }
+  }
+
+  private static Map<LuaValue, LuaValue> snapshot(LuaTable table) {
+    Map<LuaValue, LuaValue> snapshot = new HashMap<>();
+    forEachEntry(table, snapshot::put);
+    return snapshot;
+  }
+
+  private static void restore(LuaTable table, Map<LuaValue, LuaValue> snapshot) {
+    List<LuaValue> addedKeys = new ArrayList<>();
+    forEachEntry(table, (key, value) -> {
+      if (!snapshot.containsKey(key)) {
+        addedKeys.add(key);
+      }
+    });
+    addedKeys.forEach(key -> table.rawset(key, LuaValue.NIL));
+    snapshot.forEach((key, value) -> {
+      if (table.rawget(key) != value) {
+        table.rawset(key, value);
+      }
+    });
+  }
+
+  private static void forEachEntry(LuaTable table, EntryConsumer consumer) {
+    LuaValue key = LuaValue.NIL;
+    while (true) {
+      Varargs next = table.next(key);
+      key = next.arg1();
+      if (key.isnil()) {
+        return;
+      }
+      consumer.accept(key, next.arg(2));
+    }
+  }
+
+  @FunctionalInterface
+  private interface EntryConsumer {
+    void accept(LuaValue key, LuaValue value);
+  }
+}
@@ -1,34 +1,131 @@
 package com.faforever.client.util;
 
-import com.google.common.io.CharStreams;
 import org.luaj.vm2.Globals;
+import org.luaj.vm2.LoadState;
+import org.luaj.vm2.LuaClosure;
+import org.luaj.vm2.LuaError;
+import org.luaj.vm2.LuaTable;
 import org.luaj.vm2.LuaValue;
-import org.luaj.vm2.lib.jse.JsePlatform;
+import org.luaj.vm2.Prototype;
+import org.luaj.vm2.compiler.LuaC;
+import org.luaj.vm2.lib.OneArgFunction;
+import org.luaj.vm2.lib.ThreeArgFunction;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
-
+/**
+ * Evaluates Lua files like map scenarios or mod infos. The bundled {@code faf.lua} is compiled only once, and the
+ * runtimes it is loaded into are pooled, see {@link LuaRuntimePool}.
+ * <p>
+ * The returned tables contain the globals defined by the evaluated file, not the whole global environment.
+ */
 public final class LuaUtil {
 
+  private static final Globals COMPILER = createCompiler();
+  /**
+   * The type constructors of the engine that data files use, like {@code STRING('ARMY_9 NEUTRAL_CIVILIAN')} in the
+   * custom properties of a scenario. They are looked up through the metatable, so they don't end up in the result.
+   */
+  private static final LuaTable TABLE_ENVIRONMENT_METATABLE = createTableEnvironmentMetatable();
+
   private LuaUtil() {
     throw new AssertionError("Not instantiatable");
   }
 
   public static LuaValue loadFile(Path file) throws IOException {
     try (InputStream inputStream = Files.newInputStream(file)) {
-      return load(inputStream);
+      return RuntimePoolHolder.RUNTIME_POOL.evaluate(compile(inputStream, "@" + file.getFileName()));
     }
   }
 
   public static LuaValue load(InputStream inputStream) throws IOException {
-    Globals globals = JsePlatform.standardGlobals();
-    globals.baselib.load(globals.load(CharStreams.toString(new InputStreamReader(LuaUtil.class.getResourceAsStream("/lua/faf.lua"), UTF_8))));
-    globals.load(inputStream, "@" + inputStream.hashCode(), "bt", globals).invoke();
+    return RuntimePoolHolder.RUNTIME_POOL.evaluate(compile(inputStream, "@" + inputStream.hashCode()));
+  }
+
+  /**
+   * Evaluates a file that only assigns plain data, like a {@code *_scenario.lua} or a {@code mod_info.lua}, in an empty
+   * environment without any libraries but the type constructors {@code STRING}, {@code FLOAT}, {@code BOOLEAN} and
+   * {@code VECTOR3}. This is much cheaper than {@link #loadFile(Path)}. Files that turn out to need
+   * more than that, e.g. because they call a function, are transparently evaluated again with {@link #loadFile(Path)}
+   * semantics.
+   */
+  public static LuaValue loadTableFile(Path file) throws IOException {
+    try (InputStream inputStream = Files.newInputStream(file)) {
+      return loadTable(compile(inputStream, "@" + file.getFileName()));
+    }
+  }
+
+  /**
+   * Like {@link #loadTableFile(Path)}, but for an arbitrary stream.
+   */
+  public static LuaValue loadTable(InputStream inputStream) throws IOException {
+    return loadTable(compile(inputStream, "@" + inputStream.hashCode()));
+  }
+
+  private static LuaValue loadTable(Prototype prototype) {
+    LuaTable environment = new LuaTable();
+    environment.setmetatable(TABLE_ENVIRONMENT_METATABLE);
+    try {
+      new LuaClosure(prototype, environment).call();
+      environment.setmetatable(null);
+      return environment;
+    } catch (LuaError e) {
+      return RuntimePoolHolder.RUNTIME_POOL.evaluate(prototype);
+    }
+  }
+
+  private static Prototype compile(InputStream inputStream, String chunkName) throws IOException {
+    return COMPILER.loadPrototype(inputStream, chunkName, "bt");
+  }
+
+  private static LuaTable createTableEnvironmentMetatable() {
+    OneArgFunction identity = new OneArgFunction() {
+      @Override
+      public LuaValue call(LuaValue value) {
+        return value;
+      }
+    };
+
+    LuaTable typeConstructors = new LuaTable();
+    typeConstructors.set("STRING", identity);
+    typeConstructors.set("FLOAT", identity);
+    typeConstructors.set("BOOLEAN", identity);
+    typeConstructors.set("VECTOR3", new ThreeArgFunction() {
+      @Override
+      public LuaValue call(LuaValue x, LuaValue y, LuaValue z) {
+        return LuaValue.listOf(new LuaValue[]{x, y, z});
+      }
+    });
+
+    LuaTable metatable = new LuaTable();
+    metatable.set(LuaValue.INDEX, typeConstructors);
+    return metatable;
+  }
+
+  private static Globals createCompiler() {
+    Globals globals = new Globals();
+    LoadState.install(globals);
+    LuaC.install(globals);
     return globals;
   }
+
+  /**
+   * Defers compiling {@code faf.lua} until a file actually needs the full runtime.
+   */
+  private static final class RuntimePoolHolder {
+    private static final LuaRuntimePool RUNTIME_POOL = new LuaRuntimePool(
+        compileFafLua(), Runtime.getRuntime().availableProcessors());
+
+    private static Prototype compileFafLua() {
+      try (InputStream inputStream = LuaUtil.class.getResourceAsStream("/lua/faf.lua")) {
+        return compile(inputStream, "@faf.lua");
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not compile faf.lua", e);
+      }
+    }
+  }
 }
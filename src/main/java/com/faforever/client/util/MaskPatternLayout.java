@@ -5,23 +5,45 @@ import ch.qos.logback.classic.spi.ILoggingEvent;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
-import java.util.regex.Pattern;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.Stream;
 
+import static com.google.common.base.Strings.nullToEmpty;
+
+/**
+ * Replaces the user profile directory, the machine name and the user name in log messages, ignoring case.
+ * <p>
+ * The values to mask are prepared once. A message is scanned in a single pass and returned as is if it contains none of
+ * them, so only messages that need masking are copied, into a buffer that is reused by the thread. Longer values are
+ * matched first, so the user profile directory is masked as a whole even though it usually contains the user name.
+ */
 public class MaskPatternLayout extends PatternLayout {
-  private final String userProfile;
-  private final String machineName;
-  private final String user;
+
+  private static final int MAX_RETAINED_BUFFER_CAPACITY = 8192;
+
+  private final Secret[] secrets;
+  private final ThreadLocal<StringBuilder> buffer = ThreadLocal.withInitial(() -> new StringBuilder(256));
 
   public MaskPatternLayout() {
-    userProfile = System.getProperty("user.home");
-    user = System.getProperty("user.name");
-    String machineName;
+    this(System.getProperty("user.home"), getMachineName(), System.getProperty("user.name"));
+  }
+
+  MaskPatternLayout(String userProfile, String machineName, String user) {
+    secrets = Stream.of(Map.entry(nullToEmpty(userProfile), "%USER_PROFILE%"),
+                        Map.entry(nullToEmpty(machineName), "%CPU_NAME%"), Map.entry(nullToEmpty(user), "%USER%"))
+                    .filter(entry -> !entry.getKey().isEmpty())
+                    .map(entry -> new Secret(entry.getKey(), entry.getValue()))
+                    .sorted(Comparator.comparingInt((Secret secret) -> secret.value().length()).reversed())
+                    .toArray(Secret[]::new);
+  }
+
+  private static String getMachineName() {
     try {
-      machineName = InetAddress.getLocalHost().getHostName();
+      return InetAddress.getLocalHost().getHostName();
     } catch (UnknownHostException e) {
-      machineName = "";
+      return "";
     }
-    this.machineName = machineName;
   }
 
   @Override
@@ -29,10 +51,79 @@ public class MaskPatternLayout extends PatternLayout {
     return maskMessage(super.doLayout(event));
   }
 
+  /**
+   * Returns the message with the values masked, or the given message itself if it contains none of them.
+   */
   public String maskMessage(String message) {
-    return message
-        .replaceAll("(?i)" + Pattern.quote(userProfile), "%USER_PROFILE%")
-        .replaceAll("(?i)" + Pattern.quote(machineName), "%CPU_NAME%")
-        .replaceAll("(?i)" + Pattern.quote(user), "%USER%");
+    StringBuilder builder = null;
+    int length = message.length();
+    int copiedUntil = 0;
+    int index = 0;
+    while (index < length) {
+      Secret secret = findSecretAt(message, index);
+      if (secret == null) {
+        index++;
+        continue;
+      }
+
+      if (builder == null) {
+        builder = buffer.get();
+        builder.setLength(0);
+      }
+      builder.append(message, copiedUntil, index).append(secret.replacement());
+      index += secret.value().length();
+      copiedUntil = index;
+    }
+
+    if (builder == null) {
+      return message;
+    }
+
+    builder.append(message, copiedUntil, length);
+    String maskedMessage = builder.toString();
+    if (builder.capacity() > MAX_RETAINED_BUFFER_CAPACITY) {
+      buffer.remove();
+    } else {
+      builder.setLength(0);
+    }
+    return maskedMessage;
+  }
+
+  /**
+   * Returns the length of the longest value that is masked, or 0 if there is none.
+   */
+  public int getMaxValueLength() {
+    return secrets.length == 0 ? 0 : secrets[0].value().length();
+  }
+
+  /**
+   * Returns the first index at or after the given one at which the message can be split without splitting a value that
+   * is masked, so that both parts can be masked separately with the same result as the whole message.
+   */
+  public int getSplitIndex(String message, int index) {
+    int splitIndex = 0;
+    while (splitIndex < index && splitIndex < message.length()) {
+      Secret secret = findSecretAt(message, splitIndex);
+      splitIndex += secret == null ? 1 : secret.value().length();
+    }
+    return splitIndex;
+  }
+
+  private Secret findSecretAt(String message, int index) {
+    char character = message.charAt(index);
+    for (Secret secret : secrets) {
+      if ((character == secret.lowerCaseFirstChar() || character == secret.upperCaseFirstChar())
+          && message.regionMatches(true, index, secret.value(), 0, secret.value().length())) {
+        return secret;
+      }
+    }
+    return null;
+  }
+
+  private record Secret(String value, String replacement, char lowerCaseFirstChar, char upperCaseFirstChar) {
+
+    private Secret(String value, String replacement) {
+      this(value, replacement, Character.toLowerCase(value.charAt(0)), Character.toUpperCase(value.charAt(0)));
+    }
   }
 }
@@ -0,0 +1,180 @@
+package com.faforever.client.cache;
+
+import com.faforever.client.domain.api.FeaturedMod;
+import com.faforever.client.test.ServiceTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import javafx.geometry.Point2D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.SimpleKey;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.benmanes.caffeine.cache.Caffeine.newBuilder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TieredCacheTest extends ServiceTest {
+
+  private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+  private static final Duration TIME_TO_LIVE = Duration.ofDays(1);
+
+  @TempDir
+  public Path tempDirectory;
+
+  private final ObjectMapper objectMapper = DiskCacheStore.createValueObjectMapper();
+  private final List<Runnable> revalidations = new ArrayList<>();
+  private final AtomicInteger loadCount = new AtomicInteger();
+
+  private Path cacheFile;
+
+  @BeforeEach
+  public void setUp() {
+    cacheFile = tempDirectory.resolve("test.json");
+  }
+
+  @Test
+  public void testRetrieveLoadsAndPersists() {
+    TieredCache instance = createCache(NOW);
+    SimpleKey key = new SimpleKey(featuredMod(), 10);
+
+    Tuple2<List<FeaturedMod>, Integer> value = instance.retrieve(key, this::loadFeaturedModPage).join();
+
+    assertEquals(Tuples.of(List.of(featuredMod()), 3), value);
+    assertEquals(1, loadCount.get());
+    assertEquals(1, instance.getStatistics().misses());
+    assertEquals(1, instance.getStatistics().diskEntries());
+
+    instance.retrieve(key, this::loadFeaturedModPage).join();
+
+    assertEquals(1, loadCount.get());
+    assertEquals(1, instance.getStatistics().memoryHits());
+  }
+
+  @Test
+  public void testWarmStartFromDiskRevalidatesInBackground() {
+    SimpleKey key = new SimpleKey(featuredMod(), 10);
+    createCache(NOW).retrieve(key, this::loadFeaturedModPage).join();
+    loadCount.set(0);
+
+    TieredCache instance = createCache(NOW.plus(Duration.ofHours(1)));
+    Tuple2<List<FeaturedMod>, Integer> value = instance.retrieve(key, this::loadFeaturedModPage).join();
+
+    assertEquals(Tuples.of(List.of(featuredMod()), 3), value);
+    assertEquals(0, loadCount.get());
+    assertEquals(1, instance.getStatistics().diskHits());
+
+    revalidations.forEach(Runnable::run);
+
+    assertEquals(1, loadCount.get());
+    assertEquals(1, instance.getStatistics().revalidations());
+  }
+
+  @Test
+  public void testRetrieveReadsDiskInBackground() {
+    List<Runnable> diskReads = new ArrayList<>();
+    createCache(NOW).put("featuredMod", featuredMod());
+
+    DiskCacheStore diskCacheStore = new DiskCacheStore(cacheFile, 10, TIME_TO_LIVE, objectMapper, diskReads::add,
+                                                       Clock.fixed(NOW, ZoneOffset.UTC));
+    TieredCache instance = new TieredCache(new CaffeineCache("test", newBuilder().buildAsync(), true), diskCacheStore,
+                                           objectMapper, revalidations::add);
+    CompletableFuture<?> hit = instance.retrieve("featuredMod");
+    CompletableFuture<?> miss = instance.retrieve("unknown");
+
+    assertFalse(hit.isDone());
+    List.copyOf(diskReads).forEach(Runnable::run);
+
+    assertEquals(featuredMod(), hit.join());
+    assertNull(miss.join());
+    assertEquals(1, instance.getStatistics().diskHits());
+    assertEquals(1, instance.getStatistics().misses());
+  }
+
+  @Test
+  public void testExpiredDiskEntryIsNotUsed() {
+    SimpleKey key = new SimpleKey(featuredMod(), 10);
+    createCache(NOW).retrieve(key, this::loadFeaturedModPage).join();
+
+    TieredCache instance = createCache(NOW.plus(TIME_TO_LIVE).plusSeconds(1));
+    instance.retrieve(key, this::loadFeaturedModPage).join();
+
+    assertEquals(2, loadCount.get());
+    assertEquals(0, instance.getStatistics().diskHits());
+    assertTrue(revalidations.isEmpty());
+  }
+
+  @Test
+  public void testUnpersistableValueIsOnlyCachedInMemory() {
+    TieredCache instance = createCache(NOW);
+
+    Point2D value = instance.get("point", () -> new Point2D(1, 2));
+
+    assertEquals(new Point2D(1, 2), value);
+    assertEquals(0, instance.getStatistics().diskEntries());
+  }
+
+  @Test
+  public void testJdkTypeOutsideAllowListIsOnlyCachedInMemory() {
+    TieredCache instance = createCache(NOW);
+
+    File value = instance.get("file", () -> new File("game.prefs"));
+
+    assertEquals(new File("game.prefs"), value);
+    assertEquals(0, instance.getStatistics().diskEntries());
+  }
+
+  @Test
+  public void testClearKeepsDiskTier() {
+    TieredCache instance = createCache(NOW);
+    instance.put("featuredMod", featuredMod());
+
+    instance.clear();
+
+    assertEquals(featuredMod(), instance.get("featuredMod", FeaturedMod.class));
+    assertEquals(1, instance.getStatistics().diskHits());
+  }
+
+  @Test
+  public void testInvalidateClearsBothTiers() {
+    TieredCache instance = createCache(NOW);
+    instance.put("featuredMod", featuredMod());
+
+    instance.invalidate();
+
+    assertNull(instance.get("featuredMod"));
+    assertNull(createCache(NOW).get("featuredMod"));
+    assertFalse(cacheFile.toFile().length() > 2);
+  }
+
+  private TieredCache createCache(Instant now) {
+    DiskCacheStore diskCacheStore = new DiskCacheStore(cacheFile, 10, TIME_TO_LIVE, objectMapper, Runnable::run,
+                                                       Clock.fixed(now, ZoneOffset.UTC));
+    CaffeineCache memoryCache = new CaffeineCache("test", newBuilder().buildAsync(), true);
+    return new TieredCache(memoryCache, diskCacheStore, objectMapper, revalidations::add);
+  }
+
+  private CompletableFuture<Tuple2<List<FeaturedMod>, Integer>> loadFeaturedModPage() {
+    loadCount.incrementAndGet();
+    return CompletableFuture.completedFuture(Tuples.of(List.of(featuredMod()), 3));
+  }
+
+  private static FeaturedMod featuredMod() {
+    return new FeaturedMod(1, "faf", "FAF", "Forged Alliance Forever", null, null, true);
+  }
+}
@@ -6,9 +6,11 @@ import com.faforever.client.chat.ChatMessage.Type;
 import com.faforever.client.chat.emoticons.Emoticon;
 import com.faforever.client.chat.emoticons.Reaction;
 import com.faforever.client.test.DomainTest;
+import javafx.collections.ListChangeListener;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -100,4 +102,61 @@ public class ChatChannelTest extends DomainTest {
     assertThat(message.getReactions(), not(hasKey(emoticon)));
   }
 
+  @Test
+  public void testMessagesAreOrderedByTime() {
+    ChatChannel channel = new ChatChannel("#test");
+    ChatChannelUser sender = ChatChannelUserBuilder.create("", channel).defaultValues().get();
+    Instant now = Instant.now();
+    ChatMessage message1 = new ChatMessage("1", now.minusSeconds(3), sender, "1", Type.MESSAGE, null);
+    ChatMessage message2 = new ChatMessage("2", now.minusSeconds(2), sender, "2", Type.MESSAGE, null);
+    ChatMessage message3 = new ChatMessage("3", now.minusSeconds(1), sender, "3", Type.MESSAGE, null);
+
+    channel.addMessage(message3);
+    channel.addMessage(message1);
+    channel.addMessage(message2);
+
+    assertThat(channel.getMessages(), contains(message1, message2, message3));
+
+    channel.setMaxNumMessages(2);
+    assertThat(channel.getMessages(), contains(message2, message3));
+    assertFalse(channel.getMessage("1").isPresent());
+  }
+
+  @Test
+  public void testAddMessagesIsOneChange() {
+    ChatChannel channel = new ChatChannel("#test");
+    channel.setMaxNumMessages(100);
+    ChatChannelUser sender = ChatChannelUserBuilder.create("", channel).defaultValues().get();
+    Instant now = Instant.now();
+    List<ChatMessage> messages = new ArrayList<>();
+    for (int i = 0; i < 150; i++) {
+      messages.add(new ChatMessage(String.valueOf(i), now.plusSeconds(i), sender, "", Type.MESSAGE, null));
+    }
+    List<ListChangeListener.Change<? extends ChatMessage>> changes = new ArrayList<>();
+    channel.getMessages().addListener((ListChangeListener<ChatMessage>) changes::add);
+
+    channel.addMessages(messages);
+
+    assertThat(changes, hasSize(1));
+    assertThat(channel.getMessages(), hasSize(100));
+    assertEquals(messages.get(50), channel.getMessages().getFirst());
+    assertEquals(messages.get(149), channel.getMessages().getLast());
+    assertTrue(channel.getMessage("149").isPresent());
+    assertFalse(channel.getMessage("49").isPresent());
+  }
+
+  @Test
+  public void testRemovePendingMessage() {
+    ChatChannel channel = new ChatChannel("#test");
+    ChatChannelUser sender = ChatChannelUserBuilder.create("", channel).defaultValues().get();
+    ChatMessage pending = new ChatMessage("1", Instant.now(), sender, "1", Type.PENDING, null);
+    ChatMessage message = new ChatMessage("2", Instant.now(), sender, "2", Type.MESSAGE, null);
+    channel.addMessage(pending);
+    channel.addMessage(message);
+
+    channel.removePendingMessage("2");
+    channel.removePendingMessage("1");
+
+    assertThat(channel.getMessages(), contains(message));
+  }
 }
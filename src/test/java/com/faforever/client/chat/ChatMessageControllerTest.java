@@ -93,8 +93,9 @@ public class ChatMessageControllerTest extends PlatformTest {
     lenient().when(countryFlagService.loadCountryFlag(any())).thenReturn(Optional.empty());
     lenient().when(timeService.asShortTime(any())).thenReturn("12:00");
     lenient().when(chatService.getCurrentUsername()).thenReturn("junit");
-    lenient().when(chatService.getMentionPattern())
-             .thenReturn(Pattern.compile("(^|[^A-Za-z0-9-])junit([^A-Za-z0-9-]|$)"));
+    lenient().when(chatService.getMessageTokenizer())
+             .thenAnswer(invocation -> new ChatMessageTokenizer(emoticonService::isEmoticonShortcode, Pattern.compile(
+                 "(^|[^A-Za-z0-9-])junit([^A-Za-z0-9-]|$)")));
     lenient().when(timeService.asShortTime(any())).thenReturn("now");
     lenient().when(imageViewHelper.createPlaceholderImageOnErrorObservable(any()))
              .thenReturn(new SimpleObjectProperty<>(image));
@@ -131,19 +132,36 @@ public class ChatMessageControllerTest extends PlatformTest {
         () -> instance.setChatMessage(new ChatMessage(null, Instant.now(), user, "Hello world!", Type.MESSAGE, null)));
 
     ObservableList<Node> children = instance.message.getChildren();
-    assertThat(children, hasSize(2));
+    assertThat(children, hasSize(1));
 
     Node first = children.getFirst();
     assertThat(first, instanceOf(Text.class));
     Text firstText = (Text) first;
-    assertThat(firstText.getText(), equalTo("Hello "));
+    assertThat(firstText.getText(), equalTo("Hello world! "));
     assertThat(firstText.getStyle(), containsString("-fx-fill: #000000"));
+  }
+
+  @Test
+  public void testPlainWordsAroundMentionAreMerged() {
+    runOnFxThreadAndWait(() -> instance.setChatMessage(
+        new ChatMessage(null, Instant.now(), user, "hello  there junit how are you", Type.MESSAGE, null)));
+
+    ObservableList<Node> children = instance.message.getChildren();
+    assertThat(children, hasSize(3));
+    assertThat(((Text) children.get(0)).getText(), equalTo("hello there "));
+    assertThat(((Text) children.get(1)).getText(), equalTo("junit "));
+    assertThat(children.get(1).getStyle(), containsString("-fx-fill: #FFA500"));
+    assertThat(((Text) children.get(2)).getText(), equalTo("how are you "));
+  }
+
+  @Test
+  public void testSpansAreTokenizedOnce() {
+    ChatMessage chatMessage = new ChatMessage(null, Instant.now(), user, "Hello world!", Type.MESSAGE, null);
+    List<ChatMessageSpan> spans = chatMessage.getSpans(chatService.getMessageTokenizer());
+
+    runOnFxThreadAndWait(() -> instance.setChatMessage(chatMessage));
 
-    Node last = children.getLast();
-    assertThat(last, instanceOf(Text.class));
-    Text lastText = (Text) last;
-    assertThat(lastText.getText(), equalTo("world! "));
-    assertThat(lastText.getStyle(), containsString("-fx-fill: #000000"));
+    assertThat(chatMessage.getSpans(mock(ChatMessageTokenizer.class)), is(spans));
   }
 
   @Test
@@ -0,0 +1,41 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.chat.ChatMessageSpan.Kind;
+import com.faforever.client.test.ServiceTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ChatMessageTokenizerTest extends ServiceTest {
+
+  private final ChatMessageTokenizer instance = new ChatMessageTokenizer(Set.of(":)")::contains, Pattern.compile(
+      "(^|[^A-Za-z0-9-])junit([^A-Za-z0-9-]|$)", Pattern.CASE_INSENSITIVE));
+
+  @Test
+  public void testPlainWordsAreMerged() {
+    assertEquals(List.of(new ChatMessageSpan(Kind.TEXT, "Hello world!")), instance.tokenize(" Hello \t world! "));
+  }
+
+  @Test
+  public void testEmptyContent() {
+    assertEquals(List.of(), instance.tokenize(""));
+  }
+
+  @Test
+  public void testAllKinds() {
+    assertEquals(List.of(new ChatMessageSpan(Kind.TEXT, "hi"), new ChatMessageSpan(Kind.MENTION, "@JUnit,"),
+                         new ChatMessageSpan(Kind.TEXT, "see"), new ChatMessageSpan(Kind.URL, "www.faforever.com"),
+                         new ChatMessageSpan(Kind.TEXT, "or"), new ChatMessageSpan(Kind.CHANNEL, "#aeolus"),
+                         new ChatMessageSpan(Kind.EMOTICON, ":)")),
+                 instance.tokenize("hi @JUnit, see www.faforever.com or #aeolus :)"));
+  }
+
+  @Test
+  public void testNameInsideWordIsNoMention() {
+    assertEquals(List.of(new ChatMessageSpan(Kind.TEXT, "junitx xjunit")), instance.tokenize("junitx xjunit"));
+  }
+}
@@ -0,0 +1,165 @@
+package com.faforever.client.chat;
+
+import com.faforever.client.builders.ChatChannelUserBuilder;
+import com.faforever.client.builders.PlayerInfoBuilder;
+import com.faforever.client.player.SocialStatus;
+import com.faforever.client.test.ServiceTest;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ChatUserListTest extends ServiceTest {
+
+  private static final String CHANNEL_NAME = "#testChannel";
+
+  private ChatChannel chatChannel;
+  private ChatUserList instance;
+  private int numChanges;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    chatChannel = new ChatChannel(CHANNEL_NAME);
+    instance = new ChatUserList(new SimpleStringProperty(CHANNEL_NAME));
+    instance.addListener((ListChangeListener<ChatListItem>) change -> numChanges++);
+  }
+
+  @Test
+  public void testHeadersAreShownWithoutUsers() {
+    assertEquals(ChatUserCategory.values().length, instance.size());
+    assertEquals(Arrays.asList(ChatUserCategory.values()), instance.stream().map(ChatListItem::category).toList());
+    instance.forEach(item -> assertNull(item.user()));
+  }
+
+  @Test
+  public void testUsersAreSortedIntoCategories() {
+    ChatChannelUser zed = generateUser("zed", SocialStatus.OTHER);
+    ChatChannelUser anna = generateUser("anna", SocialStatus.OTHER);
+    ChatChannelUser friend = generateUser("friend", SocialStatus.FRIEND);
+
+    instance.applyChanges(List.of(zed, friend, anna), List.of());
+
+    assertEquals(List.of(friend), getVisibleUsers(ChatUserCategory.FRIEND));
+    assertEquals(List.of(anna, zed), getVisibleUsers(ChatUserCategory.OTHER));
+    assertEquals(2, instance.getNumMatchingUsers(ChatUserCategory.OTHER));
+    assertEquals(1, numChanges);
+  }
+
+  @Test
+  public void testUserChangingCategoryIsMoved() {
+    ChatChannelUser user = generateUser("user", SocialStatus.OTHER);
+    instance.applyChanges(List.of(user), List.of());
+
+    user.setModerator(true);
+    instance.applyChanges(List.of(user), List.of());
+
+    assertEquals(List.of(user), getVisibleUsers(ChatUserCategory.MODERATOR));
+    assertEquals(List.of(), getVisibleUsers(ChatUserCategory.OTHER));
+    assertEquals(0, instance.getNumMatchingUsers(ChatUserCategory.OTHER));
+    assertEquals(1, instance.getNumMatchingUsers(ChatUserCategory.MODERATOR));
+  }
+
+  @Test
+  public void testUnchangedUserIsNotReported() {
+    ChatChannelUser user = generateUser("user", SocialStatus.OTHER);
+    instance.applyChanges(List.of(user), List.of());
+    numChanges = 0;
+
+    instance.applyChanges(List.of(user), List.of());
+
+    assertEquals(0, numChanges);
+  }
+
+  @Test
+  public void testRemoveUsers() {
+    List<ChatChannelUser> users = generateUsers(100);
+    instance.applyChanges(users, List.of());
+
+    instance.applyChanges(List.of(), users.subList(0, 50));
+
+    assertEquals(users.subList(50, 100), getVisibleUsers(ChatUserCategory.OTHER));
+    assertEquals(50, instance.getNumMatchingUsers(ChatUserCategory.OTHER));
+  }
+
+  @Test
+  public void testFilterIsAppliedToAllUsersAndCounts() {
+    List<ChatChannelUser> users = generateUsers(10);
+    instance.applyChanges(users, List.of());
+    numChanges = 0;
+
+    instance.setFilter(item -> item.user() == null || item.user().getUsername().endsWith("1"));
+
+    assertEquals(List.of(users.get(1)), getVisibleUsers(ChatUserCategory.OTHER));
+    assertEquals(1, instance.getNumMatchingUsers(ChatUserCategory.OTHER));
+    assertEquals(1, numChanges);
+
+    ChatChannelUser newUser = generateUser("user21", SocialStatus.OTHER);
+    ChatChannelUser filteredUser = generateUser("user22", SocialStatus.OTHER);
+    instance.applyChanges(List.of(newUser, filteredUser), List.of());
+
+    assertEquals(List.of(users.get(1), newUser), getVisibleUsers(ChatUserCategory.OTHER));
+    assertEquals(12, instance.getUsers(ChatUserCategory.OTHER).size());
+  }
+
+  @Test
+  public void testHiddenCategoryKeepsHeaderAndCount() {
+    List<ChatChannelUser> users = generateUsers(10);
+    instance.applyChanges(users, List.of());
+
+    instance.setHiddenCategories(Set.of(ChatUserCategory.OTHER));
+
+    assertEquals(ChatUserCategory.values().length, instance.size());
+    assertEquals(10, instance.getNumMatchingUsers(ChatUserCategory.OTHER));
+
+    ChatChannelUser newUser = generateUser("user10", SocialStatus.OTHER);
+    instance.applyChanges(List.of(newUser), List.of());
+    assertEquals(ChatUserCategory.values().length, instance.size());
+
+    instance.setHiddenCategories(Set.of());
+
+    assertEquals(11, getVisibleUsers(ChatUserCategory.OTHER).size());
+  }
+
+  @Test
+  public void testSetUsersReplacesAllUsers() {
+    instance.applyChanges(generateUsers(10), List.of());
+    ChatChannelUser user = generateUser("other", SocialStatus.FOE);
+
+    instance.setUsers(List.of(user));
+
+    assertEquals(List.of(user), instance.getUsers());
+    assertEquals(List.of(user), getVisibleUsers(ChatUserCategory.FOE));
+    assertEquals(0, instance.getNumMatchingUsers(ChatUserCategory.OTHER));
+  }
+
+  private List<ChatChannelUser> getVisibleUsers(ChatUserCategory category) {
+    return instance.stream()
+                   .filter(item -> item.category() == category)
+                   .map(ChatListItem::user)
+                   .filter(Objects::nonNull)
+                   .toList();
+  }
+
+  private List<ChatChannelUser> generateUsers(int count) {
+    List<ChatChannelUser> users = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      users.add(generateUser("user%02d".formatted(i), SocialStatus.OTHER));
+    }
+    return users;
+  }
+
+  private ChatChannelUser generateUser(String username, SocialStatus socialStatus) {
+    return ChatChannelUserBuilder.create(username, chatChannel)
+                                 .player(PlayerInfoBuilder.create().socialStatus(socialStatus).get())
+                                 .get();
+  }
+}
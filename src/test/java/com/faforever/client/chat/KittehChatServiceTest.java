@@ -3,6 +3,7 @@ package com.faforever.client.chat;
 import com.faforever.client.audio.AudioService;
 import com.faforever.client.builders.PlayerInfoBuilder;
 import com.faforever.client.chat.ChatMessage.Type;
+import com.faforever.client.chat.ChatMessageSpan.Kind;
 import com.faforever.client.chat.emoticons.Emoticon;
 import com.faforever.client.chat.emoticons.EmoticonService;
 import com.faforever.client.chat.kitteh.event.ChannelRedactMessageEvent;
@@ -90,6 +91,7 @@ import java.util.concurrent.TimeUnit;
 
 import static com.faforever.client.chat.ChatColorMode.DEFAULT;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
@@ -100,7 +102,9 @@ import static org.hamcrest.core.Is.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
@@ -557,6 +561,8 @@ public class KittehChatServiceTest extends ServiceTest {
 
     assertThat(chatMessage.getContent(), is(message));
     assertThat(chatMessage.getSender().getUsername(), is(user1.getNick()));
+    assertThat(chatMessage.getSpans(mock(ChatMessageTokenizer.class)),
+               contains(new ChatMessageSpan(Kind.TEXT, message)));
   }
 
   @Test
@@ -1214,4 +1220,17 @@ public class KittehChatServiceTest extends ServiceTest {
     assertFalse(instance.hasMention("-Box-h"));
     assertFalse(instance.hasMention("h-Box-"));
   }
+
+  @Test
+  public void testMessageTokenizerIsReusedUntilUsernameChanges() {
+    ChatMessageTokenizer tokenizer = instance.getMessageTokenizer();
+    assertSame(tokenizer, instance.getMessageTokenizer());
+    assertThat(tokenizer.tokenize(CHAT_USER_NAME), contains(new ChatMessageSpan(Kind.MENTION, CHAT_USER_NAME)));
+
+    when(loginService.getUsername()).thenReturn("-Box-");
+
+    ChatMessageTokenizer otherTokenizer = instance.getMessageTokenizer();
+    assertNotSame(tokenizer, otherTokenizer);
+    assertThat(otherTokenizer.tokenize("-Box-"), contains(new ChatMessageSpan(Kind.MENTION, "-Box-")));
+  }
 }
@@ -41,6 +41,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 public class IceAdapterImplTest extends ServiceTest {
@@ -164,6 +165,35 @@ public class IceAdapterImplTest extends ServiceTest {
     assertFalse(command.contains("-Dorg.ice4j.ipv6.DISABLED=true"));
   }
 
+  @Test
+  public void testAnnouncesPort() throws Exception {
+    assertTrue(IceAdapterImpl.announcesPort("Creating RPC server on port 51234", 51234));
+    assertTrue(IceAdapterImpl.announcesPort("12:00:01.051234 INFO Listening on RPC port 51234", 51234));
+    assertFalse(IceAdapterImpl.announcesPort("Listening on RPC port 512345", 51234));
+    assertFalse(IceAdapterImpl.announcesPort("Listening on 51234.", 51234));
+    assertFalse(IceAdapterImpl.announcesPort("Arguments: --rpc-port 51234 --gpgnet-port 51235", 51234));
+    assertFalse(IceAdapterImpl.announcesPort("Starting ICE adapter", 51234));
+  }
+
+  @Test
+  public void testPrepareRefreshesToken() throws Exception {
+    when(tokenRetriever.getRefreshedTokenValue()).thenReturn(Mono.just("someToken"));
+
+    instance.prepare();
+
+    verify(tokenRetriever).getRefreshedTokenValue();
+  }
+
+  @Test
+  public void testPrepareDisabled() throws Exception {
+    forgedAlliancePrefs.setPreStartIceAdapter(false);
+
+    instance.prepare();
+    instance.prepare(4711);
+
+    verifyNoInteractions(tokenRetriever, playerService);
+  }
+
   @Test
   public void testStop() throws Exception {
     instance.stop();
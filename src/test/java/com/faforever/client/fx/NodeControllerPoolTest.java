@@ -0,0 +1,89 @@
+package com.faforever.client.fx;
+
+import com.faforever.client.test.ServiceTest;
+import javafx.scene.layout.Pane;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class NodeControllerPoolTest extends ServiceTest {
+
+  private final AtomicBoolean loaderBusy = new AtomicBoolean();
+  private NodeControllerPool<TestController> instance;
+
+  @BeforeEach
+  public void setUp() {
+    instance = new NodeControllerPool<>("theme/test.fxml", 2, TestController::new, loaderBusy::get);
+  }
+
+  @Test
+  public void testReleasedControllerIsResetAndReused() {
+    TestController controller = instance.acquire();
+
+    instance.release(controller);
+
+    assertEquals(1, controller.numResets);
+    assertSame(controller, instance.acquire());
+    assertEquals(1, controller.numRebinds);
+    assertEquals(1, instance.getLoadCount());
+    assertEquals(0.5, instance.getHitRate());
+  }
+
+  @Test
+  public void testIdleControllersAreLimited() {
+    TestController first = instance.acquire();
+    TestController second = instance.acquire();
+    TestController third = instance.acquire();
+
+    instance.release(first);
+    instance.release(second);
+    instance.release(third);
+
+    assertEquals(2, instance.getIdleCount());
+    assertEquals(1, third.numResets);
+    assertNotSame(third, instance.acquire());
+  }
+
+  @Test
+  public void testWarmUpWaitsUntilLoaderIsIdle() {
+    loaderBusy.set(true);
+    instance.warmUp(5);
+
+    await().during(Duration.ofMillis(500)).atMost(Duration.ofSeconds(1)).until(() -> instance.getLoadCount() == 0);
+
+    loaderBusy.set(false);
+
+    await().atMost(Duration.ofSeconds(5)).until(() -> instance.getIdleCount() == 2);
+    assertEquals(2, instance.getLoadCount());
+    assertEquals(0, instance.getHitRate());
+  }
+
+  private static final class TestController extends NodeController<Pane> {
+
+    private final Pane root = new Pane();
+    private int numResets;
+    private int numRebinds;
+
+    @Override
+    protected void onReset() {
+      numResets++;
+    }
+
+    @Override
+    protected void onRebind() {
+      numRebinds++;
+    }
+
+    @Override
+    public Pane getRoot() {
+      return root;
+    }
+  }
+}
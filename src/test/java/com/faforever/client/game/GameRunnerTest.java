@@ -14,6 +14,7 @@ import com.faforever.client.fa.ForgedAllianceLaunchService;
 import com.faforever.client.fa.GameParameters;
 import com.faforever.client.fa.relay.ice.CoturnService;
 import com.faforever.client.fa.relay.ice.IceAdapter;
+import com.faforever.client.game.GameLaunchMetrics.Phase;
 import com.faforever.client.featuredmod.FeaturedModService;
 import com.faforever.client.fx.FxApplicationThreadExecutor;
 import com.faforever.client.fx.ObservableConstant;
@@ -58,6 +59,9 @@ import reactor.core.publisher.Mono;
 import reactor.test.publisher.TestPublisher;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
@@ -341,6 +345,35 @@ public class GameRunnerTest extends ServiceTest {
     verify(notificationService).addNotification(any(ImmediateNotification.class));
   }
 
+  @Test
+  public void testGameLogIsPostProcessedWithoutDelayingNotifications() throws Exception {
+    GameLaunchResponse gameLaunchResponse = GameLaunchMessageBuilder.create().defaultValues().get();
+    mockStartGameProcess(gameLaunchResponse);
+    Path gameLogFile = Path.of("game_1.log");
+    when(loggingService.getMostRecentGameLogFile()).thenReturn(Optional.of(gameLogFile));
+    CompletableFuture<Void> logPostProcessing = new CompletableFuture<>();
+    when(loggingService.postProcessGameLogFile(gameLogFile)).thenReturn(logPostProcessing);
+
+    CompletableFuture<Process> exitFuture = new CompletableFuture<>();
+
+    when(process.onExit()).thenReturn(exitFuture);
+
+    instance.startOnlineGame(gameLaunchResponse);
+
+    when(process.exitValue()).thenReturn(-1);
+    exitFuture.complete(process);
+
+    verify(loggingService).postProcessGameLogFile(gameLogFile);
+    ArgumentCaptor<ImmediateNotification> notificationCaptor = ArgumentCaptor.forClass(ImmediateNotification.class);
+    verify(notificationService).addNotification(notificationCaptor.capture());
+
+    notificationCaptor.getValue().actions().getFirst().run();
+    verify(platformService, never()).reveal(any());
+
+    logPostProcessing.complete(null);
+    verify(platformService).reveal(gameLogFile);
+  }
+
   @Test
   public void testStartOnlineGameThenKill() throws Exception {
     GameLaunchResponse gameLaunchResponse = GameLaunchMessageBuilder.create().defaultValues().get();
@@ -429,8 +462,11 @@ public class GameRunnerTest extends ServiceTest {
 
     instance.join(game);
 
+    verify(iceAdapter).prepare(game.getId());
     verify(forgedAllianceLaunchService).launchOnlineGame(any(), anyInt(), anyInt());
     verify(fafServerAccessor).requestJoinGame(anyInt(), any());
+    assertEquals(1, instance.getLaunchMetrics().getLaunchCount());
+    assertTrue(instance.getLaunchMetrics().getLastLaunch().keySet().containsAll(EnumSet.allOf(Phase.class)));
   }
 
   @Test
@@ -635,6 +671,7 @@ public class GameRunnerTest extends ServiceTest {
 
     instance.startSearchMatchmaker();
 
+    verify(iceAdapter).prepare();
     verify(fafServerAccessor).startSearchMatchmaker();
     verify(forgedAllianceLaunchService).launchOnlineGame(any(), anyInt(), anyInt());
   }
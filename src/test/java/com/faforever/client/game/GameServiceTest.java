@@ -12,6 +12,7 @@ import com.faforever.client.remote.FafServerAccessor;
 import com.faforever.client.test.ServiceTest;
 import com.faforever.commons.lobby.GameInfo.TeamIds;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.ListChangeListener;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,9 +23,12 @@ import org.mockito.Spy;
 import reactor.core.scheduler.Schedulers;
 import reactor.test.publisher.TestPublisher;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static com.faforever.commons.lobby.GameStatus.CLOSED;
 import static com.faforever.commons.lobby.GameStatus.PLAYING;
@@ -61,7 +65,7 @@ public class GameServiceTest extends ServiceTest {
   public void setUp() throws Exception {
     MapperSetup.injectMappers(gameMapper);
 
-    when(fxApplicationThreadExecutor.asScheduler()).thenReturn(Schedulers.immediate());
+    lenient().when(fxApplicationThreadExecutor.asScheduler()).thenReturn(Schedulers.immediate());
     lenient().doAnswer(invocation -> {
       invocation.getArgument(0, Runnable.class).run();
       return null;
@@ -179,4 +183,65 @@ public class GameServiceTest extends ServiceTest {
 
     assertThat(instance.getGames(), empty());
   }
+
+  @Test
+  public void testGameUpdatesAreCoalescedPerPulse() {
+    Queue<Runnable> fxThreadQueue = new ConcurrentLinkedQueue<>();
+    when(fxApplicationThreadExecutor.asScheduler()).thenReturn(Schedulers.fromExecutor(fxThreadQueue::add));
+
+    for (int i = 0; i < 10; i++) {
+      testGamePublisher.next(GameInfoMessageBuilder.create(1).defaultValues().title("Game 1 v" + i).get());
+      testGamePublisher.next(GameInfoMessageBuilder.create(2).defaultValues().title("Game 2 v" + i).get());
+    }
+    testGamePublisher.next(GameInfoMessageBuilder.create(3).defaultValues().get());
+    testGamePublisher.next(GameInfoMessageBuilder.create(3).defaultValues().state(CLOSED).get());
+
+    assertThat(instance.getGames(), empty());
+    assertThat(fxThreadQueue, hasSize(1));
+
+    List<ListChangeListener.Change<? extends GameInfo>> changes = new ArrayList<>();
+    instance.getGames().addListener((ListChangeListener<GameInfo>) changes::add);
+    fxThreadQueue.poll().run();
+
+    assertThat(changes, hasSize(1));
+    assertThat(instance.getGames(), hasSize(2));
+    assertEquals("Game 1 v9", instance.getByUid(1).orElseThrow().getTitle());
+    assertEquals("Game 2 v9", instance.getByUid(2).orElseThrow().getTitle());
+    assertThat(instance.getByUid(3).isPresent(), is(false));
+    assertEquals(22, instance.getReceivedGameUpdateCount());
+    assertEquals(19, instance.getMergedGameUpdateCount());
+    assertEquals(1, instance.getPublishedGameUpdateBatchCount());
+    assertEquals(3, instance.getLargestGameUpdateBatchSize());
+  }
+
+  @Test
+  public void testUpdatedGamesArePublishedAsSingleChange() {
+    testGamePublisher.next(GameInfoMessageBuilder.create(1).defaultValues().title("Game 1").get());
+    testGamePublisher.next(GameInfoMessageBuilder.create(2).defaultValues().title("Game 2").get());
+    Queue<Runnable> fxThreadQueue = new ConcurrentLinkedQueue<>();
+    when(fxApplicationThreadExecutor.asScheduler()).thenReturn(Schedulers.fromExecutor(fxThreadQueue::add));
+
+    testGamePublisher.next(GameInfoMessageBuilder.create(1).defaultValues().title("Game 1 modified").state(PLAYING)
+                                                 .get());
+    testGamePublisher.next(GameInfoMessageBuilder.create(2).defaultValues().title("Game 2 modified").get());
+
+    List<ListChangeListener.Change<? extends GameInfo>> changes = new ArrayList<>();
+    List<GameInfo> updatedGames = new ArrayList<>();
+    instance.getGames().addListener((ListChangeListener<GameInfo>) change -> {
+      changes.add(change);
+      while (change.next()) {
+        if (change.wasUpdated()) {
+          for (int i = change.getFrom(); i < change.getTo(); i++) {
+            updatedGames.add(change.getList().get(i));
+          }
+        }
+      }
+    });
+    fxThreadQueue.poll().run();
+
+    assertThat(changes, hasSize(1));
+    assertThat(updatedGames,
+               containsInAnyOrder(instance.getByUid(1).orElseThrow(), instance.getByUid(2).orElseThrow()));
+    assertEquals("Game 1 modified", instance.getByUid(1).orElseThrow().getTitle());
+  }
 }
@@ -32,7 +32,10 @@ import java.util.HashMap;
 import java.util.Optional;
 import java.util.function.Consumer;
 
+import static org.instancio.Select.field;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -105,6 +108,34 @@ public class GameTileControllerTest extends PlatformTest {
     verify(onSelectedConsumer).accept(game);
   }
 
+  @Test
+  public void testReset() {
+    runOnFxThreadAndWait(() -> {
+      instance.setGame(game);
+      instance.getRoot().pseudoClassStateChanged(GameTileController.FRIEND_IN_GAME_PSEUDO_CLASS, true);
+      instance.reset();
+    });
+
+    assertFalse(instance.getRoot().getPseudoClassStates().contains(GameTileController.FRIEND_IN_GAME_PSEUDO_CLASS));
+    assertThrows(NullPointerException.class,
+                 () -> instance.onClick(MouseEvents.generateClick(MouseButton.PRIMARY, 1)));
+    verify(onSelectedConsumer, never()).accept(any());
+  }
+
+  @Test
+  public void testGameTypeIsKeptWhenReusedForGameOfSameFeaturedMod() {
+    lenient().when(featuredModService.getFeaturedMod(game.getFeaturedMod())).thenReturn(Mono.just(
+        Instancio.of(FeaturedMod.class).set(field(FeaturedMod::displayName), "Forged Alliance").create()));
+    runOnFxThreadAndWait(() -> {
+      instance.setGame(game);
+      instance.gameTypeLabel.setText("Forged Alliance");
+      instance.reset();
+      instance.setGame(GameInfoBuilder.create().defaultValues().get());
+    });
+
+    assertEquals("Forged Alliance", instance.gameTypeLabel.getText());
+  }
+
   @Test
   public void testSimModeLabel4Mods() {
     HashMap<String, String> simMods = new HashMap<>();
@@ -2,15 +2,18 @@ package com.faforever.client.game;
 
 import com.faforever.client.builders.GameInfoBuilder;
 import com.faforever.client.domain.server.GameInfo;
+import com.faforever.client.fx.NodeControllerPool;
 import com.faforever.client.game.GamesTilesContainerController.TilesSortingOrder;
+import com.faforever.client.player.PlayerService;
 import com.faforever.client.test.PlatformTest;
 import com.faforever.client.theme.UiService;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.Node;
-import javafx.scene.layout.FlowPane;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
 import javafx.scene.layout.Pane;
-import javafx.scene.layout.StackPane;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -20,13 +23,18 @@ import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.hamcrest.collection.IsEmptyCollection.empty;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.lenient;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.verify;
 
 public class GamesTilesContainerControllerTest extends PlatformTest {
 
@@ -34,6 +42,8 @@ public class GamesTilesContainerControllerTest extends PlatformTest {
   private GameTileController gameTileController;
   @Mock
   private UiService uiService;
+  @Mock
+  private PlayerService playerService;
 
   @Mock
   private GameTooltipController gameTooltipController;
@@ -43,13 +53,13 @@ public class GamesTilesContainerControllerTest extends PlatformTest {
 
   @BeforeEach
   public void setUp() throws Exception {
-    lenient().when(uiService.loadFxml("theme/play/game_card.fxml")).thenReturn(gameTileController);
-    lenient().when(uiService.loadFxml("theme/play/game_tooltip.fxml")).thenReturn(gameTooltipController);
+    lenient().when(uiService.<GameTileController>getControllerPool(eq("theme/play/game_card.fxml"), anyInt()))
+             .thenReturn(new NodeControllerPool<>("theme/play/game_card.fxml", 10, () -> gameTileController,
+                                                  () -> true));
     lenient().when(gameTooltipController.getRoot()).thenReturn(new Pane());
-    lenient().when(gameTileController.getRoot())
-             .thenReturn(new Pane())
-             .thenReturn(new FlowPane())
-             .thenReturn(new StackPane());
+    lenient().when(playerService.getAverageRatingPropertyForGame(any()))
+             .thenAnswer(invocation -> new SimpleObjectProperty<>(0d));
+    lenient().doAnswer(invocation -> new Pane()).when(gameTileController).getRoot();
 
     loadFxml("theme/play/games_tiles_container.fxml", clazz -> {
       if (clazz == GameTooltipController.class) {
@@ -64,43 +74,38 @@ public class GamesTilesContainerControllerTest extends PlatformTest {
     ObservableList<GameInfo> observableList = FXCollections.observableArrayList();
 
     runOnFxThreadAndWait(() -> instance.createTiledFlowPane(observableList));
-    assertThat(instance.tiledFlowPane.getChildren(), empty());
+    assertThat(instance.tileRowsListView.getItems(), empty());
   }
 
   @Test
   public void testCreateTiledFlowPaneWithPopulatedList() {
-    when(gameTileController.getRoot()).thenReturn(new Pane());
     ObservableList<GameInfo> observableList = FXCollections.observableArrayList();
     observableList.add(new GameInfo());
 
     runOnFxThreadAndWait(() -> instance.createTiledFlowPane(observableList));
-    assertThat(instance.tiledFlowPane.getChildren(), hasSize(1));
+    assertThat(instance.tileRowsListView.getItems(), hasSize(1));
   }
 
   @Test
   public void testCreateTiledFlowPaneWithPostInstantiatedGameInfoBean() {
-    doAnswer(invocation -> new Pane()).when(gameTileController).getRoot();
     ObservableList<GameInfo> observableList = FXCollections.observableArrayList();
 
     runOnFxThreadAndWait(() -> {
       instance.createTiledFlowPane(observableList);
       observableList.add(new GameInfo());
     });
-    assertThat(instance.tiledFlowPane.getChildren(), hasSize(1));
+    assertThat(instance.tileRowsListView.getItems(), hasSize(1));
   }
 
   @Test
   public void testCreateTiledFlowPaneWithPopulatedListAndPostInstantiatedGameInfoBean() {
-    ObservableList<Node> children = instance.tiledFlowPane.getChildren();
-    doAnswer(invocation -> new Pane()).when(gameTileController).getRoot();
-
     ObservableList<GameInfo> observableList = FXCollections.observableArrayList();
     runOnFxThreadAndWait(() -> {
       observableList.add(GameInfoBuilder.create().defaultValues().id(1).get());
       instance.createTiledFlowPane(observableList);
       observableList.add(GameInfoBuilder.create().defaultValues().id(2).get());
     });
-    assertThat(children, hasSize(2));
+    assertThat(instance.tileRowsListView.getItems().stream().mapToInt(List::size).sum(), is(2));
   }
 
   @Test
@@ -124,6 +129,45 @@ public class GamesTilesContainerControllerTest extends PlatformTest {
     instance.setSortingOrder(TilesSortingOrder.PLAYER_ASC);
 
     runOnFxThreadAndWait(() -> instance.createTiledFlowPane(observableList));
-    assertEquals(game2, instance.tiledFlowPane.getChildren().getFirst().getUserData());
+    assertEquals(game2, instance.tileRowsListView.getItems().getFirst().getFirst());
+  }
+
+  @Test
+  public void testSortKeyChangeMovesGame() {
+    ObservableList<GameInfo> observableList = FXCollections.observableArrayList();
+    GameInfo game1 = GameInfoBuilder.create().defaultValues().id(1).title("a").get();
+    GameInfo game2 = GameInfoBuilder.create().defaultValues().id(2).title("b").get();
+    observableList.addAll(game1, game2);
+    instance.setSortingOrder(TilesSortingOrder.NAME_ASC);
+
+    runOnFxThreadAndWait(() -> instance.createTiledFlowPane(observableList));
+    assertEquals(game1, instance.tileRowsListView.getItems().getFirst().getFirst());
+
+    runOnFxThreadAndWait(() -> game1.setTitle("c"));
+    assertEquals(game2, instance.tileRowsListView.getItems().getFirst().getFirst());
+  }
+
+  @Test
+  public void testOnlyVisibleTilesAreCreatedAndRemovedTilesAreReleased() {
+    ObservableList<GameInfo> observableList = FXCollections.observableArrayList();
+    for (int i = 0; i < 200; i++) {
+      observableList.add(GameInfoBuilder.create().defaultValues().id(i).get());
+    }
+
+    runOnFxThreadAndWait(() -> {
+      new Scene((Parent) instance.getRoot(), 1000, 400);
+      instance.createTiledFlowPane(observableList);
+    });
+    runOnFxThreadAndWait(() -> ((Parent) instance.getRoot()).layout());
+
+    assertThat(instance.tileRowsListView.getItems().size(), is(100));
+    verify(gameTileController, atLeastOnce()).setGame(any());
+    assertThat(instance.tileRowsListView.lookupAll(".list-cell").size() < 20, is(true));
+
+    runOnFxThreadAndWait(observableList::clear);
+    runOnFxThreadAndWait(() -> ((Parent) instance.getRoot()).layout());
+
+    assertThat(instance.tileRowsListView.getItems(), empty());
+    verify(gameTileController, atLeastOnce()).reset();
   }
 }
@@ -0,0 +1,83 @@
+package com.faforever.client.game;
+
+import com.faforever.client.builders.GameInfoBuilder;
+import com.faforever.client.domain.server.GameInfo;
+import com.faforever.client.test.ServiceTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SortedGameListTest extends ServiceTest {
+
+  private SortedGameList instance;
+  private GameInfo game1;
+  private GameInfo game2;
+  private GameInfo game3;
+
+  @BeforeEach
+  public void setUp() {
+    instance = new SortedGameList();
+    instance.setComparator(GameSortKey.BY_PLAYERS);
+    game1 = GameInfoBuilder.create().defaultValues().id(1).get();
+    game2 = GameInfoBuilder.create().defaultValues().id(2).get();
+    game3 = GameInfoBuilder.create().defaultValues().id(3).get();
+  }
+
+  @Test
+  public void testGamesAreInsertedInOrder() {
+    instance.put(game1, new GameSortKey(1, "a", 5, 0));
+    instance.put(game2, new GameSortKey(2, "b", 1, 0));
+    instance.put(game3, new GameSortKey(3, "c", 3, 0));
+
+    assertEquals(List.of(game2, game3, game1), instance.getGames());
+  }
+
+  @Test
+  public void testEqualKeysAreSortedById() {
+    instance.put(game3, new GameSortKey(3, "c", 1, 0));
+    instance.put(game1, new GameSortKey(1, "a", 1, 0));
+    instance.put(game2, new GameSortKey(2, "b", 1, 0));
+
+    assertEquals(List.of(game1, game2, game3), instance.getGames());
+  }
+
+  @Test
+  public void testUpdatedKeyMovesGame() {
+    instance.put(game1, new GameSortKey(1, "a", 1, 0));
+    instance.put(game2, new GameSortKey(2, "b", 2, 0));
+    instance.put(game3, new GameSortKey(3, "c", 3, 0));
+
+    assertTrue(instance.put(game1, new GameSortKey(1, "a", 4, 0)));
+    assertFalse(instance.put(game2, new GameSortKey(2, "b", 2, 0)));
+
+    assertEquals(List.of(game2, game3, game1), instance.getGames());
+  }
+
+  @Test
+  public void testRemove() {
+    instance.put(game1, new GameSortKey(1, "a", 1, 0));
+    instance.put(game2, new GameSortKey(2, "b", 2, 0));
+
+    instance.remove(game1);
+    instance.remove(game3);
+
+    assertEquals(List.of(game2), instance.getGames());
+    assertFalse(instance.contains(game1));
+  }
+
+  @Test
+  public void testSetComparatorSortsAllGames() {
+    instance.put(game1, new GameSortKey(1, "c", 1, 0));
+    instance.put(game2, new GameSortKey(2, "a", 2, 0));
+    instance.put(game3, new GameSortKey(3, "b", 3, 0));
+
+    instance.setComparator(GameSortKey.BY_TITLE);
+
+    assertEquals(List.of(game2, game3, game1), instance.getGames());
+  }
+}
@@ -1,29 +1,84 @@
 package com.faforever.client.io;
 
+import com.faforever.client.preferences.DataPrefs;
 import com.faforever.client.test.ServiceTest;
+import com.google.common.hash.Hashing;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import okio.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Spy;
 import org.springframework.core.io.ClassPathResource;
 
+import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class DownloadServiceTest extends ServiceTest {
   private static final ClassPathResource SAMPLE_FILE = new ClassPathResource("/io/sample-file.txt");
   private static final String SAMPLE_FILE_CHECKSUM = "b53227da4280f0e18270f21dd77c91d0";
+  private static final String ETAG = "\"archive-v1\"";
 
+  @TempDir
+  public Path tempDirectory;
+  @Spy
+  private DataPrefs dataPrefs;
 
+  private final List<RecordedRequest> requests = new CopyOnWriteArrayList<>();
+  private final AtomicInteger droppedConnectionsLeft = new AtomicInteger();
+  private final AtomicLong servedBytes = new AtomicLong();
 
-  @InjectMocks
+  private byte[] archive;
+  private MockWebServer fileServer;
   private DownloadService instance;
 
+  @BeforeEach
+  public void setUp() throws Exception {
+    dataPrefs.setBaseDataDirectory(tempDirectory);
+    instance = new DownloadService(new DownloadBlobStore(dataPrefs));
+
+    archive = new byte[256 * 1024];
+    new Random(42).nextBytes(archive);
+
+    fileServer = new MockWebServer();
+    fileServer.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) {
+        requests.add(request);
+        return rangeAwareResponse(request);
+      }
+    });
+    fileServer.start();
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    fileServer.shutdown();
+  }
+
   @Test
   public void testDownloadFile() throws Exception {
-    Path temp = Files.createTempFile("download", ".dat");
+    Path temp = Files.createTempFile(tempDirectory, "download", ".dat");
     instance.downloadFile(SAMPLE_FILE.getURL(), Map.of(), temp, (processed, total) -> {}, SAMPLE_FILE_CHECKSUM);
 
     byte[] data = Files.readAllBytes(temp);
@@ -32,8 +87,139 @@ public class DownloadServiceTest extends ServiceTest {
 
   @Test
   public void testDownloadFileBadChecksum() throws Exception {
-    Path temp = Files.createTempFile("download", ".dat");
+    Path temp = Files.createTempFile(tempDirectory, "download", ".dat");
     assertThrows(ChecksumMismatchException.class, () -> instance.downloadFile(SAMPLE_FILE.getURL(), Map.of(), temp, (processed, total) -> {
     }, "00000000000000000000000000000000"));
   }
+
+  @Test
+  public void testDownloadIsResumedAfterConnectionDrops() throws Exception {
+    droppedConnectionsLeft.set(2);
+    AtomicLong lastProcessed = new AtomicLong();
+
+    Path archiveFile = instance.withDownloadedFile(archiveUrl(), (processed, total) -> lastProcessed.set(processed),
+                                                   file -> file);
+
+    assertArrayEquals(archive, Files.readAllBytes(archiveFile));
+    assertEquals(archive.length, lastProcessed.get());
+    assertEquals(3, requests.size());
+    assertEquals(2, instance.getRetryCount());
+    assertTrue(requests.get(1).getHeader("Range").startsWith("bytes="));
+    assertEquals(ETAG, requests.get(1).getHeader("If-Range"));
+    assertTrue(instance.getResumedByteCount() > 0, "Download has not been resumed");
+    assertTrue(servedBytes.get() < 2L * archive.length, "Too many bytes were downloaded again: " + servedBytes.get());
+  }
+
+  @Test
+  public void testDownloadFileIsResumedAfterConnectionDrops() throws Exception {
+    droppedConnectionsLeft.set(1);
+    Path targetFile = tempDirectory.resolve("archive.zip");
+
+    instance.downloadFile(archiveUrl(), Map.of(), targetFile, (processed, total) -> {}, md5Of(archive));
+
+    assertArrayEquals(archive, Files.readAllBytes(targetFile));
+    assertEquals(1, instance.getRetryCount());
+    assertTrue(Files.notExists(tempDirectory.resolve("archive.zip.part")));
+  }
+
+  @Test
+  public void testStoredArchiveIsNotDownloadedAgain() throws Exception {
+    Path archiveFile = instance.withDownloadedFile(archiveUrl(), (processed, total) -> {}, file -> file);
+
+    DownloadService restartedInstance = new DownloadService(new DownloadBlobStore(dataPrefs));
+    assertEquals(archiveFile,
+                 restartedInstance.withDownloadedFile(archiveUrl(), (processed, total) -> {}, file -> file));
+
+    assertEquals(1, requests.size());
+    assertEquals(1, restartedInstance.getBlobStoreHitCount());
+  }
+
+  @Test
+  public void testIdenticalArchiveIsStoredOnce() throws Exception {
+    Path archiveFile = instance.withDownloadedFile(archiveUrl(), (processed, total) -> {}, file -> file);
+    Path mirroredArchiveFile = instance.withDownloadedFile(fileServer.url("/mirror/archive.zip").url(),
+                                                           (processed, total) -> {}, file -> file);
+
+    assertEquals(archiveFile, mirroredArchiveFile);
+    assertTrue(Files.exists(archiveFile));
+  }
+
+  @Test
+  public void testBlobIsOnlyKeptWhileInUseWithoutCacheSize() throws Exception {
+    dataPrefs.setDownloadCacheMaxSizeMegabytes(0);
+
+    Path archiveFile = instance.withDownloadedFile(archiveUrl(), (processed, total) -> {}, file -> {
+      instance.withDownloadedFile(fileServer.url("/mirror/archive.zip").url(), (processed, total) -> {},
+                                  mirroredFile -> mirroredFile);
+      assertArrayEquals(archive, Files.readAllBytes(file));
+      return file;
+    });
+
+    assertTrue(Files.notExists(archiveFile));
+  }
+
+  @Test
+  public void testConcurrentDownloadsOfSameUrlAreDeduplicated() throws Exception {
+    CountDownLatch blockResponses = new CountDownLatch(1);
+    fileServer.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+        requests.add(request);
+        blockResponses.await(5, TimeUnit.SECONDS);
+        return rangeAwareResponse(request);
+      }
+    });
+
+    URL url = archiveUrl();
+    CompletableFuture<Path> first = CompletableFuture.supplyAsync(() -> download(url));
+    CompletableFuture<Path> second = CompletableFuture.supplyAsync(() -> download(url));
+    while (instance.getDeduplicatedDownloadCount() == 0 && !first.isDone() && !second.isDone()) {
+      Thread.sleep(10);
+    }
+    blockResponses.countDown();
+
+    assertEquals(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+    assertEquals(1, requests.size());
+    assertEquals(1, instance.getDeduplicatedDownloadCount());
+  }
+
+  private Path download(URL url) {
+    try {
+      return instance.withDownloadedFile(url, (processed, total) -> {}, file -> file);
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private URL archiveUrl() {
+    return fileServer.url("/maps/archive.zip").url();
+  }
+
+  private MockResponse rangeAwareResponse(RecordedRequest request) {
+    int offset = 0;
+    String range = request.getHeader("Range");
+    boolean partial = range != null && ETAG.equals(request.getHeader("If-Range"));
+    if (partial) {
+      offset = Integer.parseInt(range.substring("bytes=".length(), range.indexOf('-')));
+    }
+
+    Buffer body = new Buffer().write(archive, offset, archive.length - offset);
+    servedBytes.addAndGet(archive.length - offset);
+    MockResponse response = new MockResponse()
+        .setHeader("ETag", ETAG)
+        .setBody(body);
+    if (partial) {
+      response.setResponseCode(206)
+          .setHeader("Content-Range", "bytes %d-%d/%d".formatted(offset, archive.length - 1, archive.length));
+    }
+    if (droppedConnectionsLeft.getAndDecrement() > 0) {
+      response.setSocketPolicy(SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY);
+    }
+    return response;
+  }
+
+  @SuppressWarnings("deprecation")
+  private static String md5Of(byte[] bytes) {
+    return Hashing.md5().hashBytes(bytes).toString();
+  }
 }
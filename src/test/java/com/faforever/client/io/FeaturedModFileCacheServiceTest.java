@@ -7,7 +7,6 @@ import com.faforever.commons.api.dto.FeaturedModFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
-import org.mockito.InjectMocks;
 import org.mockito.Spy;
 
 import java.io.IOException;
@@ -30,12 +29,12 @@ public class FeaturedModFileCacheServiceTest extends ServiceTest {
   @Spy
   private Preferences preferences;
 
-  @InjectMocks
   private FeaturedModFileCacheService instance;
 
   @BeforeEach
   public void setUp() throws Exception {
     dataPrefs.setBaseDataDirectory(tempDirectory);
+    instance = new FeaturedModFileCacheService(dataPrefs, preferences, new FileFingerprintService(dataPrefs));
 
     cacheDirectory = Files.createDirectories(dataPrefs.getFeaturedModCacheDirectory());
     targetDirectory = Files.createDirectories(tempDirectory.resolve("target"));
@@ -0,0 +1,120 @@
+package com.faforever.client.io;
+
+import com.faforever.client.io.FileFingerprintService.DigestAlgorithm;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.test.ServiceTest;
+import com.google.common.hash.Hashing;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Spy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FileFingerprintServiceTest extends ServiceTest {
+
+  @TempDir
+  public Path tempDirectory;
+  @Spy
+  private DataPrefs dataPrefs;
+
+  private Path gameDataDirectory;
+  private FileFingerprintService instance;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    dataPrefs.setBaseDataDirectory(tempDirectory);
+    gameDataDirectory = Files.createDirectories(tempDirectory.resolve("gamedata"));
+
+    instance = new FileFingerprintService(dataPrefs);
+  }
+
+  @Test
+  public void testDigests() throws Exception {
+    Path file = Files.writeString(gameDataDirectory.resolve("test.nx2"), "some content");
+
+    @SuppressWarnings("deprecation")
+    String expectedMd5 = com.google.common.io.Files.asByteSource(file.toFile()).hash(Hashing.md5()).toString();
+    String expectedSha256 = com.google.common.io.Files.asByteSource(file.toFile()).hash(Hashing.sha256()).toString();
+
+    assertEquals(expectedMd5, instance.getDigest(file, DigestAlgorithm.MD5));
+    assertEquals(expectedSha256, instance.getDigest(file, DigestAlgorithm.SHA_256));
+    assertEquals(2, instance.getFullFileReadCount());
+  }
+
+  @Test
+  public void testUnchangedFileIsHashedOnlyOnce() throws Exception {
+    Path file = Files.writeString(gameDataDirectory.resolve("test.nx2"), "some content");
+
+    String digest = instance.getDigest(file, DigestAlgorithm.MD5);
+
+    assertEquals(digest, instance.getDigest(file, DigestAlgorithm.MD5));
+    assertEquals(1, instance.getFullFileReadCount());
+    assertEquals(1, instance.getCacheHitCount());
+  }
+
+  @Test
+  public void testModifiedFileIsHashedAgain() throws Exception {
+    Path file = Files.writeString(gameDataDirectory.resolve("test.nx2"), "some content");
+    String digest = instance.getDigest(file, DigestAlgorithm.MD5);
+
+    Files.writeString(file, "other content");
+    Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+
+    assertNotEquals(digest, instance.getDigest(file, DigestAlgorithm.MD5));
+    assertEquals(2, instance.getFullFileReadCount());
+  }
+
+  @Test
+  public void testWarmLaunchPerformsNoFullFileReads() throws Exception {
+    List<Path> featuredModFiles = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      featuredModFiles.add(Files.writeString(gameDataDirectory.resolve("file" + i + ".nx2"), "content " + i));
+    }
+    Path executable = Files.write(tempDirectory.resolve("ForgedAlliance.exe"), new byte[1024 * 1024]);
+
+    Map<Path, String> coldDigests = hashLikeGameLaunch(instance, featuredModFiles, executable);
+    instance.saveIfDirty();
+    assertEquals(featuredModFiles.size() + 1, instance.getFullFileReadCount());
+    assertTrue(Files.exists(dataPrefs.getCacheDirectory().resolve(FileFingerprintService.CACHE_FILE_NAME)));
+
+    FileFingerprintService restartedInstance = new FileFingerprintService(dataPrefs);
+    Map<Path, String> warmDigests = hashLikeGameLaunch(restartedInstance, featuredModFiles, executable);
+
+    assertEquals(coldDigests, warmDigests);
+    assertEquals(0, restartedInstance.getFullFileReadCount());
+    assertEquals(featuredModFiles.size() + 1, restartedInstance.getCacheHitCount());
+  }
+
+  @Test
+  public void testCorruptCacheFileIsIgnored() throws Exception {
+    Files.createDirectories(dataPrefs.getCacheDirectory());
+    Files.writeString(dataPrefs.getCacheDirectory().resolve(FileFingerprintService.CACHE_FILE_NAME), "{corrupt");
+    Path file = Files.writeString(gameDataDirectory.resolve("test.nx2"), "some content");
+
+    instance.getDigest(file, DigestAlgorithm.MD5);
+
+    assertEquals(1, instance.getFullFileReadCount());
+  }
+
+  private static Map<Path, String> hashLikeGameLaunch(FileFingerprintService fileFingerprintService,
+                                                      List<Path> featuredModFiles, Path executable) throws IOException {
+    Map<Path, String> digests = new HashMap<>();
+    for (Path featuredModFile : featuredModFiles) {
+      digests.put(featuredModFile, fileFingerprintService.getDigest(featuredModFile, DigestAlgorithm.MD5));
+    }
+    digests.put(executable, fileFingerprintService.getDigest(executable, DigestAlgorithm.SHA_256));
+    return digests;
+  }
+}
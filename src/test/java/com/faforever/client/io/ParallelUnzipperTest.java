@@ -0,0 +1,88 @@
+package com.faforever.client.io;
+
+import com.faforever.client.test.ServiceTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelUnzipperTest extends ServiceTest {
+
+  @TempDir
+  public Path tempDirectory;
+
+  @Test
+  public void testUnzip() throws Exception {
+    Random random = new Random(1);
+    Map<String, byte[]> files = new LinkedHashMap<>();
+    for (int i = 0; i < 20; i++) {
+      byte[] content = new byte[random.nextInt(200_000)];
+      random.nextBytes(content);
+      files.put("some_map.v0001/textures/texture" + i + ".dds", content);
+    }
+    files.put("some_map.v0001/some_map_scenario.lua", "ScenarioInfo = {}".getBytes());
+    Path archive = createZip(files);
+    Path targetDirectory = tempDirectory.resolve("maps");
+    AtomicLong lastProcessed = new AtomicLong();
+
+    ParallelUnzipper.from(archive)
+        .to(targetDirectory)
+        .zipBombByteCountThreshold(100_000_000)
+        .parallelism(4)
+        .listener((processed, total) -> lastProcessed.accumulateAndGet(processed, Math::max))
+        .unzip();
+
+    for (Map.Entry<String, byte[]> file : files.entrySet()) {
+      assertArrayEquals(file.getValue(), Files.readAllBytes(targetDirectory.resolve(file.getKey())));
+    }
+    assertEquals(files.values().stream().mapToLong(content -> content.length).sum(), lastProcessed.get());
+  }
+
+  @Test
+  public void testZipBombIsRejected() throws Exception {
+    Path archive = createZip(Map.of("bomb.bin", new byte[10_000_000]));
+
+    assertThrows(ZipBombException.class, () -> ParallelUnzipper.from(archive)
+        .to(tempDirectory.resolve("target"))
+        .zipBombByteCountThreshold(1_000_000)
+        .unzip());
+  }
+
+  @Test
+  public void testEntryOutsideOfTargetDirectoryIsRejected() throws Exception {
+    Path archive = createZip(Map.of("../evil.lua", "evil".getBytes()));
+
+    IOException exception = assertThrows(IOException.class, () -> ParallelUnzipper.from(archive)
+        .to(tempDirectory.resolve("target"))
+        .unzip());
+    assertTrue(exception.getMessage().contains("outside of the target directory"));
+    assertTrue(Files.notExists(tempDirectory.resolve("evil.lua")));
+  }
+
+  private Path createZip(Map<String, byte[]> files) throws IOException {
+    Path archive = Files.createTempFile(tempDirectory, "archive", ".zip");
+    try (OutputStream outputStream = Files.newOutputStream(archive);
+         ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+      for (Map.Entry<String, byte[]> file : files.entrySet()) {
+        zipOutputStream.putNextEntry(new ZipEntry(file.getKey()));
+        zipOutputStream.write(file.getValue());
+        zipOutputStream.closeEntry();
+      }
+    }
+    return archive;
+  }
+}
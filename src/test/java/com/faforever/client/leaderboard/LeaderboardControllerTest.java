@@ -2,7 +2,6 @@ package com.faforever.client.leaderboard;
 
 import com.faforever.client.builders.PlayerInfoBuilder;
 import com.faforever.client.domain.api.Division;
-import com.faforever.client.domain.api.LeagueEntry;
 import com.faforever.client.domain.api.LeagueSeason;
 import com.faforever.client.domain.api.Subdivision;
 import com.faforever.client.domain.server.PlayerInfo;
@@ -23,6 +22,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.instancio.Select.field;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -80,19 +80,6 @@ public class LeaderboardControllerTest extends PlatformTest {
                                                     .set(field(Subdivision::id), 1)
                                                     .set(field(Subdivision::index), 1)
                                                     .create();
-  private final LeagueEntry leagueEntry2 = Instancio.of(LeagueEntry.class)
-                                                    .set(field(LeagueEntry::subdivision), subdivision1)
-                                                    .set(field(LeagueEntry::id), 1)
-                                                    .set(field(LeagueEntry::player),
-                                                         PlayerInfoBuilder.create().defaultValues().username("2").get())
-                                                    .create();
-  private final LeagueEntry leagueEntry1 = Instancio.of(LeagueEntry.class)
-                                                    .set(field(LeagueEntry::subdivision), subdivision1)
-                                                    .set(field(LeagueEntry::id), 0)
-                                                    .set(field(LeagueEntry::player),
-                                                         PlayerInfoBuilder.create().defaultValues().username("1").get())
-                                                    .create();
-
 
   @BeforeEach
   public void setUp() throws Exception {
@@ -102,7 +89,8 @@ public class LeaderboardControllerTest extends PlatformTest {
     lenient().when(i18n.get("leaderboard.seasonDate", null, null)).thenReturn("-");
 
     lenient().when(leaderboardService.getAllSubdivisions(season)).thenReturn(Flux.just(subdivision1, subdivision2));
-    lenient().when(leaderboardService.getActiveEntries(season)).thenReturn(Flux.just(leagueEntry1, leagueEntry2));
+    lenient().when(leaderboardService.getActiveEntryCounts(season))
+             .thenReturn(Mono.just(Map.of(subdivision1, 2, subdivision2, 0)));
     lenient().when(leaderboardService.getLeagueEntryForPlayer(player, season)).thenReturn(Mono.empty());
     lenient().when(playerService.getCurrentPlayer()).thenReturn(player);
 
@@ -135,15 +123,18 @@ public class LeaderboardControllerTest extends PlatformTest {
     assertEquals(season, leagueSeasonProperty.get());
     verify(leaderboardDistributionController).setSubdivisions(List.of(subdivision1, subdivision2));
     verify(leaderboardRankingsController).setSubdivisions(List.of(subdivision1, subdivision2));
-    verify(leaderboardDistributionController).setLeagueEntries(List.of(leagueEntry1, leagueEntry2));
-    verify(leaderboardRankingsController).setLeagueEntries(List.of(leagueEntry1, leagueEntry2));
+    verify(leaderboardRankingsController).setLeagueSeason(season);
+    verify(leaderboardDistributionController).setSubdivisionEntryCounts(Map.of(subdivision1, 2, subdivision2, 0));
+    verify(leaderboardRankingsController).setSubdivisionEntryCounts(Map.of(subdivision1, 2, subdivision2, 0));
     verify(leaderboardPlayerDetailsController, times(2)).setLeagueEntry(null);
+    verify(leaderboardRankingsController, times(2)).setCurrentPlayerLeagueEntry(null);
+    verify(leaderboardDistributionController, times(2)).setCurrentPlayerLeagueEntry(null);
   }
 
   @Test
   public void testInitializeWithSeasonError() {
     when(leaderboardService.getAllSubdivisions(season)).thenReturn(Flux.error(new FakeTestException()));
-    when(leaderboardService.getActiveEntries(season)).thenReturn(Flux.error(new FakeTestException()));
+    when(leaderboardService.getActiveEntryCounts(season)).thenReturn(Mono.error(new FakeTestException()));
     when(leaderboardService.getLeagueEntryForPlayer(player, season)).thenReturn(Mono.error(new FakeTestException()));
 
     runOnFxThreadAndWait(() -> instance.setLeagueSeasons(List.of(season)));
@@ -6,9 +6,7 @@ import com.faforever.client.domain.api.LeagueEntry;
 import com.faforever.client.domain.api.Subdivision;
 import com.faforever.client.domain.server.PlayerInfo;
 import com.faforever.client.i18n.I18n;
-import com.faforever.client.player.PlayerService;
 import com.faforever.client.test.PlatformTest;
-import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.ObservableList;
 import javafx.css.PseudoClass;
 import javafx.scene.chart.XYChart.Series;
@@ -19,6 +17,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
@@ -37,15 +36,11 @@ public class LeaderboardDistributionControllerTest extends PlatformTest {
 
   @Mock
   private I18n i18n;
-  @Mock
-  private PlayerService playerService;
 
   private final PlayerInfo player = PlayerInfoBuilder.create().defaultValues().get();
 
   @BeforeEach
   public void setup() throws Exception {
-    lenient().when(playerService.currentPlayerProperty()).thenReturn(new SimpleObjectProperty<>(player));
-    lenient().when(playerService.getCurrentPlayer()).thenReturn(player);
     lenient().when(i18n.get(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
     loadFxml("theme/leaderboard/leaderboard_distribution.fxml", clazz -> instance);
@@ -82,11 +77,12 @@ public class LeaderboardDistributionControllerTest extends PlatformTest {
 
     PseudoClass highlighted = PseudoClass.getPseudoClass("highlighted-bar");
 
-    instance.setLeagueEntries(List.of(Instancio.of(LeagueEntry.class)
-                                               .set(field(LeagueEntry::subdivision), subdivision1)
-                                               .set(field(LeagueEntry::id), 1)
-                                               .set(field(LeagueEntry::player), player)
-                                               .create()));
+    instance.setSubdivisionEntryCounts(Map.of(subdivision1, 1));
+    instance.setCurrentPlayerLeagueEntry(Instancio.of(LeagueEntry.class)
+                                                  .set(field(LeagueEntry::subdivision), subdivision1)
+                                                  .set(field(LeagueEntry::id), 1)
+                                                  .set(field(LeagueEntry::player), player)
+                                                  .create());
 
     assertThat(series.getFirst().getData().getFirst().getYValue(), equalTo(1));
     assertThat(series.getFirst().getData().getLast().getYValue(), equalTo(0));
@@ -98,11 +94,12 @@ public class LeaderboardDistributionControllerTest extends PlatformTest {
     assertThat(series.getLast().getData().getFirst().getNode().getPseudoClassStates(), not(contains(highlighted)));
     assertThat(series.getLast().getData().getLast().getNode().getPseudoClassStates(), not(contains(highlighted)));
 
-    instance.setLeagueEntries(List.of(Instancio.of(LeagueEntry.class)
-                                               .set(field(LeagueEntry::subdivision), subdivision2)
-                                               .set(field(LeagueEntry::id), 2)
-                                               .set(field(LeagueEntry::player), player)
-                                               .create()));
+    instance.setSubdivisionEntryCounts(Map.of(subdivision2, 1));
+    instance.setCurrentPlayerLeagueEntry(Instancio.of(LeagueEntry.class)
+                                                  .set(field(LeagueEntry::subdivision), subdivision2)
+                                                  .set(field(LeagueEntry::id), 2)
+                                                  .set(field(LeagueEntry::player), player)
+                                                  .create());
 
     assertThat(series.getFirst().getData().getFirst().getYValue(), equalTo(0));
     assertThat(series.getFirst().getData().getLast().getYValue(), equalTo(0));
@@ -114,11 +111,12 @@ public class LeaderboardDistributionControllerTest extends PlatformTest {
     assertThat(series.getLast().getData().getFirst().getNode().getPseudoClassStates(), contains(highlighted));
     assertThat(series.getLast().getData().getLast().getNode().getPseudoClassStates(), not(contains(highlighted)));
 
-    instance.setLeagueEntries(List.of(Instancio.of(LeagueEntry.class)
-                                               .set(field(LeagueEntry::subdivision), subdivision3)
-                                               .set(field(LeagueEntry::id), 3)
-                                               .set(field(LeagueEntry::player), player)
-                                               .create()));
+    instance.setSubdivisionEntryCounts(Map.of(subdivision3, 1));
+    instance.setCurrentPlayerLeagueEntry(Instancio.of(LeagueEntry.class)
+                                                  .set(field(LeagueEntry::subdivision), subdivision3)
+                                                  .set(field(LeagueEntry::id), 3)
+                                                  .set(field(LeagueEntry::player), player)
+                                                  .create());
 
     assertThat(series.getFirst().getData().getFirst().getYValue(), equalTo(0));
     assertThat(series.getFirst().getData().getLast().getYValue(), equalTo(1));
@@ -130,11 +128,12 @@ public class LeaderboardDistributionControllerTest extends PlatformTest {
     assertThat(series.getLast().getData().getFirst().getNode().getPseudoClassStates(), not(contains(highlighted)));
     assertThat(series.getLast().getData().getLast().getNode().getPseudoClassStates(), not(contains(highlighted)));
 
-    instance.setLeagueEntries(List.of(Instancio.of(LeagueEntry.class)
-                                               .set(field(LeagueEntry::subdivision), subdivision4)
-                                               .set(field(LeagueEntry::id), 4)
-                                               .set(field(LeagueEntry::player), player)
-                                               .create()));
+    instance.setSubdivisionEntryCounts(Map.of(subdivision4, 1));
+    instance.setCurrentPlayerLeagueEntry(Instancio.of(LeagueEntry.class)
+                                                  .set(field(LeagueEntry::subdivision), subdivision4)
+                                                  .set(field(LeagueEntry::id), 4)
+                                                  .set(field(LeagueEntry::player), player)
+                                                  .create());
 
     assertThat(series.getFirst().getData().getFirst().getYValue(), equalTo(0));
     assertThat(series.getFirst().getData().getLast().getYValue(), equalTo(0));
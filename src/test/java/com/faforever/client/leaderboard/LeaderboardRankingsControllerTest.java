@@ -3,20 +3,22 @@ package com.faforever.client.leaderboard;
 import com.faforever.client.builders.PlayerInfoBuilder;
 import com.faforever.client.domain.api.Division;
 import com.faforever.client.domain.api.LeagueEntry;
+import com.faforever.client.domain.api.LeagueSeason;
 import com.faforever.client.domain.api.Subdivision;
 import com.faforever.client.domain.server.PlayerInfo;
 import com.faforever.client.fx.contextmenu.ContextMenuBuilder;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.player.PlayerService;
 import com.faforever.client.test.PlatformTest;
-import javafx.beans.property.SimpleObjectProperty;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
@@ -25,6 +27,7 @@ import static org.hamcrest.Matchers.is;
 import static org.instancio.Select.field;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
 
 public class LeaderboardRankingsControllerTest extends PlatformTest {
 
@@ -36,14 +39,14 @@ public class LeaderboardRankingsControllerTest extends PlatformTest {
   @Mock
   private PlayerService playerService;
   @Mock
+  private LeaderboardService leaderboardService;
+  @Mock
   private ContextMenuBuilder contextMenuBuilder;
 
   private final PlayerInfo player = PlayerInfoBuilder.create().defaultValues().get();
 
   @BeforeEach
   public void setup() throws Exception {
-    lenient().when(playerService.currentPlayerProperty()).thenReturn(new SimpleObjectProperty<>(player));
-    lenient().when(playerService.getCurrentPlayer()).thenReturn(player);
     lenient().when(i18n.get(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
     loadFxml("theme/leaderboard/leaderboard_rankings.fxml", clazz -> instance);
@@ -82,18 +85,30 @@ public class LeaderboardRankingsControllerTest extends PlatformTest {
     assertThat(instance.subdivisionToggleGroup.getSelectedToggle(),
                is(instance.subdivisionButtons.getChildren().getLast()));
 
+    LeagueSeason leagueSeason = Instancio.create(LeagueSeason.class);
     LeagueEntry leagueEntry = Instancio.of(LeagueEntry.class)
                                        .set(field(LeagueEntry::id), 1)
                                        .set(field(LeagueEntry::subdivision), subdivision1)
                                        .set(field(LeagueEntry::player), player)
+                                       .set(field(LeagueEntry::rank), 2L)
                                        .create();
-    instance.setLeagueEntries(List.of(leagueEntry));
+    when(leaderboardService.getActiveEntries(leagueSeason, subdivision1, 2, 1, 100)).thenReturn(
+        Mono.just(List.of(leagueEntry)));
+    lenient().when(leaderboardService.getPositionInSubdivision(leagueEntry)).thenReturn(Mono.just(0));
+
+    runOnFxThreadAndWait(() -> {
+      instance.setLeagueSeason(leagueSeason);
+      instance.setSubdivisionEntryCounts(Map.of(subdivision1, 1, subdivision2, 2, subdivision3, 0, subdivision4, 0));
+      instance.setCurrentPlayerLeagueEntry(leagueEntry);
+    });
+    waitFxEvents();
 
     assertThat(instance.divisionPicker.getItems(), contains(division2, division1));
     assertThat(instance.divisionPicker.getSelectionModel().getSelectedItem(), is(division1));
     assertThat(instance.subdivisionButtons.getChildren(), hasSize(2));
     assertThat(instance.subdivisionToggleGroup.getSelectedToggle(),
                is(instance.subdivisionButtons.getChildren().getFirst()));
+    assertThat(instance.ratingTable.getItems(), hasSize(1));
     assertThat(instance.ratingTable.getSelectionModel().getSelectedItem(), is(leagueEntry));
   }
 
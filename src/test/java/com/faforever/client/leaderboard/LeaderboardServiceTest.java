@@ -15,9 +15,11 @@ import com.faforever.client.mapstruct.LeaderboardMapper;
 import com.faforever.client.mapstruct.MapperSetup;
 import com.faforever.client.player.PlayerService;
 import com.faforever.client.remote.AssetService;
+import com.faforever.client.test.ApiTestUtil;
 import com.faforever.client.test.ElideMatchers;
 import com.faforever.client.test.ServiceTest;
 import com.faforever.commons.api.elide.ElideEntity;
+import com.github.rutledgepaulv.qbuilders.builders.QBuilder;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,9 +28,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import reactor.util.function.Tuple2;
 
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
 
 import static com.faforever.commons.api.elide.ElideNavigator.qBuilder;
 import static org.instancio.Select.field;
@@ -208,10 +214,11 @@ public class LeaderboardServiceTest extends ServiceTest {
   }
 
   @Test
-  public void testGetLeagueEntries() {
+  public void testGetLeagueEntriesPage() {
     LeagueSeason leagueSeason = Instancio.create(LeagueSeason.class);
+    Subdivision subdivision = Instancio.create(Subdivision.class);
     LeagueEntry leagueEntry = Instancio.of(LeagueEntry.class)
-                                       .set(field(LeagueEntry::rank), 0L)
+                                       .set(field(LeagueEntry::rank), 250L)
                                        .set(field(LeagueEntry::player), player)
                                        .create();
     Flux<ElideEntity> resultFlux = Flux.just(leaderboardMapper.map(leagueEntry));
@@ -219,15 +226,63 @@ public class LeaderboardServiceTest extends ServiceTest {
     when(playerService.getPlayersByIds(anyCollection())).thenReturn(
         Flux.just(PlayerInfoBuilder.create().id(1).username("junit").get()));
 
-    StepVerifier.create(instance.getActiveEntries(leagueSeason)).expectNext(leagueEntry).verifyComplete();
+    StepVerifier.create(instance.getActiveEntries(leagueSeason, subdivision, 50, 3, 100))
+                .expectNext(List.of(leagueEntry))
+                .verifyComplete();
+    verify(fafApiAccessor).getMany(argThat(ElideMatchers.hasPageNumber(3)));
+    verify(fafApiAccessor).getMany(argThat(ElideMatchers.hasPageSize(100)));
+    verify(fafApiAccessor).getMany(argThat(ElideMatchers.hasFilter(
+        qBuilder().intNum("leagueSeason.id")
+                  .eq(leagueSeason.id())
+                  .and()
+                  .intNum("leagueSeasonDivisionSubdivision.id")
+                  .eq(subdivision.id())
+                  .and()
+                  .intNum("score")
+                  .gte(0))));
   }
 
   @Test
-  public void testGetLeagueEntriesEmpty() {
+  public void testGetLeagueEntriesPageEmpty() {
     LeagueSeason leagueSeason = Instancio.create(LeagueSeason.class);
+    Subdivision subdivision = Instancio.create(Subdivision.class);
     when(fafApiAccessor.getMany(any())).thenReturn(Flux.empty());
     when(playerService.getPlayersByIds(anyCollection())).thenReturn(Flux.empty());
-    StepVerifier.create(instance.getActiveEntries(leagueSeason)).verifyComplete();
+    StepVerifier.create(instance.getActiveEntries(leagueSeason, subdivision, 0, 1, 100))
+                .expectNext(List.of())
+                .verifyComplete();
+  }
+
+  @Test
+  public void testGetActiveEntryCounts() {
+    LeagueSeason leagueSeason = Instancio.create(LeagueSeason.class);
+    Subdivision subdivision = Instancio.create(Subdivision.class);
+    Flux<ElideEntity> resultFlux = Flux.just(leaderboardMapper.map(subdivision));
+    when(fafApiAccessor.getMany(any())).thenReturn(resultFlux);
+    Mono<Tuple2<List<ElideEntity>, Integer>> resultMono = ApiTestUtil.apiPageOf(List.of(), 42);
+    when(fafApiAccessor.getManyWithPageCount(any())).thenReturn(resultMono);
+
+    StepVerifier.create(instance.getActiveEntryCounts(leagueSeason))
+                .expectNext(Map.of(subdivision, 42))
+                .verifyComplete();
+    verify(fafApiAccessor).getManyWithPageCount(argThat(ElideMatchers.hasPageSize(1)));
+  }
+
+  @Test
+  public void testGetPositionInSubdivision() {
+    LeagueEntry leagueEntry = Instancio.create(LeagueEntry.class);
+    Mono<Tuple2<List<ElideEntity>, Integer>> resultMono = ApiTestUtil.apiPageOf(List.of(), 7);
+    when(fafApiAccessor.getManyWithPageCount(any())).thenReturn(resultMono);
+
+    StepVerifier.create(instance.getPositionInSubdivision(leagueEntry)).expectNext(7).verifyComplete();
+    verify(fafApiAccessor).getManyWithPageCount(argThat(ElideMatchers.hasFilter(new QBuilder().and(List.of(
+        qBuilder().intNum("leagueSeason.id")
+                  .eq(leagueEntry.leagueSeason().id())
+                  .and()
+                  .intNum("leagueSeasonDivisionSubdivision.id")
+                  .eq(leagueEntry.subdivision().id()), new QBuilder().or(List.of(
+            qBuilder().intNum("score").gt(leagueEntry.score()),
+            qBuilder().intNum("score").eq(leagueEntry.score()).and().intNum("id").lt(leagueEntry.id()))))))));
   }
 
 
@@ -1,19 +1,40 @@
 package com.faforever.client.logging;
 
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
 import com.faforever.client.os.OperatingSystem;
 import com.faforever.client.os.OsPosix;
 import com.faforever.client.test.ServiceTest;
+import com.faforever.client.util.MaskPatternLayout;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Spy;
 
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 
 public class LoggingServiceTest extends ServiceTest {
@@ -28,7 +49,7 @@ public class LoggingServiceTest extends ServiceTest {
 
   @BeforeEach
   public void setUp() throws Exception {
-    when(operatingSystem.getLoggingDirectory()).thenReturn(Path.of("."));
+    lenient().when(operatingSystem.getLoggingDirectory()).thenReturn(Path.of("."));
   }
 
   @Test
@@ -49,4 +70,126 @@ public class LoggingServiceTest extends ServiceTest {
     Files.delete(instance.getNewGameLogFile(1));
     Files.delete(instance.getNewGameLogFile(2));
   }
+
+  @Test
+  public void testGetNewLogFileDeletesCompressedLogs(@TempDir Path logDirectory) throws Exception {
+    when(operatingSystem.getLoggingDirectory()).thenReturn(logDirectory);
+    for (int i = 0; i < 12; i++) {
+      writeGameLog(logDirectory.resolve("game_%d.log.gz".formatted(i)), "", i);
+    }
+
+    instance.getNewGameLogFile(12);
+
+    try (Stream<Path> files = Files.list(logDirectory)) {
+      assertEquals(9, files.count());
+    }
+    assertFalse(Files.exists(logDirectory.resolve("game_0.log.gz")));
+    assertTrue(Files.exists(logDirectory.resolve("game_11.log.gz")));
+  }
+
+  @Test
+  public void testPostProcessGameLogFileMasksLinesAndKeepsLineTerminators(@TempDir Path logDirectory) throws Exception {
+    when(operatingSystem.getLoggingDirectory()).thenReturn(logDirectory);
+    String userProfile = System.getProperty("user.home");
+    String content = "info: Init\r\ninfo: Loading " + userProfile + "/maps/setons\r\n" + "x".repeat(100_000) + "\n" +
+        "info: Exiting " + userProfile.toUpperCase();
+    Path gameLogFile = writeGameLog(logDirectory.resolve("game_1.log"), content, 0);
+
+    instance.postProcessGameLogFile(gameLogFile).get();
+
+    assertEquals(new MaskPatternLayout().maskMessage(content), Files.readString(gameLogFile));
+    try (Stream<Path> files = Files.list(logDirectory)) {
+      assertEquals(List.of(gameLogFile), files.toList());
+    }
+  }
+
+  @Test
+  public void testPostProcessGameLogFileMasksValuesAcrossPartsOfLongLines(@TempDir Path logDirectory) throws Exception {
+    when(operatingSystem.getLoggingDirectory()).thenReturn(logDirectory);
+    String userProfile = System.getProperty("user.home");
+    // Values follow each other closely enough that one crosses wherever the line is split
+    String content = (userProfile + " ").repeat(200_000 / userProfile.length());
+    Path gameLogFile = writeGameLog(logDirectory.resolve("game_1.log"), content, 0);
+
+    instance.postProcessGameLogFile(gameLogFile).get();
+
+    assertEquals(new MaskPatternLayout().maskMessage(content), Files.readString(gameLogFile));
+  }
+
+  @Test
+  public void testPostProcessGameLogFileDeletesLeftOverTemporaryFiles(@TempDir Path logDirectory) throws Exception {
+    when(operatingSystem.getLoggingDirectory()).thenReturn(logDirectory);
+    Path gameLogFile = writeGameLog(logDirectory.resolve("game_1.log"), "info: Init", 1);
+    writeGameLog(logDirectory.resolve("game_0.log1234567890.tmp"), "info: Init " + System.getProperty("user.name"), 0);
+
+    instance.postProcessGameLogFile(gameLogFile).get();
+
+    try (Stream<Path> files = Files.list(logDirectory)) {
+      assertEquals(List.of(gameLogFile), files.toList());
+    }
+  }
+
+  @Test
+  public void testPostProcessGameLogFileCompressesOlderLogs(@TempDir Path logDirectory) throws Exception {
+    when(operatingSystem.getLoggingDirectory()).thenReturn(logDirectory);
+    for (int i = 0; i < 5; i++) {
+      writeGameLog(logDirectory.resolve("game_%d.log".formatted(i)), "game " + i, i);
+    }
+
+    instance.postProcessGameLogFile(logDirectory.resolve("game_4.log")).get();
+
+    for (int i = 2; i < 5; i++) {
+      assertTrue(Files.exists(logDirectory.resolve("game_%d.log".formatted(i))));
+    }
+    for (int i = 0; i < 2; i++) {
+      Path compressedFile = logDirectory.resolve("game_%d.log.gz".formatted(i));
+      assertFalse(Files.exists(logDirectory.resolve("game_%d.log".formatted(i))));
+      assertEquals(FileTime.from(Instant.ofEpochSecond(1_000_000 + i)), Files.getLastModifiedTime(compressedFile));
+      try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(compressedFile))) {
+        assertEquals("game " + i, new String(inputStream.readAllBytes(), UTF_8));
+      }
+    }
+  }
+
+  @Test
+  public void testAppendersAreAsynchronousAndNonBlocking(@TempDir Path logDirectory) throws Exception {
+    Map<String, String> previousProperties = new HashMap<>();
+    for (String property : List.of("LOG_FILE", "ICE_ADVANCED_LOG", "MAP_GENERATOR_LOG", "IRC_LOG")) {
+      previousProperties.put(property, System.getProperty(property));
+      System.setProperty(property, logDirectory.resolve(property + ".log").toString());
+    }
+    LoggerContext context = new LoggerContext();
+    try {
+      instance.configure(context);
+
+      List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+      for (String loggerName : List.of(Logger.ROOT_LOGGER_NAME, "faf-ice-adapter-advanced", "faf-map-generator",
+                                       "faf-irc")) {
+        context.getLogger(loggerName).iteratorForAppenders().forEachRemaining(appenders::add);
+      }
+
+      assertEquals(5, appenders.size());
+      for (Appender<ILoggingEvent> appender : appenders) {
+        AsyncAppender asyncAppender = assertInstanceOf(AsyncAppender.class, appender);
+        assertTrue(asyncAppender.isStarted());
+        assertTrue(asyncAppender.isNeverBlock());
+        assertEquals(1024, asyncAppender.getQueueSize());
+      }
+    } finally {
+      context.stop();
+      previousProperties.forEach((property, value) -> {
+        if (value == null) {
+          System.clearProperty(property);
+        } else {
+          System.setProperty(property, value);
+        }
+      });
+    }
+  }
+
+  private Path writeGameLog(Path file, String content, int order) throws Exception {
+    Files.writeString(file, content);
+    Files.setLastModifiedTime(file, FileTime.from(Instant.ofEpochSecond(1_000_000 + order)));
+    return file;
+  }
 }
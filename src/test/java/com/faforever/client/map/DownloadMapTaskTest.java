@@ -1,6 +1,9 @@
 package com.faforever.client.map;
 
 import com.faforever.client.i18n.I18n;
+import com.faforever.client.io.DownloadBlobStore;
+import com.faforever.client.io.DownloadService;
+import com.faforever.client.preferences.DataPrefs;
 import com.faforever.client.preferences.ForgedAlliancePrefs;
 import com.faforever.client.test.PlatformTest;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,12 +32,15 @@ public class DownloadMapTaskTest extends PlatformTest {
   private I18n i18n;
   @Spy
   private ForgedAlliancePrefs forgedAlliancePrefs;
+  @Spy
+  private DataPrefs dataPrefs;
 
   private Path mapsDirectory;
 
   @BeforeEach
   public void setUp() throws Exception {
-    instance = new DownloadMapTask(i18n, forgedAlliancePrefs);
+    dataPrefs.setBaseDataDirectory(tempDirectory);
+    instance = new DownloadMapTask(i18n, forgedAlliancePrefs, new DownloadService(new DownloadBlobStore(dataPrefs)));
     forgedAlliancePrefs.setVaultBaseDirectory(tempDirectory);
     mapsDirectory = Files.createDirectory(tempDirectory.resolve("maps"));
   }
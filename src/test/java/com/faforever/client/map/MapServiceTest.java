@@ -16,6 +16,7 @@ import com.faforever.client.mapstruct.MapperSetup;
 import com.faforever.client.mapstruct.MatchmakerMapper;
 import com.faforever.client.notification.NotificationService;
 import com.faforever.client.player.PlayerService;
+import com.faforever.client.preferences.DataPrefs;
 import com.faforever.client.preferences.ForgedAlliancePrefs;
 import com.faforever.client.preferences.Preferences;
 import com.faforever.client.remote.AssetService;
@@ -58,8 +59,11 @@ import java.io.InputStream;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 import static com.faforever.commons.api.elide.ElideNavigator.qBuilder;
@@ -128,6 +132,8 @@ public class MapServiceTest extends PlatformTest {
   private Preferences preferences;
 
   private Path mapsDirectory;
+  private DataPrefs dataPrefs;
+  private ScenarioMetadataCache scenarioMetadataCache;
 
   @BeforeEach
   public void setUp() throws Exception {
@@ -139,6 +145,9 @@ public class MapServiceTest extends PlatformTest {
 
     forgedAlliancePrefs.setInstallationPath(Path.of("."));
     forgedAlliancePrefs.setVaultBaseDirectory(tempDirectory);
+    dataPrefs = new DataPrefs();
+    dataPrefs.setBaseDataDirectory(tempDirectory.resolve("data"));
+    scenarioMetadataCache = new ScenarioMetadataCache(dataPrefs);
 
     doAnswer(invocation -> {
       CompletableTask<?> task = invocation.getArgument(0);
@@ -149,7 +158,8 @@ public class MapServiceTest extends PlatformTest {
 
     instance = new MapService(notificationService, taskService, fafApiAccessor, assetService, i18n,
                               themeService, mapGeneratorService, playerService, mapMapper, matchmakerMapper, fileSizeReader,
-                              clientProperties, forgedAlliancePrefs, preferences, mapUploadTaskFactory,
+                              clientProperties, forgedAlliancePrefs, preferences, scenarioMetadataCache,
+                              mapUploadTaskFactory,
                               downloadMapTaskFactory, uninstallMapTaskFactory, fxApplicationThreadExecutor);
     instance.officialMaps = Set.of();
     instance.afterPropertiesSet();
@@ -205,6 +215,73 @@ public class MapServiceTest extends PlatformTest {
     assertThat(mapBean.folderName(), is("SCMP_001"));
   }
 
+  @Test
+  public void testReadMapUsesCachedScenarioMetadata() throws Exception {
+    Path mapFolder = copyScmp001To("cachedMap");
+    Path scenarioFile = mapFolder.resolve("SCMP_001_scenario.lua");
+    FileTime lastModified = Files.getLastModifiedTime(scenarioFile);
+    instance.readMap(mapFolder);
+
+    // Same size and modification time, so the now invalid lua must not be evaluated
+    Files.writeString(scenarioFile, "x".repeat((int) Files.size(scenarioFile)));
+    Files.setLastModifiedTime(scenarioFile, lastModified);
+
+    MapVersion mapBean = instance.readMap(mapFolder);
+    assertThat(mapBean.folderName(), is("cachedMap"));
+    assertThat(mapBean.map().displayName(), is("Burial Mounds"));
+    assertThat(mapBean.size(), is(new MapSize(1024, 1024)));
+    assertThat(mapBean.version(), is(new ComparableVersion("1")));
+
+    Files.setLastModifiedTime(scenarioFile, FileTime.fromMillis(lastModified.toMillis() + 1000));
+    assertThat(assertThrows(MapLoadException.class, () -> instance.readMap(mapFolder)).getCause(),
+               IsInstanceOf.instanceOf(LuaError.class));
+  }
+
+  @Test
+  public void testScenarioMetadataCacheIsPersisted() throws Exception {
+    Path mapFolder = copyScmp001To("persistedMap");
+    instance.readMap(mapFolder);
+    scenarioMetadataCache.destroy();
+
+    ScenarioMetadataCache newCache = new ScenarioMetadataCache(dataPrefs);
+    assertThat(newCache.get(mapFolder).map(ScenarioMetadataCache.ScenarioMetadata::name).orElseThrow(),
+               is("Burial Mounds"));
+  }
+
+  @Test
+  public void testScanInstalledMapsDropsCachedMetadataOfUninstalledMaps() throws Exception {
+    Path uninstalledMap = copyScmp001To("uninstalledMap");
+    Path installedMap = copyScmp001To("installedMap");
+    instance.readMap(uninstalledMap);
+
+    instance.scanInstalledMaps(List.of(installedMap), (mapsRead, totalMaps) -> {});
+    scenarioMetadataCache.destroy();
+
+    ScenarioMetadataCache newCache = new ScenarioMetadataCache(dataPrefs);
+    assertThat(newCache.get(uninstalledMap).isPresent(), is(false));
+    assertThat(newCache.get(installedMap).isPresent(), is(true));
+  }
+
+  @Test
+  public void testScanInstalledMapsPublishesAllMaps() throws Exception {
+    List<Path> mapPaths = new ArrayList<>();
+    for (int i = 0; i < 250; i++) {
+      mapPaths.add(copyScmp001To("map" + i));
+    }
+    mapPaths.add(mapsDirectory.resolve("notAMap"));
+
+    AtomicLong lastProgress = new AtomicLong();
+    instance.scanInstalledMaps(mapPaths, (mapsRead, totalMaps) -> {
+      assertThat(totalMaps, is(251L));
+      lastProgress.set(mapsRead);
+    });
+    WaitForAsyncUtils.waitForFxEvents();
+
+    assertThat(lastProgress.get(), is(251L));
+    assertThat(instance.getInstalledMaps(), hasSize(250));
+    assertThat(instance.isInstalled("MAP249"), is(true));
+  }
+
   @Test
   public void testInstalledOfficialMapIgnoreCase() throws Exception {
     instance.officialMaps = Set.of("SCMP_001");
@@ -527,6 +604,13 @@ public class MapServiceTest extends PlatformTest {
     }
   }
 
+  private Path copyScmp001To(String folderName) throws Exception {
+    Path mapFolder = Files.createDirectory(mapsDirectory.resolve(folderName));
+    Files.copy(getClass().getResourceAsStream("/maps/SCMP_001/SCMP_001_scenario.lua"),
+               mapFolder.resolve("SCMP_001_scenario.lua"));
+    return mapFolder;
+  }
+
   private boolean checkCustomMapFolderExist(MapVersion map) throws IOException {
     try (Stream<Path> files = Files.list(mapsDirectory)) {
       return files.anyMatch(path -> path.getFileName().toString().equals(map.folderName()) && path.toFile()
@@ -14,7 +14,7 @@ public class StubDownloadMapTask extends DownloadMapTask {
   public MapVersion mapToDownload;
 
   public StubDownloadMapTask(ForgedAlliancePrefs forgedAlliancePrefs, I18n i18n, Path customMapsDirectory) {
-    super(i18n, forgedAlliancePrefs);
+    super(i18n, forgedAlliancePrefs, null);
     this.customMapsDirectory = customMapsDirectory;
   }
 
@@ -1,6 +1,8 @@
 package com.faforever.client.mod;
 
 import com.faforever.client.i18n.I18n;
+import com.faforever.client.io.DownloadBlobStore;
+import com.faforever.client.io.DownloadService;
 import com.faforever.client.preferences.DataPrefs;
 import com.faforever.client.preferences.ForgedAlliancePrefs;
 import com.faforever.client.test.PlatformTest;
@@ -12,6 +14,10 @@ import org.mockito.Spy;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -24,6 +30,7 @@ public class DownloadModTaskTest extends PlatformTest {
   public Path tempDirectory;
   private Path modsDirectory;
 
+  private DownloadService downloadService;
   private DownloadModTask instance;
   @Mock
   private I18n i18n;
@@ -35,7 +42,8 @@ public class DownloadModTaskTest extends PlatformTest {
 
   @BeforeEach
   public void setUp() throws Exception {
-    instance = new DownloadModTask(i18n, dataPrefs, forgedAlliancePrefs);
+    downloadService = new DownloadService(new DownloadBlobStore(dataPrefs));
+    instance = new DownloadModTask(i18n, forgedAlliancePrefs, downloadService);
     dataPrefs.setBaseDataDirectory(tempDirectory);
     forgedAlliancePrefs.setVaultBaseDirectory(tempDirectory);
 
@@ -60,4 +68,29 @@ public class DownloadModTaskTest extends PlatformTest {
     assertThat(Files.exists(modTargetDirectory.resolve("mod_info.lua")), is(true));
     assertThat(Files.exists(fileThatShouldBeDeletedByInstall), is(false));
   }
+
+  @Test
+  public void testConcurrentInstallsLeaveNoStagingFiles() throws Exception {
+    DownloadModTask otherInstance = new DownloadModTask(i18n, forgedAlliancePrefs, downloadService);
+    instance.setUrl(getClass().getResource("/mods/Suicide Confirmation.v0003.zip"));
+    otherInstance.setUrl(getClass().getResource("/mods/Suicide Confirmation.v0003.zip"));
+
+    CompletableFuture<Void> first = CompletableFuture.runAsync(() -> callUnchecked(instance));
+    CompletableFuture<Void> second = CompletableFuture.runAsync(() -> callUnchecked(otherInstance));
+    CompletableFuture.allOf(first, second).get(10, TimeUnit.SECONDS);
+
+    assertThat(Files.exists(modsDirectory.resolve("SuicideConfirmation").resolve("mod_info.lua")), is(true));
+    try (Stream<Path> modDirectories = Files.list(modsDirectory)) {
+      assertEquals(List.of(modsDirectory.resolve("SuicideConfirmation")), modDirectories.toList());
+    }
+    assertThat(Files.exists(modsDirectory.resolveSibling(".mod-staging")), is(false));
+  }
+
+  private static void callUnchecked(DownloadModTask task) {
+    try {
+      task.call();
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
 }
@@ -9,7 +9,6 @@ import com.faforever.client.i18n.I18n;
 import com.faforever.client.mapstruct.MapperSetup;
 import com.faforever.client.mapstruct.ModMapper;
 import com.faforever.client.notification.NotificationService;
-import com.faforever.client.preferences.DataPrefs;
 import com.faforever.client.preferences.ForgedAlliancePrefs;
 import com.faforever.client.preferences.Preferences;
 import com.faforever.client.remote.AssetService;
@@ -118,8 +117,6 @@ public class ModServiceTest extends PlatformTest {
   @Spy
   private ForgedAlliancePrefs forgedAlliancePrefs;
   @Spy
-  private DataPrefs dataPrefs;
-  @Spy
   private Preferences preferences;
 
   private ModService instance;
@@ -334,7 +331,7 @@ public class ModServiceTest extends PlatformTest {
   }
 
   private DownloadModTask stubDownloadModTask() {
-    return new DownloadModTask(i18n, dataPrefs, forgedAlliancePrefs) {
+    return new DownloadModTask(i18n, forgedAlliancePrefs, null) {
       @Override
       protected Void call() {
         return null;
@@ -0,0 +1,170 @@
+package com.faforever.client.patch;
+
+import com.faforever.client.domain.api.FeaturedMod;
+import com.faforever.client.featuredmod.FeaturedModService;
+import com.faforever.client.i18n.I18n;
+import com.faforever.client.io.DownloadBlobStore;
+import com.faforever.client.io.DownloadService;
+import com.faforever.client.io.FeaturedModFileCacheService;
+import com.faforever.client.io.FileFingerprintService;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.preferences.Preferences;
+import com.faforever.client.test.PlatformTest;
+import com.faforever.commons.api.dto.FeaturedModFile;
+import com.google.common.hash.Hashing;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+public class SimpleHttpFeaturedModUpdaterTaskTest extends PlatformTest {
+
+  private static final int FILE_COUNT = 50;
+  private static final long SIMULATED_LATENCY_MILLIS = 50;
+
+  @TempDir
+  public Path tempDirectory;
+
+  @Mock
+  private FeaturedModService featuredModService;
+  @Mock
+  private I18n i18n;
+  @Spy
+  private DataPrefs dataPrefs;
+  @Spy
+  private Preferences preferences;
+
+  private final AtomicInteger requestCount = new AtomicInteger();
+  private final AtomicInteger concurrentRequests = new AtomicInteger();
+  private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+
+  private MockWebServer fileServer;
+  private FileFingerprintService fileFingerprintService;
+  private FeaturedModFileCacheService featuredModFileCacheService;
+  private FeaturedMod featuredMod;
+  private List<FeaturedModFile> featuredModFiles;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    dataPrefs.setBaseDataDirectory(tempDirectory);
+    fileFingerprintService = new FileFingerprintService(dataPrefs);
+    featuredModFileCacheService = new FeaturedModFileCacheService(dataPrefs, preferences, fileFingerprintService);
+
+    fileServer = new MockWebServer();
+    fileServer.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+        requestCount.incrementAndGet();
+        maxConcurrentRequests.accumulateAndGet(concurrentRequests.incrementAndGet(), Math::max);
+        try {
+          Thread.sleep(SIMULATED_LATENCY_MILLIS);
+          String fileName = request.getRequestUrl().pathSegments().getLast();
+          return new MockResponse().setBody(contentOf(fileName));
+        } finally {
+          concurrentRequests.decrementAndGet();
+        }
+      }
+    });
+    fileServer.start();
+
+    featuredMod = new FeaturedMod(1, "faf", "FAF", null, null, null, true);
+    featuredModFiles = new ArrayList<>();
+    for (int i = 0; i < FILE_COUNT - 1; i++) {
+      featuredModFiles.add(featuredModFile("gamedata", "file" + i + ".nx2"));
+    }
+    featuredModFiles.add(featuredModFile("bin", "init_faf.lua"));
+
+    when(featuredModService.getFeaturedMod("faf")).thenReturn(Mono.just(featuredMod));
+    when(featuredModService.getFeaturedModFiles(featuredMod, null)).thenReturn(Flux.fromIterable(featuredModFiles));
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    fileServer.shutdown();
+  }
+
+  @Test
+  public void testFilesAreDownloadedConcurrently() throws Exception {
+    PatchResult patchResult = createTask().call();
+
+    assertEquals(dataPrefs.getBaseDataDirectory().resolve("bin").resolve("init_faf.lua"), patchResult.initFile());
+    for (FeaturedModFile featuredModFile : featuredModFiles) {
+      Path file = dataPrefs.getBaseDataDirectory().resolve(featuredModFile.getGroup()).resolve(featuredModFile.getName());
+      assertEquals(contentOf(featuredModFile.getName()), Files.readString(file));
+    }
+    assertEquals(FILE_COUNT, requestCount.get());
+    assertTrue(maxConcurrentRequests.get() > 1, "Files have not been downloaded concurrently");
+    assertTrue(maxConcurrentRequests.get() <= SimpleHttpFeaturedModUpdaterTask.MAX_CONCURRENT_DOWNLOADS,
+               "Too many concurrent downloads: " + maxConcurrentRequests.get());
+  }
+
+  @Test
+  public void testProgressIsAggregatedOverAllFiles() throws Exception {
+    SimpleHttpFeaturedModUpdaterTask task = createTask();
+
+    task.call();
+    waitFxEvents();
+
+    assertEquals(1.0, task.getProgress(), 0.0001);
+  }
+
+  @Test
+  public void testPreparedFilesAreNotDownloadedAgain() throws Exception {
+    createTask().call();
+    requestCount.set(0);
+
+    createTask().call();
+
+    assertEquals(0, requestCount.get());
+  }
+
+  private SimpleHttpFeaturedModUpdaterTask createTask() {
+    SimpleHttpFeaturedModUpdaterTask task = new SimpleHttpFeaturedModUpdaterTask(featuredModService,
+                                                                                 new DownloadService(new DownloadBlobStore(dataPrefs)), i18n,
+                                                                                 featuredModFileCacheService,
+                                                                                 fileFingerprintService, dataPrefs);
+    task.setFeaturedModName("faf");
+    return task;
+  }
+
+  private FeaturedModFile featuredModFile(String group, String name) {
+    FeaturedModFile featuredModFile = new FeaturedModFile();
+    featuredModFile.setId(name);
+    featuredModFile.setGroup(group);
+    featuredModFile.setName(name);
+    featuredModFile.setVersion("3800");
+    featuredModFile.setMd5(md5Of(contentOf(name)));
+    featuredModFile.setCacheableUrl(fileServer.url("/featuredMods/faf/" + name).toString());
+    featuredModFile.setHmacParameter("verify");
+    featuredModFile.setHmacToken("token");
+    return featuredModFile;
+  }
+
+  private static String contentOf(String fileName) {
+    return "content of " + fileName;
+  }
+
+  @SuppressWarnings("deprecation")
+  private static String md5Of(String content) {
+    return Hashing.md5().hashString(content, StandardCharsets.UTF_8).toString();
+  }
+}
@@ -8,13 +8,13 @@ import com.faforever.client.builders.PlayerAchievementBuilder;
 import com.faforever.client.builders.PlayerInfoBuilder;
 import com.faforever.client.domain.api.Leaderboard;
 import com.faforever.client.domain.api.LeaderboardEntry;
-import com.faforever.client.domain.api.LeaderboardRatingJournal;
 import com.faforever.client.domain.api.LeagueLeaderboard;
 import com.faforever.client.domain.api.LeagueSeason;
 import com.faforever.client.domain.server.PlayerInfo;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.leaderboard.LeaderboardService;
 import com.faforever.client.notification.NotificationService;
+import com.faforever.client.stats.RatingHistoryPoint;
 import com.faforever.client.stats.StatisticsService;
 import com.faforever.client.test.PlatformTest;
 import com.faforever.client.theme.UiService;
@@ -32,6 +32,8 @@ import org.testfx.util.WaitForAsyncUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 import static org.instancio.Select.field;
 import static org.instancio.Select.scope;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -97,12 +99,9 @@ public class PlayerInfoWindowControllerTest extends PlatformTest {
     lenient().when(leaderboardService.getLeaderboards()).thenReturn(Flux.just(leaderboard));
     lenient().when(leaderboardService.getEntriesForPlayer(eq(player)))
              .thenReturn(Flux.just(Instancio.create(LeaderboardEntry.class)));
-    lenient().when(statisticsService.getRatingHistory(eq(player), any()))
-             .thenReturn(Flux.fromIterable(Instancio.ofList(LeaderboardRatingJournal.class)
-                                                    .size(2)
-                                                    .set(field(LeaderboardRatingJournal::meanBefore), 1500d)
-                                                    .set(field(LeaderboardRatingJournal::deviationBefore), 50d)
-                                                    .create()));
+    lenient().when(statisticsService.getRatingHistory(eq(player), any(), any()))
+             .thenReturn(Mono.just(List.of(new RatingHistoryPoint(1, 1_600_000_000L, 1350),
+                                           new RatingHistoryPoint(2, 1_600_003_600L, 1360))));
 
     loadFxml("theme/user_info_window.fxml", clazz -> instance);
   }
@@ -183,6 +182,6 @@ public class PlayerInfoWindowControllerTest extends PlatformTest {
     testSetPlayerInfoBean();
     instance.ratingTypeComboBox.setValue(leaderboard);
     instance.onRatingTypeChange();
-    verify(statisticsService, times(2)).getRatingHistory(player, leaderboard);
+    verify(statisticsService, times(2)).getRatingHistory(player, leaderboard, TimePeriod.ALL_TIME);
   }
 }
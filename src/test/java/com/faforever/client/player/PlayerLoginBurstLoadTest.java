@@ -0,0 +1,135 @@
+package com.faforever.client.player;
+
+import com.faforever.client.api.FafApiAccessor;
+import com.faforever.client.domain.server.PlayerInfo;
+import com.faforever.client.fx.FxApplicationThreadExecutor;
+import com.faforever.client.mapstruct.MapperSetup;
+import com.faforever.client.mapstruct.PlayerMapper;
+import com.faforever.client.remote.FafServerAccessor;
+import com.faforever.client.test.ServiceTest;
+import com.faforever.client.user.LoginService;
+import com.faforever.commons.lobby.Player;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.publisher.TestPublisher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.mockito.Mockito.when;
+
+/**
+ * Replays a login burst, i.e. the full player list the server sends on login followed by the usual trickle of
+ * individual updates, and reports how much time was spent on the JavaFX thread to apply it. JavaFX pulses are
+ * simulated by draining the queued runnables after every few messages.
+ */
+@Slf4j
+public class PlayerLoginBurstLoadTest extends ServiceTest {
+
+  private static final int ONLINE_PLAYERS = 2500;
+  private static final int FOLLOW_UP_MESSAGES = 500;
+  private static final int MESSAGES_PER_PULSE = 50;
+
+  @Mock
+  private FafApiAccessor fafApiAccessor;
+  @Mock
+  private FafServerAccessor fafServerAccessor;
+  @Mock
+  private LoginService loginService;
+  @Mock
+  private FxApplicationThreadExecutor fxApplicationThreadExecutor;
+  @Spy
+  private PlayerMapper playerMapper = Mappers.getMapper(PlayerMapper.class);
+
+  @InjectMocks
+  private PlayerService instance;
+
+  private final TestPublisher<com.faforever.commons.lobby.PlayerInfo> playerInfoTestPublisher = TestPublisher.create();
+  private final Queue<Runnable> fxThreadQueue = new ConcurrentLinkedQueue<>();
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    MapperSetup.injectMappers(playerMapper);
+    when(fxApplicationThreadExecutor.asScheduler()).thenReturn(Schedulers.fromExecutor(fxThreadQueue::add));
+    when(fafServerAccessor.getEvents(com.faforever.commons.lobby.PlayerInfo.class))
+        .thenReturn(playerInfoTestPublisher.flux());
+    when(loginService.ownPlayerProperty()).thenReturn(new ReadOnlyObjectWrapper<>());
+
+    instance.afterPropertiesSet();
+  }
+
+  @Test
+  public void testLoginBurst() {
+    List<com.faforever.commons.lobby.PlayerInfo> messages = recordedLoginBurst();
+
+    long fxThreadNanos = 0;
+    int pulses = 0;
+    int fxRunnables = 0;
+    for (int i = 0; i < messages.size(); i++) {
+      playerInfoTestPublisher.next(messages.get(i));
+      if ((i + 1) % MESSAGES_PER_PULSE == 0 || i == messages.size() - 1) {
+        pulses++;
+        Runnable runnable;
+        while ((runnable = fxThreadQueue.poll()) != null) {
+          long start = System.nanoTime();
+          runnable.run();
+          fxThreadNanos += System.nanoTime() - start;
+          fxRunnables++;
+        }
+      }
+    }
+
+    log.info("Applied {} player messages in {} JavaFX runnables over {} pulses, {} updates merged, JavaFX thread time {}",
+             messages.size(), fxRunnables, pulses, instance.getMergedPlayerUpdateCount(), Duration.ofNanos(fxThreadNanos));
+
+    assertThat(fxRunnables, lessThanOrEqualTo(pulses));
+    assertThat(instance.getPublishedPlayerUpdateBatchCount(), is((long) fxRunnables));
+    for (int id = 0; id < ONLINE_PLAYERS; id++) {
+      PlayerInfo player = instance.getPlayerByIdIfOnline(id).orElseThrow();
+      assertThat(player.getClan(), is(expectedClan(id)));
+    }
+  }
+
+  /**
+   * The full player list in one message, then single player updates that each touch one of the first few players
+   * again, the same way clan or status changes trickle in after login.
+   */
+  private static List<com.faforever.commons.lobby.PlayerInfo> recordedLoginBurst() {
+    List<com.faforever.commons.lobby.PlayerInfo> messages = new ArrayList<>();
+    List<Player> onlinePlayers = new ArrayList<>();
+    for (int id = 0; id < ONLINE_PLAYERS; id++) {
+      onlinePlayers.add(player(id, "C0"));
+    }
+    messages.add(new com.faforever.commons.lobby.PlayerInfo(onlinePlayers));
+
+    for (int i = 1; i <= FOLLOW_UP_MESSAGES; i++) {
+      messages.add(new com.faforever.commons.lobby.PlayerInfo(List.of(player(i % 100, "C" + i))));
+    }
+    return messages;
+  }
+
+  private static String expectedClan(int id) {
+    if (id >= 100) {
+      return "C0";
+    }
+    return "C" + (FOLLOW_UP_MESSAGES - Math.floorMod(FOLLOW_UP_MESSAGES - id, 100));
+  }
+
+  private static Player player(int id, String clan) {
+    return new Player(id, "player" + id, clan, null, "DE", Map.of(), Map.of(), null);
+  }
+}
@@ -1,12 +1,14 @@
 package com.faforever.client.preferences;
 
 import com.faforever.client.config.ClientProperties;
+import com.faforever.client.io.FileFingerprintService;
 import com.faforever.client.os.OperatingSystem;
 import com.faforever.client.os.OsPosix;
 import com.faforever.client.test.ServiceTest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
 import org.mockito.Spy;
 
 import java.nio.file.Path;
@@ -25,10 +27,12 @@ public class PreferencesServiceTest extends ServiceTest {
   private ClientProperties clientProperties;
   @Spy
   private Preferences preferences;
+  @Mock
+  private FileFingerprintService fileFingerprintService;
 
   @BeforeEach
   public void setUp() throws Exception {
-    instance = new PreferencesService(clientProperties, preferences, new ObjectMapper());
+    instance = new PreferencesService(clientProperties, preferences, new ObjectMapper(), fileFingerprintService);
   }
 
 //  @Test
@@ -0,0 +1,105 @@
+package com.faforever.client.preferences;
+
+import com.faforever.client.chat.ChatUserCategory;
+import com.faforever.client.test.ServiceTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PreferencesStoreTest extends ServiceTest {
+
+  @TempDir
+  public Path tempDirectory;
+
+  private Path preferencesFile;
+  private GeneralPrefs generalPrefs;
+  private PreferencesStore instance;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    preferencesFile = tempDirectory.resolve("client.prefs");
+    generalPrefs = new GeneralPrefs();
+    instance = createStore();
+    instance.watch();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    instance.close();
+  }
+
+  @Test
+  public void testNothingIsWrittenIfNothingChanged() {
+    instance.saveIfDirty();
+
+    assertFalse(Files.exists(preferencesFile));
+    assertEquals(0, instance.getWriteCount());
+    assertEquals(1, instance.getWritesAvoidedCount());
+  }
+
+  @Test
+  public void testPropertyChangeIsWritten() throws Exception {
+    generalPrefs.setDisableSteamStart(true);
+    instance.saveIfDirty();
+
+    assertEquals(1, instance.getWriteCount());
+    assertTrue(Files.readString(preferencesFile).contains("\"disableSteamStart\":true"));
+
+    instance.saveIfDirty();
+    assertEquals(1, instance.getWriteCount());
+  }
+
+  @Test
+  public void testPreviousFileIsBackedUpOncePerSession() throws Exception {
+    generalPrefs.setDisableSteamStart(true);
+    instance.saveIfDirty();
+    instance.close();
+
+    instance = createStore();
+    instance.watch();
+    generalPrefs.setShowCyrillicWarning(false);
+    instance.saveIfDirty();
+    generalPrefs.setShowCyrillicWarning(true);
+    instance.saveIfDirty();
+
+    assertEquals(1, PreferencesStore.getBackupFiles(preferencesFile).size());
+    String backup = Files.readString(PreferencesStore.getBackupFiles(preferencesFile).getFirst());
+    assertTrue(backup.contains("\"showCyrillicWarning\":true"));
+    assertTrue(backup.contains("\"disableSteamStart\":true"));
+  }
+
+  @Test
+  public void testInPlaceChangeOfCollectionInMapIsWritten() throws Exception {
+    ChatPrefs chatPrefs = new ChatPrefs();
+    ObservableSet<ChatUserCategory> hiddenCategories = FXCollections.observableSet(ChatUserCategory.OTHER);
+    chatPrefs.getChannelNameToHiddenCategories().put("#aeolus", hiddenCategories);
+    Path chatPreferencesFile = tempDirectory.resolve("chat.prefs");
+    PreferencesStore chatStore = new PreferencesStore(chatPrefs, chatPreferencesFile, new ObjectMapper().writer(),
+                                                      Duration.ofMinutes(1), Duration.ofMinutes(1));
+    chatStore.watch();
+
+    hiddenCategories.add(ChatUserCategory.FRIEND);
+    chatPrefs.getChannelNameToHiddenCategories().put("#aeolus", hiddenCategories);
+    chatStore.close();
+
+    assertEquals(1, chatStore.getWriteCount());
+    assertTrue(Files.readString(chatPreferencesFile).contains("FRIEND"));
+  }
+
+  private PreferencesStore createStore() {
+    return new PreferencesStore(generalPrefs, preferencesFile, new ObjectMapper().writer(), Duration.ofMinutes(1),
+                                Duration.ofMinutes(1));
+  }
+}
@@ -0,0 +1,274 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.config.ClientProperties;
+import com.faforever.client.domain.api.Replay;
+import com.faforever.client.fx.PlatformService;
+import com.faforever.client.i18n.I18n;
+import com.faforever.client.mapstruct.MapperSetup;
+import com.faforever.client.mapstruct.ReplayMapper;
+import com.faforever.client.notification.NotificationService;
+import com.faforever.client.notification.PersistentNotification;
+import com.faforever.client.preferences.DataPrefs;
+import com.faforever.client.test.FakeTestException;
+import com.faforever.client.test.ServiceTest;
+import com.faforever.commons.replay.ChatMessage;
+import com.faforever.commons.replay.GameOption;
+import com.faforever.commons.replay.ReplayDataParser;
+import com.faforever.commons.replay.ReplayMetadata;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LocalReplayIndexTest extends ServiceTest {
+
+  @TempDir
+  public Path tempDirectory;
+
+  @Mock
+  private ReplayFileReader replayFileReader;
+  @Mock
+  private ReplayDataParser replayDataParser;
+  @Mock
+  private NotificationService notificationService;
+  @Mock
+  private I18n i18n;
+  @Mock
+  private PlatformService platformService;
+
+  private final ClientProperties clientProperties = new ClientProperties();
+  private final DataPrefs dataPrefs = new DataPrefs();
+  private final ReplayMapper replayMapper = Mappers.getMapper(ReplayMapper.class);
+  private final ExecutorService taskExecutor = Executors.newCachedThreadPool();
+
+  private Path replayDirectory;
+  private LocalReplayIndex instance;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    MapperSetup.injectMappers(replayMapper);
+    dataPrefs.setBaseDataDirectory(tempDirectory);
+    replayDirectory = Files.createDirectories(dataPrefs.getReplaysDirectory());
+
+    ReplayMetadata replayMetadata = new ReplayMetadata();
+    replayMetadata.setUid(123);
+    replayMetadata.setTitle("title");
+    replayMetadata.setFeaturedMod("faf");
+
+    replayMetadata.setTeams(Map.of("2", List.of("junit")));
+
+    lenient().when(replayFileReader.readMetadata(any())).thenReturn(replayMetadata);
+    lenient().when(replayFileReader.parseReplay(any())).thenReturn(replayDataParser);
+    lenient().when(replayDataParser.getMetadata()).thenReturn(replayMetadata);
+
+    instance = createInstance();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    instance.destroy();
+    taskExecutor.shutdownNow();
+  }
+
+  private LocalReplayIndex createInstance() {
+    return new LocalReplayIndex(clientProperties, dataPrefs, replayFileReader, replayMapper, notificationService, i18n,
+                                platformService, taskExecutor);
+  }
+
+  private static void awaitBodyIndexed(LocalReplayIndex index) throws Exception {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (index.getPage(Integer.MAX_VALUE, 1, LocalReplayIndexEntry::headerOnly, null)
+                .get(5, TimeUnit.SECONDS)
+                .totalCount() > 0) {
+      assertThat("Timed out waiting for background indexing", System.nanoTime() < deadline, is(true));
+      Thread.sleep(10);
+    }
+  }
+
+  @Test
+  public void testGetPageNewestFirst() throws Exception {
+    Path older = Files.createFile(replayDirectory.resolve("older.fafreplay"));
+    Path newer = Files.createFile(replayDirectory.resolve("newer.fafreplay"));
+    Files.createFile(replayDirectory.resolve("ignored.txt"));
+    Files.setLastModifiedTime(older, FileTime.from(Instant.ofEpochSecond(1000)));
+    Files.setLastModifiedTime(newer, FileTime.from(Instant.ofEpochSecond(2000)));
+
+    LocalReplayIndex.Page page = instance.getPage(1, 1).get(5, TimeUnit.SECONDS);
+
+    assertThat(page.totalCount(), is(2));
+    assertThat(page.entries().stream().map(LocalReplayIndexEntry::fileName).toList(), contains("newer.fafreplay"));
+    assertThat(page.entries().getFirst().uid(), is(123));
+    assertThat(page.entries().getFirst().title(), is("title"));
+  }
+
+  @Test
+  public void testPageIsIndexedFromHeaderAndCompletedInBackground() throws Exception {
+    Path replayFile = Files.createFile(replayDirectory.resolve("replay.fafreplay"));
+
+    LocalReplayIndex.Page page = instance.getPage(10, 1).get(5, TimeUnit.SECONDS);
+
+    assertThat(page.entries().getFirst().players().getFirst().name(), is("junit"));
+    verify(replayFileReader).readMetadata(replayFile);
+    verify(replayFileReader, timeout(5000)).parseReplay(replayFile);
+  }
+
+  @Test
+  public void testUnchangedReplaysAreOnlyParsedOnce() throws Exception {
+    Path replayFile = Files.createFile(replayDirectory.resolve("replay.fafreplay"));
+
+    instance.getPage(10, 1).get(5, TimeUnit.SECONDS);
+    awaitBodyIndexed(instance);
+    instance.getPage(10, 1).get(5, TimeUnit.SECONDS);
+
+    verify(replayFileReader, times(1)).parseReplay(replayFile);
+    verify(replayFileReader, atMost(1)).readMetadata(replayFile);
+  }
+
+  @Test
+  public void testIndexIsPersisted() throws Exception {
+    Path replayFile = Files.createFile(replayDirectory.resolve("replay.fafreplay"));
+
+    instance.getPage(10, 1).get(5, TimeUnit.SECONDS);
+    awaitBodyIndexed(instance);
+    instance.destroy();
+
+    LocalReplayIndex newInstance = createInstance();
+    try {
+      LocalReplayIndex.Page page = newInstance.getPage(10, 1).get(5, TimeUnit.SECONDS);
+      assertThat(page.entries().getFirst().uid(), is(123));
+      assertThat(page.entries().getFirst().headerOnly(), is(false));
+    } finally {
+      newInstance.destroy();
+    }
+
+    verify(replayFileReader, times(1)).parseReplay(replayFile);
+    verify(replayFileReader, times(1)).readMetadata(replayFile);
+  }
+
+  @Test
+  public void testChangedReplayIsParsedAgain() throws Exception {
+    Path replayFile = Files.createFile(replayDirectory.resolve("replay.fafreplay"));
+    Files.setLastModifiedTime(replayFile, FileTime.from(Instant.ofEpochSecond(1000)));
+    instance.getPage(10, 1).get(5, TimeUnit.SECONDS);
+    awaitBodyIndexed(instance);
+    instance.destroy();
+
+    Files.setLastModifiedTime(replayFile, FileTime.from(Instant.ofEpochSecond(2000)));
+    LocalReplayIndex newInstance = createInstance();
+    try {
+      newInstance.getPage(10, 1).get(5, TimeUnit.SECONDS);
+      verify(replayFileReader, timeout(5000).times(2)).parseReplay(replayFile);
+    } finally {
+      newInstance.destroy();
+    }
+
+    verify(replayFileReader, times(2)).readMetadata(replayFile);
+  }
+
+  @Test
+  public void testGetPageMovesCorruptFiles() throws Exception {
+    Path file1 = Files.createFile(replayDirectory.resolve("replay.fafreplay"));
+    Path file2 = Files.createFile(replayDirectory.resolve("replay2.fafreplay"));
+
+    doThrow(new FakeTestException()).when(replayFileReader).readMetadata(file1);
+    doThrow(new FakeTestException()).when(replayFileReader).readMetadata(file2);
+    doThrow(new FakeTestException()).when(replayFileReader).parseReplay(file1);
+    doThrow(new FakeTestException()).when(replayFileReader).parseReplay(file2);
+
+    LocalReplayIndex.Page page = instance.getPage(2, 1).get(5, TimeUnit.SECONDS);
+
+    assertThat(page.entries(), empty());
+    verify(notificationService, times(2)).addNotification(any(PersistentNotification.class));
+    assertThat(Files.exists(file1), is(false));
+    assertThat(Files.exists(file2), is(false));
+    assertThat(Files.exists(dataPrefs.getCorruptedReplaysDirectory().resolve("replay.fafreplay")), is(true));
+  }
+
+  @Test
+  public void testRemovedReplayIsNotReturned() throws Exception {
+    Path replayFile = Files.createFile(replayDirectory.resolve("replay.fafreplay"));
+    instance.getPage(10, 1).get(5, TimeUnit.SECONDS);
+
+    Files.delete(replayFile);
+    instance.remove(replayFile);
+
+    LocalReplayIndex.Page page = instance.getPage(10, 1).get(5, TimeUnit.SECONDS);
+    assertThat(page.entries(), empty());
+    assertThat(page.totalCount(), is(0));
+    verify(notificationService, never()).addNotification(any(PersistentNotification.class));
+  }
+
+  @Test
+  public void testGetPageFiltersAndSortsReplays() throws Exception {
+    Path older = Files.createFile(replayDirectory.resolve("older.fafreplay"));
+    Path newer = Files.createFile(replayDirectory.resolve("newer.fafreplay"));
+    Path other = Files.createFile(replayDirectory.resolve("other.fafreplay"));
+    Files.setLastModifiedTime(older, FileTime.from(Instant.ofEpochSecond(1000)));
+    Files.setLastModifiedTime(newer, FileTime.from(Instant.ofEpochSecond(2000)));
+
+    ReplayMetadata otherMetadata = new ReplayMetadata();
+    otherMetadata.setFeaturedMod("coop");
+    ReplayDataParser otherReplayData = mock(ReplayDataParser.class);
+    lenient().when(otherReplayData.getMetadata()).thenReturn(otherMetadata);
+    lenient().when(replayFileReader.readMetadata(other)).thenReturn(otherMetadata);
+    lenient().when(replayFileReader.parseReplay(other)).thenReturn(otherReplayData);
+
+    LocalReplayIndex.Page page = instance.getPage(1, 2, entry -> "faf".equals(entry.featuredMod()),
+                                                  Comparator.comparing(LocalReplayIndexEntry::fileName))
+                                         .get(5, TimeUnit.SECONDS);
+
+    assertThat(page.totalCount(), is(2));
+    assertThat(page.entries().stream().map(LocalReplayIndexEntry::fileName).toList(), contains("older.fafreplay"));
+  }
+
+  @Test
+  public void testChatMessagesAndGameOptionsAreIndexed() throws Exception {
+    Files.createFile(replayDirectory.resolve("replay.fafreplay"));
+    when(replayDataParser.getChatMessages()).thenReturn(
+        List.of(new ChatMessage(Duration.ofSeconds(10), "junit", "all", "glhf")));
+    when(replayDataParser.getGameOptions()).thenReturn(List.of(new GameOption("Share", "ShareUntilDeath")));
+
+    instance.getPage(10, 1).get(5, TimeUnit.SECONDS);
+    awaitBodyIndexed(instance);
+    instance.destroy();
+
+    LocalReplayIndex newInstance = createInstance();
+    try {
+      LocalReplayIndexEntry entry = newInstance.getPage(10, 1).get(5, TimeUnit.SECONDS).entries().getFirst();
+      assertThat(entry.chatMessages(),
+                 contains(new Replay.ChatMessage(Duration.ofSeconds(10), "junit", "glhf")));
+      assertThat(entry.gameOptions(), contains(new Replay.GameOption("Share", "ShareUntilDeath")));
+    } finally {
+      newInstance.destroy();
+    }
+  }
+}
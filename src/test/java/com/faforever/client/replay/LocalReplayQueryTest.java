@@ -0,0 +1,90 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.test.ServiceTest;
+import com.faforever.client.vault.search.SearchController.SortConfig;
+import com.faforever.client.vault.search.SearchController.SortOrder;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LocalReplayQueryTest extends ServiceTest {
+
+  private static final LocalReplayIndexEntry SETONS = new LocalReplayIndexEntry(
+      "setons.fafreplay", 1, 1, 1, "4v4 Setons", "faf", "setons_clutch.v0003", 1_000_000_000, 1_000_003_600,
+      List.of(new LocalReplayIndexEntry.Player(10, "Jane", "DE", 2, 1, 1500d, 100d),
+              new LocalReplayIndexEntry.Player(11, "John", "US", 3, 2, 1400d, 100d)), List.of(), List.of(), false);
+  private static final LocalReplayIndexEntry COOP = new LocalReplayIndexEntry(
+      "coop.fafreplay", 1, 1, 2, "Coop", "coop", "x1ca_coop_001", 2_000_000_000, 2_000_003_600,
+      List.of(new LocalReplayIndexEntry.Player(null, "john", null, 1, null, null, null)), List.of(), List.of(), true);
+
+  private static List<LocalReplayIndexEntry> filter(String query) {
+    Predicate<LocalReplayIndexEntry> filter = LocalReplayQuery.toFilter(query);
+    return List.of(SETONS, COOP).stream().filter(filter).toList();
+  }
+
+  @Test
+  public void testEmptyQueryHasNoFilter() {
+    assertThat(LocalReplayQuery.toFilter(null), nullValue());
+    assertThat(LocalReplayQuery.toFilter(" "), nullValue());
+  }
+
+  @Test
+  public void testEquals() {
+    assertThat(filter("featuredMod.technicalName==\"coop\""), contains(COOP));
+    assertThat(filter("featuredMod.technicalName!=coop"), contains(SETONS));
+    assertThat(filter("id==1"), contains(SETONS));
+  }
+
+  @Test
+  public void testWildcardIgnoresCase() {
+    assertThat(filter("name==\"*setons*\""), contains(SETONS));
+    assertThat(filter("playerStats.player.login==\"JOHN\""), contains(SETONS, COOP));
+  }
+
+  @Test
+  public void testInAndComparisons() {
+    assertThat(filter("playerStats.team=in=(1,4)"), contains(COOP));
+    assertThat(filter("id=gt=1"), contains(COOP));
+    assertThat(filter("startTime=ge=\"" + Instant.ofEpochSecond(1_500_000_000) + "\""), contains(COOP));
+  }
+
+  @Test
+  public void testLogicalOperators() {
+    assertThat(filter("(id==1;name==\"Coop\"),mapVersion.folderName==\"x1ca*\""), contains(COOP));
+    assertThat(filter("id==1;playerStats.player.login==\"Jane\""), contains(SETONS));
+  }
+
+  @Test
+  public void testUnsupportedConditionsAreRejected() {
+    assertThrows(IllegalArgumentException.class,
+                 () -> LocalReplayQuery.toFilter("mapVersion.map.author.login!=\"Jane\";id==2"));
+    assertThrows(IllegalArgumentException.class, () -> LocalReplayQuery.toFilter("name=like=\"Coop\""));
+  }
+
+  @Test
+  public void testInvalidQuery() {
+    assertThrows(IllegalArgumentException.class, () -> LocalReplayQuery.toFilter("id==1;"));
+    assertThrows(IllegalArgumentException.class, () -> LocalReplayQuery.toFilter("(id==1"));
+    assertThrows(IllegalArgumentException.class, () -> LocalReplayQuery.toFilter("id"));
+  }
+
+  @Test
+  public void testComparator() {
+    Comparator<LocalReplayIndexEntry> comparator = LocalReplayQuery.toComparator(
+        new SortConfig("startTime", SortOrder.DESC));
+
+    assertThat(List.of(SETONS, COOP).stream().sorted(comparator).toList(), contains(COOP, SETONS));
+    assertThat(LocalReplayQuery.toComparator(new SortConfig("reviewsSummary.averageScore", SortOrder.DESC)),
+               is(nullValue()));
+    assertThat(LocalReplayQuery.toComparator(null), is(nullValue()));
+  }
+}
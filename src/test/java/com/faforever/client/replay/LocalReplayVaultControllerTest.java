@@ -82,7 +82,7 @@ public class LocalReplayVaultControllerTest extends PlatformTest {
   public void testSetSupplier() throws IOException {
     instance.setSupplier(null);
 
-    verify(replayService).loadLocalReplayPage(instance.pageSize, 1);
+    verify(replayService).loadLocalReplayPage(null, instance.pageSize, 1);
   }
 
   @Test
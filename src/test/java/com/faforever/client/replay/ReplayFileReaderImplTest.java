@@ -2,17 +2,20 @@ package com.faforever.client.replay;
 
 
 import com.faforever.client.test.ServiceTest;
+import com.faforever.commons.replay.ReplayMetadata;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 
 import java.io.BufferedInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class ReplayFileReaderImplTest extends ServiceTest {
 
@@ -30,4 +33,26 @@ public class ReplayFileReaderImplTest extends ServiceTest {
     }
     assertThat(instance.parseReplay(tempFile).getData().length, is(197007));
   }
+
+  @Test
+  public void readMetadataOnly() throws Exception {
+    Path tempFile = temporaryFolder.resolve("replay.tmp");
+    try (InputStream inputStream = new BufferedInputStream(getClass().getResourceAsStream("/replay/test.fafreplay"))) {
+      Files.copy(inputStream, tempFile);
+    }
+
+    ReplayMetadata replayMetadata = instance.readMetadata(tempFile);
+
+    assertThat(replayMetadata.getUid(), is(5670811));
+    assertThat(replayMetadata.getTitle(), is("fun"));
+    assertThat(replayMetadata.getMapname(), is("scmp_009"));
+    assertThat(replayMetadata.getTeams().get("2").size(), is(4));
+  }
+
+  @Test
+  public void readMetadataWithoutReplayData() throws Exception {
+    Path tempFile = Files.writeString(temporaryFolder.resolve("replay.tmp"), "{\"uid\":1}");
+
+    assertThrows(IOException.class, () -> instance.readMetadata(tempFile));
+  }
 }
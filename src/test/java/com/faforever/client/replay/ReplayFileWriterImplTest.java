@@ -4,7 +4,9 @@ import com.faforever.client.config.ClientProperties;
 import com.faforever.client.i18n.I18n;
 import com.faforever.client.preferences.DataPrefs;
 import com.faforever.client.test.ServiceTest;
+import com.faforever.commons.replay.QtCompress;
 import com.faforever.commons.replay.ReplayMetadata;
+import com.google.common.io.BaseEncoding;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -12,10 +14,20 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.InflaterInputStream;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -33,6 +45,10 @@ public class ReplayFileWriterImplTest extends ServiceTest {
   private static final int UID = 1234;
   private static final String RECORDER = "Test";
   private static final String REPLAY_FILE_NAME = String.format(replayFileFormat, UID, RECORDER);
+  /**
+   * Larger than what fits into the test heap when the raw, compressed and encoded replay are held in memory at once.
+   */
+  private static final long LARGE_REPLAY_SIZE = 256L * 1024 * 1024;
 
   @TempDir
   public Path tempDirectory;
@@ -42,8 +58,6 @@ public class ReplayFileWriterImplTest extends ServiceTest {
   @Spy
   private ClientProperties clientProperties;
   @Mock
-  private ByteArrayOutputStream replayData;
-  @Mock
   private ClientProperties.Replay replay;
   @Spy
   private DataPrefs dataPrefs;
@@ -65,13 +79,58 @@ public class ReplayFileWriterImplTest extends ServiceTest {
 
   @Test
   public void writeReplayData() throws Exception {
-    when(replayData.toByteArray()).thenReturn(replayBytes);
+    Path replayData = Files.write(tempDirectory.resolve("replayData"), replayBytes);
     ReplayMetadata replayInfo = new ReplayMetadata();
     replayInfo.setUid(UID);
     replayInfo.setRecorder(RECORDER);
     instance.writeReplayDataToFile(replayData, replayInfo);
     assertTrue(Files.exists(replaysDirectory.resolve(REPLAY_FILE_NAME)));
+
+    List<String> lines = Files.readAllLines(replaysDirectory.resolve(REPLAY_FILE_NAME), UTF_8);
+    assertEquals(2, lines.size());
+    assertArrayEquals(replayBytes, QtCompress.qUncompress(BaseEncoding.base64().decode(lines.get(1))));
+    Files.deleteIfExists(replaysDirectory.resolve(REPLAY_FILE_NAME));
+  }
+
+  @Test
+  public void writeLargeReplayDataStreaming() throws Exception {
+    Path replayData = tempDirectory.resolve("largeReplayData");
+    CRC32 expectedChecksum = new CRC32();
+    Random random = new Random(UID);
+    byte[] chunk = new byte[1024 * 1024];
+    try (OutputStream outputStream = Files.newOutputStream(replayData)) {
+      for (long written = 0; written < LARGE_REPLAY_SIZE; written += chunk.length) {
+        random.nextBytes(chunk);
+        expectedChecksum.update(chunk);
+        outputStream.write(chunk);
+      }
+    }
+
+    ReplayMetadata replayInfo = new ReplayMetadata();
+    replayInfo.setUid(UID);
+    replayInfo.setRecorder(RECORDER);
+    instance.writeReplayDataToFile(replayData, replayInfo);
+
+    CRC32 actualChecksum = new CRC32();
+    long actualSize = 0;
+    try (BufferedReader reader = Files.newBufferedReader(replaysDirectory.resolve(REPLAY_FILE_NAME), UTF_8);
+         DataInputStream decodedInputStream = new DataInputStream(BaseEncoding.base64().decodingStream(skipHeader(reader)))) {
+      assertEquals(LARGE_REPLAY_SIZE, decodedInputStream.readInt());
+      InputStream inflaterInputStream = new InflaterInputStream(decodedInputStream);
+      int bytesRead;
+      while ((bytesRead = inflaterInputStream.read(chunk)) != -1) {
+        actualChecksum.update(chunk, 0, bytesRead);
+        actualSize += bytesRead;
+      }
+    }
+
+    assertEquals(LARGE_REPLAY_SIZE, actualSize);
+    assertEquals(expectedChecksum.getValue(), actualChecksum.getValue());
     Files.deleteIfExists(replaysDirectory.resolve(REPLAY_FILE_NAME));
   }
-}
 
+  private static BufferedReader skipHeader(BufferedReader reader) throws Exception {
+    reader.readLine();
+    return reader;
+  }
+}
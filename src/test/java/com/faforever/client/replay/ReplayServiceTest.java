@@ -16,7 +16,6 @@ import com.faforever.client.mapstruct.MapperSetup;
 import com.faforever.client.mapstruct.ReplayMapper;
 import com.faforever.client.mapstruct.ReviewMapper;
 import com.faforever.client.notification.NotificationService;
-import com.faforever.client.notification.PersistentNotification;
 import com.faforever.client.player.PlayerService;
 import com.faforever.client.preferences.DataPrefs;
 import com.faforever.client.reporting.ReportingService;
@@ -48,10 +47,10 @@ import org.springframework.beans.factory.ObjectFactory;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 import reactor.util.function.Tuple2;
-import reactor.util.function.Tuples;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
@@ -152,6 +151,8 @@ public class ReplayServiceTest extends ServiceTest {
   private FileSizeReader fileSizeReader;
   @Mock
   private ObjectFactory<ReplayDownloadTask> replayDownloadTaskFactory;
+  @Mock
+  private LocalReplayIndex localReplayIndex;
   @Spy
   private ReplayMapper replayMapper = Mappers.getMapper(ReplayMapper.class);
   @Spy
@@ -235,41 +236,63 @@ public class ReplayServiceTest extends ServiceTest {
     assertEquals("blackops", mod);
   }
 
-  @Test
-  public void testGetLocalReplaysMovesCorruptFiles() throws Exception {
-    Path file1 = Files.createFile(replayDirectory.resolve("replay.fafreplay"));
-    Path file2 = Files.createFile(replayDirectory.resolve("replay2.fafreplay"));
-
-    doThrow(new FakeTestException()).when(replayFileReader).parseReplay(file1);
-    doThrow(new FakeTestException()).when(replayFileReader).parseReplay(file2);
-
-    StepVerifier.create(instance.loadLocalReplayPage(2, 1)).expectNext(Tuples.of(List.of(), 0));
-
-    verify(notificationService, times(2)).addNotification(any(PersistentNotification.class));
-
-    assertThat(Files.exists(file1), is(false));
-    assertThat(Files.exists(file2), is(false));
-  }
-
   @Test
   public void testLoadLocalReplays() throws Exception {
-    Path file1 = Files.createFile(replayDirectory.resolve("replay.fafreplay"));
-
-    ReplayMetadata replayMetadata = new ReplayMetadata();
-    replayMetadata.setUid(123);
-    replayMetadata.setTitle("title");
+    LocalReplayIndexEntry entry = new LocalReplayIndexEntry("replay.fafreplay", 1, 1, 123, "title", "faf",
+                                                            TEST_MAP_NAME, 0, 0, List.of(
+        new LocalReplayIndexEntry.Player(1, "junit", "DE", 2, 1, 1500d, 100d)), List.of(
+        new Replay.ChatMessage(Duration.ZERO, "junit", "gl")), List.of(), false);
 
-    when(replayDataParser.getMetadata()).thenReturn(replayMetadata);
-    when(replayFileReader.parseReplay(file1)).thenReturn(replayDataParser);
+    when(localReplayIndex.getPage(1, 1)).thenReturn(
+        CompletableFuture.completedFuture(new LocalReplayIndex.Page(List.of(entry), 1)));
     when(featuredModService.getFeaturedMod(any())).thenReturn(Mono.empty());
     when(mapService.findByMapFolderName(any())).thenReturn(Mono.just(Instancio.create(MapVersion.class)));
 
-    StepVerifier.create(instance.loadLocalReplayPage(1, 1)).assertNext(result -> {
+    StepVerifier.create(instance.loadLocalReplayPage(null, 1, 1)).assertNext(result -> {
       List<Replay> localReplays = result.getT1();
       assertThat(localReplays, hasSize(1));
       assertThat(localReplays.getFirst().id(), is(123));
       assertThat(localReplays.getFirst().title(), is("title"));
+      assertThat(localReplays.getFirst().teams().get("2"), is(List.of("junit")));
+      assertThat(localReplays.getFirst().replayFile(), is(replayDirectory.resolve("replay.fafreplay")));
+      assertThat(localReplays.getFirst().chatMessages(), is(entry.chatMessages()));
+      assertThat(result.getT2(), is(1));
     }).verifyComplete();
+
+    verifyNoInteractions(replayFileReader);
+  }
+
+  @Test
+  public void testLoadLocalReplaysWithSearch() throws Exception {
+    LocalReplayIndexEntry matching = new LocalReplayIndexEntry("replay.fafreplay", 1, 1, 123, "title", "faf",
+                                                               TEST_MAP_NAME, 0, 0, List.of(), List.of(), List.of(),
+                                                               false);
+    LocalReplayIndexEntry other = new LocalReplayIndexEntry("other.fafreplay", 1, 1, 124, "other", "coop",
+                                                            TEST_MAP_NAME, 0, 0, List.of(), List.of(), List.of(),
+                                                            false);
+    SearchConfig searchConfig = new SearchConfig(new SortConfig("id", SortOrder.DESC),
+                                                 "featuredMod.technicalName==\"faf\"");
+
+    when(localReplayIndex.getPage(eq(1), eq(1), argThat(filter -> filter.test(matching) && !filter.test(other)),
+                                  argThat(comparator -> comparator.compare(matching, other) > 0))).thenReturn(
+        CompletableFuture.completedFuture(new LocalReplayIndex.Page(List.of(matching), 1)));
+    when(featuredModService.getFeaturedMod(any())).thenReturn(Mono.empty());
+    when(mapService.findByMapFolderName(any())).thenReturn(Mono.just(Instancio.create(MapVersion.class)));
+
+    StepVerifier.create(instance.loadLocalReplayPage(searchConfig, 1, 1))
+                .assertNext(result -> assertThat(result.getT1().getFirst().id(), is(123)))
+                .verifyComplete();
+  }
+
+  @Test
+  public void testLoadLocalReplaysWithInvalidSearch() {
+    SearchConfig searchConfig = new SearchConfig(new SortConfig("id", SortOrder.DESC), "featuredMod.technicalName");
+
+    StepVerifier.create(instance.loadLocalReplayPage(searchConfig, 1, 1))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+    verifyNoInteractions(localReplayIndex);
   }
 
   @Test
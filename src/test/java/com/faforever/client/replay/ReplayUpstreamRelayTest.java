@@ -0,0 +1,139 @@
+package com.faforever.client.replay;
+
+import com.faforever.client.test.ServiceTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the relay against a replay server stand-in on the loopback interface.
+ */
+public class ReplayUpstreamRelayTest extends ServiceTest {
+
+  private ServerSocket fakeReplayServer;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    fakeReplayServer = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    fakeReplayServer.close();
+  }
+
+  @Test
+  public void testRelaysAllData() throws Exception {
+    CompletableFuture<byte[]> received = CompletableFuture.supplyAsync(() -> {
+      try (Socket socket = fakeReplayServer.accept(); InputStream inputStream = socket.getInputStream()) {
+        return inputStream.readAllBytes();
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    });
+
+    byte[] replayData = new byte[100_000];
+    for (int i = 0; i < replayData.length; i++) {
+      replayData[i] = (byte) i;
+    }
+
+    try (ReplayUpstreamRelay instance = createInstance(() -> {})) {
+      instance.start();
+      for (int offset = 0; offset < replayData.length; offset += 128) {
+        instance.relay(replayData, offset, Math.min(128, replayData.length - offset));
+      }
+    }
+
+    assertArrayEquals(replayData, received.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testCoalescesSmallWritesByTime() throws Exception {
+    CompletableFuture<Integer> firstRead = CompletableFuture.supplyAsync(() -> {
+      try (Socket socket = fakeReplayServer.accept(); InputStream inputStream = socket.getInputStream()) {
+        byte[] buffer = new byte[1024];
+        return inputStream.read(buffer);
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    });
+
+    try (ReplayUpstreamRelay instance = createInstance(() -> {})) {
+      instance.start();
+      for (int i = 0; i < 10; i++) {
+        instance.relay(new byte[]{(byte) i}, 0, 1);
+      }
+
+      assertEquals(10, firstRead.get(5, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  public void testStalledReplayServerDoesNotBlock() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture.runAsync(() -> {
+      try (Socket ignored = fakeReplayServer.accept()) {
+        // Accept but never read, so that the TCP window runs full
+        release.await();
+      } catch (IOException | InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    });
+
+    byte[] chunk = new byte[8192];
+    try (ReplayUpstreamRelay instance = createInstance(() -> {})) {
+      instance.start();
+
+      long maxRelayNanos = 0;
+      for (int i = 0; i < 16 * 1024 && instance.isRelaying(); i++) {
+        long start = System.nanoTime();
+        instance.relay(chunk, 0, chunk.length);
+        maxRelayNanos = Math.max(maxRelayNanos, System.nanoTime() - start);
+      }
+
+      assertFalse(instance.isRelaying());
+      assertThat(instance.getBytesDropped(), greaterThan(0L));
+      assertThat(Duration.ofNanos(maxRelayNanos), lessThan(Duration.ofMillis(100)));
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  public void testUnreachableReplayServer() throws Exception {
+    int port = fakeReplayServer.getLocalPort();
+    fakeReplayServer.close();
+
+    CountDownLatch unreachable = new CountDownLatch(1);
+    try (ReplayUpstreamRelay instance = new ReplayUpstreamRelay(InetAddress.getLoopbackAddress().getHostAddress(), port,
+                                                                unreachable::countDown)) {
+      instance.start();
+      assertTrue(unreachable.await(5, TimeUnit.SECONDS));
+      instance.relay(new byte[16], 0, 16);
+      assertEquals(16, instance.getBytesDropped());
+    }
+  }
+
+  private ReplayUpstreamRelay createInstance(Runnable onUnreachable) {
+    return new ReplayUpstreamRelay(InetAddress.getLoopbackAddress().getHostAddress(), fakeReplayServer.getLocalPort(),
+                                   onUnreachable);
+  }
+}
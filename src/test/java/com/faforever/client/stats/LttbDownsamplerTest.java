@@ -0,0 +1,36 @@
+package com.faforever.client.stats;
+
+import com.faforever.client.test.ServiceTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LttbDownsamplerTest extends ServiceTest {
+
+  @Test
+  public void testFewPointsAreReturnedUnchanged() {
+    List<int[]> points = IntStream.range(0, 10).mapToObj(i -> new int[]{i, i}).toList();
+
+    assertSame(points, LttbDownsampler.downsample(points, 10, point -> point[0], point -> point[1]));
+  }
+
+  @Test
+  public void testDownsampleKeepsEndsAndPeak() {
+    List<int[]> points = IntStream.range(0, 1000).mapToObj(i -> new int[]{i, i == 500 ? 10_000 : i % 7}).toList();
+
+    List<int[]> sampled = LttbDownsampler.downsample(points, 50, point -> point[0], point -> point[1]);
+
+    assertEquals(50, sampled.size());
+    assertSame(points.getFirst(), sampled.getFirst());
+    assertSame(points.getLast(), sampled.getLast());
+    assertTrue(sampled.contains(points.get(500)));
+    for (int i = 1; i < sampled.size(); i++) {
+      assertTrue(sampled.get(i - 1)[0] < sampled.get(i)[0]);
+    }
+  }
+}
@@ -7,9 +7,11 @@ import com.faforever.client.domain.api.LeaderboardRatingJournal;
 import com.faforever.client.domain.server.PlayerInfo;
 import com.faforever.client.mapstruct.LeaderboardMapper;
 import com.faforever.client.mapstruct.MapperSetup;
+import com.faforever.client.player.TimePeriod;
 import com.faforever.client.test.ElideMatchers;
 import com.faforever.client.test.ServiceTest;
 import com.faforever.commons.api.elide.ElideEntity;
+import com.github.rutledgepaulv.qbuilders.builders.QBuilder;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,9 +22,17 @@ import org.mockito.Spy;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
+import java.time.OffsetDateTime;
+import java.util.List;
+
 import static com.faforever.commons.api.elide.ElideNavigator.qBuilder;
+import static org.instancio.Select.field;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -30,10 +40,13 @@ public class StatisticsServiceTest extends ServiceTest {
 
   @Mock
   private FafApiAccessor fafApiAccessor;
+  @Mock
+  private RatingHistoryStore ratingHistoryStore;
 
   @InjectMocks
   private StatisticsService instance;
   private Leaderboard leaderboard;
+  private PlayerInfo player;
   @Spy
   private LeaderboardMapper leaderboardMapper = Mappers.getMapper(LeaderboardMapper.class);
 
@@ -42,15 +55,18 @@ public class StatisticsServiceTest extends ServiceTest {
     MapperSetup.injectMappers(leaderboardMapper);
     when(fafApiAccessor.getMaxPageSize()).thenReturn(10000);
     leaderboard = Instancio.create(Leaderboard.class);
+    player = PlayerInfoBuilder.create().defaultValues().username("junit").get();
   }
 
   @Test
   public void testGetStatisticsForPlayer() throws Exception {
+    when(ratingHistoryStore.load(anyInt(), anyInt())).thenReturn(RatingHistory.EMPTY);
     LeaderboardRatingJournal leaderboardRatingJournal = Instancio.create(LeaderboardRatingJournal.class);
-    PlayerInfo player = PlayerInfoBuilder.create().defaultValues().username("junit").get();
     Flux<ElideEntity> resultFlux = Flux.just(leaderboardMapper.map(leaderboardRatingJournal));
     when(fafApiAccessor.getMany(any())).thenReturn(resultFlux);
-    StepVerifier.create(instance.getRatingHistory(player, leaderboard)).expectNextCount(1)
+
+    StepVerifier.create(instance.getRatingHistory(player, leaderboard, TimePeriod.ALL_TIME))
+                .assertNext(points -> assertEquals(1, points.size()))
                 .expectComplete()
                 .verify();
     verify(fafApiAccessor).getMany(argThat(
@@ -59,5 +75,63 @@ public class StatisticsServiceTest extends ServiceTest {
                                           .eq(leaderboard.id()))
     ));
     verify(fafApiAccessor).getMany(argThat(ElideMatchers.hasPageSize(10000)));
+    verify(ratingHistoryStore).save(eq(player.getId()), eq(leaderboard.id()), any());
+  }
+
+  @Test
+  public void testOnlyNewGamesAreRequestedIfHistoryIsStored() throws Exception {
+    RatingHistory storedHistory = new RatingHistory(Long.MIN_VALUE, List.of(new RatingHistoryPoint(5, 100, 1000)));
+    when(ratingHistoryStore.load(player.getId(), leaderboard.id())).thenReturn(storedHistory);
+    LeaderboardRatingJournal leaderboardRatingJournal = Instancio.of(LeaderboardRatingJournal.class)
+                                                                 .set(field(LeaderboardRatingJournal::id), 6)
+                                                                 .set(field(LeaderboardRatingJournal::scoreTime),
+                                                                      OffsetDateTime.now())
+                                                                 .create();
+    when(fafApiAccessor.getMany(any())).thenReturn(Flux.just(leaderboardMapper.map(leaderboardRatingJournal)));
+
+    StepVerifier.create(instance.getRatingHistory(player, leaderboard, TimePeriod.ALL_TIME))
+                .assertNext(points -> assertEquals(List.of(5, 6), points.stream()
+                                                                        .map(RatingHistoryPoint::journalId)
+                                                                        .toList()))
+                .expectComplete()
+                .verify();
+    verify(fafApiAccessor).getMany(argThat(ElideMatchers.hasFilter(new QBuilder().and(
+        List.of(qBuilder().intNum("gamePlayerStats.player.id").eq(player.getId()).and()
+                          .intNum("leaderboard.id")
+                          .eq(leaderboard.id()), qBuilder().intNum("id").gt(5))))));
+    verify(ratingHistoryStore).save(eq(player.getId()), eq(leaderboard.id()), any());
+  }
+
+  @Test
+  public void testStoredHistoryIsNotSavedAgainWithoutNewGames() throws Exception {
+    RatingHistory storedHistory = new RatingHistory(Long.MIN_VALUE, List.of(new RatingHistoryPoint(5, 100, 1000)));
+    when(ratingHistoryStore.load(player.getId(), leaderboard.id())).thenReturn(storedHistory);
+    when(fafApiAccessor.getMany(any())).thenReturn(Flux.empty());
+
+    StepVerifier.create(instance.getRatingHistory(player, leaderboard, TimePeriod.ALL_TIME))
+                .expectNext(storedHistory.points())
+                .expectComplete()
+                .verify();
+    verify(ratingHistoryStore, never()).save(anyInt(), anyInt(), any());
+  }
+
+  @Test
+  public void testFirstGameIsRequestedIfStoredHistoryHasNoGames() throws Exception {
+    RatingHistory storedHistory = new RatingHistory(Long.MIN_VALUE, List.of());
+    when(ratingHistoryStore.load(player.getId(), leaderboard.id())).thenReturn(storedHistory);
+    LeaderboardRatingJournal leaderboardRatingJournal = Instancio.of(LeaderboardRatingJournal.class)
+                                                                 .set(field(LeaderboardRatingJournal::id), 1)
+                                                                 .set(field(LeaderboardRatingJournal::scoreTime),
+                                                                      OffsetDateTime.now())
+                                                                 .create();
+    when(fafApiAccessor.getMany(any())).thenReturn(Flux.just(leaderboardMapper.map(leaderboardRatingJournal)));
+
+    StepVerifier.create(instance.getRatingHistory(player, leaderboard, TimePeriod.ALL_TIME))
+                .assertNext(points -> assertEquals(List.of(1), points.stream()
+                                                                     .map(RatingHistoryPoint::journalId)
+                                                                     .toList()))
+                .expectComplete()
+                .verify();
+    verify(ratingHistoryStore).save(eq(player.getId()), eq(leaderboard.id()), any());
   }
 }
@@ -0,0 +1,95 @@
+package com.faforever.client.util;
+
+import com.faforever.client.test.ServiceTest;
+import org.junit.jupiter.api.Test;
+import org.luaj.vm2.LuaError;
+import org.luaj.vm2.LuaValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LuaUtilTest extends ServiceTest {
+
+  @Test
+  public void testLoadTableFile() throws Exception {
+    LuaValue luaRoot = LuaUtil.loadTableFile(Path.of(getClass().getResource("/maps/SCMP_001/SCMP_001_scenario.lua").toURI()));
+
+    LuaValue scenarioInfo = luaRoot.get("ScenarioInfo");
+    assertEquals("Burial Mounds", scenarioInfo.get("name").tojstring());
+    assertEquals(1024, scenarioInfo.get("size").get(1).toint());
+  }
+
+  @Test
+  public void testLoadTableFileWithTypeConstructors() throws Exception {
+    LuaValue luaRoot = LuaUtil.loadTableFile(
+        Path.of(getClass().getResource("/maps/palaneum.v0001/Palaneum_scenario.lua").toURI()));
+
+    LuaValue customProps = luaRoot.get("ScenarioInfo").get("Configurations").get("standard").get("customprops");
+    assertEquals("ARMY_17 NEUTRAL_CIVILIAN", customProps.get("ExtraArmies").tojstring());
+    assertTrue(luaRoot.get("STRING").isnil());
+  }
+
+  @Test
+  public void testLoadTableEvaluatesTypeConstructorsWithoutFullRuntime() throws Exception {
+    LuaValue luaRoot = LuaUtil.loadTable(stream("""
+        armies = STRING('ARMY_9 NEUTRAL_CIVILIAN')
+        rate = FLOAT(1.5)
+        enabled = BOOLEAN(true)
+        position = VECTOR3(1, 2, 3)
+        restricted = string == nil
+        """));
+
+    assertEquals("ARMY_9 NEUTRAL_CIVILIAN", luaRoot.get("armies").tojstring());
+    assertEquals(1.5, luaRoot.get("rate").todouble());
+    assertTrue(luaRoot.get("enabled").toboolean());
+    assertEquals(3, luaRoot.get("position").get(3).toint());
+    assertTrue(luaRoot.get("restricted").toboolean());
+  }
+
+  @Test
+  public void testLoadTableFallsBackToFullRuntime() throws Exception {
+    LuaValue luaRoot = LuaUtil.loadTable(stream("name = string.upper('burial mounds')"));
+
+    assertEquals("BURIAL MOUNDS", luaRoot.get("name").tojstring());
+  }
+
+  @Test
+  public void testLoadTableSyntaxError() {
+    assertThrows(LuaError.class, () -> LuaUtil.loadTable(stream("{\"This is invalid\", \"}")));
+  }
+
+  @Test
+  public void testPooledRuntimeDoesNotLeakGlobals() throws Exception {
+    LuaUtil.load(stream("leaked = 1"));
+
+    for (int i = 0; i < 2 * Runtime.getRuntime().availableProcessors(); i++) {
+      assertTrue(LuaUtil.load(stream("result = leaked == nil")).get("result").toboolean());
+    }
+  }
+
+  @Test
+  public void testPooledRuntimeRestoresLibraries() throws Exception {
+    LuaUtil.load(stream("string.upper = nil"));
+
+    for (int i = 0; i < 2 * Runtime.getRuntime().availableProcessors(); i++) {
+      assertEquals("A", LuaUtil.load(stream("result = string.upper('a')")).get("result").tojstring());
+    }
+  }
+
+  @Test
+  public void testPooledRuntimeIsReusedAfterError() throws Exception {
+    assertThrows(LuaError.class, () -> LuaUtil.load(stream("leaked = 1; error('failure')")));
+
+    assertTrue(LuaUtil.load(stream("result = leaked == nil")).get("result").toboolean());
+  }
+
+  private static InputStream stream(String lua) {
+    return new ByteArrayInputStream(lua.getBytes(UTF_8));
+  }
+}
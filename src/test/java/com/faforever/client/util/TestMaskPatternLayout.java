@@ -11,6 +11,8 @@ import java.net.UnknownHostException;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class TestMaskPatternLayout extends ServiceTest {
 
@@ -40,4 +42,48 @@ public class TestMaskPatternLayout extends ServiceTest {
     assertThat(cleanLogMessage, not(containsString(machineName)));
 
   }
+
+  @Test
+  public void testMaskingIgnoresCaseAndPrefersLongerValues() {
+    instance = new MaskPatternLayout("C:\\Users\\Jane", "JANE-PC", "jane");
+
+    String cleanLogMessage = instance.maskMessage("Loading c:\\users\\JANE\\game.prefs on jane-pc as Jane");
+
+    assertEquals("Loading %USER_PROFILE%\\game.prefs on %CPU_NAME% as %USER%", cleanLogMessage);
+  }
+
+  @Test
+  public void testMessageWithoutValuesIsNotCopied() {
+    instance = new MaskPatternLayout("/home/jane", "", "jane");
+    String logMessage = "Nothing to see here";
+
+    assertSame(logMessage, instance.maskMessage(logMessage));
+  }
+
+  @Test
+  public void testEmptyValuesAreIgnored() {
+    instance = new MaskPatternLayout("/home/jane", "", null);
+
+    assertEquals("%USER_PROFILE%/client.log", instance.maskMessage("/home/jane/client.log"));
+  }
+
+  @Test
+  public void testBufferIsReusedAcrossMessages() {
+    instance = new MaskPatternLayout("/home/jane", "machine", "jane");
+
+    assertEquals("%USER% on %CPU_NAME%", instance.maskMessage("jane on machine"));
+    assertEquals("%CPU_NAME%", instance.maskMessage("machine"));
+    assertEquals("x".repeat(10_000) + "%USER%", instance.maskMessage("x".repeat(10_000) + "jane"));
+    assertEquals("%USER%!", instance.maskMessage("jane!"));
+  }
+
+  @Test
+  public void testSplitIndexDoesNotSplitValues() {
+    instance = new MaskPatternLayout("/home/jane", "machine", "jane");
+
+    assertEquals(10, instance.getMaxValueLength());
+    assertEquals(3, instance.getSplitIndex("x: /home/jane", 3));
+    assertEquals(13, instance.getSplitIndex("x: /home/jane", 5));
+    assertEquals(4, instance.getSplitIndex("jane on machine", 2));
+  }
 }